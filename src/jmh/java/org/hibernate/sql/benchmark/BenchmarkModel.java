@@ -0,0 +1,229 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.sql.benchmark;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Inheritance;
+import javax.persistence.InheritanceType;
+import javax.persistence.ManyToOne;
+import javax.persistence.Table;
+
+import org.hibernate.Session;
+import org.hibernate.boot.MetadataSources;
+
+/**
+ * The domain models benchmarked, varying in "width": the number of columns selected, the
+ * number of joins and the depth of the inheritance hierarchy.  Each defines the query to
+ * benchmark, which takes a single {@code :age} parameter.
+ */
+public enum BenchmarkModel {
+	/**
+	 * A single entity, selecting few columns
+	 */
+	NARROW( "select e.name, e.age from NarrowEntity e where e.age >= :age" ) {
+		@Override
+		public void applyMetadataSources(MetadataSources metadataSources) {
+			metadataSources.addAnnotatedClass( NarrowEntity.class );
+		}
+
+		@Override
+		public void populate(Session session, int rowCount) {
+			for ( int i = 0; i < rowCount; i++ ) {
+				final NarrowEntity entity = new NarrowEntity();
+				entity.id = i;
+				entity.name = "name " + i;
+				entity.age = i;
+				session.persist( entity );
+			}
+		}
+	},
+
+	/**
+	 * A single entity, selecting many columns
+	 */
+	WIDE(
+			"select e.name, e.age, e.string1, e.string2, e.string3, e.string4, e.string5, e.string6, "
+					+ "e.long1, e.long2, e.long3, e.long4, e.double1, e.double2, e.double3, e.double4 "
+					+ "from WideEntity e where e.age >= :age"
+	) {
+		@Override
+		public void applyMetadataSources(MetadataSources metadataSources) {
+			metadataSources.addAnnotatedClass( WideEntity.class );
+		}
+
+		@Override
+		public void populate(Session session, int rowCount) {
+			for ( int i = 0; i < rowCount; i++ ) {
+				final WideEntity entity = new WideEntity();
+				entity.id = i;
+				entity.name = "name " + i;
+				entity.age = i;
+				entity.string1 = entity.string2 = entity.string3 = "string " + i;
+				entity.string4 = entity.string5 = entity.string6 = "string " + i;
+				entity.long1 = entity.long2 = entity.long3 = entity.long4 = (long) i;
+				entity.double1 = entity.double2 = entity.double3 = entity.double4 = (double) i;
+				session.persist( entity );
+			}
+		}
+	},
+
+	/**
+	 * A chain of to-one associations, joined in the query
+	 */
+	JOINED(
+			"select o.name, a.street, c.name from OwnerEntity o join o.address a join a.city c where o.age >= :age"
+	) {
+		@Override
+		public void applyMetadataSources(MetadataSources metadataSources) {
+			metadataSources.addAnnotatedClass( OwnerEntity.class );
+			metadataSources.addAnnotatedClass( AddressEntity.class );
+			metadataSources.addAnnotatedClass( CityEntity.class );
+		}
+
+		@Override
+		public void populate(Session session, int rowCount) {
+			final CityEntity city = new CityEntity();
+			city.id = 1;
+			city.name = "city";
+			session.persist( city );
+
+			for ( int i = 0; i < rowCount; i++ ) {
+				final AddressEntity address = new AddressEntity();
+				address.id = i;
+				address.street = "street " + i;
+				address.city = city;
+				session.persist( address );
+
+				final OwnerEntity owner = new OwnerEntity();
+				owner.id = i;
+				owner.name = "name " + i;
+				owner.age = i;
+				owner.address = address;
+				session.persist( owner );
+			}
+		}
+	},
+
+	/**
+	 * A (JOINED) inheritance hierarchy 3 levels deep, querying the leaf
+	 */
+	INHERITANCE( "select e.name, e.branchState, e.leafState from LeafEntity e where e.age >= :age" ) {
+		@Override
+		public void applyMetadataSources(MetadataSources metadataSources) {
+			metadataSources.addAnnotatedClass( BaseEntity.class );
+			metadataSources.addAnnotatedClass( BranchEntity.class );
+			metadataSources.addAnnotatedClass( LeafEntity.class );
+		}
+
+		@Override
+		public void populate(Session session, int rowCount) {
+			for ( int i = 0; i < rowCount; i++ ) {
+				final LeafEntity entity = new LeafEntity();
+				entity.id = i;
+				entity.name = "name " + i;
+				entity.age = i;
+				entity.branchState = "branch " + i;
+				entity.leafState = "leaf " + i;
+				session.persist( entity );
+			}
+		}
+	};
+
+	private final String query;
+
+	BenchmarkModel(String query) {
+		this.query = query;
+	}
+
+	public String getQuery() {
+		return query;
+	}
+
+	public abstract void applyMetadataSources(MetadataSources metadataSources);
+
+	public abstract void populate(Session session, int rowCount);
+
+
+	@Entity( name = "NarrowEntity" )
+	public static class NarrowEntity {
+		@Id
+		Integer id;
+		String name;
+		int age;
+	}
+
+	@Entity( name = "WideEntity" )
+	public static class WideEntity {
+		@Id
+		Integer id;
+		String name;
+		int age;
+		String string1;
+		String string2;
+		String string3;
+		String string4;
+		String string5;
+		String string6;
+		Long long1;
+		Long long2;
+		Long long3;
+		Long long4;
+		Double double1;
+		Double double2;
+		Double double3;
+		Double double4;
+	}
+
+	@Entity( name = "OwnerEntity" )
+	public static class OwnerEntity {
+		@Id
+		Integer id;
+		String name;
+		int age;
+		@ManyToOne
+		AddressEntity address;
+	}
+
+	@Entity( name = "AddressEntity" )
+	public static class AddressEntity {
+		@Id
+		Integer id;
+		String street;
+		@ManyToOne
+		CityEntity city;
+	}
+
+	@Entity( name = "CityEntity" )
+	public static class CityEntity {
+		@Id
+		Integer id;
+		String name;
+	}
+
+	@Entity( name = "BaseEntity" )
+	@Table( name = "base_entity" )
+	@Inheritance( strategy = InheritanceType.JOINED )
+	public static class BaseEntity {
+		@Id
+		Integer id;
+		String name;
+		int age;
+	}
+
+	@Entity( name = "BranchEntity" )
+	@Table( name = "branch_entity" )
+	public static class BranchEntity extends BaseEntity {
+		String branchState;
+	}
+
+	@Entity( name = "LeafEntity" )
+	@Table( name = "leaf_entity" )
+	public static class LeafEntity extends BranchEntity {
+		String leafState;
+	}
+}
@@ -0,0 +1,231 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.sql.benchmark;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.Session;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.common.internal.PersisterFactoryImpl;
+import org.hibernate.persister.internal.PersisterFactoryInitiator;
+import org.hibernate.query.internal.ConsumerContextImpl;
+import org.hibernate.query.internal.QueryImpl;
+import org.hibernate.query.internal.QueryOptionsImpl;
+import org.hibernate.query.internal.RowTransformerPassThruImpl;
+import org.hibernate.query.spi.QueryParameterBindings;
+import org.hibernate.query.spi.QueryPlan;
+import org.hibernate.sql.ast.SelectQuery;
+import org.hibernate.sql.ast.SelectStatementInterpreter;
+import org.hibernate.sql.exec.internal.ResultSetProcessingOptionsStandardImpl;
+import org.hibernate.sql.exec.results.internal.ResultSetProcessingStateStandardImpl;
+import org.hibernate.sql.exec.results.internal.RowReaderStandardImpl;
+import org.hibernate.sql.exec.results.spi.ResultSetProcessingState;
+import org.hibernate.sql.exec.results.spi.RowReader;
+import org.hibernate.sql.gen.Callback;
+import org.hibernate.sql.gen.JdbcSelectPlan;
+import org.hibernate.sql.gen.ParameterBinder;
+import org.hibernate.sql.gen.SqlTreeWalker;
+import org.hibernate.sql.gen.internal.CallbackNoOpImpl;
+import org.hibernate.sqm.SemanticQueryInterpreter;
+import org.hibernate.sqm.query.SelectStatement;
+import org.hibernate.sqm.query.Statement;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks each stage of the SQM -> SQL AST -> JDBC pipeline in isolation, as well as
+ * end-to-end query execution, against an in-memory H2 database.  Each stage is fed the
+ * (pre-built) output of the previous stage.
+ * <p/>
+ * Run via {@code gradlew jmh}, which also applies the gc profiler to report allocation rates.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.SECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class QueryPipelineBenchmark {
+	@Param( { "NARROW", "WIDE", "JOINED", "INHERITANCE" } )
+	public BenchmarkModel model;
+
+	@Param( { "100" } )
+	public int rowCount;
+
+	private SessionFactoryImplementor sessionFactory;
+	private ConsumerContextImpl consumerContext;
+	private Session session;
+
+	private QueryOptionsImpl queryOptions;
+	private Callback callback;
+	private QueryParameterBindings queryParameterBindings;
+
+	private Statement sqm;
+	private SelectQuery sqlAst;
+	private JdbcSelectPlan jdbcSelectPlan;
+	private PreparedStatement preparedStatement;
+
+	@Setup( Level.Trial )
+	public void setUp() throws Exception {
+		final StandardServiceRegistry ssr = new StandardServiceRegistryBuilder()
+				.applySetting( AvailableSettings.HBM2DDL_AUTO, "create-drop" )
+				.applySetting( PersisterFactoryInitiator.IMPL_NAME, PersisterFactoryImpl.INSTANCE )
+				.build();
+
+		try {
+			final MetadataSources metadataSources = new MetadataSources( ssr );
+			model.applyMetadataSources( metadataSources );
+
+			this.sessionFactory = (SessionFactoryImplementor) metadataSources.buildMetadata().buildSessionFactory();
+		}
+		catch (Exception e) {
+			StandardServiceRegistryBuilder.destroy( ssr );
+			throw e;
+		}
+
+		final Session populationSession = sessionFactory.openSession();
+		populationSession.beginTransaction();
+		model.populate( populationSession, rowCount );
+		populationSession.getTransaction().commit();
+		populationSession.close();
+
+		consumerContext = new ConsumerContextImpl( sessionFactory );
+		session = sessionFactory.openSession();
+
+		queryOptions = new QueryOptionsImpl();
+		callback = CallbackNoOpImpl.INSTANCE;
+
+		final QueryPlan queryPlan = consumerContext.getQueryPlanCache().resolveQueryPlan( model.getQuery(), consumerContext );
+		queryParameterBindings = new QueryParameterBindings( queryPlan.getParameterSlots() );
+		queryParameterBindings.getNamedParameterBinding( "age" ).setBindValue( 0 );
+
+		sqm = interpretSqm();
+		sqlAst = interpretSqlAst();
+		jdbcSelectPlan = queryPlan.resolveJdbcSelectPlan( queryOptions, queryParameterBindings, sessionFactory );
+
+		preparedStatement = ( (SessionImplementor) session ).getJdbcCoordinator()
+				.getLogicalConnection()
+				.getPhysicalConnection()
+				.prepareStatement( jdbcSelectPlan.getSql() );
+		bindParameters();
+	}
+
+	@TearDown( Level.Trial )
+	public void tearDown() throws SQLException {
+		if ( preparedStatement != null ) {
+			preparedStatement.close();
+		}
+		if ( session != null ) {
+			session.close();
+		}
+		if ( sessionFactory != null ) {
+			sessionFactory.close();
+		}
+	}
+
+	@Benchmark
+	public Statement interpretSqm() {
+		return SemanticQueryInterpreter.interpret( model.getQuery(), consumerContext );
+	}
+
+	@Benchmark
+	public SelectQuery interpretSqlAst() {
+		final SelectStatementInterpreter interpreter = new SelectStatementInterpreter( queryOptions, callback );
+		interpreter.interpret( (SelectStatement) sqm );
+		return interpreter.getSelectQuery();
+	}
+
+	@Benchmark
+	public String walkSqlAst() {
+		final SqlTreeWalker sqlTreeWalker = new SqlTreeWalker( sessionFactory, queryParameterBindings );
+		sqlTreeWalker.visitSelectQuery( sqlAst );
+		return sqlTreeWalker.getSql();
+	}
+
+	@Benchmark
+	public int bindParameters() throws SQLException {
+		int position = 1;
+		for ( ParameterBinder parameterBinder : jdbcSelectPlan.getParameterBinders() ) {
+			position += parameterBinder.bindParameterValue(
+					preparedStatement,
+					position,
+					queryParameterBindings,
+					(SessionImplementor) session
+			);
+		}
+		return position;
+	}
+
+	/**
+	 * Executes the (already bound) statement and reads all rows through RowReaderStandardImpl
+	 */
+	@Benchmark
+	@SuppressWarnings("unchecked")
+	public void readRows(Blackhole blackhole) throws SQLException {
+		final ResultSet resultSet = preparedStatement.executeQuery();
+		try {
+			final ResultSetProcessingState resultSetProcessingState = new ResultSetProcessingStateStandardImpl(
+					resultSet,
+					queryOptions,
+					jdbcSelectPlan.getReturns(),
+					(SessionImplementor) session
+			);
+			final RowReader<Object[]> rowReader = new RowReaderStandardImpl<Object[]>(
+					jdbcSelectPlan.getReturns(),
+					RowTransformerPassThruImpl.INSTANCE
+			);
+
+			try {
+				while ( resultSet.next() ) {
+					blackhole.consume(
+							rowReader.readRow(
+									resultSetProcessingState.getCurrentRowProcessingState(),
+									ResultSetProcessingOptionsStandardImpl.INSTANCE
+							)
+					);
+					resultSetProcessingState.getCurrentRowProcessingState().finishRowProcessing();
+				}
+				resultSetProcessingState.finishResultSetProcessing();
+			}
+			finally {
+				resultSetProcessingState.release();
+			}
+		}
+		finally {
+			resultSet.close();
+		}
+	}
+
+	@Benchmark
+	public List endToEnd() {
+		final QueryImpl query = new QueryImpl( model.getQuery(), (SessionImplementor) session, consumerContext );
+		query.setParameter( "age", 0 );
+		return query.list();
+	}
+}
@@ -12,12 +12,15 @@ import java.util.TreeMap;
 import org.hibernate.MappingException;
 
 /**
+ * Registry of the tables referenced by the metamodel.  Access is synchronized as the metamodel
+ * may be built by multiple threads (see {@link DomainMetamodelImpl}).
+ *
  * @author Steve Ebersole
  */
 public class DatabaseModel {
 	private final Map<String,PhysicalTable> tableMap = new TreeMap<String, PhysicalTable>( String.CASE_INSENSITIVE_ORDER );
 
-	public PhysicalTable findPhysicalTable(String name) {
+	public synchronized PhysicalTable findPhysicalTable(String name) {
 		final PhysicalTable match = tableMap.get( name );
 		if ( match == null ) {
 			throw new MappingException( "Not a known table : " + name );
@@ -25,7 +28,7 @@ public class DatabaseModel {
 		return match;
 	}
 
-	public PhysicalTable findOrCreatePhysicalTable(String name) {
+	public synchronized PhysicalTable findOrCreatePhysicalTable(String name) {
 		if ( tableMap.containsKey( name ) ) {
 			return tableMap.get( name );
 		}
@@ -9,12 +9,19 @@ package org.hibernate.persister.common.internal;
 import javax.persistence.TemporalType;
 import java.lang.reflect.Field;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 import org.hibernate.HibernateException;
+import org.hibernate.engine.config.spi.ConfigurationService;
 import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.internal.util.config.ConfigurationHelper;
 import org.hibernate.persister.collection.CollectionPersister;
 import org.hibernate.persister.collection.internal.ImprovedCollectionPersisterImpl;
 import org.hibernate.persister.collection.spi.ImprovedCollectionPersister;
@@ -30,14 +37,25 @@ import org.hibernate.type.EntityType;
 import org.hibernate.type.StandardBasicTypes;
 import org.hibernate.type.Type;
 
+import org.jboss.logging.Logger;
+
 /**
  * @author Steve Ebersole
  */
 public class DomainMetamodelImpl implements DomainMetamodel {
+	private static final Logger log = Logger.getLogger( DomainMetamodelImpl.class );
+
+	/**
+	 * The maximum number of threads used to build the metamodel.  Defaults to the number of
+	 * available processors; a value of 1 builds the metamodel on the calling thread.
+	 */
+	public static final String BOOTSTRAP_PARALLELISM = "hibernate.sqm.metamodel.bootstrap_parallelism";
+
 	private final DatabaseModel databaseModel  = new DatabaseModel();
 	private final SessionFactoryImplementor sessionFactory;
 
-	private final Map<Class, BasicType> basicTypeMap;
+	// accessed concurrently while the metamodel is being built
+	private final ConcurrentHashMap<Class, BasicType> basicTypeMap;
 
 	private final Map<EntityPersister, ImprovedEntityPersisterImpl> entityTypeDescriptorMap;
 	private Map<String,PolymorphicEntityTypeImpl> polymorphicEntityTypeDescriptorMap;
@@ -67,17 +85,80 @@ public class DomainMetamodelImpl implements DomainMetamodel {
 	// the improved persister contracts will just simply be part of the ORM persister contracts so
 	// no {persister}->{improved persister} mapping is needed.  Will need some thought on how to locate
 	// the "declaring ManagedType" for the improved CollectionPersister from the PersisterFactory
+	//
+	// Steps (2) and (3) are each performed in parallel (see BOOTSTRAP_PARALLELISM): in (2) each
+	// entity hierarchy is independent of the others, and in (3) each collection persister only
+	// relies on the entity persisters finalized in (2).
 	public DomainMetamodelImpl(SessionFactoryImplementor sessionFactory) {
+		final long startTime = System.nanoTime();
+
 		this.sessionFactory = sessionFactory;
 		this.basicTypeMap = buildBasicTypeMaps();
 		this.entityTypeDescriptorMap = PersisterFactoryImpl.INSTANCE.getEntityPersisterMap();
-		PersisterFactoryImpl.INSTANCE.finishUp( databaseModel, this );
-		for ( ImprovedCollectionPersister improvedCollectionPersister : collectionPersisterMap.values() ) {
-			improvedCollectionPersister.finishInitialization( databaseModel, this );
+
+		final long basicTypesTime = System.nanoTime();
+
+		final MetamodelBootstrapExecutor executor = new MetamodelBootstrapExecutor( determineParallelism( sessionFactory ) );
+		try {
+			PersisterFactoryImpl.INSTANCE.finishUp( databaseModel, this, executor );
+			final long entitiesTime = System.nanoTime();
+
+			finishCollectionPersisters( executor );
+			final long collectionsTime = System.nanoTime();
+
+			log.debugf(
+					"Built domain metamodel in %sms [basic types : %sms, %s entity persisters : %sms, %s collection persisters : %sms]",
+					TimeUnit.NANOSECONDS.toMillis( collectionsTime - startTime ),
+					TimeUnit.NANOSECONDS.toMillis( basicTypesTime - startTime ),
+					entityTypeDescriptorMap.size(),
+					TimeUnit.NANOSECONDS.toMillis( entitiesTime - basicTypesTime ),
+					collectionPersisterMap.size(),
+					TimeUnit.NANOSECONDS.toMillis( collectionsTime - entitiesTime )
+			);
+		}
+		finally {
+			executor.shutdown();
 		}
 	}
 
-	private Map<CollectionPersister, ImprovedCollectionPersister> collectionPersisterMap = new HashMap<CollectionPersister, ImprovedCollectionPersister>(  );
+	private static int determineParallelism(SessionFactoryImplementor sessionFactory) {
+		final Map settings = sessionFactory.getServiceRegistry().getService( ConfigurationService.class ).getSettings();
+		return ConfigurationHelper.getInt(
+				BOOTSTRAP_PARALLELISM,
+				settings,
+				Runtime.getRuntime().availableProcessors()
+		);
+	}
+
+	private void finishCollectionPersisters(MetamodelBootstrapExecutor executor) {
+		final List<ImprovedCollectionPersister> collectionPersisters = new ArrayList<ImprovedCollectionPersister>( collectionPersisterMap.values() );
+		Collections.sort(
+				collectionPersisters,
+				new Comparator<ImprovedCollectionPersister>() {
+					@Override
+					public int compare(ImprovedCollectionPersister o1, ImprovedCollectionPersister o2) {
+						return o1.getPersister().getRole().compareTo( o2.getPersister().getRole() );
+					}
+				}
+		);
+
+		final List<Callable<Void>> tasks = new ArrayList<Callable<Void>>( collectionPersisters.size() );
+		for ( final ImprovedCollectionPersister collectionPersister : collectionPersisters ) {
+			tasks.add(
+					new Callable<Void>() {
+						@Override
+						public Void call() {
+							collectionPersister.finishInitialization( databaseModel, DomainMetamodelImpl.this );
+							return null;
+						}
+					}
+			);
+		}
+		executor.execute( tasks );
+	}
+
+	// registered concurrently while entity hierarchies are finalized
+	private final Map<CollectionPersister, ImprovedCollectionPersister> collectionPersisterMap = new ConcurrentHashMap<CollectionPersister, ImprovedCollectionPersister>();
 
 	public void registerCollectionPersister(ImprovedCollectionPersisterImpl persister) {
 		collectionPersisterMap.put( persister.getPersister(), persister );
@@ -88,8 +169,8 @@ public class DomainMetamodelImpl implements DomainMetamodel {
 		return sessionFactory;
 	}
 
-	private static Map<Class, BasicType> buildBasicTypeMaps() {
-		final Map<Class,BasicType> map = new HashMap<Class,BasicType>();
+	private static ConcurrentHashMap<Class, BasicType> buildBasicTypeMaps() {
+		final ConcurrentHashMap<Class,BasicType> map = new ConcurrentHashMap<Class,BasicType>();
 
 		for ( Field field : StandardBasicTypes.class.getDeclaredFields() ) {
 			if ( org.hibernate.type.BasicType.class.isAssignableFrom( field.getType() ) ) {
@@ -210,7 +291,10 @@ public class DomainMetamodelImpl implements DomainMetamodel {
 
 			if ( descriptor == null ) {
 				descriptor = new BasicTypeImpl( ormBasicType );
-				basicTypeMap.put( ormBasicType.getReturnedClass(), descriptor );
+				final BasicType existing = basicTypeMap.putIfAbsent( ormBasicType.getReturnedClass(), descriptor );
+				if ( existing != null ) {
+					descriptor = existing;
+				}
 			}
 		}
 		return descriptor;
@@ -54,6 +54,9 @@ public class Helper {
 	private final Method subclassPropertyTableNumberMethod;
 	private final Method subclassPropertyColumnsMethod;
 	private final Method subclassPropertyFormulasMethod;
+	private final Method classOrSuperclassTableMethod;
+	private final Method nullableSubclassTableMethod;
+	private final Method subclassTableKeyColumnsMethod;
 
 	/**
 	 * Singleton access
@@ -73,6 +76,15 @@ public class Helper {
 
 			subclassPropertyFormulasMethod = AbstractEntityPersister.class.getDeclaredMethod( "getSubclassPropertyFormulaTemplateClosure" );
 			subclassPropertyFormulasMethod.setAccessible( true );
+
+			classOrSuperclassTableMethod = AbstractEntityPersister.class.getDeclaredMethod( "isClassOrSuperclassTable", int.class );
+			classOrSuperclassTableMethod.setAccessible( true );
+
+			nullableSubclassTableMethod = AbstractEntityPersister.class.getDeclaredMethod( "isNullableSubclassTable", int.class );
+			nullableSubclassTableMethod.setAccessible( true );
+
+			subclassTableKeyColumnsMethod = AbstractEntityPersister.class.getDeclaredMethod( "getSubclassTableKeyColumns", int.class );
+			subclassTableKeyColumnsMethod.setAccessible( true );
 		}
 		catch (Exception e) {
 			throw new HibernateException( "Unable to initialize access to AbstractEntityPersister#getSubclassTableSpan", e );
@@ -115,39 +127,106 @@ public class Helper {
 		}
 	}
 
-	public String[] getSubclassPropertyColumnExpressions(EntityPersister persister, int subclassPropertyNumber) {
+	/**
+	 * Access to the column (reader) expressions of all subclass properties, indexed by
+	 * subclass property number.  The closure is fetched as a whole so that callers iterating
+	 * the properties need only access it once per persister.
+	 */
+	public String[][] getSubclassPropertyColumnReaderClosure(EntityPersister persister) {
 		try {
-			final String[][] columnExpressions = (String[][]) subclassPropertyColumnsMethod.invoke( persister );
-			return columnExpressions[subclassPropertyNumber];
+			return (String[][]) subclassPropertyColumnsMethod.invoke( persister );
 		}
 		catch (InvocationTargetException e) {
 			throw new HibernateException(
-					"Unable to access AbstractEntityPersister#getSubclassPropertyTableNumber [" + persister.toString() + "]",
+					"Unable to access AbstractEntityPersister#getSubclassPropertyColumnReaderClosure [" + persister.toString() + "]",
 					e.getTargetException()
 			);
 		}
 		catch (Exception e) {
 			throw new HibernateException(
-					"Unable to access AbstractEntityPersister#getSubclassPropertyTableNumber [" + persister.toString() + "]",
+					"Unable to access AbstractEntityPersister#getSubclassPropertyColumnReaderClosure [" + persister.toString() + "]",
 					e
 			);
 		}
 	}
 
-	public String[] getSubclassPropertyFormulaExpressions(EntityPersister persister, int subclassPropertyNumber) {
+	/**
+	 * Access to the formula templates of all subclass properties, indexed by subclass
+	 * property number.
+	 *
+	 * @see #getSubclassPropertyColumnReaderClosure
+	 */
+	public String[][] getSubclassPropertyFormulaTemplateClosure(EntityPersister persister) {
 		try {
-			final String[][] columnExpressions = (String[][]) subclassPropertyFormulasMethod.invoke( persister );
-			return columnExpressions[subclassPropertyNumber];
+			return (String[][]) subclassPropertyFormulasMethod.invoke( persister );
 		}
 		catch (InvocationTargetException e) {
 			throw new HibernateException(
-					"Unable to access AbstractEntityPersister#getSubclassPropertyTableNumber [" + persister.toString() + "]",
+					"Unable to access AbstractEntityPersister#getSubclassPropertyFormulaTemplateClosure [" + persister.toString() + "]",
 					e.getTargetException()
 			);
 		}
 		catch (Exception e) {
 			throw new HibernateException(
-					"Unable to access AbstractEntityPersister#getSubclassPropertyTableNumber [" + persister.toString() + "]",
+					"Unable to access AbstractEntityPersister#getSubclassPropertyFormulaTemplateClosure [" + persister.toString() + "]",
+					e
+			);
+		}
+	}
+
+	/**
+	 * Is the given subclass table number one which holds state for the entity itself (or one of its
+	 * supertypes), as opposed to one of its subclasses?
+	 */
+	public boolean isClassOrSuperclassTable(EntityPersister persister, int subclassTableNumber) {
+		try {
+			return (Boolean) classOrSuperclassTableMethod.invoke( persister, subclassTableNumber );
+		}
+		catch (InvocationTargetException e) {
+			throw new HibernateException(
+					"Unable to access AbstractEntityPersister#isClassOrSuperclassTable [" + persister.toString() + "]",
+					e.getTargetException()
+			);
+		}
+		catch (Exception e) {
+			throw new HibernateException(
+					"Unable to access AbstractEntityPersister#isClassOrSuperclassTable [" + persister.toString() + "]",
+					e
+			);
+		}
+	}
+
+	public boolean isNullableSubclassTable(EntityPersister persister, int subclassTableNumber) {
+		try {
+			return (Boolean) nullableSubclassTableMethod.invoke( persister, subclassTableNumber );
+		}
+		catch (InvocationTargetException e) {
+			throw new HibernateException(
+					"Unable to access AbstractEntityPersister#isNullableSubclassTable [" + persister.toString() + "]",
+					e.getTargetException()
+			);
+		}
+		catch (Exception e) {
+			throw new HibernateException(
+					"Unable to access AbstractEntityPersister#isNullableSubclassTable [" + persister.toString() + "]",
+					e
+			);
+		}
+	}
+
+	public String[] getSubclassTableKeyColumns(EntityPersister persister, int subclassTableNumber) {
+		try {
+			return (String[]) subclassTableKeyColumnsMethod.invoke( persister, subclassTableNumber );
+		}
+		catch (InvocationTargetException e) {
+			throw new HibernateException(
+					"Unable to access AbstractEntityPersister#getSubclassTableKeyColumns [" + persister.toString() + "]",
+					e.getTargetException()
+			);
+		}
+		catch (Exception e) {
+			throw new HibernateException(
+					"Unable to access AbstractEntityPersister#getSubclassTableKeyColumns [" + persister.toString() + "]",
 					e
 			);
 		}
@@ -159,12 +238,24 @@ public class Helper {
 			Type type,
 			String[] columns,
 			String[] formulas) {
+		// e.g. a (PK) one-to-one maps no columns of its own
+		if ( columns.length == 0 ) {
+			return new Column[0];
+		}
+		return makeValues( containingTable, type.sqlTypes( factory ), columns, formulas );
+	}
+
+	public static Column[] makeValues(
+			AbstractTable containingTable,
+			int[] jdbcTypes,
+			String[] columns,
+			String[] formulas) {
 		assert formulas == null || columns.length == formulas.length;
 
 		final Column[] values = new Column[columns.length];
 
 		for ( int i = 0; i < columns.length; i++ ) {
-			final int jdbcType = type.sqlTypes( factory )[i];
+			final int jdbcType = jdbcTypes[i];
 
 			if ( columns[i] != null ) {
 				values[i] = containingTable.makeColumn( columns[i], jdbcType );
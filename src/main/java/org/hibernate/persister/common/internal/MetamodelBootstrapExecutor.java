@@ -0,0 +1,114 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.persister.common.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.hibernate.HibernateException;
+
+/**
+ * Runs independent units of metamodel initialization work (a type hierarchy, a collection
+ * persister), in parallel when more than one thread is allowed.  Each batch of tasks is run to
+ * completion before {@link #execute} returns, so work done by one batch is visible to the next.
+ * <p/>
+ * Tasks are submitted in the order given; callers order them deterministically so that any
+ * shared, get-or-create state (tables, columns) is independent of thread scheduling as far as
+ * possible.
+ */
+public class MetamodelBootstrapExecutor {
+	private final ExecutorService executorService;
+
+	public MetamodelBootstrapExecutor(int parallelism) {
+		if ( parallelism > 1 ) {
+			this.executorService = Executors.newFixedThreadPool( parallelism, new BootstrapThreadFactory() );
+		}
+		else {
+			this.executorService = null;
+		}
+	}
+
+	public void execute(List<? extends Callable<Void>> tasks) {
+		if ( executorService == null || tasks.size() < 2 ) {
+			for ( Callable<Void> task : tasks ) {
+				try {
+					task.call();
+				}
+				catch (RuntimeException e) {
+					throw e;
+				}
+				catch (Exception e) {
+					throw new HibernateException( "Unable to initialize metamodel", e );
+				}
+			}
+			return;
+		}
+
+		final List<Future<Void>> futures = new ArrayList<Future<Void>>( tasks.size() );
+		for ( Callable<Void> task : tasks ) {
+			futures.add( executorService.submit( task ) );
+		}
+
+		// wait for all tasks (even after a failure) so that none is left running against
+		// partially built state; report the first failure in submission order
+		RuntimeException failure = null;
+		for ( Future<Void> future : futures ) {
+			try {
+				future.get();
+			}
+			catch (ExecutionException e) {
+				if ( failure == null ) {
+					failure = toRuntimeException( e.getCause() );
+				}
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				if ( failure == null ) {
+					failure = new HibernateException( "Interrupted while initializing metamodel", e );
+				}
+			}
+		}
+
+		if ( failure != null ) {
+			throw failure;
+		}
+	}
+
+	private static RuntimeException toRuntimeException(Throwable cause) {
+		if ( cause instanceof RuntimeException ) {
+			return (RuntimeException) cause;
+		}
+		if ( cause instanceof Error ) {
+			throw (Error) cause;
+		}
+		return new HibernateException( "Unable to initialize metamodel", cause );
+	}
+
+	public void shutdown() {
+		if ( executorService != null ) {
+			executorService.shutdownNow();
+		}
+	}
+
+	private static class BootstrapThreadFactory implements ThreadFactory {
+		private final AtomicInteger threadNumber = new AtomicInteger();
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			final Thread thread = new Thread( runnable, "hibernate-metamodel-bootstrap-" + threadNumber.incrementAndGet() );
+			thread.setDaemon( true );
+			return thread;
+		}
+	}
+}
@@ -6,10 +6,15 @@
  */
 package org.hibernate.persister.common.internal;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
 
 import org.hibernate.HibernateException;
 import org.hibernate.cache.spi.access.CollectionRegionAccessStrategy;
@@ -50,16 +55,41 @@ public class PersisterFactoryImpl implements PersisterFactory, ServiceRegistryAw
 	private Set<TypeHierarchyNode> roots = new HashSet<TypeHierarchyNode>();
 	private Map<String,TypeHierarchyNode> nameToHierarchyNodeMap = new HashMap<String, TypeHierarchyNode>();
 
+	private static final Comparator<TypeHierarchyNode> TYPE_HIERARCHY_NODE_NAME_COMPARATOR = new Comparator<TypeHierarchyNode>() {
+		@Override
+		public int compare(TypeHierarchyNode o1, TypeHierarchyNode o2) {
+			return o1.name.compareTo( o2.name );
+		}
+	};
+
 	private Map<EntityPersister, ImprovedEntityPersisterImpl> entityPersisterMap = new HashMap<EntityPersister, ImprovedEntityPersisterImpl>();
 
 	public Map<EntityPersister, ImprovedEntityPersisterImpl> getEntityPersisterMap() {
 		return new HashMap<EntityPersister, ImprovedEntityPersisterImpl>( entityPersisterMap );
 	}
 
-	public void finishUp(DatabaseModel databaseModel, DomainMetamodelImpl domainMetamodel) {
-		for ( TypeHierarchyNode root : roots ) {
-			root.finishUp( null, databaseModel, domainMetamodel );
+	public void finishUp(
+			final DatabaseModel databaseModel,
+			final DomainMetamodelImpl domainMetamodel,
+			MetamodelBootstrapExecutor executor) {
+		// each hierarchy is independent of the others, so they can be finished concurrently.  Within
+		// a hierarchy, super types are finished before their sub types.
+		final List<TypeHierarchyNode> sortedRoots = new ArrayList<TypeHierarchyNode>( roots );
+		Collections.sort( sortedRoots, TYPE_HIERARCHY_NODE_NAME_COMPARATOR );
+
+		final List<Callable<Void>> tasks = new ArrayList<Callable<Void>>( sortedRoots.size() );
+		for ( final TypeHierarchyNode root : sortedRoots ) {
+			tasks.add(
+					new Callable<Void>() {
+						@Override
+						public Void call() {
+							root.finishUp( null, databaseModel, domainMetamodel );
+							return null;
+						}
+					}
+			);
 		}
+		executor.execute( tasks );
 
 		this.serviceRegistry = null;
 		this.delegate = null;
@@ -227,7 +257,10 @@ public class PersisterFactoryImpl implements PersisterFactory, ServiceRegistryAw
 
 		public void finishUp(IdentifiableTypeImplementor superType, DatabaseModel databaseModel, DomainMetamodelImpl domainMetamodel) {
 			type.finishInitialization( superType, typeSource , databaseModel, domainMetamodel );
-			for ( TypeHierarchyNode subTypeNode : subTypeNodes ) {
+
+			final List<TypeHierarchyNode> sortedSubTypeNodes = new ArrayList<TypeHierarchyNode>( subTypeNodes );
+			Collections.sort( sortedSubTypeNodes, TYPE_HIERARCHY_NODE_NAME_COMPARATOR );
+			for ( TypeHierarchyNode subTypeNode : sortedSubTypeNodes ) {
 				subTypeNode.finishUp( type, databaseModel, domainMetamodel );
 			}
 		}
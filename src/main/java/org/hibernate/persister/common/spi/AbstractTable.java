@@ -15,12 +15,15 @@ import org.hibernate.persister.common.internal.DerivedColumn;
 import org.hibernate.persister.common.internal.PhysicalColumn;
 
 /**
+ * Base support for Table implementations.  Column registration is synchronized as tables may be
+ * shared by hierarchies being initialized concurrently.
+ *
  * @author Steve Ebersole
  */
 public abstract class AbstractTable implements Table {
 	private final Map<String,Column> valueMap = new TreeMap<String, Column>( String.CASE_INSENSITIVE_ORDER );
 
-	public PhysicalColumn makeColumn(String name, int jdbcType) {
+	public synchronized PhysicalColumn makeColumn(String name, int jdbcType) {
 		if ( valueMap.containsKey( name ) ) {
 			// assume it is a Column
 			@SuppressWarnings("UnnecessaryLocalVariable") final PhysicalColumn existing = (PhysicalColumn) valueMap.get( name );
@@ -32,7 +35,7 @@ public abstract class AbstractTable implements Table {
 		return column;
 	}
 
-	public DerivedColumn makeFormula(String expression, int jdbcType) {
+	public synchronized DerivedColumn makeFormula(String expression, int jdbcType) {
 		// for now, we use expression as registration key but that allows reuse of formula mappings, we may want to
 		// force separate expressions in this case...
 		final String registrationKey = expression;
@@ -49,7 +52,7 @@ public abstract class AbstractTable implements Table {
 	}
 
 	@Override
-	public Column getColumn(String name) {
+	public synchronized Column getColumn(String name) {
 		final Column match = valueMap.get( name );
 		if ( match == null ) {
 			throw new MappingException( "Could not locate value : " + name );
@@ -6,7 +6,10 @@
  */
 package org.hibernate.persister.entity.internal;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.hibernate.persister.common.internal.DatabaseModel;
@@ -57,6 +60,13 @@ public class ImprovedEntityPersisterImpl implements ImprovedEntityPersister, Ent
 
 	private AbstractTable[] tables;
 
+	// for each table, whether it holds state for this entity (or a supertype) rather than a subclass
+	private boolean[] classTableFlags;
+	// for each (non-root) table, the columns joining it to the root table's key
+	private Column[][] tableKeyColumns;
+	private Column[] rootKeyColumns;
+	private List<AbstractTable> classTables;
+
 	private IdentifiableTypeImplementor superType;
 	private IdentifierDescriptorImplementor identifierDescriptor;
 
@@ -87,18 +97,41 @@ public class ImprovedEntityPersisterImpl implements ImprovedEntityPersister, Ent
 		if ( persister instanceof UnionSubclassEntityPersister ) {
 			tables = new AbstractTable[1];
 			tables[0] =  makeTableReference( databaseModel, ((UnionSubclassEntityPersister) persister).getTableName() );
+			classTableFlags = new boolean[] { true };
+			tableKeyColumns = new Column[1][];
 		}
 		else {
 			// for now we treat super, self and sub attributes here just as EntityPersister does
 			// ultimately would be better to split that across the specific persister impls and link them imo
 			final int subclassTableCount = Helper.INSTANCE.extractSubclassTableCount( persister );
 			this.tables = new AbstractTable[subclassTableCount];
+			this.classTableFlags = new boolean[subclassTableCount];
+			this.tableKeyColumns = new Column[subclassTableCount][];
 
 			tables[0] = makeTableReference( databaseModel, queryable.getSubclassTableName( 0 ) );
+			classTableFlags[0] = true;
 			for ( int i = 1; i < subclassTableCount; i++ ) {
 				tables[i] = makeTableReference( databaseModel, queryable.getSubclassTableName( i ) );
+				// a nullable (optional secondary) table does not need to have a row for every instance
+				classTableFlags[i] = Helper.INSTANCE.isClassOrSuperclassTable( persister, i )
+						&& !Helper.INSTANCE.isNullableSubclassTable( persister, i );
+				tableKeyColumns[i] = Helper.makeValues(
+						domainMetamodel.getSessionFactory(),
+						tables[i],
+						persister.getIdentifierType(),
+						Helper.INSTANCE.getSubclassTableKeyColumns( persister, i ),
+						null
+				);
+			}
+		}
+
+		final List<AbstractTable> classTables = new ArrayList<AbstractTable>();
+		for ( int i = 0; i < tables.length; i++ ) {
+			if ( classTableFlags[i] ) {
+				classTables.add( tables[i] );
 			}
 		}
+		this.classTables = Collections.unmodifiableList( classTables );
 
 		final Column[] idColumns = Helper.makeValues(
 				domainMetamodel.getSessionFactory(),
@@ -107,6 +140,7 @@ public class ImprovedEntityPersisterImpl implements ImprovedEntityPersister, Ent
 				ojlPersister.getIdentifierColumnNames(),
 				null
 		);
+		this.rootKeyColumns = idColumns;
 
 		if ( persister.getIdentifierType() instanceof BasicType ) {
 			identifierDescriptor = new IdentifierSimple(
@@ -146,6 +180,10 @@ public class ImprovedEntityPersisterImpl implements ImprovedEntityPersister, Ent
 			}
 		}
 
+		// fetch the column/formula closures once, rather than once per attribute
+		final String[][] columnClosure = Helper.INSTANCE.getSubclassPropertyColumnReaderClosure( persister );
+		final String[][] formulaClosure = Helper.INSTANCE.getSubclassPropertyFormulaTemplateClosure( persister );
+
 		final int fullAttributeCount = ( ojlPersister ).countSubclassProperties();
 		for ( int attributeNumber = 0; attributeNumber < fullAttributeCount; attributeNumber++ ) {
 			final String attributeName = ojlPersister.getSubclassPropertyName( attributeNumber );
@@ -154,8 +192,8 @@ public class ImprovedEntityPersisterImpl implements ImprovedEntityPersister, Ent
 			final org.hibernate.type.Type attributeType = ojlPersister.getSubclassPropertyType( attributeNumber );
 
 			final AbstractTable containingTable = tables[ Helper.INSTANCE.getSubclassPropertyTableNumber( persister, attributeNumber ) ];
-			final String [] columns = Helper.INSTANCE.getSubclassPropertyColumnExpressions( persister, attributeNumber );
-			final String [] formulas = Helper.INSTANCE.getSubclassPropertyFormulaExpressions( persister, attributeNumber );
+			final String [] columns = columnClosure[attributeNumber];
+			final String [] formulas = formulaClosure[attributeNumber];
 			final Column[] values = Helper.makeValues(
 					domainMetamodel.getSessionFactory(),
 					containingTable,
@@ -212,6 +250,11 @@ public class ImprovedEntityPersisterImpl implements ImprovedEntityPersister, Ent
 		return tables[0];
 	}
 
+	@Override
+	public List<AbstractTable> getClassTables() {
+		return classTables;
+	}
+
 	@Override
 	public EntityTableGroup buildTableGroup(
 			FromElement fromElement,
@@ -219,22 +262,12 @@ public class ImprovedEntityPersisterImpl implements ImprovedEntityPersister, Ent
 			SqlAliasBaseManager sqlAliasBaseManager,
 			FromClauseIndex fromClauseIndex) {
 
-		// todo : limit inclusion of subclass tables.
-		// 		we should only include subclass tables in very specific circumstances (such
-		// 		as handling persister reference in select clause, JPQL TYPE cast, subclass attribute
-		// 		de-reference, etc).  In other cases it is an unnecessary overhead to include those
-		// 		table joins
-		//
-		// however... the easiest way to accomplish this is during the SQM building to have each FromElement
-		//		keep track of all needed subclass references.  The problem is that that gets tricky with the
-		// 		design goal of having SQM be completely independent from ORM.  It basically means we will end
-		// 		up needing to expose more model and mapping information in the org.hibernate.sqm.domain.ModelMetadata
-		// 		contracts
-		//
-		// Another option would be to have exposed methods on TableSpecificationGroup to "register"
-		//		path dereferences as we interpret SQM.  The idea being that we'd capture the need for
-		//		certain subclasses as we interpret the SQM into SQL-AST via this registration.  However
-		//		since
+		// NOTE : we limit inclusion of subclass tables by "registering" path dereferences as we
+		//		interpret SQM into SQL-AST: all table joins are added to the group here, but the joins
+		//		to subclass (and optional secondary) tables are marked optional and are only rendered
+		//		if something resolves a binding to that table (AbstractTableGroup#resolveBindings) or
+		//		a TREAT requires it (EntityTableGroup#applyTreat).  Tables holding this entity's own
+		//		state are always (inner) joined.
 
 		final EntityTableGroup group = new EntityTableGroup(
 				tableSpace,
@@ -248,17 +281,32 @@ public class ImprovedEntityPersisterImpl implements ImprovedEntityPersister, Ent
 		final TableBinding drivingTableBinding = new TableBinding( tables[0], group.getAliasBase() );
 		group.setRootTableBinding( drivingTableBinding );
 
-		// todo : determine proper join type
-		JoinType joinType = JoinType.LEFT;
-		addNonRootTables( group, joinType, 0, drivingTableBinding );
+		addNonRootTables( group, JoinType.INNER, 0, drivingTableBinding );
 
 		return group;
 	}
 
-	private void addNonRootTables(AbstractTableGroup group, JoinType joinType, int baseAdjust, TableBinding entityRootTableBinding) {
+	private void addNonRootTables(AbstractTableGroup group, JoinType classTableJoinType, int baseAdjust, TableBinding entityRootTableBinding) {
 		for ( int i = 1; i < tables.length; i++ ) {
 			final TableBinding tableBinding = new TableBinding( tables[i], group.getAliasBase() + '_' + (i + (baseAdjust-1)) );
-			group.addTableSpecificationJoin( new TableJoin( joinType, tableBinding, null ) );
+
+			final Junction joinPredicate = new Junction( Junction.Nature.CONJUNCTION );
+			for ( int j = 0; j < rootKeyColumns.length; j++ ) {
+				joinPredicate.add(
+						new RelationalPredicate(
+								RelationalPredicate.Operator.EQUAL,
+								new ColumnBindingExpression( new ColumnBinding( rootKeyColumns[j], entityRootTableBinding ) ),
+								new ColumnBindingExpression( new ColumnBinding( tableKeyColumns[i][j], tableBinding ) )
+						)
+				);
+			}
+
+			if ( classTableFlags[i] ) {
+				group.addTableSpecificationJoin( new TableJoin( classTableJoinType, tableBinding, joinPredicate ) );
+			}
+			else {
+				group.addTableSpecificationJoin( new TableJoin( JoinType.LEFT, tableBinding, joinPredicate, true ) );
+			}
 		}
 	}
 
@@ -292,7 +340,7 @@ public class ImprovedEntityPersisterImpl implements ImprovedEntityPersister, Ent
 			group.addTableSpecificationJoin( new TableJoin( joinType, drivingTableBinding, joinPredicate ) );
 		}
 
-		addNonRootTables( group, joinType, baseAdjust, drivingTableBinding );
+		addNonRootTables( group, joinType == JoinType.LEFT ? JoinType.LEFT : JoinType.INNER, baseAdjust, drivingTableBinding );
 	}
 
 
@@ -6,6 +6,8 @@
  */
 package org.hibernate.persister.entity.spi;
 
+import java.util.List;
+
 import org.hibernate.persister.common.spi.AbstractTable;
 import org.hibernate.persister.common.spi.Column;
 import org.hibernate.persister.common.spi.IdentifiableTypeImplementor;
@@ -39,6 +41,14 @@ public interface ImprovedEntityPersister extends EntityType, IdentifiableTypeImp
 
 	AbstractTable getRootTable();
 
+	/**
+	 * The tables holding state for this entity type (and its supertypes), which every
+	 * instance of this type has a row in.  Does not include subclass tables.
+	 *
+	 * @return The class tables, including the root table
+	 */
+	List<AbstractTable> getClassTables();
+
 	EntityTableGroup buildTableGroup(
 			FromElement fromElement,
 			TableSpace tableSpace,
@@ -0,0 +1,26 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.query;
+
+import java.io.Closeable;
+import java.util.Iterator;
+
+import org.hibernate.Incubating;
+
+/**
+ * An Iterator over query results which holds open underlying (JDBC) resources until
+ * it is either exhausted or explicitly closed.
+ */
+@Incubating
+public interface CloseableIterator<T> extends Iterator<T>, Closeable {
+	/**
+	 * Release the underlying resources.  Calling close on an already closed (or exhausted)
+	 * iterator has no effect.
+	 */
+	@Override
+	void close();
+}
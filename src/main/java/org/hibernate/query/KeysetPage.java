@@ -0,0 +1,52 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.query;
+
+import java.io.Serializable;
+import java.util.List;
+
+import org.hibernate.Incubating;
+
+/**
+ * A page of query results obtained by keyset pagination (see {@link Query#listPage}), along
+ * with the key from which to continue with the next page.
+ */
+@Incubating
+public class KeysetPage<R> implements Serializable {
+	private final List<R> results;
+	private final Object[] nextKey;
+
+	public KeysetPage(List<R> results, Object[] nextKey) {
+		this.results = results;
+		this.nextKey = nextKey;
+	}
+
+	/**
+	 * The results of this page
+	 */
+	public List<R> getResults() {
+		return results;
+	}
+
+	/**
+	 * The key (the values of the query's ORDER BY expressions for the last result of this page)
+	 * to pass to {@link Query#listPage} for the next page.
+	 *
+	 * @return The key, or {@code null} if this page was not full and so is known to be the last
+	 */
+	public Object[] getNextKey() {
+		return nextKey;
+	}
+
+	/**
+	 * Might there be a next page?  Note that when the last page happens to be full, the
+	 * "next" page is empty.
+	 */
+	public boolean hasNextPage() {
+		return nextKey != null;
+	}
+}
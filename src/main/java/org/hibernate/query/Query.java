@@ -6,8 +6,10 @@
  */
 package org.hibernate.query;
 
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 
 import javax.persistence.TemporalType;
 
@@ -195,6 +197,17 @@ public interface Query<T extends Query,R> extends BasicQueryContract<T> {
 	 */
 	ScrollableResults scroll(ScrollMode scrollMode);
 
+	/**
+	 * Return the query results as a forward-only, lazily advanced iterator.  Rows are read from
+	 * the underlying JDBC ResultSet only as the iterator is advanced, so memory use does not
+	 * grow with the size of the result.  The JDBC resources are released once the iterator is
+	 * exhausted; callers that do not fully consume the results must call
+	 * {@link CloseableIterator#close()}.
+	 *
+	 * @return The results iterator
+	 */
+	CloseableIterator<R> stream();
+
 	/**
 	 * Return the query results as a <tt>List</tt>. If the query contains
 	 * multiple results per row, the results are returned in an instance
@@ -204,6 +217,51 @@ public interface Query<T extends Query,R> extends BasicQueryContract<T> {
 	 */
 	List<R> list();
 
+	/**
+	 * Execute the query once for each of the given sets of named parameter values, returning the
+	 * results of each execution in the same order as the binding sets.  A single PreparedStatement
+	 * is prepared and re-bound for each set, rather than one per execution.
+	 * <p/>
+	 * The values in each set are bound as if by {@link #setParameter(String, Object)}; parameters
+	 * not named in a set keep the value bound to this query.
+	 *
+	 * @param bindingSets The named parameter values for each execution
+	 *
+	 * @return The result list of each execution
+	 */
+	List<List<R>> listBatch(List<Map<String,Object>> bindingSets);
+
+	/**
+	 * Execute the query for a single page of results using keyset ("seek") pagination: rather
+	 * than skipping the rows of the previous pages (as {@link #setFirstResult} does), the
+	 * results are restricted to those following the given key - the values of the query's
+	 * ORDER BY expressions for the last result of the previous page.  Later pages therefore
+	 * cost the same as the first, given an index matching the ORDER BY.
+	 * <p/>
+	 * The query must define an ORDER BY of single-column expressions, which should be a total
+	 * ordering (e.g. end with the identifier); the key values must not be null.  Any first
+	 * result and max results set on the query are ignored.  Since a page is ordered and limited,
+	 * it cannot be split across multiple executions; a parameter list bound to more values than
+	 * fit in a single IN list is rejected with a {@link org.hibernate.QueryException}.
+	 *
+	 * @param pageSize The (maximum) number of results of the page
+	 * @param key The key of the last result of the previous page (see
+	 * {@link KeysetPage#getNextKey()}), or {@code null} for the first page
+	 *
+	 * @return The page
+	 */
+	KeysetPage<R> listPage(int pageSize, Object[] key);
+
+	/**
+	 * Count the results of the query, ignoring any first result and max results.  The count
+	 * query is derived from this query - its selections and ORDER BY are dropped, and DISTINCT
+	 * or aggregate queries are counted as a subquery - rather than being separately written and
+	 * interpreted, and is executed with the parameter values bound to this query.
+	 *
+	 * @return The number of results
+	 */
+	long count();
+
 	/**
 	 * Convenience method to return a single instance that matches
 	 * the query, or null if the query returns no results.
@@ -218,6 +276,10 @@ public interface Query<T extends Query,R> extends BasicQueryContract<T> {
 	 * Execute the update or delete statement.
 	 *
 	 * The semantics are compliant with the ejb3 Query.executeUpdate() method.
+	 * <p/>
+	 * Pending changes to the affected tables are flushed beforehand.  Afterwards, entities mapped
+	 * to the affected tables are evicted from the Session, and the second-level and query caches
+	 * of the tables are invalidated.
 	 *
 	 * @return The number of entities updated or deleted.
 	 */
@@ -352,4 +414,43 @@ public interface Query<T extends Query,R> extends BasicQueryContract<T> {
 	 */
 	Query setParameter(QueryParameter parameter, Object val, TemporalType temporalType);
 
+	/**
+	 * Bind multiple values to a positional query parameter used in an IN list, using its
+	 * inferred Type.  The number of values rendered into the SQL is padded to one of a few
+	 * fixed sizes (by repeating the last value), so that lists of differing sizes share the
+	 * same SQL.
+	 * <p/>
+	 * Lists exceeding the IN list limit of the Dialect are split across multiple executions
+	 * by {@link #list()}, provided the IN list is part of the root WHERE clause conjunction.
+	 *
+	 * @param position the position of the parameter in the query
+	 * string, numbered from <tt>0</tt>.
+	 * @param values the parameter values
+	 *
+	 * @return {@code this}, for method chaining
+	 */
+	Query setParameterList(int position, Collection values);
+
+	/**
+	 * Bind multiple values to a named query parameter used in an IN list, using its
+	 * inferred Type.  See {@link #setParameterList(int, Collection)}.
+	 *
+	 * @param name the parameter name
+	 * @param values the parameter values
+	 *
+	 * @return {@code this}, for method chaining
+	 */
+	Query setParameterList(String name, Collection values);
+
+	/**
+	 * Bind multiple values to a query parameter used in an IN list, using its inferred Type.
+	 * See {@link #setParameterList(int, Collection)}.
+	 *
+	 * @param parameter The query parameter memento
+	 * @param values the parameter values
+	 *
+	 * @return {@code this}, for method chaining
+	 */
+	Query setParameterList(QueryParameter parameter, Collection values);
+
 }
@@ -6,10 +6,21 @@
  */
 package org.hibernate.query.internal;
 
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.hibernate.ConnectionReleaseMode;
 import org.hibernate.boot.registry.classloading.spi.ClassLoaderService;
 import org.hibernate.boot.registry.classloading.spi.ClassLoadingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
 import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.internal.util.config.ConfigurationHelper;
 import org.hibernate.persister.common.internal.DomainMetamodelImpl;
+import org.hibernate.query.spi.QueryPlanCache;
+import org.hibernate.query.spi.QueryResultCache;
+import org.hibernate.sql.exec.internal.PreparedStatementCache;
 import org.hibernate.sqm.ConsumerContext;
 import org.hibernate.sqm.domain.DomainMetamodel;
 
@@ -25,11 +36,72 @@ public class ConsumerContextImpl implements ConsumerContext {
 	private final SessionFactoryImplementor sessionFactory;
 	private final ClassLoaderService classLoaderService;
 	private final DomainMetamodelImpl domainMetamodel;
+	private final QueryPlanCache queryPlanCache;
+	private final QueryResultCache queryResultCache;
+
+	private final int statementCacheSize;
+	private final int iterateBatchSize;
+	private final Map<SessionImplementor, PreparedStatementCache> statementCaches;
 
 	public ConsumerContextImpl(SessionFactoryImplementor sessionFactory) {
 		this.sessionFactory = sessionFactory;
 		this.classLoaderService = sessionFactory.getServiceRegistry().getService( ClassLoaderService.class );
 		this.domainMetamodel = new DomainMetamodelImpl( sessionFactory );
+		this.queryPlanCache = new QueryPlanCacheImpl( sessionFactory );
+		this.queryResultCache = new QueryResultCacheImpl( sessionFactory );
+
+		final Map settings = sessionFactory.getServiceRegistry().getService( ConfigurationService.class ).getSettings();
+		this.statementCacheSize = ConfigurationHelper.getInt( PreparedStatementCache.CACHE_SIZE, settings, 0 );
+		this.statementCaches = Collections.synchronizedMap( new WeakHashMap<SessionImplementor, PreparedStatementCache>() );
+		this.iterateBatchSize = ConfigurationHelper.getInt(
+				ShallowResultsIterator.BATCH_SIZE,
+				settings,
+				ShallowResultsIterator.DEFAULT_BATCH_SIZE
+		);
+	}
+
+	public QueryPlanCache getQueryPlanCache() {
+		return queryPlanCache;
+	}
+
+	public QueryResultCache getQueryResultCache() {
+		return queryResultCache;
+	}
+
+	/**
+	 * The number of rows for which Query#iterate loads entities at a time
+	 * (see {@link ShallowResultsIterator#BATCH_SIZE}).
+	 */
+	public int getIterateBatchSize() {
+		return iterateBatchSize;
+	}
+
+	/**
+	 * Resolve the PreparedStatementCache for the given Session, if statement caching is enabled
+	 * (see {@link PreparedStatementCache#CACHE_SIZE}).
+	 * <p/>
+	 * Cached statements keep the connection busy as far as the ResourceRegistry is concerned, so
+	 * no cache is used for Sessions releasing their connection after each statement.
+	 *
+	 * @param session The Session
+	 *
+	 * @return The Session's statement cache, or {@code null} if statements are not cached
+	 */
+	public PreparedStatementCache getPreparedStatementCache(SessionImplementor session) {
+		if ( statementCacheSize <= 0
+				|| session.getJdbcCoordinator().getConnectionReleaseMode() == ConnectionReleaseMode.AFTER_STATEMENT ) {
+			return null;
+		}
+
+		// caches are keyed weakly by the Session, so they go away along with it
+		synchronized ( statementCaches ) {
+			PreparedStatementCache statementCache = statementCaches.get( session );
+			if ( statementCache == null ) {
+				statementCache = new PreparedStatementCache( statementCacheSize );
+				statementCaches.put( session, statementCache );
+			}
+			return statementCache;
+		}
 	}
 
 	@Override
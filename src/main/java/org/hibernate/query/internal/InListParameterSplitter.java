@@ -0,0 +1,227 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.query.internal;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.hibernate.QueryException;
+import org.hibernate.query.NamedQueryParameter;
+import org.hibernate.query.PositionalQueryParameter;
+import org.hibernate.query.QueryParameter;
+import org.hibernate.query.spi.QueryParameterBinding;
+import org.hibernate.query.spi.QueryParameterBindings;
+import org.hibernate.sql.exec.spi.QueryOptions;
+import org.hibernate.sqm.BaseSemanticQueryWalker;
+import org.hibernate.sqm.query.QuerySpec;
+import org.hibernate.sqm.query.SelectStatement;
+import org.hibernate.sqm.query.Statement;
+import org.hibernate.sqm.query.expression.AvgFunction;
+import org.hibernate.sqm.query.expression.CountFunction;
+import org.hibernate.sqm.query.expression.CountStarFunction;
+import org.hibernate.sqm.query.expression.Expression;
+import org.hibernate.sqm.query.expression.MaxFunction;
+import org.hibernate.sqm.query.expression.MinFunction;
+import org.hibernate.sqm.query.expression.NamedParameterExpression;
+import org.hibernate.sqm.query.expression.PositionalParameterExpression;
+import org.hibernate.sqm.query.expression.SumFunction;
+import org.hibernate.sqm.query.order.OrderByClause;
+import org.hibernate.sqm.query.predicate.AndPredicate;
+import org.hibernate.sqm.query.predicate.GroupedPredicate;
+import org.hibernate.sqm.query.predicate.InListPredicate;
+import org.hibernate.sqm.query.predicate.Predicate;
+import org.hibernate.sqm.query.select.Selection;
+
+/**
+ * Splits a multi-valued parameter bound to more values than fit in a single IN list (see
+ * {@link org.hibernate.sql.gen.Helper#determineInListLimit}) into multiple sets of bindings,
+ * one per execution.
+ * <p/>
+ * Concatenating the results of those executions is only equivalent to executing the query
+ * with the complete list when each row can match at most one of the chunks and the rows
+ * are not combined; so splitting is only allowed when the parameter is the only element of a
+ * (non-negated) IN list in the conjunction making up the root WHERE clause and is referenced
+ * nowhere else in the query, and the query defines no limit, no DISTINCT, no aggregate
+ * selections and no ORDER BY (the concatenated results would only be ordered within each
+ * execution).  The bound values are de-duplicated before splitting.
+ */
+class InListParameterSplitter {
+	/**
+	 * Split the bindings, if needed.
+	 *
+	 * @return The bindings for each execution, or {@code null} if no splitting is needed
+	 */
+	static List<QueryParameterBindings> split(
+			String queryString,
+			SelectStatement sqm,
+			Set<QueryParameter> queryParameters,
+			QueryParameterBindings queryParameterBindings,
+			QueryOptions queryOptions,
+			int inListLimit) {
+		QueryParameter oversizedParameter = null;
+		for ( QueryParameter queryParameter : queryParameters ) {
+			final QueryParameterBinding binding = queryParameterBindings.getBinding( queryParameter );
+			if ( binding.isMultiValued() && binding.getBindValues().size() > inListLimit ) {
+				if ( oversizedParameter != null ) {
+					throw new QueryException(
+							"Only a single parameter may be bound to more values than the IN list limit ["
+									+ inListLimit + "]",
+							queryString
+					);
+				}
+				oversizedParameter = queryParameter;
+			}
+		}
+
+		if ( oversizedParameter == null ) {
+			return null;
+		}
+
+		if ( !isSplittable( sqm, oversizedParameter, queryOptions ) ) {
+			throw new QueryException(
+					"Parameter [" + oversizedParameter + "] is bound to more values than the IN list limit ["
+							+ inListLimit + "], but the query cannot be split into multiple executions",
+					queryString
+			);
+		}
+
+		final List<Object> values = new ArrayList<Object>(
+				new LinkedHashSet<Object>( queryParameterBindings.getBinding( oversizedParameter ).getBindValues() )
+		);
+		final List<QueryParameterBindings> splitBindings = new ArrayList<QueryParameterBindings>();
+		for ( int start = 0; start < values.size(); start += inListLimit ) {
+			final QueryParameterBindings bindings = queryParameterBindings.copy();
+			final QueryParameterBinding binding = bindings.getBinding( oversizedParameter );
+			binding.setBindValues(
+					values.subList( start, Math.min( start + inListLimit, values.size() ) ),
+					binding.getBindType()
+			);
+			splitBindings.add( bindings );
+		}
+		return splitBindings;
+	}
+
+	private static boolean isSplittable(SelectStatement sqm, QueryParameter parameter, QueryOptions queryOptions) {
+		if ( queryOptions.getLimit() != null && !queryOptions.getLimit().isEmpty() ) {
+			return false;
+		}
+
+		if ( sqm.getOrderByClause() != null && !sqm.getOrderByClause().getSortSpecifications().isEmpty() ) {
+			return false;
+		}
+
+		final QuerySpec querySpec = sqm.getQuerySpec();
+		if ( querySpec.getSelectClause().isDistinct() ) {
+			return false;
+		}
+		for ( Selection selection : querySpec.getSelectClause().getSelections() ) {
+			if ( isAggregate( selection.getExpression() ) ) {
+				return false;
+			}
+		}
+
+		if ( querySpec.getWhereClause() == null ) {
+			return false;
+		}
+		return isSplittable( querySpec.getWhereClause().getPredicate(), parameter )
+				&& ParameterReferenceCounter.countReferences( sqm, parameter ) == 1;
+	}
+
+	private static boolean isAggregate(Expression expression) {
+		return expression instanceof CountFunction
+				|| expression instanceof CountStarFunction
+				|| expression instanceof SumFunction
+				|| expression instanceof AvgFunction
+				|| expression instanceof MinFunction
+				|| expression instanceof MaxFunction;
+	}
+
+	private static boolean isSplittable(Predicate predicate, QueryParameter parameter) {
+		if ( predicate instanceof GroupedPredicate ) {
+			return isSplittable( ( (GroupedPredicate) predicate ).getSubPredicate(), parameter );
+		}
+
+		if ( predicate instanceof AndPredicate ) {
+			final AndPredicate conjunction = (AndPredicate) predicate;
+			return isSplittable( conjunction.getLeftHandPredicate(), parameter )
+					|| isSplittable( conjunction.getRightHandPredicate(), parameter );
+		}
+
+		if ( predicate instanceof InListPredicate ) {
+			final InListPredicate inListPredicate = (InListPredicate) predicate;
+			if ( inListPredicate.isNegated() ) {
+				return false;
+			}
+			// any other element of the list would be matched by each chunk
+			return inListPredicate.getListExpressions().size() == 1
+					&& references( inListPredicate.getListExpressions().get( 0 ), parameter );
+		}
+
+		return false;
+	}
+
+	private static boolean references(Expression expression, QueryParameter parameter) {
+		if ( expression instanceof NamedParameterExpression && parameter instanceof NamedQueryParameter ) {
+			return ( (NamedParameterExpression) expression ).getName().equals(
+					( (NamedQueryParameter) parameter ).getName()
+			);
+		}
+		if ( expression instanceof PositionalParameterExpression && parameter instanceof PositionalQueryParameter ) {
+			return ( (PositionalParameterExpression) expression ).getPosition()
+					== ( (PositionalQueryParameter) parameter ).getPosition();
+		}
+		return false;
+	}
+
+	/**
+	 * Counts the references to a parameter anywhere in a query.  A parameter referenced more than
+	 * once cannot be split, as a row could match different chunks at each reference.
+	 */
+	private static class ParameterReferenceCounter extends BaseSemanticQueryWalker {
+		private static int countReferences(Statement statement, QueryParameter parameter) {
+			final ParameterReferenceCounter walker = new ParameterReferenceCounter( parameter );
+			walker.visitStatement( statement );
+			return walker.count;
+		}
+
+		private final QueryParameter parameter;
+		private int count;
+
+		private ParameterReferenceCounter(QueryParameter parameter) {
+			this.parameter = parameter;
+		}
+
+		@Override
+		public Object visitNamedParameterExpression(NamedParameterExpression expression) {
+			if ( references( expression, parameter ) ) {
+				count++;
+			}
+			return super.visitNamedParameterExpression( expression );
+		}
+
+		@Override
+		public Object visitPositionalParameterExpression(PositionalParameterExpression expression) {
+			if ( references( expression, parameter ) ) {
+				count++;
+			}
+			return super.visitPositionalParameterExpression( expression );
+		}
+
+		@Override
+		public Object visitOrderByClause(OrderByClause orderByClause) {
+			if ( orderByClause == null ) {
+				return null;
+			}
+			return super.visitOrderByClause( orderByClause );
+		}
+	}
+
+	private InListParameterSplitter() {
+	}
+}
@@ -0,0 +1,139 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.query.internal;
+
+import java.util.Arrays;
+
+import org.hibernate.LockMode;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.query.spi.QueryParameterBinding;
+import org.hibernate.query.spi.QueryParameterBindings;
+import org.hibernate.sql.exec.spi.Limit;
+import org.hibernate.sql.exec.spi.QueryOptions;
+import org.hibernate.sql.gen.Helper;
+import org.hibernate.type.Type;
+
+/**
+ * Key for memoizing a {@link org.hibernate.sql.gen.JdbcSelectPlan} within a QueryPlan.  Captures
+ * the "shape" of the execution options and parameter bindings; i.e., everything (beyond the SQM
+ * itself) which can change the rendered SQL:<ul>
+ *     <li>
+ *         the explicitly bound Type of each parameter, which determines the number of
+ *         JDBC parameters ({@code ?}) rendered for that parameter
+ *     </li>
+ *     <li>
+ *         the padded number of values bound to each multi-valued (IN list) parameter
+ *     </li>
+ *     <li>
+ *         whether a first-row and/or max-rows limit is applied, and the limit values themselves
+ *         for Dialects which cannot bind them as parameters
+ *     </li>
+ *     <li>the lock mode</li>
+ * </ul>
+ */
+public class JdbcSelectPlanKey {
+	private final Type[] parameterBindTypes;
+	private final int[] parameterValueCounts;
+	private final boolean hasFirstRow;
+	private final boolean hasMaxRows;
+	private final Integer inlinedFirstRow;
+	private final Integer inlinedMaxRows;
+	private final LockMode lockMode;
+
+	private final int hashCode;
+
+	public static JdbcSelectPlanKey from(
+			QueryOptions queryOptions,
+			QueryParameterBindings queryParameterBindings,
+			SessionFactoryImplementor sessionFactory) {
+		// the bindings are captured in slot order
+		final int slotCount = queryParameterBindings.getParameterSlots().getSlotCount();
+		final Type[] parameterBindTypes = new Type[ slotCount ];
+		final int[] parameterValueCounts = new int[ slotCount ];
+		for ( int i = 0; i < parameterBindTypes.length; i++ ) {
+			final QueryParameterBinding binding = queryParameterBindings.getBinding( i );
+			parameterValueCounts[i] = -1;
+			if ( binding != null ) {
+				parameterBindTypes[i] = binding.getBindType();
+				if ( binding.isMultiValued() ) {
+					parameterValueCounts[i] = Helper.determinePaddedValueCount(
+							binding.getBindValues().size(),
+							sessionFactory.getDialect()
+					);
+				}
+			}
+		}
+
+		final Limit limit = queryOptions.getLimit();
+		final boolean hasFirstRow = limit != null && limit.hasFirstRow();
+		final boolean hasMaxRows = limit != null && limit.hasMaxRows();
+
+		// Dialects which do not support binding limit values render them into the SQL
+		final boolean inlineLimitValues = ( hasFirstRow || hasMaxRows )
+				&& !sessionFactory.getDialect().supportsVariableLimit();
+
+		return new JdbcSelectPlanKey(
+				parameterBindTypes,
+				parameterValueCounts,
+				hasFirstRow,
+				hasMaxRows,
+				inlineLimitValues ? limit.getFirstRow() : null,
+				inlineLimitValues ? limit.getMaxRows() : null,
+				queryOptions.getLockOptions() == null ? null : queryOptions.getLockOptions().getLockMode()
+		);
+	}
+
+	public JdbcSelectPlanKey(
+			Type[] parameterBindTypes,
+			int[] parameterValueCounts,
+			boolean hasFirstRow,
+			boolean hasMaxRows,
+			Integer inlinedFirstRow,
+			Integer inlinedMaxRows,
+			LockMode lockMode) {
+		this.parameterBindTypes = parameterBindTypes;
+		this.parameterValueCounts = parameterValueCounts;
+		this.hasFirstRow = hasFirstRow;
+		this.hasMaxRows = hasMaxRows;
+		this.inlinedFirstRow = inlinedFirstRow;
+		this.inlinedMaxRows = inlinedMaxRows;
+		this.lockMode = lockMode;
+
+		int result = Arrays.hashCode( parameterBindTypes );
+		result = 31 * result + Arrays.hashCode( parameterValueCounts );
+		result = 31 * result + ( hasFirstRow ? 1 : 0 );
+		result = 31 * result + ( hasMaxRows ? 1 : 0 );
+		result = 31 * result + ( inlinedFirstRow != null ? inlinedFirstRow.hashCode() : 0 );
+		result = 31 * result + ( inlinedMaxRows != null ? inlinedMaxRows.hashCode() : 0 );
+		result = 31 * result + ( lockMode != null ? lockMode.hashCode() : 0 );
+		this.hashCode = result;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if ( this == o ) {
+			return true;
+		}
+		if ( o == null || getClass() != o.getClass() ) {
+			return false;
+		}
+
+		final JdbcSelectPlanKey that = (JdbcSelectPlanKey) o;
+		return hasFirstRow == that.hasFirstRow
+				&& hasMaxRows == that.hasMaxRows
+				&& lockMode == that.lockMode
+				&& ( inlinedFirstRow == null ? that.inlinedFirstRow == null : inlinedFirstRow.equals( that.inlinedFirstRow ) )
+				&& ( inlinedMaxRows == null ? that.inlinedMaxRows == null : inlinedMaxRows.equals( that.inlinedMaxRows ) )
+				&& Arrays.equals( parameterValueCounts, that.parameterValueCounts )
+				&& Arrays.equals( parameterBindTypes, that.parameterBindTypes );
+	}
+
+	@Override
+	public int hashCode() {
+		return hashCode;
+	}
+}
@@ -6,49 +6,68 @@
  */
 package org.hibernate.query.internal;
 
+import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import javax.persistence.TemporalType;
 import javax.persistence.Tuple;
-import javax.persistence.TupleElement;
 
 import org.hibernate.LockMode;
 import org.hibernate.LockOptions;
-import org.hibernate.QueryException;
+import org.hibernate.NonUniqueResultException;
 import org.hibernate.ScrollMode;
 import org.hibernate.ScrollableResults;
+import org.hibernate.action.internal.BulkOperationCleanupAction;
+import org.hibernate.engine.spi.EntityEntry;
 import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.event.service.spi.EventListenerGroup;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.AutoFlushEvent;
+import org.hibernate.event.spi.AutoFlushEventListener;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.EventType;
 import org.hibernate.persister.common.spi.SqmTypeImplementor;
+import org.hibernate.query.CloseableIterator;
 import org.hibernate.query.IllegalQueryOperationException;
+import org.hibernate.query.KeysetPage;
 import org.hibernate.query.Query;
 import org.hibernate.query.QueryParameter;
 import org.hibernate.query.spi.QueryParameterBindings;
 import org.hibernate.query.spi.QueryPlan;
-import org.hibernate.sql.ast.SelectQuery;
+import org.hibernate.query.spi.QueryResultCache;
 import org.hibernate.sql.exec.internal.PreparedStatementCreatorScrollableForwardOnlyImpl;
 import org.hibernate.sql.exec.internal.PreparedStatementCreatorScrollableInsensitiveImpl;
 import org.hibernate.sql.exec.internal.PreparedStatementCreatorScrollableSensitiveImpl;
 import org.hibernate.sql.exec.internal.PreparedStatementCreatorStandardImpl;
 import org.hibernate.sql.exec.internal.PreparedStatementExecutorNormalImpl;
 import org.hibernate.sql.exec.internal.PreparedStatementExecutorScrollableImpl;
+import org.hibernate.sql.exec.internal.PreparedStatementCache;
+import org.hibernate.sql.exec.internal.PreparedStatementExecutorStreamingImpl;
+import org.hibernate.sql.exec.internal.QueryOptionsLimitImpl;
 import org.hibernate.sql.exec.internal.SqlTreeExecutorImpl;
+import org.hibernate.sql.exec.spi.Limit;
 import org.hibernate.sql.exec.spi.PreparedStatementCreator;
+import org.hibernate.sql.exec.spi.QueryOptions;
 import org.hibernate.sql.exec.spi.RowTransformer;
-import org.hibernate.sql.gen.Callback;
+import org.hibernate.sql.gen.Helper;
+import org.hibernate.sql.gen.JdbcMutationPlan;
+import org.hibernate.sql.gen.JdbcSelectPlan;
 import org.hibernate.sqm.ConsumerContext;
-import org.hibernate.sqm.parser.NotYetImplementedException;
 import org.hibernate.sqm.query.NonSelectStatement;
 import org.hibernate.sqm.query.SelectStatement;
 import org.hibernate.sqm.query.Statement;
 import org.hibernate.sqm.query.select.Selection;
+import org.hibernate.type.EntityType;
 import org.hibernate.type.Type;
 
 import org.jboss.logging.Logger;
 
-import static org.hibernate.sql.ast.SelectStatementInterpreter.interpret;
-
 /**
  * @author Steve Ebersole
  */
@@ -58,10 +77,18 @@ public class QueryImpl<R> extends AbstractBasicQueryContract<Query> implements Q
 	private final String queryString;
 	private final SessionImplementor session;
 
-	private final Statement sqm;
-	private final RowTransformer<R> implicitRowTransformer;
+	private final ConsumerContext consumerContext;
+	private final Class<R> resultType;
+
+	// the query is interpreted only when first needed; so the rest of the state derived from
+	// the interpretation is resolved lazily as well
+	private final QueryPlan queryPlan;
+	private RowTransformer<R> implicitRowTransformer;
+	private QueryParameterBindings queryParameterBindings;
 
-	private final QueryParameterBindings queryParameterBindings;
+	private PreparedStatementCache statementCache;
+	private boolean statementCacheResolved;
+	private final QueryResultCache resultCache;
 
 	// todo : these ctor contracts will change as we integrate this into ORM
 	// 	ultimately the SessionFactory will implement (or provide access to) ConsumerContext
@@ -80,24 +107,56 @@ public class QueryImpl<R> extends AbstractBasicQueryContract<Query> implements Q
 			ConsumerContext consumerContext) {
 		this.queryString = queryString;
 		this.session = session;
+		this.consumerContext = consumerContext;
+		this.resultType = resultType;
 
-		// todo : QueryPlanCache
-		//		for now, just always rebuild the QueryPlan
-		final QueryPlan queryPlan = QueryPlanImpl.prepare( queryString, consumerContext );
+		this.queryPlan = resolveQueryPlan( queryString, consumerContext );
+		this.resultCache = consumerContext instanceof ConsumerContextImpl
+				? ( (ConsumerContextImpl) consumerContext ).getQueryResultCache()
+				: null;
+	}
+
+	private static QueryPlan resolveQueryPlan(String queryString, ConsumerContext consumerContext) {
+		// todo : ultimately the SessionFactory will expose the QueryPlanCache directly
+		if ( consumerContext instanceof ConsumerContextImpl ) {
+			return ( (ConsumerContextImpl) consumerContext ).getQueryPlanCache().resolveQueryPlan(
+					queryString,
+					consumerContext
+			);
+		}
+		return QueryPlanImpl.prepare( queryString, consumerContext );
+	}
 
-		this.sqm = queryPlan.getSqm();
-		this.queryParameterBindings = new QueryParameterBindings( queryPlan.getQueryParameters() );
+	private Statement sqm() {
+		return queryPlan.getSqm();
+	}
 
-		if ( sqm.getType() == Statement.Type.SELECT ) {
-			this.implicitRowTransformer = determineRowTransformer( (SelectStatement) sqm, resultType );
+	private QueryParameterBindings queryParameterBindings() {
+		if ( queryParameterBindings == null ) {
+			queryParameterBindings = new QueryParameterBindings( queryPlan.getParameterSlots() );
 		}
-		else {
-			this.implicitRowTransformer = null;
+		return queryParameterBindings;
+	}
+
+	private RowTransformer<R> implicitRowTransformer() {
+		if ( implicitRowTransformer == null ) {
+			implicitRowTransformer = determineRowTransformer( (SelectStatement) sqm() );
 		}
+		return implicitRowTransformer;
+	}
+
+	private PreparedStatementCache statementCache() {
+		if ( !statementCacheResolved ) {
+			statementCache = consumerContext instanceof ConsumerContextImpl
+					? ( (ConsumerContextImpl) consumerContext ).getPreparedStatementCache( session )
+					: null;
+			statementCacheResolved = true;
+		}
+		return statementCache;
 	}
 
 	@SuppressWarnings("unchecked")
-	private RowTransformer<R> determineRowTransformer(SelectStatement sqm, Class<R> resultType) {
+	private RowTransformer<R> determineRowTransformer(SelectStatement sqm) {
 		if ( resultType != null ) {
 			// an explicit return Type was requested
 			if ( resultType.isArray() ) {
@@ -105,18 +164,8 @@ public class QueryImpl<R> extends AbstractBasicQueryContract<Query> implements Q
 			}
 
 			if ( Tuple.class.isAssignableFrom( resultType ) ) {
-				List<TupleElement<?>> tupleElements = new ArrayList<TupleElement<?>>();
-				int i = 0;
-				for ( Selection selection : sqm.getQuerySpec().getSelectClause().getSelections() ) {
-					tupleElements.add(
-							new RowTransformerTupleImpl.HqlTupleElementImpl(
-									( (SqmTypeImplementor) selection.getExpression().getExpressionType() ).getOrmType().getReturnedClass(),
-									selection.getAlias()
-							)
-					);
-				}
-
-				return (RowTransformer<R>) new RowTransformerTupleImpl( tupleElements );
+				// the Tuple metadata is shared by all queries using the plan
+				return (RowTransformer<R>) queryPlan.getTupleRowTransformer();
 			}
 
 			if ( sqm.getQuerySpec().getSelectClause().getSelections().size() > 1 ) {
@@ -133,7 +182,8 @@ public class QueryImpl<R> extends AbstractBasicQueryContract<Query> implements Q
 
 	@Override
 	protected boolean allowSelectOptions() {
-		return sqm.getType() == Statement.Type.SELECT;
+		// only used to warn about options which do not apply; not worth interpreting the query for
+		return !queryPlan.isInterpreted() || sqm().getType() == Statement.Type.SELECT;
 	}
 
 	@Override
@@ -222,55 +272,73 @@ public class QueryImpl<R> extends AbstractBasicQueryContract<Query> implements Q
 
 	@Override
 	public Query setParameter(int position, Object val) {
-		queryParameterBindings.getPositionalParameterBinding( position ).setBindValue( val );
+		queryParameterBindings().getPositionalParameterBinding( position ).setBindValue( val );
 		return this;
 	}
 
 	@Override
 	public Query setParameter(int position, Object val, Type type) {
-		queryParameterBindings.getPositionalParameterBinding( position ).setBindValue( val, type );
+		queryParameterBindings().getPositionalParameterBinding( position ).setBindValue( val, type );
 		return this;
 	}
 
 	@Override
 	public Query setParameter(int position, Object val, TemporalType temporalType) {
-		queryParameterBindings.getPositionalParameterBinding( position ).setBindValue( val, temporalType );
+		queryParameterBindings().getPositionalParameterBinding( position ).setBindValue( val, temporalType );
 		return this;
 	}
 
 	@Override
 	public Query setParameter(String name, Object val) {
-		queryParameterBindings.getNamedParameterBinding( name ).setBindValue( val );
+		queryParameterBindings().getNamedParameterBinding( name ).setBindValue( val );
 		return null;
 	}
 
 	@Override
 	public Query setParameter(String name, Object val, Type type) {
-		queryParameterBindings.getNamedParameterBinding( name ).setBindValue( val, type );
+		queryParameterBindings().getNamedParameterBinding( name ).setBindValue( val, type );
 		return null;
 	}
 
 	@Override
 	public Query setParameter(String name, Object val, TemporalType temporalType) {
-		queryParameterBindings.getNamedParameterBinding( name ).setBindValue( val, temporalType );
+		queryParameterBindings().getNamedParameterBinding( name ).setBindValue( val, temporalType );
 		return this;
 	}
 
 	@Override
 	public Query setParameter(QueryParameter parameter, Object val) {
-		queryParameterBindings.getParameterBinding( parameter ).setBindValue( val );
+		queryParameterBindings().getParameterBinding( parameter ).setBindValue( val );
 		return this;
 	}
 
 	@Override
 	public Query setParameter(QueryParameter parameter, Object val, Type type) {
-		queryParameterBindings.getParameterBinding( parameter ).setBindValue( val, type );
+		queryParameterBindings().getParameterBinding( parameter ).setBindValue( val, type );
 		return this;
 	}
 
 	@Override
 	public Query setParameter(QueryParameter parameter, Object val, TemporalType temporalType) {
-		queryParameterBindings.getParameterBinding( parameter ).setBindValue( val, temporalType );
+		queryParameterBindings().getParameterBinding( parameter ).setBindValue( val, temporalType );
+		return this;
+	}
+
+	@Override
+	public Query setParameterList(int position, Collection values) {
+		queryParameterBindings().getPositionalParameterBinding( position ).setBindValues( values );
+		return this;
+	}
+
+	@Override
+	public Query setParameterList(String name, Collection values) {
+		queryParameterBindings().getNamedParameterBinding( name ).setBindValues( values );
+		return this;
+	}
+
+	@Override
+	public Query setParameterList(QueryParameter parameter, Collection values) {
+		queryParameterBindings().getParameterBinding( parameter ).setBindValues( values );
 		return this;
 	}
 
@@ -278,11 +346,46 @@ public class QueryImpl<R> extends AbstractBasicQueryContract<Query> implements Q
 	public Iterator<R> iterate() {
 		verifyQueryIsSelect();
 
-		// todo : implement
-		throw new NotYetImplementedException( "Query#iterate not yet implemented" );
+		// the query itself reads just the identifiers of the selected entities...
+		final JdbcSelectPlan jdbcSelectPlan = queryPlan.resolveShallowJdbcSelectPlan(
+				queryOptions(),
+				queryParameterBindings(),
+				session.getFactory()
+		);
+		final List<Object[]> rows = execute( jdbcSelectPlan, queryOptions(), RowTransformerPassThruImpl.INSTANCE );
+
+		// ...the entities are loaded as the iteration reaches them
+		final List<Selection> selections = ( (SelectStatement) sqm() ).getQuerySpec().getSelectClause().getSelections();
+		final List<Integer> entityPositions = new ArrayList<Integer>();
+		final List<String> entityNames = new ArrayList<String>();
+		for ( int i = 0; i < selections.size(); i++ ) {
+			final Object selectionType = selections.get( i ).getExpression().getExpressionType();
+			if ( selectionType instanceof SqmTypeImplementor
+					&& ( (SqmTypeImplementor) selectionType ).getOrmType() instanceof EntityType ) {
+				entityPositions.add( i );
+				entityNames.add( ( (EntityType) ( (SqmTypeImplementor) selectionType ).getOrmType() ).getAssociatedEntityName() );
+			}
+		}
+
+		final int[] positions = new int[entityPositions.size()];
+		for ( int i = 0; i < positions.length; i++ ) {
+			positions[i] = entityPositions.get( i );
+		}
+
+		return new ShallowResultsIterator<R>(
+				rows,
+				positions,
+				entityNames.toArray( new String[entityNames.size()] ),
+				consumerContext instanceof ConsumerContextImpl
+						? ( (ConsumerContextImpl) consumerContext ).getIterateBatchSize()
+						: ShallowResultsIterator.DEFAULT_BATCH_SIZE,
+				implicitRowTransformer(),
+				session
+		);
 	}
 
 	private void verifyQueryIsSelect() {
+		final Statement sqm = sqm();
 		if ( !SelectStatement.class.isInstance( sqm ) ) {
 			assert sqm.getType() != Statement.Type.SELECT;
 			throw new IllegalQueryOperationException(
@@ -301,7 +404,7 @@ public class QueryImpl<R> extends AbstractBasicQueryContract<Query> implements Q
 	public ScrollableResults scroll(ScrollMode scrollMode) {
 		verifyQueryIsSelect();
 
-		final SelectQuery sqlTree = interpret( (SelectStatement) sqm, queryOptions(), new Callback() {} );
+		final JdbcSelectPlan jdbcSelectPlan = resolveJdbcSelectPlan( queryOptions() );
 		final PreparedStatementCreator creator;
 		if ( scrollMode == ScrollMode.FORWARD_ONLY ) {
 			creator = PreparedStatementCreatorScrollableForwardOnlyImpl.INSTANCE;
@@ -313,50 +416,295 @@ public class QueryImpl<R> extends AbstractBasicQueryContract<Query> implements Q
 			creator = PreparedStatementCreatorScrollableInsensitiveImpl.INSTANCE;
 		}
 		return (ScrollableResults) new SqlTreeExecutorImpl().executeSelect(
-				sqlTree,
+				jdbcSelectPlan,
 				creator,
 				PreparedStatementExecutorScrollableImpl.INSTANCE,
 				queryOptions(),
-				queryParameterBindings,
-				implicitRowTransformer,
-				new Callback() {},
+				queryParameterBindings(),
+				implicitRowTransformer(),
+				queryPlan.getStatistics(),
 				session
 		);
 	}
 
 	@Override
 	@SuppressWarnings("unchecked")
+	public CloseableIterator<R> stream() {
+		verifyQueryIsSelect();
+
+		final JdbcSelectPlan jdbcSelectPlan = resolveJdbcSelectPlan( queryOptions() );
+		return (CloseableIterator<R>) new SqlTreeExecutorImpl().executeSelect(
+				jdbcSelectPlan,
+				PreparedStatementCreatorStandardImpl.INSTANCE,
+				PreparedStatementExecutorStreamingImpl.INSTANCE,
+				queryOptions(),
+				queryParameterBindings(),
+				implicitRowTransformer(),
+				queryPlan.getStatistics(),
+				session
+		);
+	}
+
+	@Override
 	public List<R> list() {
 		verifyQueryIsSelect();
 
-		final SelectQuery sqlTree = interpret( (SelectStatement) sqm, queryOptions(), new Callback() {} );
-		return (List<R>) new SqlTreeExecutorImpl().executeSelect(
-				sqlTree,
+		final List<QueryParameterBindings> splitBindings = splitBindings( queryOptions() );
+		if ( splitBindings != null ) {
+			return concatenate( executeAll( splitBindings, queryOptions() ) );
+		}
+
+		return list( queryOptions() );
+	}
+
+	/**
+	 * IN lists too large for a single statement are split across multiple executions
+	 *
+	 * @return The bindings for each execution, or {@code null} if no splitting is needed
+	 */
+	private List<QueryParameterBindings> splitBindings(QueryOptions queryOptions) {
+		return InListParameterSplitter.split(
+				queryString,
+				(SelectStatement) sqm(),
+				queryPlan.getQueryParameters(),
+				queryParameterBindings(),
+				queryOptions,
+				Helper.determineInListLimit( session.getFactory().getDialect() )
+		);
+	}
+
+	private List<R> concatenate(List<List<R>> splitResults) {
+		final List<R> results = new ArrayList<R>();
+		for ( List<R> splitResult : splitResults ) {
+			results.addAll( splitResult );
+		}
+		return results;
+	}
+
+	private List<R> list(QueryOptions queryOptions) {
+		final JdbcSelectPlan jdbcSelectPlan = resolveJdbcSelectPlan( queryOptions );
+		if ( resultCache != null && isCacheable() ) {
+			return listCached( jdbcSelectPlan, queryOptions );
+		}
+		return execute( jdbcSelectPlan, queryOptions, implicitRowTransformer() );
+	}
+
+	private List<R> listCached(final JdbcSelectPlan jdbcSelectPlan, final QueryOptions queryOptions) {
+		// the untransformed rows are cached, so that the cached results can be shared by queries
+		// differing only in their result transformation
+		final List<Object[]> rows = resultCache.getResults(
+				jdbcSelectPlan,
+				queryParameterBindings(),
+				queryOptions,
+				session,
+				new QueryResultCache.ResultsLoader() {
+					@Override
+					public List<Object[]> load() {
+						return execute( jdbcSelectPlan, queryOptions, RowTransformerPassThruImpl.INSTANCE );
+					}
+				}
+		);
+
+		final List<R> results = new ArrayList<R>( rows.size() );
+		for ( Object[] row : rows ) {
+			results.add( implicitRowTransformer().transformRow( row ) );
+		}
+		return results;
+	}
+
+	private <T> List<T> execute(JdbcSelectPlan jdbcSelectPlan, QueryOptions queryOptions, RowTransformer<T> rowTransformer) {
+		return execute( jdbcSelectPlan, queryOptions, queryParameterBindings(), rowTransformer );
+	}
+
+	@SuppressWarnings("unchecked")
+	private <T> List<T> execute(
+			JdbcSelectPlan jdbcSelectPlan,
+			QueryOptions queryOptions,
+			QueryParameterBindings queryParameterBindings,
+			RowTransformer<T> rowTransformer) {
+		if ( statementCache() != null ) {
+			// the batch execution controls the statement's lifecycle, and so can re-use statements
+			return executeBatch(
+					jdbcSelectPlan,
+					queryOptions,
+					Collections.singletonList( queryParameterBindings ),
+					rowTransformer
+			).get( 0 );
+		}
+		return (List<T>) new SqlTreeExecutorImpl().executeSelect(
+				jdbcSelectPlan,
 				PreparedStatementCreatorStandardImpl.INSTANCE,
 				PreparedStatementExecutorNormalImpl.INSTANCE,
-				queryOptions(),
+				queryOptions,
 				queryParameterBindings,
-				implicitRowTransformer,
-				new Callback() {},
+				rowTransformer,
+				queryPlan.getStatistics(),
 				session
 		);
 	}
 
 	@Override
-	@SuppressWarnings("unchecked")
+	public List<List<R>> listBatch(List<Map<String, Object>> bindingSets) {
+		verifyQueryIsSelect();
+
+		final List<QueryParameterBindings> bindings = new ArrayList<QueryParameterBindings>( bindingSets.size() );
+		for ( Map<String, Object> bindingSet : bindingSets ) {
+			bindings.add( makeBindings( bindingSet ) );
+		}
+		return executeAll( bindings, queryOptions() );
+	}
+
+	private List<List<R>> executeAll(List<QueryParameterBindings> bindingSets, QueryOptions queryOptions) {
+		final List<List<R>> results = new ArrayList<List<R>>( bindingSets.size() );
+
+		// consecutive binding sets resolving to the same JdbcSelectPlan (which is generally all of
+		// them) are executed against a single PreparedStatement
+		JdbcSelectPlan currentPlan = null;
+		final List<QueryParameterBindings> currentBindings = new ArrayList<QueryParameterBindings>();
+		for ( QueryParameterBindings bindings : bindingSets ) {
+			final JdbcSelectPlan jdbcSelectPlan = queryPlan.resolveJdbcSelectPlan( queryOptions, bindings, session.getFactory() );
+			if ( currentPlan != null && jdbcSelectPlan != currentPlan ) {
+				results.addAll( executeBatch( currentPlan, queryOptions, currentBindings, implicitRowTransformer() ) );
+				currentBindings.clear();
+			}
+			currentPlan = jdbcSelectPlan;
+			currentBindings.add( bindings );
+		}
+		if ( currentPlan != null ) {
+			results.addAll( executeBatch( currentPlan, queryOptions, currentBindings, implicitRowTransformer() ) );
+		}
+
+		return results;
+	}
+
+	private QueryParameterBindings makeBindings(Map<String, Object> bindingSet) {
+		// start from the values bound to this query...
+		final QueryParameterBindings bindings = queryParameterBindings().copy();
+
+		// ...and apply the values of the binding set
+		for ( Map.Entry<String, Object> entry : bindingSet.entrySet() ) {
+			bindings.getNamedParameterBinding( entry.getKey() ).setBindValue( entry.getValue() );
+		}
+
+		return bindings;
+	}
+
+	private <T> List<List<T>> executeBatch(
+			JdbcSelectPlan jdbcSelectPlan,
+			QueryOptions queryOptions,
+			List<QueryParameterBindings> bindingSets,
+			RowTransformer<T> rowTransformer) {
+		return new SqlTreeExecutorImpl( statementCache() ).executeSelectBatch(
+				jdbcSelectPlan,
+				PreparedStatementCreatorStandardImpl.INSTANCE,
+				queryOptions,
+				bindingSets,
+				rowTransformer,
+				queryPlan.getStatistics(),
+				session
+		);
+	}
+
+	private JdbcSelectPlan resolveJdbcSelectPlan(QueryOptions queryOptions) {
+		return queryPlan.resolveJdbcSelectPlan( queryOptions, queryParameterBindings(), session.getFactory() );
+	}
+
+	@Override
+	public KeysetPage<R> listPage(int pageSize, Object[] key) {
+		verifyQueryIsSelect();
+		if ( pageSize <= 0 ) {
+			throw new IllegalArgumentException( "Page size must be positive : " + pageSize );
+		}
+
+		final SelectStatement sqm = (SelectStatement) sqm();
+		final int keySize = sqm.getOrderByClause() == null
+				? 0
+				: sqm.getOrderByClause().getSortSpecifications().size();
+		if ( key != null && key.length != keySize ) {
+			throw new IllegalArgumentException(
+					"Key defines " + key.length + " values, but the query's ORDER BY defines " + keySize + " expressions"
+			);
+		}
+
+		final QueryOptions queryOptions = new QueryOptionsLimitImpl( queryOptions(), new Limit( null, pageSize ) );
+
+		// the page is ordered and limited, so is never split; this rejects oversized IN lists
+		splitBindings( queryOptions );
+
+		final QueryParameterBindings bindings = queryParameterBindings().copy();
+		bindings.setKeysetValues( key );
+
+		final JdbcSelectPlan jdbcSelectPlan = queryPlan.resolveKeysetJdbcSelectPlan(
+				queryOptions,
+				bindings,
+				session.getFactory()
+		);
+		final List<Object[]> rows = execute( jdbcSelectPlan, queryOptions, bindings, RowTransformerPassThruImpl.INSTANCE );
+
+		// the key values follow the query's own selections
+		final List<R> results = new ArrayList<R>( rows.size() );
+		for ( Object[] row : rows ) {
+			results.add( implicitRowTransformer().transformRow( Arrays.copyOf( row, row.length - keySize ) ) );
+		}
+
+		Object[] nextKey = null;
+		if ( rows.size() == pageSize ) {
+			final Object[] lastRow = rows.get( rows.size() - 1 );
+			nextKey = Arrays.copyOfRange( lastRow, lastRow.length - keySize, lastRow.length );
+		}
+
+		return new KeysetPage<R>( results, nextKey );
+	}
+
+	@Override
+	public long count() {
+		verifyQueryIsSelect();
+
+		final QueryOptions queryOptions = new QueryOptionsLimitImpl( queryOptions(), null );
+		final JdbcSelectPlan jdbcSelectPlan = queryPlan.resolveCountJdbcSelectPlan(
+				queryOptions,
+				queryParameterBindings(),
+				session.getFactory()
+		);
+		final List<Object[]> rows = execute( jdbcSelectPlan, queryOptions, RowTransformerPassThruImpl.INSTANCE );
+		return ( (Number) rows.get( 0 )[0] ).longValue();
+	}
+
+	@Override
 	public R uniqueResult() {
 		verifyQueryIsSelect();
 
-		final List results = list();
-		if ( list().size() != 1 ) {
-			throw new QueryException( "Query returned more than one result" );
+		final List<R> results;
+		final boolean truncated;
+		final List<QueryParameterBindings> splitBindings = splitBindings( queryOptions() );
+		if ( splitBindings != null ) {
+			// the chunks need to be executed in full to know whether the result is unique
+			results = concatenate( executeAll( splitBindings, queryOptions() ) );
+			truncated = false;
+		}
+		else {
+			truncated = true;
+			// reading a second row is enough to know the result is not unique, so no more are fetched
+			final Limit limit = queryOptions().getLimit();
+			final Integer firstRow = limit == null ? null : limit.getFirstRow();
+			final int maxRows = limit != null && limit.hasMaxRows() ? Math.min( limit.getMaxRows(), 2 ) : 2;
+			results = list( new QueryOptionsLimitImpl( queryOptions(), new Limit( firstRow, maxRows ) ) );
 		}
 
-		return (R) results.get( 0 );
+		if ( results.isEmpty() ) {
+			return null;
+		}
+		if ( results.size() > 1 ) {
+			throw truncated
+					? new TruncatedNonUniqueResultException( results.size() )
+					: new NonUniqueResultException( results.size() );
+		}
+		return results.get( 0 );
 	}
 
 	@Override
 	public int executeUpdate() {
+		final Statement sqm = sqm();
 		if ( !NonSelectStatement.class.isInstance( sqm ) ) {
 			assert sqm.getType() == Statement.Type.SELECT;
 			throw new IllegalQueryOperationException(
@@ -364,7 +712,91 @@ public class QueryImpl<R> extends AbstractBasicQueryContract<Query> implements Q
 			);
 		}
 
-		// todo : implement
-		throw new NotYetImplementedException( "Query#executeUpdate not yet implemented" );
+		final JdbcMutationPlan jdbcMutationPlan = queryPlan.resolveJdbcMutationPlan(
+				queryOptions(),
+				queryParameterBindings(),
+				session.getFactory()
+		);
+		// pending changes to the tables are flushed first, so that the mutation sees them (and
+		// they do not later overwrite its changes)
+		autoFlush( jdbcMutationPlan.getAffectedTableNames() );
+
+		final int rowCount = new SqlTreeExecutorImpl( statementCache() ).executeMutation(
+				jdbcMutationPlan,
+				PreparedStatementCreatorStandardImpl.INSTANCE,
+				queryOptions(),
+				queryParameterBindings(),
+				queryPlan.getStatistics(),
+				session
+		);
+
+		cleanUpAfterMutation( jdbcMutationPlan.getAffectedTableNames() );
+
+		return rowCount;
+	}
+
+	private void autoFlush(Set<String> affectedTableNames) {
+		if ( !session.isEventSource() || !session.isTransactionInProgress() ) {
+			return;
+		}
+
+		final AutoFlushEvent event = new AutoFlushEvent( affectedTableNames, (EventSource) session );
+		final EventListenerGroup<AutoFlushEventListener> listeners = session.getFactory()
+				.getServiceRegistry()
+				.getService( EventListenerRegistry.class )
+				.getEventListenerGroup( EventType.AUTO_FLUSH );
+		for ( AutoFlushEventListener listener : listeners.listeners() ) {
+			listener.onAutoFlush( event );
+		}
+	}
+
+	/**
+	 * Nothing read from the changed tables before the mutation is valid after it.  As ORM does
+	 * for its own bulk operations (BulkOperationCleanupAction), the second-level cache regions and
+	 * the (query cache) UpdateTimestampsCache spaces of the tables are invalidated, as are the
+	 * QueryResultCache results read from them.  In addition, the entities held in the persistence
+	 * context which are mapped to any of the tables are evicted, so that they are re-read rather
+	 * than returned stale.
+	 */
+	private void cleanUpAfterMutation(Set<String> affectedTableNames) {
+		final BulkOperationCleanupAction cleanupAction = new BulkOperationCleanupAction( session, affectedTableNames );
+		if ( session.isEventSource() ) {
+			final EventSource eventSource = (EventSource) session;
+			eventSource.getActionQueue().addAction( cleanupAction );
+
+			for ( Map.Entry<Object, EntityEntry> entry : eventSource.getPersistenceContext().reentrantSafeEntityEntries() ) {
+				for ( Serializable querySpace : entry.getValue().getPersister().getQuerySpaces() ) {
+					if ( affectedTableNames.contains( querySpace.toString() ) ) {
+						eventSource.evict( entry.getKey() );
+						break;
+					}
+				}
+			}
+		}
+		else {
+			cleanupAction.getAfterTransactionCompletionProcess().doAfterTransactionCompletion( true, session );
+		}
+
+		if ( resultCache != null ) {
+			resultCache.invalidate( affectedTableNames );
+		}
+	}
+
+	/**
+	 * NonUniqueResultException for a result read only as far as needed to know it is not unique,
+	 * so the actual number of results is not known
+	 */
+	private static class TruncatedNonUniqueResultException extends NonUniqueResultException {
+		private final int resultCountRead;
+
+		private TruncatedNonUniqueResultException(int resultCountRead) {
+			super( resultCountRead );
+			this.resultCountRead = resultCountRead;
+		}
+
+		@Override
+		public String getMessage() {
+			return "query did not return a unique result: at least " + resultCountRead;
+		}
 	}
 }
@@ -6,6 +6,9 @@
  */
 package org.hibernate.query.internal;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import javax.persistence.TemporalType;
 
 import org.hibernate.query.spi.QueryParameterBinding;
@@ -18,6 +21,7 @@ import org.hibernate.type.Type;
 public class QueryParameterBindingImpl implements QueryParameterBinding {
 	private Type bindType;
 	private Object bindValue;
+	private List<?> bindValues;
 
 	public QueryParameterBindingImpl() {
 	}
@@ -38,6 +42,7 @@ public class QueryParameterBindingImpl implements QueryParameterBinding {
 			throw new IllegalArgumentException( "Cannot bind null to query parameter" );
 		}
 		this.bindValue = value;
+		this.bindValues = null;
 	}
 
 	@Override
@@ -46,6 +51,31 @@ public class QueryParameterBindingImpl implements QueryParameterBinding {
 		this.bindType = clarifiedType;
 	}
 
+	@Override
+	public void setBindValues(Collection<?> values) {
+		if ( values == null ) {
+			throw new IllegalArgumentException( "Cannot bind null to query parameter" );
+		}
+		this.bindValues = new ArrayList<Object>( values );
+		this.bindValue = null;
+	}
+
+	@Override
+	public void setBindValues(Collection<?> values, Type clarifiedType) {
+		setBindValues( values );
+		this.bindType = clarifiedType;
+	}
+
+	@Override
+	public boolean isMultiValued() {
+		return bindValues != null;
+	}
+
+	@Override
+	public List<?> getBindValues() {
+		return bindValues;
+	}
+
 	@Override
 	public void setBindValue(Object value, TemporalType clarifiedTemporalType) {
 		throw new NotYetImplementedException( "swapping types based on TemporalType not yet implemented" );
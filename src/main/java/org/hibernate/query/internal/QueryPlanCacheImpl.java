@@ -0,0 +1,160 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.query.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.internal.util.collections.BoundedConcurrentHashMap;
+import org.hibernate.internal.util.config.ConfigurationHelper;
+import org.hibernate.query.spi.QueryPlan;
+import org.hibernate.query.spi.QueryPlanCache;
+import org.hibernate.query.spi.QueryStatistics;
+import org.hibernate.sqm.ConsumerContext;
+
+import org.jboss.logging.Logger;
+
+/**
+ * Standard QueryPlanCache implementation.  Uses the same bounded, lock-striped map (and
+ * same setting for its size) as the legacy {@link org.hibernate.engine.query.spi.QueryPlanCache}.
+ */
+public class QueryPlanCacheImpl implements QueryPlanCache {
+	private static final Logger log = Logger.getLogger( QueryPlanCacheImpl.class );
+
+	/**
+	 * The default maximum number of plans held in the cache.
+	 */
+	public static final int DEFAULT_MAX_SIZE = 2048;
+
+	private final BoundedConcurrentHashMap<PlanCacheKey, QueryPlan> planCache;
+
+	private final AtomicLong hitCount = new AtomicLong();
+	private final AtomicLong missCount = new AtomicLong();
+	private final AtomicLong evictionCount = new AtomicLong();
+
+	public QueryPlanCacheImpl(SessionFactoryImplementor sessionFactory) {
+		this( determineMaxSize( sessionFactory ) );
+	}
+
+	public QueryPlanCacheImpl(int maxSize) {
+		log.debugf( "Building QueryPlanCache [max-size=%s]", maxSize );
+		this.planCache = new BoundedConcurrentHashMap<PlanCacheKey, QueryPlan>(
+				maxSize,
+				20,
+				BoundedConcurrentHashMap.Eviction.LIRS,
+				new BoundedConcurrentHashMap.EvictionListener<PlanCacheKey, QueryPlan>() {
+					@Override
+					public void onEntryEviction(Map<PlanCacheKey, QueryPlan> evicted) {
+						evictionCount.addAndGet( evicted.size() );
+					}
+
+					@Override
+					public void onEntryChosenForEviction(QueryPlan internalCacheEntry) {
+					}
+				}
+		);
+	}
+
+	private static int determineMaxSize(SessionFactoryImplementor sessionFactory) {
+		final Map settings = sessionFactory.getServiceRegistry().getService( ConfigurationService.class ).getSettings();
+		return ConfigurationHelper.getInt( AvailableSettings.QUERY_PLAN_CACHE_MAX_SIZE, settings, DEFAULT_MAX_SIZE );
+	}
+
+	@Override
+	public QueryPlan resolveQueryPlan(String queryString, ConsumerContext consumerContext) {
+		final PlanCacheKey key = new PlanCacheKey( queryString, consumerContext.useStrictJpaCompliance() );
+
+		QueryPlan queryPlan = planCache.get( key );
+		if ( queryPlan != null ) {
+			hitCount.incrementAndGet();
+			return queryPlan;
+		}
+
+		missCount.incrementAndGet();
+		log.tracef( "Unable to locate QueryPlan in cache; building : %s", queryString );
+
+		queryPlan = QueryPlanImpl.prepare( queryString, consumerContext );
+
+		// another thread may have built the same plan concurrently; keep only one of them
+		final QueryPlan existing = planCache.putIfAbsent( key, queryPlan );
+		return existing == null ? queryPlan : existing;
+	}
+
+	@Override
+	public void clear() {
+		planCache.clear();
+	}
+
+	@Override
+	public int size() {
+		return planCache.size();
+	}
+
+	@Override
+	public long getHitCount() {
+		return hitCount.get();
+	}
+
+	@Override
+	public long getMissCount() {
+		return missCount.get();
+	}
+
+	@Override
+	public long getEvictionCount() {
+		return evictionCount.get();
+	}
+
+	@Override
+	public List<QueryStatistics> getQueryStatistics() {
+		final List<QueryStatistics> statistics = new ArrayList<QueryStatistics>( planCache.size() );
+		for ( QueryPlan queryPlan : planCache.values() ) {
+			statistics.add( queryPlan.getStatistics() );
+		}
+		return statistics;
+	}
+
+	/**
+	 * The cache key.  Captures the query string plus the consumer options that affect
+	 * semantic interpretation of it.
+	 */
+	private static class PlanCacheKey {
+		private final String queryString;
+		private final boolean strictJpaCompliance;
+		private final int hashCode;
+
+		private PlanCacheKey(String queryString, boolean strictJpaCompliance) {
+			this.queryString = queryString;
+			this.strictJpaCompliance = strictJpaCompliance;
+			this.hashCode = 31 * queryString.hashCode() + ( strictJpaCompliance ? 1 : 0 );
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if ( this == o ) {
+				return true;
+			}
+			if ( o == null || getClass() != o.getClass() ) {
+				return false;
+			}
+
+			final PlanCacheKey that = (PlanCacheKey) o;
+			return strictJpaCompliance == that.strictJpaCompliance
+					&& queryString.equals( that.queryString );
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+	}
+}
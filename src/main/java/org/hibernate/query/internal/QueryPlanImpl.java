@@ -6,23 +6,104 @@
  */
 package org.hibernate.query.internal;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Set;
+import javax.persistence.Tuple;
+import javax.persistence.TupleElement;
 
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.internal.util.collections.BoundedConcurrentHashMap;
+import org.hibernate.persister.common.spi.SqmTypeImplementor;
+import org.hibernate.query.IllegalQueryOperationException;
 import org.hibernate.query.QueryParameter;
+import org.hibernate.query.spi.QueryParameterBindings;
+import org.hibernate.query.spi.QueryParameterSlots;
 import org.hibernate.query.spi.QueryPlan;
+import org.hibernate.query.spi.QueryStage;
+import org.hibernate.query.spi.QueryStatistics;
+import org.hibernate.sql.ast.CountQuery;
+import org.hibernate.sql.ast.DmlStatementInterpreter;
+import org.hibernate.sql.ast.KeysetPagination;
+import org.hibernate.sql.ast.MutationQuery;
+import org.hibernate.sql.ast.SelectQuery;
+import org.hibernate.sql.ast.SelectStatementInterpreter;
+import org.hibernate.sql.exec.spi.QueryOptions;
+import org.hibernate.sql.exec.spi.RowTransformer;
+import org.hibernate.sql.gen.JdbcMutationPlan;
+import org.hibernate.sql.gen.JdbcSelectPlan;
+import org.hibernate.sql.gen.SqlTreeWalker;
 import org.hibernate.sqm.ConsumerContext;
 import org.hibernate.sqm.SemanticQueryInterpreter;
+import org.hibernate.sqm.query.NonSelectStatement;
+import org.hibernate.sqm.query.SelectStatement;
 import org.hibernate.sqm.query.Statement;
+import org.hibernate.sqm.query.select.Selection;
 
 /**
+ * Thread-safe; instances are shared across Query instances via the
+ * {@link org.hibernate.query.spi.QueryPlanCache}.
+ * <p/>
+ * The query string is interpreted lazily, on first need, and the result (SQM, parameters and the
+ * memoized JdbcSelectPlans or JdbcMutationPlans) is published as a single immutable {@link Interpretation}.  A failed
+ * interpretation is not remembered; it is simply re-attempted (and fails again) on next need.
+ *
  * @author Steve Ebersole
  */
 public class QueryPlanImpl implements QueryPlan {
+	/**
+	 * Creates the plan for the given query string.  The query is not interpreted until needed.
+	 */
 	static QueryPlanImpl prepare(String queryString, ConsumerContext consumerContext) {
-		Statement sqm = SemanticQueryInterpreter.interpret(
-				queryString,
-				consumerContext
-		);
+		return new QueryPlanImpl( queryString, consumerContext );
+	}
+
+	/**
+	 * The maximum number of JdbcSelectPlans (or JdbcMutationPlans) memoized per QueryPlan.  Generally a given query
+	 * only ever sees a handful of distinct "shapes".
+	 */
+	private static final int MAX_JDBC_SELECT_PLANS = 32;
+
+	private final String queryString;
+	private final ConsumerContext consumerContext;
+	private final QueryStatistics statistics;
+
+	private volatile Interpretation interpretation;
+
+	// built lazily; a race simply builds an equivalent transformer more than once
+	private volatile RowTransformer<Tuple> tupleRowTransformer;
+
+	private QueryPlanImpl(String queryString, ConsumerContext consumerContext) {
+		this.queryString = queryString;
+		this.consumerContext = consumerContext;
+		this.statistics = new QueryStatisticsImpl( queryString );
+	}
+
+	public QueryPlanImpl(Statement sqm, Set<QueryParameter> queryParameters, QueryStatistics statistics) {
+		this.queryString = null;
+		this.consumerContext = null;
+		this.statistics = statistics;
+		this.interpretation = new Interpretation( sqm, queryParameters );
+	}
+
+	private Interpretation interpretation() {
+		Interpretation result = interpretation;
+		if ( result == null ) {
+			synchronized ( this ) {
+				result = interpretation;
+				if ( result == null ) {
+					result = interpret();
+					interpretation = result;
+				}
+			}
+		}
+		return result;
+	}
+
+	private Interpretation interpret() {
+		final long start = System.nanoTime();
+		final Statement sqm = SemanticQueryInterpreter.interpret( queryString, consumerContext );
 
 		// todo : reconsider this aspect of building QueryParameterBindings
 		//		the concern here is performance only.  What happens is that we end up walking the
@@ -36,26 +117,296 @@ public class QueryPlanImpl implements QueryPlan {
 		//		we would call out the the `ExpressionListener` for any Expression objects built.
 		//		We could also generalize this to apply as a specialized case of `SemanticQueryWalker`
 		//		for consumers of the SQM
-		Set<QueryParameter> queryParameters = QueryParameterExtractor.getQueryParameters( sqm );
+		final Set<QueryParameter> queryParameters = QueryParameterExtractor.getQueryParameters( sqm );
 
-		return new QueryPlanImpl( sqm, queryParameters );
-	}
-
-	private final Statement sqm;
-	private final Set<QueryParameter> queryParameters;
+		statistics.stageCompleted( QueryStage.SQM_INTERPRETATION, System.nanoTime() - start );
 
-	public QueryPlanImpl(Statement sqm, Set<QueryParameter> queryParameters) {
-		this.sqm = sqm;
-		this.queryParameters = queryParameters;
+		return new Interpretation( sqm, queryParameters );
 	}
 
 	@Override
 	public Statement getSqm() {
-		return sqm;
+		return interpretation().sqm;
 	}
 
 	@Override
 	public Set<QueryParameter> getQueryParameters() {
-		return queryParameters;
+		return interpretation().queryParameters;
+	}
+
+	@Override
+	public QueryParameterSlots getParameterSlots() {
+		return interpretation().parameterSlots;
+	}
+
+	@Override
+	public boolean isInterpreted() {
+		return interpretation != null;
+	}
+
+	@Override
+	public QueryStatistics getStatistics() {
+		return statistics;
+	}
+
+	@Override
+	public JdbcSelectPlan resolveJdbcSelectPlan(
+			QueryOptions queryOptions,
+			QueryParameterBindings queryParameterBindings,
+			SessionFactoryImplementor sessionFactory) {
+		return resolveJdbcSelectPlan( SelectPlanVariant.STANDARD, queryOptions, queryParameterBindings, sessionFactory );
+	}
+
+	@Override
+	public JdbcSelectPlan resolveShallowJdbcSelectPlan(
+			QueryOptions queryOptions,
+			QueryParameterBindings queryParameterBindings,
+			SessionFactoryImplementor sessionFactory) {
+		return resolveJdbcSelectPlan( SelectPlanVariant.SHALLOW, queryOptions, queryParameterBindings, sessionFactory );
+	}
+
+	@Override
+	public JdbcSelectPlan resolveKeysetJdbcSelectPlan(
+			QueryOptions queryOptions,
+			QueryParameterBindings queryParameterBindings,
+			SessionFactoryImplementor sessionFactory) {
+		return resolveJdbcSelectPlan(
+				queryParameterBindings.getKeysetValues() == null
+						? SelectPlanVariant.KEYSET_FIRST_PAGE
+						: SelectPlanVariant.KEYSET_NEXT_PAGE,
+				queryOptions,
+				queryParameterBindings,
+				sessionFactory
+		);
+	}
+
+	@Override
+	public JdbcSelectPlan resolveCountJdbcSelectPlan(
+			QueryOptions queryOptions,
+			QueryParameterBindings queryParameterBindings,
+			SessionFactoryImplementor sessionFactory) {
+		return resolveJdbcSelectPlan( SelectPlanVariant.COUNT, queryOptions, queryParameterBindings, sessionFactory );
+	}
+
+	private JdbcSelectPlan resolveJdbcSelectPlan(
+			SelectPlanVariant variant,
+			QueryOptions queryOptions,
+			QueryParameterBindings queryParameterBindings,
+			SessionFactoryImplementor sessionFactory) {
+		final Interpretation interpretation = interpretation();
+		final Statement sqm = interpretation.sqm;
+		final BoundedConcurrentHashMap<SelectPlanKey, JdbcSelectPlan> jdbcSelectPlans = interpretation.jdbcSelectPlans;
+		if ( jdbcSelectPlans == null ) {
+			throw new IllegalQueryOperationException(
+					"Query is not a SELECT statement [" + sqm.getType().name() + "]"
+			);
+		}
+
+		final SelectPlanKey key = new SelectPlanKey(
+				variant,
+				JdbcSelectPlanKey.from( queryOptions, queryParameterBindings, sessionFactory )
+		);
+
+		JdbcSelectPlan jdbcSelectPlan = jdbcSelectPlans.get( key );
+		if ( jdbcSelectPlan == null ) {
+			final long start = System.nanoTime();
+			final SelectQuery sqlTree = SelectStatementInterpreter.interpret(
+					(SelectStatement) sqm,
+					queryOptions,
+					statistics
+			);
+			CountQuery countQuery = null;
+			if ( variant == SelectPlanVariant.KEYSET_FIRST_PAGE || variant == SelectPlanVariant.KEYSET_NEXT_PAGE ) {
+				KeysetPagination.apply( sqlTree, variant == SelectPlanVariant.KEYSET_NEXT_PAGE, sessionFactory );
+			}
+			else if ( variant == SelectPlanVariant.COUNT ) {
+				countQuery = CountQuery.from( sqlTree );
+			}
+			final long interpreted = System.nanoTime();
+			statistics.stageCompleted( QueryStage.SQL_AST_INTERPRETATION, interpreted - start );
+
+			final SqlTreeWalker sqlTreeWalker = new SqlTreeWalker(
+					sessionFactory,
+					queryParameterBindings,
+					variant == SelectPlanVariant.SHALLOW
+			);
+			if ( countQuery != null ) {
+				sqlTreeWalker.visitCountQuery( countQuery );
+			}
+			else {
+				sqlTreeWalker.visitSelectQuery( sqlTree );
+			}
+			jdbcSelectPlan = sqlTreeWalker.toJdbcSelectPlan( queryOptions );
+			statistics.stageCompleted( QueryStage.SQL_RENDERING, System.nanoTime() - interpreted );
+			statistics.sqlRendered( jdbcSelectPlan.getSql().length() );
+
+			final JdbcSelectPlan existing = jdbcSelectPlans.putIfAbsent( key, jdbcSelectPlan );
+			if ( existing != null ) {
+				jdbcSelectPlan = existing;
+			}
+		}
+
+		return jdbcSelectPlan;
+	}
+
+	@Override
+	public JdbcMutationPlan resolveJdbcMutationPlan(
+			QueryOptions queryOptions,
+			QueryParameterBindings queryParameterBindings,
+			SessionFactoryImplementor sessionFactory) {
+		final Interpretation interpretation = interpretation();
+		final Statement sqm = interpretation.sqm;
+		final BoundedConcurrentHashMap<JdbcSelectPlanKey, JdbcMutationPlan> jdbcMutationPlans = interpretation.jdbcMutationPlans;
+		if ( jdbcMutationPlans == null ) {
+			throw new IllegalQueryOperationException(
+					"Query is not an UPDATE, DELETE or INSERT statement [" + sqm.getType().name() + "]"
+			);
+		}
+
+		final JdbcSelectPlanKey key = JdbcSelectPlanKey.from(
+				queryOptions,
+				queryParameterBindings,
+				sessionFactory
+		);
+
+		JdbcMutationPlan jdbcMutationPlan = jdbcMutationPlans.get( key );
+		if ( jdbcMutationPlan == null ) {
+			final long start = System.nanoTime();
+			final MutationQuery sqlTree = DmlStatementInterpreter.interpret(
+					(NonSelectStatement) sqm,
+					queryOptions,
+					statistics
+			);
+			final long interpreted = System.nanoTime();
+			statistics.stageCompleted( QueryStage.SQL_AST_INTERPRETATION, interpreted - start );
+
+			final SqlTreeWalker sqlTreeWalker = new SqlTreeWalker( sessionFactory, queryParameterBindings );
+			sqlTree.accept( sqlTreeWalker );
+			jdbcMutationPlan = sqlTreeWalker.toJdbcMutationPlan();
+			statistics.stageCompleted( QueryStage.SQL_RENDERING, System.nanoTime() - interpreted );
+			statistics.sqlRendered( jdbcMutationPlan.getSql().length() );
+
+			final JdbcMutationPlan existing = jdbcMutationPlans.putIfAbsent( key, jdbcMutationPlan );
+			if ( existing != null ) {
+				jdbcMutationPlan = existing;
+			}
+		}
+
+		return jdbcMutationPlan;
+	}
+
+	@Override
+	public RowTransformer<Tuple> getTupleRowTransformer() {
+		final Statement sqm = getSqm();
+		if ( sqm.getType() != Statement.Type.SELECT ) {
+			throw new IllegalQueryOperationException(
+					"Query is not a SELECT statement [" + sqm.getType().name() + "]"
+			);
+		}
+
+		RowTransformer<Tuple> transformer = tupleRowTransformer;
+		if ( transformer == null ) {
+			final List<TupleElement<?>> tupleElements = new ArrayList<TupleElement<?>>();
+			for ( Selection selection : ( (SelectStatement) sqm ).getQuerySpec().getSelectClause().getSelections() ) {
+				tupleElements.add(
+						new RowTransformerTupleImpl.HqlTupleElementImpl(
+								( (SqmTypeImplementor) selection.getExpression().getExpressionType() ).getOrmType().getReturnedClass(),
+								selection.getAlias()
+						)
+				);
+			}
+			transformer = new RowTransformerTupleImpl( tupleElements );
+			tupleRowTransformer = transformer;
+		}
+		return transformer;
+	}
+
+	/**
+	 * The different renderings of a SELECT query
+	 */
+	private enum SelectPlanVariant {
+		STANDARD,
+		/**
+		 * Selected entities are represented by just their identifier (Query#iterate)
+		 */
+		SHALLOW,
+		/**
+		 * The ORDER BY expressions are additionally selected (Query#listPage)
+		 */
+		KEYSET_FIRST_PAGE,
+		/**
+		 * As KEYSET_FIRST_PAGE, and restricted to the rows following a key
+		 */
+		KEYSET_NEXT_PAGE,
+		/**
+		 * The count of the results (Query#count)
+		 */
+		COUNT
+	}
+
+	private static class SelectPlanKey {
+		private final SelectPlanVariant variant;
+		private final JdbcSelectPlanKey jdbcSelectPlanKey;
+
+		private SelectPlanKey(SelectPlanVariant variant, JdbcSelectPlanKey jdbcSelectPlanKey) {
+			this.variant = variant;
+			this.jdbcSelectPlanKey = jdbcSelectPlanKey;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if ( this == o ) {
+				return true;
+			}
+			if ( o == null || getClass() != o.getClass() ) {
+				return false;
+			}
+
+			final SelectPlanKey that = (SelectPlanKey) o;
+			return variant == that.variant && jdbcSelectPlanKey.equals( that.jdbcSelectPlanKey );
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * variant.hashCode() + jdbcSelectPlanKey.hashCode();
+		}
+	}
+
+	/**
+	 * The (immutable) results of interpreting the query string
+	 */
+	private static class Interpretation {
+		private final Statement sqm;
+		private final Set<QueryParameter> queryParameters;
+
+		// the slot of each parameter's binding, shared by all bindings for this plan
+		private final QueryParameterSlots parameterSlots;
+		private final BoundedConcurrentHashMap<SelectPlanKey, JdbcSelectPlan> jdbcSelectPlans;
+		private final BoundedConcurrentHashMap<JdbcSelectPlanKey, JdbcMutationPlan> jdbcMutationPlans;
+
+		private Interpretation(Statement sqm, Set<QueryParameter> queryParameters) {
+			this.sqm = sqm;
+			this.queryParameters = queryParameters == null
+					? Collections.<QueryParameter>emptySet()
+					: Collections.unmodifiableSet( queryParameters );
+			this.parameterSlots = new QueryParameterSlots( this.queryParameters );
+
+			if ( sqm.getType() == Statement.Type.SELECT ) {
+				this.jdbcSelectPlans = new BoundedConcurrentHashMap<SelectPlanKey, JdbcSelectPlan>(
+						MAX_JDBC_SELECT_PLANS,
+						4,
+						BoundedConcurrentHashMap.Eviction.LRU
+				);
+				this.jdbcMutationPlans = null;
+			}
+			else {
+				this.jdbcSelectPlans = null;
+				this.jdbcMutationPlans = new BoundedConcurrentHashMap<JdbcSelectPlanKey, JdbcMutationPlan>(
+						MAX_JDBC_SELECT_PLANS,
+						4,
+						BoundedConcurrentHashMap.Eviction.LRU
+				);
+			}
+		}
 	}
 }
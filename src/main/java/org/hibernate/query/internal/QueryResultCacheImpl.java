@@ -0,0 +1,467 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.query.internal;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.hibernate.CacheMode;
+import org.hibernate.HibernateException;
+import org.hibernate.boot.registry.classloading.spi.ClassLoaderService;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cache.spi.UpdateTimestampsCache;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.query.spi.QueryParameterBinding;
+import org.hibernate.query.spi.QueryParameterBindings;
+import org.hibernate.query.spi.QueryResultCache;
+import org.hibernate.query.spi.QueryResultRegion;
+import org.hibernate.query.spi.QueryResultRegionFactory;
+import org.hibernate.sql.ast.expression.AbstractParameter;
+import org.hibernate.sql.exec.results.internal.ReturnReaderScalarImpl;
+import org.hibernate.sql.exec.results.spi.ReturnReader;
+import org.hibernate.sql.exec.spi.Limit;
+import org.hibernate.sql.exec.spi.QueryOptions;
+import org.hibernate.sql.gen.JdbcSelectPlan;
+import org.hibernate.sql.gen.ParameterBinder;
+import org.hibernate.sql.gen.Return;
+import org.hibernate.type.Type;
+import org.hibernate.type.descriptor.java.JavaTypeDescriptor;
+import org.hibernate.type.descriptor.java.JavaTypeDescriptorRegistry;
+import org.hibernate.type.descriptor.java.MutabilityPlan;
+
+import org.jboss.logging.Logger;
+
+/**
+ * Standard QueryResultCache implementation.
+ * <p/>
+ * Results are cached as a single flat array of the row values, each disassembled through the
+ * {@link MutabilityPlan} of its Java type.  Only results made up of basic values are cached;
+ * results including entities or dynamic instantiations are always read from the database.
+ * <p/>
+ * Staleness is tracked per table (the {@link JdbcSelectPlan#getAffectedTableNames() tables the
+ * SQL reads from}): cached results are used only if none of their tables were invalidated since
+ * the results were read.  Tables are invalidated through {@link #invalidate}, which is called
+ * for SQM UPDATE/DELETE/INSERT executions and (through {@link QueryResultCacheInvalidator}) for
+ * the entity and collection changes Sessions flush.  When ORM's query cache is enabled, the
+ * invalidations ORM records (in its {@link UpdateTimestampsCache}) are honored as well.
+ */
+public class QueryResultCacheImpl implements QueryResultCache {
+	private static final Logger log = Logger.getLogger( QueryResultCacheImpl.class );
+
+	/**
+	 * Setting naming the {@link QueryResultRegionFactory} to use, as an instance, Class or class
+	 * name.  By default, results are cached in-process (see {@link QueryResultRegionInMemoryImpl}).
+	 */
+	public static final String REGION_FACTORY = "hibernate.sqm.query_result_cache.region_factory";
+
+	/**
+	 * The name of the region used for queries not naming one
+	 */
+	public static final String DEFAULT_REGION_NAME = QueryResultCache.class.getName();
+
+	private final SessionFactoryImplementor sessionFactory;
+	private final Map configurationValues;
+	private final QueryResultRegionFactory regionFactory;
+	private final ConcurrentHashMap<String, QueryResultRegion> regions = new ConcurrentHashMap<String, QueryResultRegion>();
+
+	// the timestamp of the last invalidation of each table
+	private final ConcurrentHashMap<String, Long> invalidationTimestamps = new ConcurrentHashMap<String, Long>();
+	private final AtomicLong clock = new AtomicLong();
+
+	// ORM's own table timestamps; only maintained when its query cache is enabled
+	private final UpdateTimestampsCache updateTimestampsCache;
+	private final RegionFactory timestampSource;
+
+	private final AtomicLong hitCount = new AtomicLong();
+	private final AtomicLong missCount = new AtomicLong();
+	private final AtomicLong putCount = new AtomicLong();
+
+	public QueryResultCacheImpl(SessionFactoryImplementor sessionFactory) {
+		this.sessionFactory = sessionFactory;
+		this.configurationValues = sessionFactory.getServiceRegistry().getService( ConfigurationService.class ).getSettings();
+		this.regionFactory = resolveRegionFactory(
+				configurationValues.get( REGION_FACTORY ),
+				sessionFactory.getServiceRegistry().getService( ClassLoaderService.class )
+		);
+
+		new QueryResultCacheInvalidator( this ).register(
+				sessionFactory.getServiceRegistry().getService( EventListenerRegistry.class )
+		);
+
+		if ( sessionFactory.getSessionFactoryOptions().isQueryCacheEnabled() ) {
+			this.updateTimestampsCache = sessionFactory.getUpdateTimestampsCache();
+			this.timestampSource = sessionFactory.getServiceRegistry().getService( RegionFactory.class );
+		}
+		else {
+			this.updateTimestampsCache = null;
+			this.timestampSource = null;
+		}
+	}
+
+	private static QueryResultRegionFactory resolveRegionFactory(Object setting, ClassLoaderService classLoaderService) {
+		if ( setting == null ) {
+			return QueryResultRegionInMemoryImpl.FACTORY;
+		}
+		if ( setting instanceof QueryResultRegionFactory ) {
+			return (QueryResultRegionFactory) setting;
+		}
+
+		final Class factoryClass = setting instanceof Class
+				? (Class) setting
+				: classLoaderService.classForName( setting.toString() );
+		try {
+			return (QueryResultRegionFactory) factoryClass.newInstance();
+		}
+		catch (Exception e) {
+			throw new HibernateException( "Unable to instantiate QueryResultRegionFactory [" + setting + "]", e );
+		}
+	}
+
+	@Override
+	public List<Object[]> getResults(
+			JdbcSelectPlan jdbcSelectPlan,
+			QueryParameterBindings queryParameterBindings,
+			QueryOptions queryOptions,
+			SessionImplementor session,
+			ResultsLoader loader) {
+		final CacheMode cacheMode = queryOptions.getCacheMode() == null
+				? session.getCacheMode()
+				: queryOptions.getCacheMode();
+		if ( !cacheMode.isGetEnabled() && !cacheMode.isPutEnabled() ) {
+			return loader.load();
+		}
+
+		final Set<String> tableNames = jdbcSelectPlan.getAffectedTableNames();
+		final MutabilityPlan[] mutabilityPlans = resolveMutabilityPlans( jdbcSelectPlan );
+		final QueryResultKey key = tableNames == null || mutabilityPlans == null
+				? null
+				: QueryResultKey.from( jdbcSelectPlan, queryParameterBindings, queryOptions, sessionFactory );
+		if ( key == null ) {
+			log.debugf( "Results of query cannot be cached : %s", jdbcSelectPlan.getSql() );
+			return loader.load();
+		}
+
+		final QueryResultRegion region = resolveRegion( queryOptions.getResultCacheRegionName() );
+		if ( cacheMode.isGetEnabled() ) {
+			final CachedResults cachedResults = (CachedResults) region.get( key );
+			if ( cachedResults != null && isUpToDate( cachedResults, tableNames, session ) ) {
+				hitCount.incrementAndGet();
+				return cachedResults.assemble( mutabilityPlans );
+			}
+			missCount.incrementAndGet();
+		}
+
+		// taken before the execution, so that changes made while executing make the results stale
+		final long timestamp = nextTimestamp();
+		final List<Object[]> rows = loader.load();
+		if ( cacheMode.isPutEnabled() ) {
+			region.put( key, CachedResults.disassemble( rows, mutabilityPlans, timestamp ) );
+			putCount.incrementAndGet();
+		}
+		return rows;
+	}
+
+	/**
+	 * Only basic values are cached; entities, and dynamic instantiations (which could reference
+	 * entities), need to be read from the database.
+	 *
+	 * @return The MutabilityPlan of each return, or {@code null} if the results cannot be cached
+	 */
+	private static MutabilityPlan[] resolveMutabilityPlans(JdbcSelectPlan jdbcSelectPlan) {
+		final List<Return> returns = jdbcSelectPlan.getReturns();
+		final MutabilityPlan[] mutabilityPlans = new MutabilityPlan[ returns.size() ];
+		for ( int i = 0; i < mutabilityPlans.length; i++ ) {
+			final ReturnReader returnReader = returns.get( i ).getReturnReader();
+			if ( !( returnReader instanceof ReturnReaderScalarImpl )
+					|| ( (ReturnReaderScalarImpl) returnReader ).getReturnType().isAssociationType() ) {
+				return null;
+			}
+
+			final JavaTypeDescriptor javaTypeDescriptor = JavaTypeDescriptorRegistry.INSTANCE.getDescriptor(
+					returnReader.getReturnedJavaType()
+			);
+			if ( javaTypeDescriptor instanceof JavaTypeDescriptorRegistry.FallbackJavaTypeDescriptor ) {
+				// we do not know how to disassemble the values
+				return null;
+			}
+			mutabilityPlans[i] = javaTypeDescriptor.getMutabilityPlan();
+		}
+		return mutabilityPlans;
+	}
+
+	private QueryResultRegion resolveRegion(String regionName) {
+		final String name = regionName == null ? DEFAULT_REGION_NAME : regionName;
+
+		QueryResultRegion region = regions.get( name );
+		if ( region == null ) {
+			region = regionFactory.buildQueryResultRegion( name, configurationValues );
+			final QueryResultRegion existing = regions.putIfAbsent( name, region );
+			if ( existing != null ) {
+				region = existing;
+			}
+		}
+		return region;
+	}
+
+	private boolean isUpToDate(CachedResults cachedResults, Set<String> tableNames, SessionImplementor session) {
+		for ( String tableName : tableNames ) {
+			final Long invalidationTimestamp = invalidationTimestamps.get( tableName );
+			if ( invalidationTimestamp != null && invalidationTimestamp >= cachedResults.timestamp ) {
+				log.debugf( "Cached query results are stale; table [%s] was invalidated", tableName );
+				return false;
+			}
+		}
+
+		if ( updateTimestampsCache != null ) {
+			return updateTimestampsCache.isUpToDate(
+					new HashSet<Serializable>( tableNames ),
+					cachedResults.timestamp,
+					session
+			);
+		}
+
+		return true;
+	}
+
+	private long nextTimestamp() {
+		// when honoring ORM's timestamps, all timestamps need to come from the same source
+		return timestampSource == null ? clock.incrementAndGet() : timestampSource.nextTimestamp();
+	}
+
+	@Override
+	public void invalidate(Set<String> tableNames) {
+		final long timestamp = nextTimestamp();
+		for ( String tableName : tableNames ) {
+			Long previous = invalidationTimestamps.putIfAbsent( tableName, timestamp );
+			// never move a table's invalidation timestamp backwards
+			while ( previous != null && previous < timestamp
+					&& !invalidationTimestamps.replace( tableName, previous, timestamp ) ) {
+				previous = invalidationTimestamps.get( tableName );
+			}
+		}
+	}
+
+	@Override
+	public void evictAll() {
+		for ( QueryResultRegion region : regions.values() ) {
+			region.evictAll();
+		}
+	}
+
+	/**
+	 * Access to a region, mainly for testing
+	 *
+	 * @param regionName The region name, or {@code null} for the default region
+	 *
+	 * @return The region
+	 */
+	public QueryResultRegion getRegion(String regionName) {
+		return resolveRegion( regionName );
+	}
+
+	@Override
+	public long getHitCount() {
+		return hitCount.get();
+	}
+
+	@Override
+	public long getMissCount() {
+		return missCount.get();
+	}
+
+	@Override
+	public long getPutCount() {
+		return putCount.get();
+	}
+
+	/**
+	 * Identifies cached results; the SQL, the parameter values (deep copied, and compared
+	 * according to their Type) and the limit.
+	 */
+	static class QueryResultKey implements Serializable {
+		private final String sql;
+		private final Type[] types;
+		private final Object[] values;
+		// for each parameter, the number of values bound if multi-valued; -1 otherwise
+		private final int[] valueCounts;
+		private final Integer firstRow;
+		private final Integer maxRows;
+		private final int hashCode;
+
+		private QueryResultKey(
+				String sql,
+				Type[] types,
+				Object[] values,
+				int[] valueCounts,
+				Integer firstRow,
+				Integer maxRows) {
+			this.sql = sql;
+			this.types = types;
+			this.values = values;
+			this.valueCounts = valueCounts;
+			this.firstRow = firstRow;
+			this.maxRows = maxRows;
+			this.hashCode = generateHashCode();
+		}
+
+		/**
+		 * @return The key, or {@code null} if the parameter bindings cannot be resolved
+		 */
+		static QueryResultKey from(
+				JdbcSelectPlan jdbcSelectPlan,
+				QueryParameterBindings queryParameterBindings,
+				QueryOptions queryOptions,
+				SessionFactoryImplementor sessionFactory) {
+			final List<ParameterBinder> parameterBinders = jdbcSelectPlan.getParameterBinders();
+			final List<Type> types = new ArrayList<Type>();
+			final List<Object> values = new ArrayList<Object>();
+			final int[] valueCounts = new int[ parameterBinders.size() ];
+
+			for ( int i = 0; i < valueCounts.length; i++ ) {
+				final ParameterBinder parameterBinder = parameterBinders.get( i );
+				if ( !( parameterBinder instanceof AbstractParameter ) ) {
+					return null;
+				}
+				final QueryParameterBinding binding = ( (AbstractParameter) parameterBinder ).resolveBinding(
+						queryParameterBindings
+				);
+				if ( binding == null ) {
+					return null;
+				}
+
+				final Type type = binding.getBindType() == null
+						? ( (AbstractParameter) parameterBinder ).getInferredType()
+						: binding.getBindType();
+				if ( type == null ) {
+					return null;
+				}
+
+				if ( binding.isMultiValued() ) {
+					valueCounts[i] = binding.getBindValues().size();
+					for ( Object value : binding.getBindValues() ) {
+						types.add( type );
+						values.add( type.deepCopy( value, sessionFactory ) );
+					}
+				}
+				else {
+					valueCounts[i] = -1;
+					types.add( type );
+					values.add( type.deepCopy( binding.getBindValue(), sessionFactory ) );
+				}
+			}
+
+			final Limit limit = queryOptions.getLimit();
+			return new QueryResultKey(
+					jdbcSelectPlan.getSql(),
+					types.toArray( new Type[ types.size() ] ),
+					values.toArray(),
+					valueCounts,
+					limit == null ? null : limit.getFirstRow(),
+					limit == null ? null : limit.getMaxRows()
+			);
+		}
+
+		private int generateHashCode() {
+			int result = sql.hashCode();
+			result = 31 * result + Arrays.hashCode( valueCounts );
+			for ( int i = 0; i < values.length; i++ ) {
+				result = 31 * result + ( values[i] == null ? 0 : types[i].getHashCode( values[i] ) );
+			}
+			result = 31 * result + ( firstRow == null ? 0 : firstRow.hashCode() );
+			result = 31 * result + ( maxRows == null ? 0 : maxRows.hashCode() );
+			return result;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if ( this == o ) {
+				return true;
+			}
+			if ( o == null || getClass() != o.getClass() ) {
+				return false;
+			}
+
+			final QueryResultKey that = (QueryResultKey) o;
+			if ( hashCode != that.hashCode
+					|| !sql.equals( that.sql )
+					|| !Arrays.equals( valueCounts, that.valueCounts )
+					|| !Arrays.equals( types, that.types ) ) {
+				return false;
+			}
+			for ( int i = 0; i < values.length; i++ ) {
+				if ( !types[i].isEqual( values[i], that.values[i] ) ) {
+					return false;
+				}
+			}
+			return ( firstRow == null ? that.firstRow == null : firstRow.equals( that.firstRow ) )
+					&& ( maxRows == null ? that.maxRows == null : maxRows.equals( that.maxRows ) );
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+	}
+
+	/**
+	 * The cached form of query results; the disassembled row values, flattened into a single
+	 * array, along with the timestamp from before the results were read.
+	 */
+	static class CachedResults implements Serializable {
+		private final long timestamp;
+		private final int columnCount;
+		private final Serializable[] values;
+
+		private CachedResults(long timestamp, int columnCount, Serializable[] values) {
+			this.timestamp = timestamp;
+			this.columnCount = columnCount;
+			this.values = values;
+		}
+
+		@SuppressWarnings("unchecked")
+		static CachedResults disassemble(List<Object[]> rows, MutabilityPlan[] mutabilityPlans, long timestamp) {
+			final int columnCount = mutabilityPlans.length;
+			final Serializable[] values = new Serializable[ rows.size() * columnCount ];
+
+			int position = 0;
+			for ( Object[] row : rows ) {
+				for ( int i = 0; i < columnCount; i++ ) {
+					values[position++] = row[i] == null ? null : mutabilityPlans[i].disassemble( row[i] );
+				}
+			}
+
+			return new CachedResults( timestamp, columnCount, values );
+		}
+
+		List<Object[]> assemble(MutabilityPlan[] mutabilityPlans) {
+			final int rowCount = columnCount == 0 ? 0 : values.length / columnCount;
+			final List<Object[]> rows = new ArrayList<Object[]>( rowCount );
+
+			int position = 0;
+			for ( int r = 0; r < rowCount; r++ ) {
+				final Object[] row = new Object[ columnCount ];
+				for ( int i = 0; i < columnCount; i++ ) {
+					final Serializable value = values[position++];
+					row[i] = value == null ? null : mutabilityPlans[i].assemble( value );
+				}
+				rows.add( row );
+			}
+
+			return rows;
+		}
+	}
+}
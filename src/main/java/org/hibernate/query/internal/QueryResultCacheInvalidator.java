@@ -0,0 +1,133 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.query.internal;
+
+import java.io.Serializable;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.collection.spi.PersistentCollection;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.AbstractCollectionEvent;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCollectionRecreateEvent;
+import org.hibernate.event.spi.PostCollectionRecreateEventListener;
+import org.hibernate.event.spi.PostCollectionRemoveEvent;
+import org.hibernate.event.spi.PostCollectionRemoveEventListener;
+import org.hibernate.event.spi.PostCollectionUpdateEvent;
+import org.hibernate.event.spi.PostCollectionUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.query.spi.QueryResultCache;
+
+/**
+ * Invalidates the tables of the entities and collections a Session writes (as it flushes) in a
+ * QueryResultCache, so that cached results do not outlive ordinary persist/merge/delete changes.
+ * ORM's own query cache (when enabled) is told of these changes through its
+ * UpdateTimestampsCache; this does the same for the QueryResultCache regardless.
+ * <p/>
+ * The tables are invalidated both when the change is flushed, and again after the transaction
+ * completes; results read (and cached) by other Sessions in between would otherwise not see
+ * the change once it is committed.
+ * <p/>
+ * Changes made through native SQL (or ORM's own HQL bulk operations) are not seen;
+ * {@link QueryResultCache#invalidate} needs to be called for those.
+ */
+public class QueryResultCacheInvalidator
+		implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener,
+		PostCollectionRecreateEventListener, PostCollectionUpdateEventListener, PostCollectionRemoveEventListener {
+	private final QueryResultCache queryResultCache;
+
+	public QueryResultCacheInvalidator(QueryResultCache queryResultCache) {
+		this.queryResultCache = queryResultCache;
+	}
+
+	/**
+	 * Register the invalidator for all entity and collection changes
+	 *
+	 * @param eventListenerRegistry The SessionFactory's EventListenerRegistry
+	 */
+	public void register(EventListenerRegistry eventListenerRegistry) {
+		eventListenerRegistry.appendListeners( EventType.POST_INSERT, this );
+		eventListenerRegistry.appendListeners( EventType.POST_UPDATE, this );
+		eventListenerRegistry.appendListeners( EventType.POST_DELETE, this );
+		eventListenerRegistry.appendListeners( EventType.POST_COLLECTION_RECREATE, this );
+		eventListenerRegistry.appendListeners( EventType.POST_COLLECTION_UPDATE, this );
+		eventListenerRegistry.appendListeners( EventType.POST_COLLECTION_REMOVE, this );
+	}
+
+	@Override
+	public void onPostInsert(PostInsertEvent event) {
+		invalidate( event.getPersister().getPropertySpaces(), event.getSession() );
+	}
+
+	@Override
+	public void onPostUpdate(PostUpdateEvent event) {
+		invalidate( event.getPersister().getPropertySpaces(), event.getSession() );
+	}
+
+	@Override
+	public void onPostDelete(PostDeleteEvent event) {
+		invalidate( event.getPersister().getPropertySpaces(), event.getSession() );
+	}
+
+	@Override
+	public boolean requiresPostCommitHanding(EntityPersister persister) {
+		return false;
+	}
+
+	@Override
+	public void onPostRecreateCollection(PostCollectionRecreateEvent event) {
+		invalidateCollection( event );
+	}
+
+	@Override
+	public void onPostUpdateCollection(PostCollectionUpdateEvent event) {
+		invalidateCollection( event );
+	}
+
+	@Override
+	public void onPostRemoveCollection(PostCollectionRemoveEvent event) {
+		invalidateCollection( event );
+	}
+
+	private void invalidateCollection(AbstractCollectionEvent event) {
+		final PersistentCollection collection = event.getCollection();
+		if ( collection == null || collection.getRole() == null ) {
+			return;
+		}
+		invalidate(
+				event.getSession().getFactory().getCollectionPersister( collection.getRole() ).getCollectionSpaces(),
+				event.getSession()
+		);
+	}
+
+	private void invalidate(Serializable[] spaces, EventSource eventSource) {
+		final Set<String> tableNames = new HashSet<String>();
+		for ( Serializable space : spaces ) {
+			tableNames.add( space.toString() );
+		}
+
+		queryResultCache.invalidate( tableNames );
+		eventSource.getActionQueue().registerProcess(
+				new AfterTransactionCompletionProcess() {
+					@Override
+					public void doAfterTransactionCompletion(boolean success, SessionImplementor session) {
+						queryResultCache.invalidate( tableNames );
+					}
+				}
+		);
+	}
+}
@@ -0,0 +1,110 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.query.internal;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.hibernate.internal.util.collections.BoundedConcurrentHashMap;
+import org.hibernate.internal.util.config.ConfigurationHelper;
+import org.hibernate.query.spi.QueryResultRegion;
+import org.hibernate.query.spi.QueryResultRegionFactory;
+
+import org.jboss.logging.Logger;
+
+/**
+ * The default QueryResultRegion, keeping the results in-process in a bounded (LRU) map.
+ */
+public class QueryResultRegionInMemoryImpl implements QueryResultRegion {
+	private static final Logger log = Logger.getLogger( QueryResultRegionInMemoryImpl.class );
+
+	/**
+	 * Setting for the maximum number of entries held by each in-memory region.
+	 */
+	public static final String MAX_ENTRIES = "hibernate.sqm.query_result_cache.max_entries";
+
+	/**
+	 * The default maximum number of entries held by each in-memory region.
+	 */
+	public static final int DEFAULT_MAX_ENTRIES = 1000;
+
+	/**
+	 * The QueryResultRegionFactory building in-memory regions
+	 */
+	public static final QueryResultRegionFactory FACTORY = new QueryResultRegionFactory() {
+		@Override
+		public QueryResultRegion buildQueryResultRegion(String regionName, Map configurationValues) {
+			return new QueryResultRegionInMemoryImpl(
+					regionName,
+					ConfigurationHelper.getInt( MAX_ENTRIES, configurationValues, DEFAULT_MAX_ENTRIES )
+			);
+		}
+	};
+
+	private final String name;
+	private final BoundedConcurrentHashMap<Object, Object> entries;
+	private final AtomicLong evictionCount = new AtomicLong();
+
+	public QueryResultRegionInMemoryImpl(String name, int maxEntries) {
+		log.debugf( "Building in-memory QueryResultRegion [%s] [max-entries=%s]", name, maxEntries );
+		this.name = name;
+		this.entries = new BoundedConcurrentHashMap<Object, Object>(
+				maxEntries,
+				20,
+				BoundedConcurrentHashMap.Eviction.LRU,
+				new BoundedConcurrentHashMap.EvictionListener<Object, Object>() {
+					@Override
+					public void onEntryEviction(Map<Object, Object> evicted) {
+						evictionCount.addAndGet( evicted.size() );
+					}
+
+					@Override
+					public void onEntryChosenForEviction(Object internalCacheEntry) {
+					}
+				}
+		);
+	}
+
+	@Override
+	public String getName() {
+		return name;
+	}
+
+	@Override
+	public Object get(Object key) {
+		return entries.get( key );
+	}
+
+	@Override
+	public void put(Object key, Object value) {
+		entries.put( key, value );
+	}
+
+	@Override
+	public void evict(Object key) {
+		entries.remove( key );
+	}
+
+	@Override
+	public void evictAll() {
+		entries.clear();
+	}
+
+	/**
+	 * The number of entries currently held
+	 */
+	public int size() {
+		return entries.size();
+	}
+
+	/**
+	 * The number of entries removed due to the size bound
+	 */
+	public long getEvictionCount() {
+		return evictionCount.get();
+	}
+}
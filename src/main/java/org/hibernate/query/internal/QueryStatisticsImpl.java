@@ -0,0 +1,78 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.query.internal;
+
+import org.hibernate.query.spi.QueryStage;
+import org.hibernate.query.spi.QueryStatistics;
+import org.hibernate.query.spi.QueryStatisticsHistogram;
+
+/**
+ * Standard QueryStatistics implementation, aggregating into a histogram per stage.  Safe
+ * for concurrent use.
+ */
+public class QueryStatisticsImpl implements QueryStatistics {
+	private final String queryString;
+
+	private final QueryStatisticsHistogram[] stageHistograms;
+	private final QueryStatisticsHistogram rowCountHistogram = new QueryStatisticsHistogram();
+
+	private volatile int renderedSqlLength;
+
+	public QueryStatisticsImpl(String queryString) {
+		this.queryString = queryString;
+
+		this.stageHistograms = new QueryStatisticsHistogram[ QueryStage.values().length ];
+		for ( int i = 0; i < stageHistograms.length; i++ ) {
+			stageHistograms[i] = new QueryStatisticsHistogram();
+		}
+	}
+
+	@Override
+	public String getQueryString() {
+		return queryString;
+	}
+
+	@Override
+	public QueryStatisticsHistogram getStageHistogram(QueryStage stage) {
+		return stageHistograms[ stage.ordinal() ];
+	}
+
+	@Override
+	public QueryStatisticsHistogram getRowCountHistogram() {
+		return rowCountHistogram;
+	}
+
+	@Override
+	public int getRenderedSqlLength() {
+		return renderedSqlLength;
+	}
+
+	@Override
+	public void stageCompleted(QueryStage stage, long elapsedNanos) {
+		stageHistograms[ stage.ordinal() ].record( elapsedNanos );
+	}
+
+	@Override
+	public void sqlRendered(int sqlLength) {
+		this.renderedSqlLength = sqlLength;
+	}
+
+	@Override
+	public void rowsRead(int rowCount) {
+		rowCountHistogram.record( rowCount );
+	}
+
+	@Override
+	public String toString() {
+		final StringBuilder buffer = new StringBuilder( "QueryStatistics(" ).append( queryString ).append( ')' );
+		for ( QueryStage stage : QueryStage.values() ) {
+			buffer.append( "\n\t" ).append( stage.name() ).append( " : " ).append( getStageHistogram( stage ) );
+		}
+		buffer.append( "\n\trows : " ).append( rowCountHistogram );
+		return buffer.toString();
+	}
+}
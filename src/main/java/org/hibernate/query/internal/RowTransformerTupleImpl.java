@@ -6,25 +6,33 @@
  */
 package org.hibernate.query.internal;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import javax.persistence.Tuple;
 import javax.persistence.TupleElement;
 
 import org.hibernate.sql.exec.spi.RowTransformer;
 
 /**
+ * RowTransformer producing {@link Tuple} results.  The element metadata (including the
+ * alias and element lookups) is built once, when the transformer is built, and shared by
+ * all the Tuples it produces; each Tuple is then just a view over its row.
+ *
  * @author Steve Ebersole
  */
 public class RowTransformerTupleImpl implements RowTransformer<Tuple> {
-	private final List<TupleElement<?>> tupleElements;
+	private final TupleMetadata tupleMetadata;
 
 	public RowTransformerTupleImpl(List<TupleElement<?>> tupleElements) {
-		this.tupleElements = tupleElements;
+		this.tupleMetadata = new TupleMetadata( tupleElements );
 	}
 
 	@Override
 	public Tuple transformRow(Object[] row) {
-		return new TupleImpl( tupleElements, row );
+		return new TupleImpl( tupleMetadata, row );
 	}
 
 	public static class HqlTupleElementImpl<E> implements TupleElement<E> {
@@ -47,19 +55,68 @@ public class RowTransformerTupleImpl implements RowTransformer<Tuple> {
 		}
 	}
 
-	public static class TupleImpl implements Tuple {
+	/**
+	 * The elements of the Tuples, along with index lookups by element and by alias
+	 */
+	public static class TupleMetadata {
 		private final List<TupleElement<?>> tupleElements;
+		private final Map<TupleElement<?>, Integer> elementIndexes;
+		private final Map<String, Integer> aliasIndexes;
+
+		public TupleMetadata(List<TupleElement<?>> tupleElements) {
+			this.tupleElements = Collections.unmodifiableList( tupleElements );
+			this.elementIndexes = new IdentityHashMap<TupleElement<?>, Integer>();
+			this.aliasIndexes = new HashMap<String, Integer>();
+
+			for ( int i = 0; i < tupleElements.size(); i++ ) {
+				final TupleElement<?> tupleElement = tupleElements.get( i );
+				elementIndexes.put( tupleElement, i );
+				// first element wins for duplicated aliases
+				if ( tupleElement.getAlias() != null && !aliasIndexes.containsKey( tupleElement.getAlias() ) ) {
+					aliasIndexes.put( tupleElement.getAlias(), i );
+				}
+			}
+		}
+
+		public List<TupleElement<?>> getTupleElements() {
+			return tupleElements;
+		}
+
+		public int indexOf(TupleElement<?> tupleElement) {
+			final Integer index = elementIndexes.get( tupleElement );
+			return index == null ? -1 : index;
+		}
+
+		public int indexOf(String alias) {
+			if ( alias == null ) {
+				return -1;
+			}
+			Integer index = aliasIndexes.get( alias );
+			if ( index == null ) {
+				// allow for surrounding whitespace, as the previous (scanning) lookup did
+				final String trimmed = alias.trim();
+				if ( trimmed.length() == alias.length() || trimmed.length() == 0 ) {
+					return -1;
+				}
+				index = aliasIndexes.get( trimmed );
+			}
+			return index == null ? -1 : index;
+		}
+	}
+
+	public static class TupleImpl implements Tuple {
+		private final TupleMetadata tupleMetadata;
 		private final Object[] row;
 
-		public TupleImpl(List<TupleElement<?>> tupleElements, Object[] row) {
-			this.tupleElements = tupleElements;
+		public TupleImpl(TupleMetadata tupleMetadata, Object[] row) {
+			this.tupleMetadata = tupleMetadata;
 			this.row = row;
 		}
 
 		@Override
 		@SuppressWarnings("unchecked")
 		public <X> X get(TupleElement<X> tupleElement) {
-			int index = tupleElements.indexOf( tupleElement );
+			int index = tupleMetadata.indexOf( tupleElement );
 			if ( index < 0 ) {
 				throw new IllegalArgumentException(
 						"Requested tuple element did not correspond to element in the result tuple"
@@ -90,20 +147,7 @@ public class RowTransformerTupleImpl implements RowTransformer<Tuple> {
 
 		@Override
 		public Object get(String alias) {
-			int index = -1;
-			if ( alias != null ) {
-				alias = alias.trim();
-				if ( alias.length() > 0 ) {
-					int i = 0;
-					for ( TupleElement selection : (List<TupleElement<?>>) tupleElements ) {
-						if ( alias.equals( selection.getAlias() ) ) {
-							index = i;
-							break;
-						}
-						i++;
-					}
-				}
-			}
+			final int index = tupleMetadata.indexOf( alias );
 			if ( index < 0 ) {
 				throw new IllegalArgumentException(
 						"Given alias [" + alias + "] did not correspond to an element in the result tuple"
@@ -147,7 +191,7 @@ public class RowTransformerTupleImpl implements RowTransformer<Tuple> {
 
 		@Override
 		public List<TupleElement<?>> getElements() {
-			return tupleElements;
+			return tupleMetadata.getTupleElements();
 		}
 	}
 }
@@ -0,0 +1,136 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.query.internal;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.hibernate.Session;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.sql.exec.spi.RowTransformer;
+
+/**
+ * The Iterator returned from {@link org.hibernate.query.Query#iterate()}.  Iterates the rows of
+ * a "shallow" select, in which each selected entity is represented by just its identifier.  The
+ * entities are loaded as the iteration reaches them, a batch of rows at a time: entities already
+ * in the persistence context are taken from there, and the rest are loaded by identifier
+ * (multiple per SQL statement).
+ */
+public class ShallowResultsIterator<R> implements Iterator<R> {
+	/**
+	 * Setting for the number of rows for which entities are loaded at a time.
+	 */
+	public static final String BATCH_SIZE = "hibernate.sqm.iterate.batch_size";
+
+	/**
+	 * The default number of rows for which entities are loaded at a time.
+	 */
+	public static final int DEFAULT_BATCH_SIZE = 16;
+
+	private final List<Object[]> rows;
+	private final int[] entityPositions;
+	private final String[] entityNames;
+	private final int batchSize;
+	private final RowTransformer<R> rowTransformer;
+	private final SessionImplementor session;
+
+	private int position;
+	// the rows before this position have had their entities loaded
+	private int loadedPosition;
+
+	/**
+	 * @param rows The rows of the shallow select
+	 * @param entityPositions The positions, within each row, of the entity identifiers
+	 * @param entityNames The names of the entities at each of the entityPositions
+	 * @param batchSize The number of rows for which entities are loaded at a time
+	 * @param rowTransformer Transforms each (loaded) row into the result
+	 * @param session The Session
+	 */
+	public ShallowResultsIterator(
+			List<Object[]> rows,
+			int[] entityPositions,
+			String[] entityNames,
+			int batchSize,
+			RowTransformer<R> rowTransformer,
+			SessionImplementor session) {
+		this.rows = rows;
+		this.entityPositions = entityPositions;
+		this.entityNames = entityNames;
+		this.batchSize = Math.max( 1, batchSize );
+		this.rowTransformer = rowTransformer;
+		this.session = session;
+	}
+
+	@Override
+	public boolean hasNext() {
+		return position < rows.size();
+	}
+
+	@Override
+	public R next() {
+		if ( !hasNext() ) {
+			throw new NoSuchElementException();
+		}
+
+		if ( position >= loadedPosition ) {
+			loadBatch();
+		}
+		return rowTransformer.transformRow( rows.get( position++ ) );
+	}
+
+	private void loadBatch() {
+		final int end = Math.min( position + batchSize, rows.size() );
+
+		for ( int i = 0; i < entityPositions.length; i++ ) {
+			final int entityPosition = entityPositions[i];
+
+			// the same entity may well occur in more than one row
+			final Set<Serializable> ids = new LinkedHashSet<Serializable>();
+			for ( int row = position; row < end; row++ ) {
+				final Serializable id = (Serializable) rows.get( row )[entityPosition];
+				if ( id != null ) {
+					ids.add( id );
+				}
+			}
+			if ( ids.isEmpty() ) {
+				continue;
+			}
+
+			final List<Serializable> orderedIds = new ArrayList<Serializable>( ids );
+			final List entities = ( (Session) session ).byMultipleIds( entityNames[i] )
+					.enableSessionCheck( true )
+					.enableOrderedReturn( true )
+					.withBatchSize( batchSize )
+					.multiLoad( orderedIds );
+
+			final Map<Serializable, Object> entitiesById = new HashMap<Serializable, Object>();
+			for ( int j = 0; j < orderedIds.size(); j++ ) {
+				entitiesById.put( orderedIds.get( j ), entities.get( j ) );
+			}
+			for ( int row = position; row < end; row++ ) {
+				final Object[] values = rows.get( row );
+				if ( values[entityPosition] != null ) {
+					values[entityPosition] = entitiesById.get( values[entityPosition] );
+				}
+			}
+		}
+
+		loadedPosition = end;
+	}
+
+	@Override
+	public void remove() {
+		throw new UnsupportedOperationException( "Query#iterate results do not support remove" );
+	}
+}
@@ -6,6 +6,8 @@
  */
 package org.hibernate.query.spi;
 
+import java.util.Collection;
+import java.util.List;
 import javax.persistence.TemporalType;
 
 import org.hibernate.Incubating;
@@ -41,6 +43,36 @@ public interface QueryParameterBinding {
 	 */
 	void setBindValue(Object value, TemporalType clarifiedTemporalType);
 
+	/**
+	 * Sets multiple binding values for the parameter, which must be used as (an element of) an
+	 * IN list.  The inherent parameter type (if known) is assumed for each value.
+	 *
+	 * @param values The bind values
+	 */
+	void setBindValues(Collection<?> values);
+
+	/**
+	 * Sets multiple binding values for the parameter using the explicit Type.
+	 *
+	 * @param values The bind values
+	 * @param clarifiedType The explicit Type to use for each value
+	 */
+	void setBindValues(Collection<?> values, Type clarifiedType);
+
+	/**
+	 * Is the parameter currently bound to multiple values (via {@link #setBindValues})?
+	 *
+	 * @return {@code true} if multiple values are bound
+	 */
+	boolean isMultiValued();
+
+	/**
+	 * Get the values currently bound, if {@link #isMultiValued() multi-valued}.
+	 *
+	 * @return The currently bound values
+	 */
+	List<?> getBindValues();
+
 	/**
 	 * Get the value current bound.
 	 *
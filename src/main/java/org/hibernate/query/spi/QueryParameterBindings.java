@@ -6,85 +6,123 @@
  */
 package org.hibernate.query.spi;
 
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Set;
 
 import org.hibernate.Incubating;
 import org.hibernate.query.QueryParameter;
-import org.hibernate.query.UnknownParameterException;
-import org.hibernate.query.NamedQueryParameter;
-import org.hibernate.query.PositionalQueryParameter;
 import org.hibernate.query.internal.QueryParameterBindingImpl;
 
 /**
- * Manages the group of QueryParameterBinding for a particular query.
+ * Manages the group of QueryParameterBinding for a particular query.  The bindings are held
+ * by the {@link QueryParameterSlots slot} of their parameter.
  *
  * @author Steve Ebersole
  */
 @Incubating
 public class QueryParameterBindings {
-	private Map<QueryParameter, QueryParameterBinding> parameterBindingMap;
+	private final QueryParameterSlots parameterSlots;
+	private final QueryParameterBinding[] parameterBindings;
+
+	// the key of the last row of the previous page, for keyset pagination
+	private Object[] keysetValues;
 
 	public QueryParameterBindings() {
-		this( Collections.<QueryParameter>emptySet() );
+		this( QueryParameterSlots.NONE );
 	}
 
 	public QueryParameterBindings(Set<QueryParameter> queryParameters) {
-		if ( queryParameters == null || queryParameters.isEmpty() ) {
-			parameterBindingMap = Collections.emptyMap();
+		this( new QueryParameterSlots( queryParameters ) );
+	}
+
+	public QueryParameterBindings(QueryParameterSlots parameterSlots) {
+		this.parameterSlots = parameterSlots;
+		this.parameterBindings = new QueryParameterBinding[ parameterSlots.getSlotCount() ];
+		for ( int i = 0; i < parameterBindings.length; i++ ) {
+			parameterBindings[i] = new QueryParameterBindingImpl();
 		}
-		else {
-			parameterBindingMap = new HashMap<QueryParameter, QueryParameterBinding>();
+	}
 
-			for ( QueryParameter queryParameter : queryParameters ) {
-				parameterBindingMap.put( queryParameter, new QueryParameterBindingImpl() );
+	/**
+	 * Creates a copy of these bindings, holding the same values.  Changes to the copy do not
+	 * affect these bindings.
+	 *
+	 * @return The copy
+	 */
+	public QueryParameterBindings copy() {
+		final QueryParameterBindings copy = new QueryParameterBindings( parameterSlots );
+		for ( int i = 0; i < parameterBindings.length; i++ ) {
+			final QueryParameterBinding binding = parameterBindings[i];
+			if ( binding.isMultiValued() ) {
+				copy.parameterBindings[i].setBindValues( binding.getBindValues(), binding.getBindType() );
+			}
+			else if ( binding.getBindValue() != null ) {
+				copy.parameterBindings[i].setBindValue( binding.getBindValue(), binding.getBindType() );
 			}
 		}
+		copy.keysetValues = keysetValues;
+		return copy;
 	}
 
+	public QueryParameterSlots getParameterSlots() {
+		return parameterSlots;
+	}
+
+	/**
+	 * Get the binding held in the given slot (see {@link #getParameterSlots()})
+	 */
+	public QueryParameterBinding getBinding(int slot) {
+		return parameterBindings[slot];
+	}
+
+	/**
+	 * Get the binding for the given parameter; either the same instance as one of the query's
+	 * parameters, or a parameter of the same name or position (see
+	 * {@link QueryParameterSlots#resolveSlot}).
+	 *
+	 * @param parameter The parameter
+	 *
+	 * @return The binding
+	 *
+	 * @throws org.hibernate.query.UnknownParameterException If the query defines no such
+	 * parameter (rather than returning {@code null})
+	 */
 	public QueryParameterBinding getBinding(QueryParameter parameter) {
-		return parameterBindingMap.get( parameter );
+		return parameterBindings[ parameterSlots.resolveSlot( parameter ) ];
 	}
 
+	/**
+	 * @throws org.hibernate.query.UnknownParameterException If the query defines no such parameter
+	 */
 	public QueryParameterBinding getNamedParameterBinding(String name) {
-		for ( Map.Entry<QueryParameter, QueryParameterBinding> entry : parameterBindingMap.entrySet() ) {
-			if ( entry.getKey() instanceof NamedQueryParameter ) {
-				if ( name.equals( ( (NamedQueryParameter) entry.getKey() ).getName() ) ) {
-					return entry.getValue();
-				}
-			}
-		}
-
-		throw new UnknownParameterException( "Unknown named parameter : " + name );
+		return parameterBindings[ parameterSlots.resolveNamedSlot( name ) ];
 	}
 
+	/**
+	 * @throws org.hibernate.query.UnknownParameterException If the query defines no such parameter
+	 */
 	public QueryParameterBinding getPositionalParameterBinding(Integer position) {
-		for ( Map.Entry<QueryParameter, QueryParameterBinding> entry : parameterBindingMap.entrySet() ) {
-			if ( entry.getKey() instanceof PositionalQueryParameter ) {
-				if ( position.equals( ( (PositionalQueryParameter) entry.getKey() ).getPosition() ) ) {
-					return entry.getValue();
-				}
-			}
-		}
-
-		throw new UnknownParameterException( "Unknown positional parameter : " + position );
+		return parameterBindings[ parameterSlots.resolvePositionalSlot( position ) ];
 	}
 
+	/**
+	 * @see #getBinding(QueryParameter)
+	 */
 	public QueryParameterBinding getParameterBinding(QueryParameter parameter) {
-		// see if this exact instance is known as a key
-		if ( parameterBindingMap.containsKey( parameter ) ) {
-			return parameterBindingMap.get( parameter );
-		}
+		return getBinding( parameter );
+	}
 
-		if ( parameter instanceof NamedQueryParameter ) {
-			return getNamedParameterBinding( ( (NamedQueryParameter) parameter ).getName() );
-		}
-		if ( parameter instanceof PositionalQueryParameter ) {
-			return getPositionalParameterBinding( ( (PositionalQueryParameter) parameter ).getPosition() );
-		}
+	/**
+	 * The values of the ORDER BY expressions of the last row of the previous page, which a
+	 * keyset paginated query (see {@link org.hibernate.query.Query#listPage}) restricts its
+	 * results to follow.
+	 *
+	 * @return The key values, or {@code null} for the first page
+	 */
+	public Object[] getKeysetValues() {
+		return keysetValues;
+	}
 
-		throw new UnknownParameterException( "Could not resolve  parameter [" + parameter + "] as part of query" );
+	public void setKeysetValues(Object[] keysetValues) {
+		this.keysetValues = keysetValues;
 	}
 }
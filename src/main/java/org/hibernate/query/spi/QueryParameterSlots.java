@@ -0,0 +1,99 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.query.spi;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.hibernate.Incubating;
+import org.hibernate.query.NamedQueryParameter;
+import org.hibernate.query.PositionalQueryParameter;
+import org.hibernate.query.QueryParameter;
+import org.hibernate.query.UnknownParameterException;
+
+/**
+ * Assigns each parameter of a query a dense "slot" index, under which its binding is held by
+ * {@link QueryParameterBindings}.  Built once per {@link QueryPlan} and shared (it is immutable)
+ * by all bindings for that plan, so that parameters resolve to their bindings by array index.
+ */
+@Incubating
+public class QueryParameterSlots {
+	/**
+	 * Slots for a query defining no parameters
+	 */
+	public static final QueryParameterSlots NONE = new QueryParameterSlots( Collections.<QueryParameter>emptySet() );
+
+	private final List<QueryParameter> parameters;
+	private final Map<QueryParameter, Integer> slotsByParameter = new HashMap<QueryParameter, Integer>();
+	private final Map<String, Integer> slotsByName = new HashMap<String, Integer>();
+	private final Map<Integer, Integer> slotsByPosition = new HashMap<Integer, Integer>();
+
+	public QueryParameterSlots(Set<QueryParameter> queryParameters) {
+		this.parameters = queryParameters == null
+				? Collections.<QueryParameter>emptyList()
+				: Collections.unmodifiableList( new ArrayList<QueryParameter>( queryParameters ) );
+
+		for ( int slot = 0; slot < parameters.size(); slot++ ) {
+			final QueryParameter parameter = parameters.get( slot );
+			slotsByParameter.put( parameter, slot );
+			if ( parameter instanceof NamedQueryParameter ) {
+				slotsByName.put( ( (NamedQueryParameter) parameter ).getName(), slot );
+			}
+			else if ( parameter instanceof PositionalQueryParameter ) {
+				slotsByPosition.put( ( (PositionalQueryParameter) parameter ).getPosition(), slot );
+			}
+		}
+	}
+
+	/**
+	 * The parameters, in slot order
+	 */
+	public List<QueryParameter> getParameters() {
+		return parameters;
+	}
+
+	public int getSlotCount() {
+		return parameters.size();
+	}
+
+	public int resolveNamedSlot(String name) {
+		final Integer slot = slotsByName.get( name );
+		if ( slot == null ) {
+			throw new UnknownParameterException( "Unknown named parameter : " + name );
+		}
+		return slot;
+	}
+
+	public int resolvePositionalSlot(Integer position) {
+		final Integer slot = slotsByPosition.get( position );
+		if ( slot == null ) {
+			throw new UnknownParameterException( "Unknown positional parameter : " + position );
+		}
+		return slot;
+	}
+
+	public int resolveSlot(QueryParameter parameter) {
+		// see if this exact instance is known
+		final Integer slot = slotsByParameter.get( parameter );
+		if ( slot != null ) {
+			return slot;
+		}
+
+		if ( parameter instanceof NamedQueryParameter ) {
+			return resolveNamedSlot( ( (NamedQueryParameter) parameter ).getName() );
+		}
+		if ( parameter instanceof PositionalQueryParameter ) {
+			return resolvePositionalSlot( ( (PositionalQueryParameter) parameter ).getPosition() );
+		}
+
+		throw new UnknownParameterException( "Could not resolve  parameter [" + parameter + "] as part of query" );
+	}
+}
@@ -7,16 +7,140 @@
 package org.hibernate.query.spi;
 
 import java.util.Set;
+import javax.persistence.Tuple;
 
+import org.hibernate.engine.spi.SessionFactoryImplementor;
 import org.hibernate.query.QueryParameter;
+import org.hibernate.sql.exec.spi.QueryOptions;
+import org.hibernate.sql.exec.spi.RowTransformer;
+import org.hibernate.sql.gen.JdbcMutationPlan;
+import org.hibernate.sql.gen.JdbcSelectPlan;
 import org.hibernate.sqm.query.Statement;
 
 /**
+ * The shared, thread-safe plan for a query string.  The query is interpreted (its SQM built)
+ * lazily, the first time the SQM or anything derived from it is needed; so obtaining a plan is
+ * cheap even for queries which end up never being executed.
+ *
  * @author Steve Ebersole
  */
 public interface QueryPlan {
 	Statement getSqm();
 	Set<QueryParameter> getQueryParameters();
 
-	// todo : expose SQL trees too.
+	/**
+	 * The slot assigned to each of the query's parameters; bindings for executing this plan are
+	 * built against these (see {@link QueryParameterBindings#QueryParameterBindings(QueryParameterSlots)}).
+	 *
+	 * @return The parameter slots
+	 */
+	QueryParameterSlots getParameterSlots();
+
+	/**
+	 * Has the query been interpreted yet?  Allows callers to avoid triggering interpretation
+	 * for purposes that do not warrant it.
+	 *
+	 * @return {@code true} if the SQM has been built
+	 */
+	boolean isInterpreted();
+
+	/**
+	 * Statistics for this plan, aggregated across all of its executions.  Also the
+	 * {@link org.hibernate.sql.gen.Callback} to use for executing the plan.
+	 *
+	 * @return The statistics
+	 */
+	QueryStatistics getStatistics();
+
+	/**
+	 * Resolve the JdbcSelectPlan (rendered SQL, ParameterBinders and Returns) for executing
+	 * this (SELECT) plan with the given options and parameter bindings.  The JdbcSelectPlan is
+	 * memoized per "shape" of the options and bindings - anything that can alter the rendering.
+	 *
+	 * @param queryOptions The options in effect for the execution
+	 * @param queryParameterBindings The parameter bindings in effect for the execution
+	 * @param sessionFactory The SessionFactory
+	 *
+	 * @return The JdbcSelectPlan
+	 */
+	JdbcSelectPlan resolveJdbcSelectPlan(
+			QueryOptions queryOptions,
+			QueryParameterBindings queryParameterBindings,
+			SessionFactoryImplementor sessionFactory);
+
+	/**
+	 * Resolve the "shallow" JdbcSelectPlan for this (SELECT) plan, which selects just the
+	 * identifier of each selected entity (for {@link org.hibernate.query.Query#iterate()}); the
+	 * entities are then loaded separately.  Memoized just as for {@link #resolveJdbcSelectPlan}.
+	 *
+	 * @param queryOptions The options in effect for the execution
+	 * @param queryParameterBindings The parameter bindings in effect for the execution
+	 * @param sessionFactory The SessionFactory
+	 *
+	 * @return The shallow JdbcSelectPlan
+	 */
+	JdbcSelectPlan resolveShallowJdbcSelectPlan(
+			QueryOptions queryOptions,
+			QueryParameterBindings queryParameterBindings,
+			SessionFactoryImplementor sessionFactory);
+
+	/**
+	 * Resolve the JdbcSelectPlan for a page of this (SELECT) plan's results by keyset
+	 * pagination (see {@link org.hibernate.query.Query#listPage}).  The plan additionally
+	 * selects the ORDER BY expressions following the query's own selections and, if the bindings
+	 * define {@link QueryParameterBindings#getKeysetValues() key values}, restricts the results to
+	 * those following the key.  Memoized just as for {@link #resolveJdbcSelectPlan}.
+	 *
+	 * @param queryOptions The options in effect for the execution
+	 * @param queryParameterBindings The parameter bindings (and key values) in effect for the execution
+	 * @param sessionFactory The SessionFactory
+	 *
+	 * @return The keyset JdbcSelectPlan
+	 */
+	JdbcSelectPlan resolveKeysetJdbcSelectPlan(
+			QueryOptions queryOptions,
+			QueryParameterBindings queryParameterBindings,
+			SessionFactoryImplementor sessionFactory);
+
+	/**
+	 * Resolve the JdbcSelectPlan counting the results of this (SELECT) plan (see
+	 * {@link org.hibernate.query.Query#count()}), derived from the plan's own SQL AST (see
+	 * {@link org.hibernate.sql.ast.CountQuery}).  It binds the same parameters as the plan itself,
+	 * so is executed with the same bindings.  Memoized alongside the plan's other JdbcSelectPlans,
+	 * just as for {@link #resolveJdbcSelectPlan}.
+	 *
+	 * @param queryOptions The options in effect for the execution; generally defining no limit
+	 * @param queryParameterBindings The parameter bindings in effect for the execution
+	 * @param sessionFactory The SessionFactory
+	 *
+	 * @return The count JdbcSelectPlan
+	 */
+	JdbcSelectPlan resolveCountJdbcSelectPlan(
+			QueryOptions queryOptions,
+			QueryParameterBindings queryParameterBindings,
+			SessionFactoryImplementor sessionFactory);
+
+	/**
+	 * Resolve the JdbcMutationPlan for executing this (UPDATE, DELETE or INSERT-SELECT) plan
+	 * with the given options and parameter bindings; memoized just as for
+	 * {@link #resolveJdbcSelectPlan}.
+	 *
+	 * @param queryOptions The options in effect for the execution
+	 * @param queryParameterBindings The parameter bindings in effect for the execution
+	 * @param sessionFactory The SessionFactory
+	 *
+	 * @return The JdbcMutationPlan
+	 */
+	JdbcMutationPlan resolveJdbcMutationPlan(
+			QueryOptions queryOptions,
+			QueryParameterBindings queryParameterBindings,
+			SessionFactoryImplementor sessionFactory);
+
+	/**
+	 * The RowTransformer for returning the results of this (SELECT) plan as {@link Tuple}s.
+	 * The Tuple element metadata is built once, and shared by all executions of the plan.
+	 *
+	 * @return The Tuple RowTransformer
+	 */
+	RowTransformer<Tuple> getTupleRowTransformer();
 }
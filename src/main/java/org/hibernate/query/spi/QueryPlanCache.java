@@ -0,0 +1,66 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.query.spi;
+
+import java.util.List;
+
+import org.hibernate.Incubating;
+import org.hibernate.sqm.ConsumerContext;
+
+/**
+ * Cache of {@link QueryPlan} references, scoped to the SessionFactory.  Resolving a
+ * plan for a query string already seen (with the same consumer options) avoids
+ * re-running semantic analysis of the query.
+ * <p/>
+ * The cache is bounded; implementations are expected to be safe for concurrent use.
+ */
+@Incubating
+public interface QueryPlanCache {
+	/**
+	 * Resolve the QueryPlan for the given query string, building (and caching) it
+	 * if not already known.
+	 *
+	 * @param queryString The HQL/JPQL query string
+	 * @param consumerContext The context used to interpret the query, if needed
+	 *
+	 * @return The (immutable) QueryPlan
+	 */
+	QueryPlan resolveQueryPlan(String queryString, ConsumerContext consumerContext);
+
+	/**
+	 * Remove all cached plans.  Does not reset the statistics.
+	 */
+	void clear();
+
+	/**
+	 * The number of plans currently cached
+	 */
+	int size();
+
+	/**
+	 * The number of times a plan was resolved from the cache
+	 */
+	long getHitCount();
+
+	/**
+	 * The number of times a plan needed to be built
+	 */
+	long getMissCount();
+
+	/**
+	 * The number of plans removed from the cache due to its size bound
+	 */
+	long getEvictionCount();
+
+	/**
+	 * The statistics of each plan currently cached; e.g. for finding the queries which
+	 * are slow, and in which stage.
+	 *
+	 * @return A snapshot of the statistics
+	 */
+	List<QueryStatistics> getQueryStatistics();
+}
@@ -0,0 +1,79 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.query.spi;
+
+import java.util.List;
+import java.util.Set;
+
+import org.hibernate.Incubating;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.sql.exec.spi.QueryOptions;
+import org.hibernate.sql.gen.JdbcSelectPlan;
+
+/**
+ * Cache of query results, scoped to the SessionFactory.  Results are cached per rendered SQL,
+ * bound parameter values and limit, into the {@link QueryResultRegion} named by
+ * {@link QueryOptions#getResultCacheRegionName()}, and are used only while none of the tables
+ * the SQL reads from (its "table spaces") have been invalidated since the results were read.
+ */
+@Incubating
+public interface QueryResultCache {
+	/**
+	 * Resolve the results (untransformed rows) of executing the given plan against the given
+	 * bindings, either from the cache or by loading (and caching) them.  Whether the cache is
+	 * read and/or written is determined by the CacheMode in effect.
+	 *
+	 * @param jdbcSelectPlan The plan being executed
+	 * @param queryParameterBindings The parameter bindings for the execution
+	 * @param queryOptions The options for the execution
+	 * @param session The Session
+	 * @param loader Performs the execution if needed
+	 *
+	 * @return The rows
+	 */
+	List<Object[]> getResults(
+			JdbcSelectPlan jdbcSelectPlan,
+			QueryParameterBindings queryParameterBindings,
+			QueryOptions queryOptions,
+			SessionImplementor session,
+			ResultsLoader loader);
+
+	/**
+	 * Indicate that the contents of the named tables have changed; results read from any of
+	 * them before now will no longer be used.
+	 *
+	 * @param tableNames The names of the changed tables
+	 */
+	void invalidate(Set<String> tableNames);
+
+	/**
+	 * Remove all cached results from all regions.  Does not reset the statistics.
+	 */
+	void evictAll();
+
+	/**
+	 * The number of times (current) results were found in the cache
+	 */
+	long getHitCount();
+
+	/**
+	 * The number of times results were looked for in the cache but not found, or found to be stale
+	 */
+	long getMissCount();
+
+	/**
+	 * The number of times results were put into the cache
+	 */
+	long getPutCount();
+
+	/**
+	 * Performs the actual execution for {@link #getResults}
+	 */
+	interface ResultsLoader {
+		List<Object[]> load();
+	}
+}
@@ -0,0 +1,54 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.query.spi;
+
+import org.hibernate.Incubating;
+
+/**
+ * A named region of a {@link QueryResultCache}, holding the cached (disassembled) results of
+ * queries.  The keys and values handed to the region are Serializable, so that regions can be
+ * backed by an external (distributed) cache.
+ * <p/>
+ * Implementations are expected to be safe for concurrent use, and to bound the number of
+ * entries they hold.  Entries may be dropped at any time.
+ */
+@Incubating
+public interface QueryResultRegion {
+	/**
+	 * The name of the region
+	 */
+	String getName();
+
+	/**
+	 * Get the value cached under the given key
+	 *
+	 * @param key The key
+	 *
+	 * @return The cached value, or {@code null}
+	 */
+	Object get(Object key);
+
+	/**
+	 * Cache the given value under the given key, replacing any value already cached
+	 *
+	 * @param key The key
+	 * @param value The value
+	 */
+	void put(Object key, Object value);
+
+	/**
+	 * Remove the value cached under the given key, if any
+	 *
+	 * @param key The key
+	 */
+	void evict(Object key);
+
+	/**
+	 * Remove all entries from the region
+	 */
+	void evictAll();
+}
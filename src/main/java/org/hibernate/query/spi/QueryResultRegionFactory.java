@@ -0,0 +1,31 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.query.spi;
+
+import java.util.Map;
+
+import org.hibernate.Incubating;
+
+/**
+ * Builds the {@link QueryResultRegion}s of the {@link QueryResultCache}; the pluggable part of
+ * query result caching.  Named by the
+ * {@link org.hibernate.query.internal.QueryResultCacheImpl#REGION_FACTORY} setting; the default
+ * keeps the results in-process.
+ */
+@Incubating
+public interface QueryResultRegionFactory {
+	/**
+	 * Build the region with the given name.  Called once per region, the first time a query
+	 * result is cached into or read from it.
+	 *
+	 * @param regionName The name of the region
+	 * @param configurationValues The configuration settings
+	 *
+	 * @return The region
+	 */
+	QueryResultRegion buildQueryResultRegion(String regionName, Map configurationValues);
+}
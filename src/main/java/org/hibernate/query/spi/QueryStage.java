@@ -0,0 +1,45 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.query.spi;
+
+/**
+ * The stages of preparing and executing a query, as reported to
+ * {@link org.hibernate.sql.gen.Callback#stageCompleted}
+ */
+public enum QueryStage {
+	/**
+	 * Parsing the query string and interpreting it into SQM.  Only happens when
+	 * the QueryPlan is built.
+	 */
+	SQM_INTERPRETATION,
+	/**
+	 * Interpreting the SQM into a SQL AST.  Only happens when a JdbcSelectPlan
+	 * is built.
+	 */
+	SQL_AST_INTERPRETATION,
+	/**
+	 * Rendering the SQL AST into the SQL string.  Only happens when a JdbcSelectPlan
+	 * is built.
+	 */
+	SQL_RENDERING,
+	/**
+	 * Preparing the JDBC statement
+	 */
+	PREPARE,
+	/**
+	 * Binding parameter values to the JDBC statement
+	 */
+	BIND,
+	/**
+	 * Executing the JDBC statement
+	 */
+	EXECUTE,
+	/**
+	 * Reading (and transforming) the rows of the results
+	 */
+	ROW_READ
+}
@@ -0,0 +1,41 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.query.spi;
+
+import org.hibernate.Incubating;
+import org.hibernate.sql.gen.Callback;
+
+/**
+ * Statistics for a {@link QueryPlan}, aggregated across all executions of the plan.  Acts
+ * as the {@link Callback} for those executions.
+ */
+@Incubating
+public interface QueryStatistics extends Callback {
+	/**
+	 * The query string the plan is for
+	 */
+	String getQueryString();
+
+	/**
+	 * The time (in nanoseconds) spent in the given stage
+	 *
+	 * @param stage The stage
+	 *
+	 * @return The histogram of times
+	 */
+	QueryStatisticsHistogram getStageHistogram(QueryStage stage);
+
+	/**
+	 * The number of rows read per execution
+	 */
+	QueryStatisticsHistogram getRowCountHistogram();
+
+	/**
+	 * The length of the most recently rendered SQL
+	 */
+	int getRenderedSqlLength();
+}
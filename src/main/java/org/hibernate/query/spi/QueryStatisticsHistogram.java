@@ -0,0 +1,103 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.query.spi;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A small, lock-free histogram of (non-negative) long values.  Values are counted into
+ * power-of-two buckets, so recording is constant time and the footprint is fixed; the
+ * trade-off being that percentiles are only accurate to within a factor of 2.  The count,
+ * total and max are exact.
+ */
+public class QueryStatisticsHistogram {
+	// bucket 0 holds the value 0; bucket i holds values in [2^(i-1), 2^i - 1]
+	private static final int BUCKET_COUNT = 64;
+
+	private final AtomicLongArray buckets = new AtomicLongArray( BUCKET_COUNT );
+	private final AtomicLong count = new AtomicLong();
+	private final AtomicLong total = new AtomicLong();
+	private final AtomicLong max = new AtomicLong();
+
+	public void record(long value) {
+		if ( value < 0 ) {
+			value = 0;
+		}
+
+		buckets.incrementAndGet( bucketIndex( value ) );
+		count.incrementAndGet();
+		total.addAndGet( value );
+
+		long currentMax = max.get();
+		while ( value > currentMax ) {
+			if ( max.compareAndSet( currentMax, value ) ) {
+				break;
+			}
+			currentMax = max.get();
+		}
+	}
+
+	private static int bucketIndex(long value) {
+		// a positive long has at most 63 significant bits
+		return 64 - Long.numberOfLeadingZeros( value );
+	}
+
+	public long getCount() {
+		return count.get();
+	}
+
+	public long getTotal() {
+		return total.get();
+	}
+
+	public long getMax() {
+		return max.get();
+	}
+
+	public double getMean() {
+		final long count = getCount();
+		return count == 0 ? 0 : (double) getTotal() / count;
+	}
+
+	/**
+	 * Get the (approximate) value at the given percentile.  The returned value is the upper
+	 * bound of the bucket containing the percentile, capped at the max recorded value.
+	 *
+	 * @param percentile The percentile, between 0 and 100
+	 *
+	 * @return The value at the percentile; 0 if nothing was recorded
+	 */
+	public long getValueAtPercentile(double percentile) {
+		final long count = getCount();
+		if ( count == 0 ) {
+			return 0;
+		}
+
+		final long target = Math.max( 1, (long) Math.ceil( count * percentile / 100d ) );
+		long seen = 0;
+		for ( int i = 0; i < BUCKET_COUNT; i++ ) {
+			seen += buckets.get( i );
+			if ( seen >= target ) {
+				final long bucketUpperBound = i == 0 ? 0 : ( 1L << i ) - 1;
+				return Math.min( bucketUpperBound, getMax() );
+			}
+		}
+
+		// concurrent recording can leave the counts momentarily out of step
+		return getMax();
+	}
+
+	@Override
+	public String toString() {
+		return "QueryStatisticsHistogram(count=" + getCount()
+				+ ", mean=" + getMean()
+				+ ", p50=" + getValueAtPercentile( 50 )
+				+ ", p99=" + getValueAtPercentile( 99 )
+				+ ", max=" + getMax() + ")";
+	}
+}
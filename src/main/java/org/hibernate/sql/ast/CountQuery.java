@@ -0,0 +1,185 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.sql.ast;
+
+import java.util.List;
+
+import org.hibernate.sql.ast.expression.AggregateFunction;
+import org.hibernate.sql.ast.expression.BinaryArithmeticExpression;
+import org.hibernate.sql.ast.expression.CaseSearchedExpression;
+import org.hibernate.sql.ast.expression.CaseSimpleExpression;
+import org.hibernate.sql.ast.expression.CoalesceExpression;
+import org.hibernate.sql.ast.expression.ConcatExpression;
+import org.hibernate.sql.ast.expression.CountStarFunction;
+import org.hibernate.sql.ast.expression.Expression;
+import org.hibernate.sql.ast.expression.NonStandardFunctionExpression;
+import org.hibernate.sql.ast.expression.NullifExpression;
+import org.hibernate.sql.ast.expression.UnaryOperationExpression;
+import org.hibernate.sql.ast.expression.instantiation.DynamicInstantiation;
+import org.hibernate.sql.ast.expression.instantiation.DynamicInstantiationArgument;
+import org.hibernate.sql.ast.select.SelectClause;
+import org.hibernate.sql.ast.select.Selection;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * The SQL AST for counting the results of a SelectQuery (see {@link org.hibernate.query.Query#count()}),
+ * derived from the SelectQuery's own SQL AST rather than separately interpreted.  The ORDER BY
+ * is dropped, and:<ul>
+ *     <li>
+ *         where each row of the query is a result (no DISTINCT, and no aggregate selections
+ *         collapsing the rows into one), the selections are replaced by {@code count(*)}
+ *     </li>
+ *     <li>
+ *         otherwise the query (less its ORDER BY) is counted as a derived table -
+ *         {@code select count(*) from ( ... ) count_} - each of its selected columns given
+ *         its own alias
+ *     </li>
+ * </ul>
+ */
+public class CountQuery {
+	/**
+	 * Derive the CountQuery from the given SQL AST.  The SQL AST is adapted in place, so it
+	 * should be one interpreted specifically for counting.
+	 *
+	 * @param sqlAst The SQL AST, as interpreted from the SQM
+	 *
+	 * @return The CountQuery
+	 */
+	public static CountQuery from(SelectQuery sqlAst) {
+		final QuerySpec querySpec = sqlAst.getQuerySpec();
+		final Selection countSelection = new Selection( new CountStarFunction( false, StandardBasicTypes.LONG ), null );
+
+		if ( requiresDerivedTable( querySpec ) ) {
+			return new CountQuery( querySpec, countSelection );
+		}
+
+		final SelectClause selectClause = querySpec.getSelectClause();
+		selectClause.getSelections().clear();
+		selectClause.selection( countSelection );
+		return new CountQuery( querySpec, null );
+	}
+
+	private static boolean requiresDerivedTable(QuerySpec querySpec) {
+		if ( querySpec.getSelectClause().isDistinct() ) {
+			return true;
+		}
+		for ( Selection selection : querySpec.getSelectClause().getSelections() ) {
+			if ( containsAggregate( selection.getSelectExpression() ) ) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Aggregate selections (without GROUP BY) collapse the rows into one
+	 */
+	private static boolean containsAggregate(Expression expression) {
+		if ( expression == null ) {
+			return false;
+		}
+		if ( expression instanceof AggregateFunction ) {
+			return true;
+		}
+
+		if ( expression instanceof BinaryArithmeticExpression ) {
+			return containsAggregate( ( (BinaryArithmeticExpression) expression ).getLeftHandOperand() )
+					|| containsAggregate( ( (BinaryArithmeticExpression) expression ).getRightHandOperand() );
+		}
+		if ( expression instanceof UnaryOperationExpression ) {
+			return containsAggregate( ( (UnaryOperationExpression) expression ).getOperand() );
+		}
+		if ( expression instanceof ConcatExpression ) {
+			return containsAggregate( ( (ConcatExpression) expression ).getLeftHandOperand() )
+					|| containsAggregate( ( (ConcatExpression) expression ).getRightHandOperand() );
+		}
+		if ( expression instanceof NullifExpression ) {
+			return containsAggregate( ( (NullifExpression) expression ).getFirstArgument() )
+					|| containsAggregate( ( (NullifExpression) expression ).getSecondArgument() );
+		}
+		if ( expression instanceof CoalesceExpression ) {
+			return containsAnyAggregate( ( (CoalesceExpression) expression ).getValues() );
+		}
+		if ( expression instanceof NonStandardFunctionExpression ) {
+			return containsAnyAggregate( ( (NonStandardFunctionExpression) expression ).getArguments() );
+		}
+		if ( expression instanceof CaseSimpleExpression ) {
+			final CaseSimpleExpression caseExpression = (CaseSimpleExpression) expression;
+			if ( containsAggregate( caseExpression.getFixture() ) || containsAggregate( caseExpression.getOtherwise() ) ) {
+				return true;
+			}
+			for ( CaseSimpleExpression.WhenFragment whenFragment : caseExpression.getWhenFragments() ) {
+				if ( containsAggregate( whenFragment.getCheckValue() ) || containsAggregate( whenFragment.getResult() ) ) {
+					return true;
+				}
+			}
+			return false;
+		}
+		if ( expression instanceof CaseSearchedExpression ) {
+			final CaseSearchedExpression caseExpression = (CaseSearchedExpression) expression;
+			if ( containsAggregate( caseExpression.getOtherwise() ) ) {
+				return true;
+			}
+			for ( CaseSearchedExpression.WhenFragment whenFragment : caseExpression.getWhenFragments() ) {
+				if ( containsAggregate( whenFragment.getResult() ) ) {
+					return true;
+				}
+			}
+			return false;
+		}
+		if ( expression instanceof DynamicInstantiation ) {
+			for ( Object argument : ( (DynamicInstantiation) expression ).getArguments() ) {
+				if ( containsAggregate( ( (DynamicInstantiationArgument) argument ).getExpression() ) ) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		return false;
+	}
+
+	private static boolean containsAnyAggregate(List<Expression> expressions) {
+		for ( Expression expression : expressions ) {
+			if ( containsAggregate( expression ) ) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private final QuerySpec querySpec;
+	private final Selection derivedTableCountSelection;
+
+	private CountQuery(QuerySpec querySpec, Selection derivedTableCountSelection) {
+		this.querySpec = querySpec;
+		this.derivedTableCountSelection = derivedTableCountSelection;
+	}
+
+	/**
+	 * The QuerySpec to render; either selecting the count itself, or (see
+	 * {@link #isDerivedTable()}) selecting the rows to be counted
+	 */
+	public QuerySpec getQuerySpec() {
+		return querySpec;
+	}
+
+	/**
+	 * Whether the QuerySpec is counted as a derived table
+	 */
+	public boolean isDerivedTable() {
+		return derivedTableCountSelection != null;
+	}
+
+	/**
+	 * The {@code count(*)} selection over the derived table; {@code null} unless
+	 * {@link #isDerivedTable()}
+	 */
+	public Selection getDerivedTableCountSelection() {
+		return derivedTableCountSelection;
+	}
+}
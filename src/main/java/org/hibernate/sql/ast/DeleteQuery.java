@@ -0,0 +1,41 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.sql.ast;
+
+import org.hibernate.sql.ast.from.EntityTableGroup;
+import org.hibernate.sql.ast.predicate.Predicate;
+import org.hibernate.sql.gen.SqlTreeWalker;
+
+public class DeleteQuery implements MutationQuery {
+	private final EntityTableGroup targetTableGroup;
+	private Predicate restriction;
+
+	public DeleteQuery(EntityTableGroup targetTableGroup) {
+		this.targetTableGroup = targetTableGroup;
+	}
+
+	@Override
+	public EntityTableGroup getTargetTableGroup() {
+		return targetTableGroup;
+	}
+
+	public Predicate getRestriction() {
+		return restriction;
+	}
+
+	public void setRestriction(Predicate restriction) {
+		if ( this.restriction != null ) {
+			throw new UnsupportedOperationException( "Cannot set restriction after already set" );
+		}
+		this.restriction = restriction;
+	}
+
+	@Override
+	public void accept(SqlTreeWalker sqlTreeWalker) {
+		sqlTreeWalker.visitDeleteQuery( this );
+	}
+}
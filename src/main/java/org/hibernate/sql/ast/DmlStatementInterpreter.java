@@ -0,0 +1,131 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.sql.ast;
+
+import org.hibernate.AssertionFailure;
+import org.hibernate.persister.entity.spi.ImprovedEntityPersister;
+import org.hibernate.sql.ast.from.EntityTableGroup;
+import org.hibernate.sql.ast.from.FromClause;
+import org.hibernate.sql.ast.from.TableSpace;
+import org.hibernate.sql.ast.predicate.Predicate;
+import org.hibernate.sql.ast.update.Assignment;
+import org.hibernate.sql.exec.spi.QueryOptions;
+import org.hibernate.sql.gen.Callback;
+import org.hibernate.sqm.query.DeleteStatement;
+import org.hibernate.sqm.query.InsertSelectStatement;
+import org.hibernate.sqm.query.NonSelectStatement;
+import org.hibernate.sqm.query.SelectStatement;
+import org.hibernate.sqm.query.UpdateStatement;
+import org.hibernate.sqm.query.expression.AttributeReferenceExpression;
+import org.hibernate.sqm.query.from.RootEntityFromElement;
+import org.hibernate.sqm.query.predicate.WhereClause;
+
+/**
+ * Interprets the SQM for UPDATE, DELETE and INSERT-SELECT statements into the corresponding
+ * {@link MutationQuery} SQL AST.  Everything below the statement level (expressions, predicates,
+ * subqueries) is interpreted just as for a SELECT.
+ */
+public class DmlStatementInterpreter extends SelectStatementInterpreter {
+
+	/**
+	 * Main entry point into SQM DML statement interpretation
+	 *
+	 * @param statement The SQM UpdateStatement, DeleteStatement or InsertSelectStatement to interpret
+	 * @param queryOptions The options to be applied to the interpretation
+	 * @param callback to be formally defined
+	 *
+	 * @return The SQL AST
+	 */
+	public static MutationQuery interpret(NonSelectStatement statement, QueryOptions queryOptions, Callback callback) {
+		final DmlStatementInterpreter walker = new DmlStatementInterpreter( queryOptions, callback );
+		return (MutationQuery) walker.visitStatement( statement );
+	}
+
+	public DmlStatementInterpreter(QueryOptions queryOptions, Callback callback) {
+		super( queryOptions, callback );
+	}
+
+	@Override
+	public SelectQuery visitSelectStatement(SelectStatement statement) {
+		throw new AssertionFailure( "Not expecting SelectStatement" );
+	}
+
+	@Override
+	public UpdateQuery visitUpdateStatement(UpdateStatement statement) {
+		final UpdateQuery sqlAst = new UpdateQuery( buildTargetTableGroup( statement.getEntityFromElement() ) );
+
+		for ( org.hibernate.sqm.query.set.Assignment assignment : statement.getSetClause().getAssignments() ) {
+			sqlAst.addAssignment(
+					new Assignment(
+							visitAttributeReferenceExpression( assignment.getStateField() ),
+							(org.hibernate.sql.ast.expression.Expression) assignment.getValue().accept( this )
+					)
+			);
+		}
+
+		final Predicate restriction = interpretRestriction( statement.getWhereClause() );
+		if ( restriction != null ) {
+			sqlAst.setRestriction( restriction );
+		}
+
+		return sqlAst;
+	}
+
+	@Override
+	public DeleteQuery visitDeleteStatement(DeleteStatement statement) {
+		final DeleteQuery sqlAst = new DeleteQuery( buildTargetTableGroup( statement.getEntityFromElement() ) );
+
+		final Predicate restriction = interpretRestriction( statement.getWhereClause() );
+		if ( restriction != null ) {
+			sqlAst.setRestriction( restriction );
+		}
+
+		return sqlAst;
+	}
+
+	@Override
+	public InsertSelectQuery visitInsertSelectStatement(InsertSelectStatement statement) {
+		final InsertSelectQuery sqlAst = new InsertSelectQuery( buildTargetTableGroup( statement.getInsertTarget() ) );
+
+		for ( AttributeReferenceExpression stateField : statement.getStateFields() ) {
+			sqlAst.addTargetAttribute( visitAttributeReferenceExpression( stateField ) );
+		}
+
+		sqlAst.setSourceSelect( visitQuerySpec( statement.getSelectQuery() ) );
+
+		return sqlAst;
+	}
+
+	/**
+	 * The target of a DML statement is a single entity, with no joins (beyond those to its own
+	 * tables).  Build its TableGroup as the root of an otherwise empty FromClause, so that
+	 * references to it resolve just as they would in a SELECT.
+	 */
+	private EntityTableGroup buildTargetTableGroup(RootEntityFromElement targetFromElement) {
+		final FromClause fromClause = new FromClause();
+		final TableSpace tableSpace = fromClause.makeTableSpace();
+
+		getFromClauseIndex().pushFromClause( fromClause );
+		final ImprovedEntityPersister entityPersister = (ImprovedEntityPersister) targetFromElement.getBoundModelType();
+		final EntityTableGroup group = entityPersister.buildTableGroup(
+				targetFromElement,
+				tableSpace,
+				getSqlAliasBaseManager(),
+				getFromClauseIndex()
+		);
+		tableSpace.setRootTableGroup( group );
+
+		return group;
+	}
+
+	private Predicate interpretRestriction(WhereClause whereClause) {
+		if ( whereClause == null || whereClause.getPredicate() == null ) {
+			return null;
+		}
+		return (Predicate) whereClause.getPredicate().accept( this );
+	}
+}
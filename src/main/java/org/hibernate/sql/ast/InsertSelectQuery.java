@@ -0,0 +1,57 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.sql.ast;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.hibernate.sql.ast.expression.AttributeReference;
+import org.hibernate.sql.ast.from.EntityTableGroup;
+import org.hibernate.sql.gen.SqlTreeWalker;
+
+public class InsertSelectQuery implements MutationQuery {
+	private final EntityTableGroup targetTableGroup;
+	private final List<AttributeReference> targetAttributes = new ArrayList<AttributeReference>();
+	private QuerySpec sourceSelect;
+
+	public InsertSelectQuery(EntityTableGroup targetTableGroup) {
+		this.targetTableGroup = targetTableGroup;
+	}
+
+	@Override
+	public EntityTableGroup getTargetTableGroup() {
+		return targetTableGroup;
+	}
+
+	/**
+	 * The attributes being inserted, in the order of the source select's selections
+	 */
+	public List<AttributeReference> getTargetAttributes() {
+		return Collections.unmodifiableList( targetAttributes );
+	}
+
+	public void addTargetAttribute(AttributeReference targetAttribute) {
+		targetAttributes.add( targetAttribute );
+	}
+
+	public QuerySpec getSourceSelect() {
+		return sourceSelect;
+	}
+
+	public void setSourceSelect(QuerySpec sourceSelect) {
+		if ( this.sourceSelect != null ) {
+			throw new UnsupportedOperationException( "Cannot set source select after already set" );
+		}
+		this.sourceSelect = sourceSelect;
+	}
+
+	@Override
+	public void accept(SqlTreeWalker sqlTreeWalker) {
+		sqlTreeWalker.visitInsertSelectQuery( this );
+	}
+}
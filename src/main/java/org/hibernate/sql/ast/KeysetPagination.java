@@ -0,0 +1,148 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.sql.ast;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.QueryException;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.sql.ast.expression.Expression;
+import org.hibernate.sql.ast.expression.KeysetParameter;
+import org.hibernate.sql.ast.expression.SqlTuple;
+import org.hibernate.sql.ast.predicate.GroupedPredicate;
+import org.hibernate.sql.ast.predicate.Junction;
+import org.hibernate.sql.ast.predicate.Predicate;
+import org.hibernate.sql.ast.predicate.RelationalPredicate;
+import org.hibernate.sql.ast.select.Selection;
+import org.hibernate.sql.ast.sort.SortSpecification;
+import org.hibernate.sqm.query.order.SortOrder;
+
+/**
+ * Adapts an interpreted SelectQuery for keyset ("seek") pagination, where each page is
+ * restricted to the rows following the key - the values of the ORDER BY expressions - of the
+ * last row of the previous page, rather than skipping the previous pages' rows by offset:<ul>
+ *     <li>
+ *         the ORDER BY expressions are added as trailing selections, so that the key of the
+ *         last row of the page can be read
+ *     </li>
+ *     <li>
+ *         for pages after the first, the where-clause is restricted to the rows following the
+ *         key; as a row value comparison ({@code (a, b) > (?, ?)}) where the Dialect supports
+ *         that and all of the ORDER BY directions are the same, otherwise as the equivalent
+ *         expanded disjunction ({@code a > ? or (a = ? and b > ?)})
+ *     </li>
+ * </ul>
+ * The ORDER BY must be a total ordering (generally, end with a unique key) for the pages to be
+ * exact.  Null key values are not supported.
+ */
+public class KeysetPagination {
+	/**
+	 * Apply keyset pagination to the given SQL AST.
+	 *
+	 * @param sqlAst The SQL AST, as interpreted from the SQM
+	 * @param continuation Whether the SQL is for a page after the first (restricted by a key)
+	 * @param sessionFactory The SessionFactory
+	 */
+	public static void apply(SelectQuery sqlAst, boolean continuation, SessionFactoryImplementor sessionFactory) {
+		final List<SortSpecification> sortSpecifications = sqlAst.getSortSpecifications();
+		if ( sortSpecifications.isEmpty() ) {
+			throw new QueryException( "Keyset pagination requires the query to define an ORDER BY" );
+		}
+
+		final QuerySpec querySpec = sqlAst.getQuerySpec();
+		final List<Expression> keyExpressions = new ArrayList<Expression>();
+		final List<Expression> keyParameters = new ArrayList<Expression>();
+		for ( SortSpecification sortSpecification : sortSpecifications ) {
+			final Expression sortExpression = sortSpecification.getSortExpression();
+			if ( sortExpression.getType() == null || sortExpression.getType().getColumnSpan( sessionFactory ) != 1 ) {
+				throw new QueryException( "Keyset pagination requires each ORDER BY expression to be a single-column value" );
+			}
+
+			querySpec.getSelectClause().selection( new Selection( sortExpression, null ) );
+			keyExpressions.add( sortExpression );
+			keyParameters.add( new KeysetParameter( keyParameters.size(), sortExpression.getType() ) );
+		}
+
+		if ( continuation ) {
+			querySpec.addWhereClauseRestriction(
+					buildKeyRestriction( sortSpecifications, keyExpressions, keyParameters, sessionFactory.getDialect() )
+			);
+		}
+	}
+
+	private static Predicate buildKeyRestriction(
+			List<SortSpecification> sortSpecifications,
+			List<Expression> keyExpressions,
+			List<Expression> keyParameters,
+			Dialect dialect) {
+		if ( keyExpressions.size() == 1 ) {
+			return new RelationalPredicate(
+					following( sortSpecifications.get( 0 ) ),
+					keyExpressions.get( 0 ),
+					keyParameters.get( 0 )
+			);
+		}
+
+		if ( dialect.supportsRowValueConstructorSyntax() && isUniformlyOrdered( sortSpecifications ) ) {
+			return new RelationalPredicate(
+					following( sortSpecifications.get( 0 ) ),
+					new SqlTuple( keyExpressions ),
+					new SqlTuple( keyParameters )
+			);
+		}
+
+		// (a > ?) or (a = ? and b > ?) or (a = ? and b = ? and c > ?) ...
+		final Junction disjunction = new Junction( Junction.Nature.DISJUNCTION );
+		for ( int i = 0; i < keyExpressions.size(); i++ ) {
+			final Junction conjunction = new Junction( Junction.Nature.CONJUNCTION );
+			for ( int j = 0; j < i; j++ ) {
+				conjunction.add(
+						new RelationalPredicate(
+								RelationalPredicate.Operator.EQUAL,
+								keyExpressions.get( j ),
+								keyParameters.get( j )
+						)
+				);
+			}
+			conjunction.add(
+					new RelationalPredicate(
+							following( sortSpecifications.get( i ) ),
+							keyExpressions.get( i ),
+							keyParameters.get( i )
+					)
+			);
+			disjunction.add( new GroupedPredicate( conjunction ) );
+		}
+		return disjunction;
+	}
+
+	private static boolean isUniformlyOrdered(List<SortSpecification> sortSpecifications) {
+		final boolean descending = isDescending( sortSpecifications.get( 0 ) );
+		for ( SortSpecification sortSpecification : sortSpecifications ) {
+			if ( isDescending( sortSpecification ) != descending ) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean isDescending(SortSpecification sortSpecification) {
+		return sortSpecification.getSortOrder() == SortOrder.DESCENDING;
+	}
+
+	/**
+	 * The operator restricting a sort expression to the values following the key value
+	 */
+	private static RelationalPredicate.Operator following(SortSpecification sortSpecification) {
+		return isDescending( sortSpecification ) ? RelationalPredicate.Operator.LT : RelationalPredicate.Operator.GT;
+	}
+
+	private KeysetPagination() {
+	}
+}
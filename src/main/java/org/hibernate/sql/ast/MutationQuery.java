@@ -0,0 +1,28 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.sql.ast;
+
+import org.hibernate.sql.ast.from.EntityTableGroup;
+import org.hibernate.sql.gen.SqlTreeWalker;
+
+/**
+ * Common contract for the SQL AST of the DML statements: {@link UpdateQuery}, {@link DeleteQuery}
+ * and {@link InsertSelectQuery}.
+ */
+public interface MutationQuery {
+	/**
+	 * The TableGroup for the entity being mutated
+	 */
+	EntityTableGroup getTargetTableGroup();
+
+	/**
+	 * Visitation by delegation
+	 *
+	 * @param sqlTreeWalker The visitation controller
+	 */
+	void accept(SqlTreeWalker sqlTreeWalker);
+}
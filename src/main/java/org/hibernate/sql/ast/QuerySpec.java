@@ -7,6 +7,8 @@
 package org.hibernate.sql.ast;
 
 import org.hibernate.sql.ast.from.FromClause;
+import org.hibernate.sql.ast.predicate.GroupedPredicate;
+import org.hibernate.sql.ast.predicate.Junction;
 import org.hibernate.sql.ast.predicate.Predicate;
 import org.hibernate.sql.ast.select.SelectClause;
 
@@ -19,8 +21,6 @@ public class QuerySpec {
 
 	private Predicate whereClauseRestrictions;
 
-	// where clause, etc
-
 	public FromClause getFromClause() {
 		return fromClause;
 	}
@@ -39,4 +39,19 @@ public class QuerySpec {
 		}
 		this.whereClauseRestrictions = whereClauseRestrictions;
 	}
+
+	/**
+	 * Add a restriction to the where-clause; AND-ed with any existing restrictions.
+	 */
+	public void addWhereClauseRestriction(Predicate restriction) {
+		if ( this.whereClauseRestrictions == null || this.whereClauseRestrictions.isEmpty() ) {
+			this.whereClauseRestrictions = restriction;
+			return;
+		}
+
+		final Junction conjunction = new Junction( Junction.Nature.CONJUNCTION );
+		conjunction.add( new GroupedPredicate( this.whereClauseRestrictions ) );
+		conjunction.add( new GroupedPredicate( restriction ) );
+		this.whereClauseRestrictions = conjunction;
+	}
 }
@@ -12,6 +12,7 @@ import java.util.Stack;
 
 import org.hibernate.AssertionFailure;
 import org.hibernate.persister.collection.spi.ImprovedCollectionPersister;
+import org.hibernate.persister.common.internal.SingularAttributeEntity;
 import org.hibernate.persister.common.spi.SingularAttributeImplementor;
 import org.hibernate.persister.common.spi.SqmTypeImplementor;
 import org.hibernate.persister.entity.spi.ImprovedEntityPersister;
@@ -76,6 +77,7 @@ import org.hibernate.sqm.query.expression.SumFunction;
 import org.hibernate.sqm.query.expression.UnaryOperationExpression;
 import org.hibernate.sqm.query.from.CrossJoinedFromElement;
 import org.hibernate.sqm.query.from.FromClause;
+import org.hibernate.sqm.query.from.FromElement;
 import org.hibernate.sqm.query.from.FromElementSpace;
 import org.hibernate.sqm.query.from.JoinedFromElement;
 import org.hibernate.sqm.query.from.QualifiedAttributeJoinFromElement;
@@ -142,6 +144,14 @@ public class SelectStatementInterpreter extends BaseSemanticQueryWalker {
 		return sqlAst;
 	}
 
+	protected FromClauseIndex getFromClauseIndex() {
+		return fromClauseIndex;
+	}
+
+	protected SqlAliasBaseManager getSqlAliasBaseManager() {
+		return sqlAliasBaseManager;
+	}
+
 
 	// ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
 	// walker
@@ -159,7 +169,7 @@ public class SelectStatementInterpreter extends BaseSemanticQueryWalker {
 
 	@Override
 	public Object visitInsertSelectStatement(InsertSelectStatement statement) {
-		throw new AssertionFailure( "Not expecting DeleteStatement" );
+		throw new AssertionFailure( "Not expecting InsertSelectStatement" );
 	}
 
 	@Override
@@ -267,11 +277,24 @@ public class SelectStatementInterpreter extends BaseSemanticQueryWalker {
 				sqlAliasBaseManager,
 				fromClauseIndex
 		);
+		applyTreat( group, rootEntityFromElement );
 		tableSpace.setRootTableGroup( group );
 
 		return null;
 	}
 
+	/**
+	 * A TREAT of a FromElement is exposed as its intrinsic subclass.  The group is built for the
+	 * declared type (so that it includes the subclass tables), and the TREAT then requires the
+	 * tables of the treated subclass.
+	 */
+	private static void applyTreat(EntityTableGroup group, FromElement fromElement) {
+		final ImprovedEntityPersister treatedPersister = (ImprovedEntityPersister) fromElement.getIntrinsicSubclassIndicator();
+		if ( treatedPersister != null && treatedPersister != group.getPersister() ) {
+			group.applyTreat( treatedPersister );
+		}
+	}
+
 	@Override
 	public Object visitQualifiedAttributeJoinFromElement(QualifiedAttributeJoinFromElement joinedFromElement) {
 		if ( fromClauseIndex.isResolved( joinedFromElement ) ) {
@@ -314,13 +337,15 @@ public class SelectStatementInterpreter extends BaseSemanticQueryWalker {
 				group = fromClauseIndex.findResolvedTableGroup( joinedFromElement.getAttributeBindingSource() );
 			}
 			else {
-				final ImprovedEntityPersister entityPersister = (ImprovedEntityPersister) joinedFromElement.getIntrinsicSubclassIndicator();
+				final ImprovedEntityPersister entityPersister =
+						(ImprovedEntityPersister) ( (SingularAttributeEntity) singularAttribute ).getBoundType();
 				group = entityPersister.buildTableGroup(
 						joinedFromElement,
 						tableSpace,
 						sqlAliasBaseManager,
 						fromClauseIndex
 				);
+				applyTreat( (EntityTableGroup) group, joinedFromElement );
 
 				final TableGroup lhsTableGroup = fromClauseIndex.findResolvedTableGroup( joinedFromElement.getAttributeBindingSource() );
 				final ColumnBinding[] joinLhsColumns = lhsTableGroup.resolveBindings( singularAttribute );
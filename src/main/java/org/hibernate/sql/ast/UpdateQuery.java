@@ -0,0 +1,55 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.sql.ast;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.hibernate.sql.ast.from.EntityTableGroup;
+import org.hibernate.sql.ast.predicate.Predicate;
+import org.hibernate.sql.ast.update.Assignment;
+import org.hibernate.sql.gen.SqlTreeWalker;
+
+public class UpdateQuery implements MutationQuery {
+	private final EntityTableGroup targetTableGroup;
+	private final List<Assignment> assignments = new ArrayList<Assignment>();
+	private Predicate restriction;
+
+	public UpdateQuery(EntityTableGroup targetTableGroup) {
+		this.targetTableGroup = targetTableGroup;
+	}
+
+	@Override
+	public EntityTableGroup getTargetTableGroup() {
+		return targetTableGroup;
+	}
+
+	public List<Assignment> getAssignments() {
+		return Collections.unmodifiableList( assignments );
+	}
+
+	public void addAssignment(Assignment assignment) {
+		assignments.add( assignment );
+	}
+
+	public Predicate getRestriction() {
+		return restriction;
+	}
+
+	public void setRestriction(Predicate restriction) {
+		if ( this.restriction != null ) {
+			throw new UnsupportedOperationException( "Cannot set restriction after already set" );
+		}
+		this.restriction = restriction;
+	}
+
+	@Override
+	public void accept(SqlTreeWalker sqlTreeWalker) {
+		sqlTreeWalker.visitUpdateQuery( this );
+	}
+}
@@ -8,11 +8,15 @@ package org.hibernate.sql.ast.expression;
 
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.util.List;
 
 import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.sql.gen.Helper;
 import org.hibernate.sql.gen.ParameterBinder;
 import org.hibernate.sql.gen.ParameterSpec;
 import org.hibernate.query.spi.QueryParameterBinding;
+import org.hibernate.query.spi.QueryParameterBindings;
+import org.hibernate.query.spi.QueryParameterSlots;
 import org.hibernate.type.Type;
 
 import org.jboss.logging.Logger;
@@ -25,6 +29,10 @@ public abstract class AbstractParameter extends SelfReadingExpressionSupport imp
 
 	private final Type inferredType;
 
+	// the slot of this parameter's binding, as resolved against the last QueryParameterSlots seen;
+	// generally all bindings used with this parameter share the same (plan's) slots
+	private volatile ResolvedSlot resolvedSlot;
+
 	public AbstractParameter(Type inferredType) {
 		this.inferredType = inferredType;
 	}
@@ -43,6 +51,35 @@ public abstract class AbstractParameter extends SelfReadingExpressionSupport imp
 		return this;
 	}
 
+	/**
+	 * Resolve this parameter's binding from the given bindings, by slot.
+	 *
+	 * @param queryParameterBindings The bindings
+	 *
+	 * @return The binding
+	 */
+	public QueryParameterBinding resolveBinding(QueryParameterBindings queryParameterBindings) {
+		final QueryParameterSlots parameterSlots = queryParameterBindings.getParameterSlots();
+
+		ResolvedSlot resolved = resolvedSlot;
+		if ( resolved == null || resolved.parameterSlots != parameterSlots ) {
+			resolved = new ResolvedSlot( parameterSlots, resolveSlot( parameterSlots ) );
+			resolvedSlot = resolved;
+		}
+		return queryParameterBindings.getBinding( resolved.slot );
+	}
+
+	protected abstract int resolveSlot(QueryParameterSlots parameterSlots);
+
+	@Override
+	public int bindParameterValue(
+			PreparedStatement statement,
+			int startPosition,
+			QueryParameterBindings queryParameterBindings,
+			SessionImplementor session) throws SQLException {
+		return bindParameterValue( statement, startPosition, resolveBinding( queryParameterBindings ), session );
+	}
+
 	protected int bindParameterValue(
 			PreparedStatement statement,
 			int startPosition,
@@ -63,6 +100,9 @@ public abstract class AbstractParameter extends SelfReadingExpressionSupport imp
 			else {
 				bindType = valueBinding.getBindType();
 			}
+			if ( valueBinding.isMultiValued() ) {
+				return bindParameterValues( statement, startPosition, bindType, valueBinding.getBindValues(), session );
+			}
 			bindValue = valueBinding.getBindValue();
 		}
 
@@ -78,9 +118,46 @@ public abstract class AbstractParameter extends SelfReadingExpressionSupport imp
 		return bindType.getColumnSpan( session.getFactory() );
 	}
 
+	private int bindParameterValues(
+			PreparedStatement statement,
+			int startPosition,
+			Type bindType,
+			List<?> bindValues,
+			SessionImplementor session) throws SQLException {
+		if ( bindType == null ) {
+			unresolvedType();
+		}
+		assert bindType != null;
+
+		// bind as many values as SqlTreeWalker rendered; the padding repeats the last value
+		final int valueCount = Helper.determinePaddedValueCount(
+				bindValues.size(),
+				session.getFactory().getDialect()
+		);
+		final int columnSpan = bindType.getColumnSpan( session.getFactory() );
+
+		int position = startPosition;
+		for ( int i = 0; i < valueCount; i++ ) {
+			final Object bindValue = bindValues.get( Math.min( i, bindValues.size() - 1 ) );
+			bindType.nullSafeSet( statement, bindValue, position, session );
+			position += columnSpan;
+		}
+		return position - startPosition;
+	}
+
 	protected abstract void warnNoBinding();
 
 	protected abstract void unresolvedType();
 
 	protected abstract void warnNullBindValue();
+
+	private static class ResolvedSlot {
+		private final QueryParameterSlots parameterSlots;
+		private final int slot;
+
+		private ResolvedSlot(QueryParameterSlots parameterSlots, int slot) {
+			this.parameterSlots = parameterSlots;
+			this.slot = slot;
+		}
+	}
 }
@@ -16,10 +16,12 @@ import org.hibernate.type.Type;
 public class EntityReference extends SelfReadingExpressionSupport {
 	private final Type ormType;
 	private final ColumnBinding[]  columnBindings;
+	private final ColumnBinding[] identifierColumnBindings;
 
-	public EntityReference(Type ormType, ColumnBinding[] columnBindings) {
+	public EntityReference(Type ormType, ColumnBinding[] columnBindings, ColumnBinding[] identifierColumnBindings) {
 		this.ormType = ormType;
 		this.columnBindings = columnBindings;
+		this.identifierColumnBindings = identifierColumnBindings;
 	}
 
 	@Override
@@ -31,6 +33,14 @@ public class EntityReference extends SelfReadingExpressionSupport {
 		return columnBindings;
 	}
 
+	/**
+	 * The bindings of just the entity's identifier columns; all that is selected for a
+	 * "shallow" select (see {@link org.hibernate.query.Query#iterate()})
+	 */
+	public ColumnBinding[] getIdentifierColumnBindings() {
+		return identifierColumnBindings;
+	}
+
 	@Override
 	public void accept(SqlTreeWalker sqlTreeWalker) {
 		sqlTreeWalker.visitEntityExpression( this );
@@ -0,0 +1,61 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.sql.ast.expression;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+import org.hibernate.QueryException;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.query.spi.QueryParameterBindings;
+import org.hibernate.sql.gen.ParameterBinder;
+import org.hibernate.sql.gen.SqlTreeWalker;
+import org.hibernate.type.Type;
+
+/**
+ * Parameter for one value of the key (the sort expression values of the last row of the
+ * previous page) for keyset pagination.  The values are bound from
+ * {@link QueryParameterBindings#getKeysetValues()}.
+ */
+public class KeysetParameter extends SelfReadingExpressionSupport implements ParameterBinder {
+	private final int index;
+	private final Type type;
+
+	public KeysetParameter(int index, Type type) {
+		this.index = index;
+		this.type = type;
+	}
+
+	public int getIndex() {
+		return index;
+	}
+
+	@Override
+	public Type getType() {
+		return type;
+	}
+
+	@Override
+	public int bindParameterValue(
+			PreparedStatement statement,
+			int startPosition,
+			QueryParameterBindings queryParameterBindings,
+			SessionImplementor session) throws SQLException {
+		final Object[] keysetValues = queryParameterBindings.getKeysetValues();
+		if ( keysetValues == null || keysetValues.length <= index ) {
+			throw new QueryException( "No value bound for keyset pagination key element [" + index + "]" );
+		}
+
+		type.nullSafeSet( statement, keysetValues[index], startPosition, session );
+		return type.getColumnSpan( session.getFactory() );
+	}
+
+	@Override
+	public void accept(SqlTreeWalker sqlTreeWalker) {
+		sqlTreeWalker.visitKeysetParameter( this );
+	}
+}
@@ -6,14 +6,9 @@
  */
 package org.hibernate.sql.ast.expression;
 
-import java.sql.PreparedStatement;
-import java.sql.SQLException;
-
 import org.hibernate.QueryException;
-import org.hibernate.engine.spi.SessionImplementor;
 import org.hibernate.sql.gen.SqlTreeWalker;
-import org.hibernate.query.spi.QueryParameterBinding;
-import org.hibernate.query.spi.QueryParameterBindings;
+import org.hibernate.query.spi.QueryParameterSlots;
 import org.hibernate.type.Type;
 
 import org.jboss.logging.Logger;
@@ -38,13 +33,8 @@ public class NamedParameter extends AbstractParameter {
 	}
 
 	@Override
-	public int bindParameterValue(
-			PreparedStatement statement,
-			int startPosition,
-			QueryParameterBindings queryParameterBindings,
-			SessionImplementor session) throws SQLException {
-		final QueryParameterBinding binding = queryParameterBindings.getNamedParameterBinding( name );
-		return bindParameterValue( statement, startPosition, binding, session );
+	protected int resolveSlot(QueryParameterSlots parameterSlots) {
+		return parameterSlots.resolveNamedSlot( name );
 	}
 
 	@Override
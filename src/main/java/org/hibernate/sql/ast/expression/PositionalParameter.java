@@ -6,14 +6,9 @@
  */
 package org.hibernate.sql.ast.expression;
 
-import java.sql.PreparedStatement;
-import java.sql.SQLException;
-
 import org.hibernate.QueryException;
-import org.hibernate.engine.spi.SessionImplementor;
 import org.hibernate.sql.gen.SqlTreeWalker;
-import org.hibernate.query.spi.QueryParameterBinding;
-import org.hibernate.query.spi.QueryParameterBindings;
+import org.hibernate.query.spi.QueryParameterSlots;
 import org.hibernate.type.Type;
 
 import org.jboss.logging.Logger;
@@ -36,13 +31,8 @@ public class PositionalParameter extends AbstractParameter {
 	}
 
 	@Override
-	public int bindParameterValue(
-			PreparedStatement statement,
-			int startPosition,
-			QueryParameterBindings queryParameterBindings,
-			SessionImplementor session) throws SQLException {
-		final QueryParameterBinding binding = queryParameterBindings.getPositionalParameterBinding( position );
-		return bindParameterValue(  statement, startPosition, binding, session );
+	protected int resolveSlot(QueryParameterSlots parameterSlots) {
+		return parameterSlots.resolvePositionalSlot( position );
 	}
 
 	@Override
@@ -0,0 +1,45 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.sql.ast.expression;
+
+import java.util.List;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.sql.exec.results.spi.ReturnReader;
+import org.hibernate.sql.gen.NotYetImplementedException;
+import org.hibernate.sql.gen.SqlTreeWalker;
+import org.hibernate.type.Type;
+
+/**
+ * A row value constructor; e.g. {@code (p.lastName, p.id)}.  Only used in predicates.
+ */
+public class SqlTuple implements Expression {
+	private final List<Expression> expressions;
+
+	public SqlTuple(List<Expression> expressions) {
+		this.expressions = expressions;
+	}
+
+	public List<Expression> getExpressions() {
+		return expressions;
+	}
+
+	@Override
+	public Type getType() {
+		return null;
+	}
+
+	@Override
+	public ReturnReader getReturnReader(int startPosition, boolean shallow, SessionFactoryImplementor sessionFactory) {
+		throw new NotYetImplementedException( "Selecting a row value is not supported" );
+	}
+
+	@Override
+	public void accept(SqlTreeWalker sqlTreeWalker) {
+		sqlTreeWalker.visitTuple( this );
+	}
+}
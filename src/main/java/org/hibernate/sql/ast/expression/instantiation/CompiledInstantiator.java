@@ -0,0 +1,40 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.sql.ast.expression.instantiation;
+
+import java.sql.SQLException;
+
+import org.hibernate.sql.exec.results.spi.ResultSetProcessingOptions;
+import org.hibernate.sql.exec.results.spi.ReturnReader;
+import org.hibernate.sql.exec.results.spi.RowProcessingState;
+
+/**
+ * Performs a dynamic instantiation (constructor or bean-injection) through generated bytecode
+ * rather than reflection.  Implementations are generated by {@link InstantiatorGenerator}; they
+ * assemble each argument directly into the constructor call or injection, with no intermediate
+ * argument array.
+ * <p/>
+ * Public only so that the generated classes, defined in the package of the instantiated class,
+ * can implement it.
+ */
+public interface CompiledInstantiator {
+	/**
+	 * Instantiate the target class for the current row.
+	 *
+	 * @param argumentReaders The readers for the instantiation arguments, in argument order
+	 * @param processingState The current row processing state
+	 * @param options The processing options
+	 *
+	 * @return The instance
+	 *
+	 * @throws SQLException Indicates a problem reading the arguments
+	 */
+	Object instantiate(
+			ReturnReader[] argumentReaders,
+			RowProcessingState processingState,
+			ResultSetProcessingOptions options) throws SQLException;
+}
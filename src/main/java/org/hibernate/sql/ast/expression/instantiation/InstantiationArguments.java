@@ -0,0 +1,104 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.sql.ast.expression.instantiation;
+
+/**
+ * Conversion of dynamic instantiation argument values to primitive parameter (or property) types,
+ * used by the {@link CompiledInstantiator} implementations.  As with reflection, a value is only
+ * accepted if it is the wrapper of the primitive type or can be widened to it; e.g. an Integer
+ * value for a {@code long} parameter, but not a Long value for an {@code int} parameter.  A
+ * {@code null} value is rejected.
+ * <p/>
+ * Public only so that the generated classes, defined in the package of the instantiated class,
+ * can call it.
+ */
+public final class InstantiationArguments {
+	public static boolean booleanValue(Object value) {
+		if ( value instanceof Boolean ) {
+			return (Boolean) value;
+		}
+		throw mismatch( value, boolean.class );
+	}
+
+	public static char charValue(Object value) {
+		if ( value instanceof Character ) {
+			return (Character) value;
+		}
+		throw mismatch( value, char.class );
+	}
+
+	public static byte byteValue(Object value) {
+		if ( value instanceof Byte ) {
+			return (Byte) value;
+		}
+		throw mismatch( value, byte.class );
+	}
+
+	public static short shortValue(Object value) {
+		if ( value instanceof Short || value instanceof Byte ) {
+			return ( (Number) value ).shortValue();
+		}
+		throw mismatch( value, short.class );
+	}
+
+	public static int intValue(Object value) {
+		if ( value instanceof Integer || value instanceof Short || value instanceof Byte ) {
+			return ( (Number) value ).intValue();
+		}
+		if ( value instanceof Character ) {
+			return (Character) value;
+		}
+		throw mismatch( value, int.class );
+	}
+
+	public static long longValue(Object value) {
+		if ( value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte ) {
+			return ( (Number) value ).longValue();
+		}
+		if ( value instanceof Character ) {
+			return (Character) value;
+		}
+		throw mismatch( value, long.class );
+	}
+
+	public static float floatValue(Object value) {
+		if ( value instanceof Float || value instanceof Long || value instanceof Integer
+				|| value instanceof Short || value instanceof Byte ) {
+			return ( (Number) value ).floatValue();
+		}
+		if ( value instanceof Character ) {
+			return (Character) value;
+		}
+		throw mismatch( value, float.class );
+	}
+
+	public static double doubleValue(Object value) {
+		if ( value instanceof Double || value instanceof Float || value instanceof Long || value instanceof Integer
+				|| value instanceof Short || value instanceof Byte ) {
+			return ( (Number) value ).doubleValue();
+		}
+		if ( value instanceof Character ) {
+			return (Character) value;
+		}
+		throw mismatch( value, double.class );
+	}
+
+	private static InstantiationException mismatch(Object value, Class primitiveType) {
+		if ( value == null ) {
+			return new InstantiationException(
+					"Dynamic instantiation argument is null, but the parameter is of primitive type " + primitiveType.getName()
+			);
+		}
+		return new InstantiationException(
+				"Dynamic instantiation argument of type [" + value.getClass().getName()
+						+ "] cannot be assigned to a parameter of type " + primitiveType.getName()
+		);
+	}
+
+	private InstantiationArguments() {
+	}
+}
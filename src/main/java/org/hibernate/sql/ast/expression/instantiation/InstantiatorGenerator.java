@@ -0,0 +1,255 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.sql.ast.expression.instantiation;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.List;
+
+import org.hibernate.sql.exec.results.spi.ResultSetProcessingOptions;
+import org.hibernate.sql.exec.results.spi.ReturnReader;
+import org.hibernate.sql.exec.results.spi.RowProcessingState;
+
+import org.jboss.logging.Logger;
+
+import javassist.ClassPool;
+import javassist.CtClass;
+import javassist.CtField;
+import javassist.CtNewConstructor;
+import javassist.CtNewMethod;
+import javassist.LoaderClassPath;
+
+/**
+ * Generates (using Javassist) {@link CompiledInstantiator} implementations for dynamic
+ * instantiations, so that the per-row work is plain bytecode the JIT can inline rather than
+ * reflective calls.
+ * <p/>
+ * The generated class is defined in the package and ClassLoader of the instantiated class (so
+ * that package-private members can be used), under a name derived from the instantiation
+ * "signature".  The ClassLoader therefore acts as the cache of generated classes: each distinct
+ * instantiation is generated only once, however many plans use it.
+ * <p/>
+ * Generation is best-effort; {@code null} is returned whenever it is not possible (private
+ * members, classes from the bootstrap ClassLoader, etc) and callers fall back to reflection.
+ * Such cases are known up front; a failure generating the class itself is logged as a warning.
+ */
+class InstantiatorGenerator {
+	private static final Logger log = Logger.getLogger( InstantiatorGenerator.class );
+
+	private static final String SIGNATURE_FIELD = "SIGNATURE";
+
+	/**
+	 * Generate an instantiator calling the given constructor
+	 *
+	 * @return The instantiator, or {@code null} if one could not be generated
+	 */
+	static CompiledInstantiator generate(Constructor constructor) {
+		final Class target = constructor.getDeclaringClass();
+		if ( !isAccessible( target, constructor ) ) {
+			return null;
+		}
+
+		final Class[] parameterTypes = constructor.getParameterTypes();
+		final StringBuilder signature = new StringBuilder( "new(" );
+		final StringBuilder body = new StringBuilder( "{ return new " ).append( typeName( target ) ).append( "(" );
+		for ( int i = 0; i < parameterTypes.length; i++ ) {
+			if ( i > 0 ) {
+				signature.append( ',' );
+				body.append( ", " );
+			}
+			signature.append( parameterTypes[i].getName() );
+			body.append( argument( parameterTypes[i], i ) );
+		}
+		signature.append( ')' );
+		body.append( "); }" );
+
+		return generate( target, signature.toString(), body.toString() );
+	}
+
+	/**
+	 * Generate an instantiator calling the no-arg constructor and then injecting each argument
+	 * through the given setter Method or Field, in order
+	 *
+	 * @return The instantiator, or {@code null} if one could not be generated
+	 */
+	static CompiledInstantiator generate(Class target, List<Member> injectionMembers) {
+		final Constructor constructor;
+		try {
+			constructor = target.getDeclaredConstructor();
+		}
+		catch (NoSuchMethodException e) {
+			return null;
+		}
+		if ( !isAccessible( target, constructor ) ) {
+			return null;
+		}
+
+		final StringBuilder signature = new StringBuilder( "inject(" );
+		final StringBuilder body = new StringBuilder( "{ " )
+				.append( typeName( target ) ).append( " bean = new " ).append( typeName( target ) ).append( "(); " );
+		for ( int i = 0; i < injectionMembers.size(); i++ ) {
+			final Member member = injectionMembers.get( i );
+			if ( !isAccessible( target, member ) ) {
+				return null;
+			}
+
+			if ( i > 0 ) {
+				signature.append( ',' );
+			}
+			if ( member instanceof Method ) {
+				final Class parameterType = ( (Method) member ).getParameterTypes()[0];
+				signature.append( member.getName() ).append( '(' ).append( parameterType.getName() ).append( ')' );
+				body.append( "bean." ).append( member.getName() )
+						.append( "(" ).append( argument( parameterType, i ) ).append( "); " );
+			}
+			else {
+				final Class fieldType = ( (Field) member ).getType();
+				signature.append( member.getName() ).append( ':' ).append( fieldType.getName() );
+				body.append( "bean." ).append( member.getName() )
+						.append( " = " ).append( argument( fieldType, i ) ).append( "; " );
+			}
+		}
+		signature.append( ')' );
+		body.append( "return bean; }" );
+
+		return generate( target, signature.toString(), body.toString() );
+	}
+
+	private static boolean isAccessible(Class target, Member member) {
+		if ( target.getClassLoader() == null || target.getName().startsWith( "java." ) ) {
+			return false;
+		}
+		if ( Modifier.isPrivate( target.getModifiers() ) || Modifier.isPrivate( member.getModifiers() ) ) {
+			return false;
+		}
+		if ( Modifier.isStatic( member.getModifiers() ) || Modifier.isAbstract( target.getModifiers() ) ) {
+			return false;
+		}
+		if ( member instanceof Field && Modifier.isFinal( member.getModifiers() ) ) {
+			return false;
+		}
+		if ( Modifier.isPublic( member.getModifiers() ) ) {
+			return true;
+		}
+
+		// otherwise the member needs to be in the same runtime package as the generated class
+		final Class declaringClass = member.getDeclaringClass();
+		return declaringClass.getClassLoader() == target.getClassLoader()
+				&& packageName( declaringClass ).equals( packageName( target ) );
+	}
+
+	private static String packageName(Class type) {
+		final int lastDot = type.getName().lastIndexOf( '.' );
+		return lastDot < 0 ? "" : type.getName().substring( 0, lastDot );
+	}
+
+	/**
+	 * Renders the source for assembling argument {@code i} as the given (parameter) type.  Primitives
+	 * are converted through {@link InstantiationArguments}, which checks the argument type (allowing
+	 * the widening reflection allows) rather than narrowing it.
+	 */
+	private static String argument(Class type, int i) {
+		final String value = "argumentReaders[" + i + "].assemble( processingState, options )";
+		if ( !type.isPrimitive() ) {
+			return "(" + typeName( type ) + ") " + value;
+		}
+		return InstantiationArguments.class.getName() + "." + type.getName() + "Value( " + value + " )";
+	}
+
+	private static String typeName(Class type) {
+		if ( type.isArray() ) {
+			return typeName( type.getComponentType() ) + "[]";
+		}
+		return type.getName();
+	}
+
+	private static CompiledInstantiator generate(Class target, String signature, String body) {
+		final ClassLoader classLoader = target.getClassLoader();
+		final String className = target.getName() + "$HibernateInstantiator$" + Integer.toHexString( signature.hashCode() );
+
+		try {
+			Class generated = findGenerated( className, classLoader );
+			if ( generated == null ) {
+				try {
+					generated = define( target, className, signature, body );
+				}
+				catch (LinkageError e) {
+					// most likely defined concurrently by another thread
+					generated = findGenerated( className, classLoader );
+					if ( generated == null ) {
+						throw e;
+					}
+				}
+			}
+
+			// guard against a (hash) name collision with a different instantiation
+			if ( !signature.equals( generated.getField( SIGNATURE_FIELD ).get( null ) ) ) {
+				log.warnf( "Generated instantiator name collision for [%s]; using reflection", target.getName() );
+				return null;
+			}
+
+			return (CompiledInstantiator) generated.newInstance();
+		}
+		catch (Exception e) {
+			log.warnf( e, "Unable to generate instantiator for [%s] %s; using reflection", target.getName(), signature );
+			return null;
+		}
+		catch (LinkageError e) {
+			log.warnf( e, "Unable to generate instantiator for [%s] %s; using reflection", target.getName(), signature );
+			return null;
+		}
+	}
+
+	private static Class findGenerated(String className, ClassLoader classLoader) {
+		try {
+			return Class.forName( className, false, classLoader );
+		}
+		catch (ClassNotFoundException e) {
+			return null;
+		}
+	}
+
+	private static Class define(Class target, String className, String signature, String body) throws Exception {
+		final ClassPool classPool = new ClassPool( false );
+		classPool.appendSystemPath();
+		classPool.appendClassPath( new LoaderClassPath( target.getClassLoader() ) );
+		classPool.appendClassPath( new LoaderClassPath( CompiledInstantiator.class.getClassLoader() ) );
+
+		final CtClass ctClass = classPool.makeClass( className );
+		try {
+			ctClass.setModifiers( Modifier.PUBLIC | Modifier.FINAL );
+			ctClass.addInterface( classPool.get( CompiledInstantiator.class.getName() ) );
+
+			final CtField signatureField = new CtField( classPool.get( String.class.getName() ), SIGNATURE_FIELD, ctClass );
+			signatureField.setModifiers( Modifier.PUBLIC | Modifier.STATIC | Modifier.FINAL );
+			ctClass.addField( signatureField, CtField.Initializer.constant( signature ) );
+
+			ctClass.addConstructor( CtNewConstructor.defaultConstructor( ctClass ) );
+			ctClass.addMethod(
+					CtNewMethod.make(
+							"public Object instantiate("
+									+ ReturnReader.class.getName() + "[] argumentReaders, "
+									+ RowProcessingState.class.getName() + " processingState, "
+									+ ResultSetProcessingOptions.class.getName() + " options) throws java.sql.SQLException "
+									+ body,
+							ctClass
+					)
+			);
+
+			return ctClass.toClass( target.getClassLoader(), target.getProtectionDomain() );
+		}
+		finally {
+			ctClass.detach();
+		}
+	}
+
+	private InstantiatorGenerator() {
+	}
+}
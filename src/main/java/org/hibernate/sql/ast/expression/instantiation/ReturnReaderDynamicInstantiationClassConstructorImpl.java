@@ -17,6 +17,9 @@ import org.hibernate.sql.exec.results.spi.ReturnReader;
 import org.hibernate.sql.exec.results.spi.RowProcessingState;
 
 /**
+ * ReturnReader for dynamic instantiations through a constructor.  The constructor call is made
+ * through a {@link CompiledInstantiator} if one could be generated, otherwise reflectively.
+ *
  * @author Steve Ebersole
  */
 public class ReturnReaderDynamicInstantiationClassConstructorImpl implements ReturnReader {
@@ -24,6 +27,9 @@ public class ReturnReaderDynamicInstantiationClassConstructorImpl implements Ret
 	private final List<AliasedReturnReader> argumentReaders;
 	private final int numberOfColumnsRead;
 
+	private final CompiledInstantiator compiledInstantiator;
+	private final ReturnReader[] argumentReaderArray;
+
 	public ReturnReaderDynamicInstantiationClassConstructorImpl(
 			Constructor constructor,
 			List<AliasedReturnReader> argumentReaders,
@@ -31,6 +37,12 @@ public class ReturnReaderDynamicInstantiationClassConstructorImpl implements Ret
 		this.constructor = constructor;
 		this.argumentReaders = argumentReaders;
 		this.numberOfColumnsRead = numberOfColumnsRead;
+
+		this.compiledInstantiator = InstantiatorGenerator.generate( constructor );
+		this.argumentReaderArray = new ReturnReader[ argumentReaders.size() ];
+		for ( int i = 0; i < argumentReaderArray.length; i++ ) {
+			argumentReaderArray[i] = argumentReaders.get( i ).getReturnReader();
+		}
 	}
 
 	@Override
@@ -55,6 +67,19 @@ public class ReturnReaderDynamicInstantiationClassConstructorImpl implements Ret
 	public Object assemble(
 			RowProcessingState processingState,
 			ResultSetProcessingOptions options) throws SQLException {
+		if ( compiledInstantiator != null ) {
+			try {
+				return compiledInstantiator.instantiate( argumentReaderArray, processingState, options );
+			}
+			catch (InstantiationException e) {
+				throw e;
+			}
+			catch (RuntimeException e) {
+				// e.g. thrown by the constructor or a setter; wrapped just as by the reflective path
+				throw new InstantiationException( "Error performing dynamic instantiation : " + constructor.getDeclaringClass().getName(), e );
+			}
+		}
+
 		Object[] args = new Object[ argumentReaders.size() ];
 		for ( int i = 0; i < argumentReaders.size(); i++ ) {
 			args[i] = argumentReaders.get( i ).getReturnReader().assemble( processingState, options );
@@ -71,6 +96,13 @@ public class ReturnReaderDynamicInstantiationClassConstructorImpl implements Ret
 		}
 	}
 
+	/**
+	 * The generated instantiator in use; {@code null} if instantiation is performed reflectively
+	 */
+	CompiledInstantiator getCompiledInstantiator() {
+		return compiledInstantiator;
+	}
+
 	@Override
 	public Class getReturnedJavaType() {
 		return constructor.getDeclaringClass();
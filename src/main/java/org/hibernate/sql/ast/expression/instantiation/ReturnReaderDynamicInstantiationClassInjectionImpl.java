@@ -9,6 +9,7 @@ package org.hibernate.sql.ast.expression.instantiation;
 import java.beans.BeanInfo;
 import java.beans.PropertyDescriptor;
 import java.lang.reflect.Field;
+import java.lang.reflect.Member;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
@@ -21,6 +22,10 @@ import org.hibernate.sql.exec.results.spi.RowProcessingState;
 import org.hibernate.sqm.query.expression.Compatibility;
 
 /**
+ * ReturnReader for dynamic instantiations through bean-injection (setters or fields).  The
+ * instantiation and injections are performed through a {@link CompiledInstantiator} if one could
+ * be generated, otherwise reflectively.
+ *
  * @author Steve Ebersole
  */
 public class ReturnReaderDynamicInstantiationClassInjectionImpl<T> implements ReturnReader<T> {
@@ -28,6 +33,9 @@ public class ReturnReaderDynamicInstantiationClassInjectionImpl<T> implements Re
 	private final List<BeanInjection> beanInjections;
 	private final int numberOfColumnsConsumed;
 
+	private final CompiledInstantiator compiledInstantiator;
+	private final ReturnReader[] valueReaders;
+
 	public ReturnReaderDynamicInstantiationClassInjectionImpl(
 			final Class<T> target,
 			final List<AliasedReturnReader> aliasedArgumentReaders,
@@ -36,6 +44,7 @@ public class ReturnReaderDynamicInstantiationClassInjectionImpl<T> implements Re
 		this.numberOfColumnsConsumed = numberOfColumnsConsumed;
 
 		this.beanInjections = new ArrayList<BeanInjection>();
+		final List<Member> injectionMembers = new ArrayList<Member>();
 
 		BeanInfoHelper.visitBeanInfo(
 				target,
@@ -61,6 +70,7 @@ public class ReturnReaderDynamicInstantiationClassInjectionImpl<T> implements Re
 															aliasedReturnReader.getReturnReader()
 													)
 											);
+											injectionMembers.add( propertyDescriptor.getWriteMethod() );
 											found = true;
 											break;
 										}
@@ -80,6 +90,7 @@ public class ReturnReaderDynamicInstantiationClassInjectionImpl<T> implements Re
 												aliasedReturnReader.getReturnReader()
 										)
 								);
+								injectionMembers.add( field );
 							}
 							else {
 								throw new InstantiationException(
@@ -93,6 +104,12 @@ public class ReturnReaderDynamicInstantiationClassInjectionImpl<T> implements Re
 		);
 
 		assert aliasedArgumentReaders.size() == beanInjections.size();
+
+		this.compiledInstantiator = InstantiatorGenerator.generate( target, injectionMembers );
+		this.valueReaders = new ReturnReader[ beanInjections.size() ];
+		for ( int i = 0; i < valueReaders.length; i++ ) {
+			valueReaders[i] = beanInjections.get( i ).getValueReader();
+		}
 	}
 
 	private Field findField(Class<T> declaringClass, String name, Class javaType) {
@@ -129,9 +146,23 @@ public class ReturnReaderDynamicInstantiationClassInjectionImpl<T> implements Re
 	}
 
 	@Override
+	@SuppressWarnings("unchecked")
 	public T assemble(
 			RowProcessingState processingState,
 			ResultSetProcessingOptions options) throws SQLException {
+		if ( compiledInstantiator != null ) {
+			try {
+				return (T) compiledInstantiator.instantiate( valueReaders, processingState, options );
+			}
+			catch (InstantiationException e) {
+				throw e;
+			}
+			catch (RuntimeException e) {
+				// e.g. thrown by the constructor or a setter; wrapped just as by the reflective path
+				throw new InstantiationException( "Error performing dynamic instantiation : " + target.getName(), e );
+			}
+		}
+
 		try {
 			final T result = target.newInstance();
 
@@ -148,6 +179,13 @@ public class ReturnReaderDynamicInstantiationClassInjectionImpl<T> implements Re
 		}
 	}
 
+	/**
+	 * The generated instantiator in use; {@code null} if instantiation is performed reflectively
+	 */
+	CompiledInstantiator getCompiledInstantiator() {
+		return compiledInstantiator;
+	}
+
 	@Override
 	public Class<T> getReturnedJavaType() {
 		return target;
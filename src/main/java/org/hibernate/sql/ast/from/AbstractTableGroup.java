@@ -124,7 +124,16 @@ public abstract class AbstractTableGroup implements TableGroup {
 			i++;
 		}
 
-		return new EntityReference( improvedEntityPersister.getOrmType(), columnBindings );
+		final Column[] identifierColumns = improvedEntityPersister.getIdentifierDescriptor().getColumns();
+		final ColumnBinding[] identifierColumnBindings = new ColumnBinding[identifierColumns.length];
+		for ( int j = 0; j < identifierColumns.length; j++ ) {
+			identifierColumnBindings[j] = new ColumnBinding(
+					identifierColumns[j],
+					locateTableBinding( identifierColumns[j].getSourceTable() )
+			);
+		}
+
+		return new EntityReference( improvedEntityPersister.getOrmType(), columnBindings, identifierColumnBindings );
 	}
 
 	protected abstract ImprovedEntityPersister resolveEntityReferenceBase();
@@ -134,15 +143,36 @@ public abstract class AbstractTableGroup implements TableGroup {
 			return getRootTableBinding();
 		}
 
+		// resolving a binding to a joined table is what tells us the (possibly optional) join is needed
+		final TableJoin tableJoin = locateTableJoin( table );
+		tableJoin.markReferenced();
+		return tableJoin.getJoinedTableBinding();
+	}
+
+	private TableJoin locateTableJoin(Table table) {
 		for ( TableJoin tableJoin : getTableJoins() ) {
 			if ( tableJoin.getJoinedTableBinding().getTable() == table ) {
-				return tableJoin.getJoinedTableBinding();
+				return tableJoin;
 			}
 		}
 
 		throw new IllegalStateException( "Could not resolve binding for table : " + table );
 	}
 
+	/**
+	 * Indicate that only rows which exist in the given table are of interest to the query.
+	 * Used for TREAT, which restricts the group to a specific subclass.
+	 *
+	 * @param table The table which is required
+	 */
+	public void markTableRequired(Table table) {
+		if ( table == getRootTableBinding().getTable() ) {
+			return;
+		}
+
+		locateTableJoin( table ).markRequired();
+	}
+
 	public void addTableSpecificationJoin(TableJoin join) {
 		log.tracef( "Adding TableSpecification join [%s] to group [%s]", join, this );
 		if ( tableJoins == null ) {
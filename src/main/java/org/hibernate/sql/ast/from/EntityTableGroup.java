@@ -7,6 +7,7 @@
 package org.hibernate.sql.ast.from;
 
 import org.hibernate.persister.common.spi.Column;
+import org.hibernate.persister.common.spi.Table;
 import org.hibernate.persister.entity.spi.ImprovedEntityPersister;
 
 /**
@@ -37,6 +38,18 @@ public class EntityTableGroup extends AbstractTableGroup {
 		return bindings;
 	}
 
+	/**
+	 * Apply a TREAT of this group to the given subtype.  The tables holding the subtype's
+	 * state are then needed, and can be inner joined.
+	 *
+	 * @param treatedPersister The persister for the subtype
+	 */
+	public void applyTreat(ImprovedEntityPersister treatedPersister) {
+		for ( Table table : treatedPersister.getClassTables() ) {
+			markTableRequired( table );
+		}
+	}
+
 	@Override
 	protected ImprovedEntityPersister resolveEntityReferenceBase() {
 		return getPersister();
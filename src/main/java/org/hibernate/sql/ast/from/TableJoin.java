@@ -12,18 +12,29 @@ import org.hibernate.sqm.query.JoinType;
 
 /**
  * Represents a join to a {@link TableBinding}; roughly equivalent to a SQL join.
+ * <p/>
+ * An optional join (e.g. to a subclass table) is only rendered if something in the
+ * query references the joined table; see {@link #isRendered()}.
  *
  * @author Steve Ebersole
  */
 public class TableJoin {
-	private final JoinType joinType;
+	private JoinType joinType;
 	private final TableBinding joinedTableBinding;
 	private final Predicate predicate;
+	private final boolean optional;
+
+	private boolean referenced;
 
 	public TableJoin(JoinType joinType, TableBinding joinedTableBinding, Predicate predicate) {
+		this( joinType, joinedTableBinding, predicate, false );
+	}
+
+	public TableJoin(JoinType joinType, TableBinding joinedTableBinding, Predicate predicate, boolean optional) {
 		this.joinType = joinType;
 		this.joinedTableBinding = joinedTableBinding;
 		this.predicate = predicate;
+		this.optional = optional;
 
 		if ( joinType == JoinType.CROSS ) {
 			if ( predicate != null ) {
@@ -43,4 +54,37 @@ public class TableJoin {
 	public Predicate getJoinPredicate() {
 		return predicate;
 	}
+
+	public boolean isOptional() {
+		return optional;
+	}
+
+	public boolean isReferenced() {
+		return referenced;
+	}
+
+	/**
+	 * Record that some part of the query refers to the joined table
+	 */
+	public void markReferenced() {
+		this.referenced = true;
+	}
+
+	/**
+	 * Record that the query only applies to rows which exist in the joined table (e.g. because
+	 * of a TREAT to a subclass), which means the join can be an inner join
+	 */
+	public void markRequired() {
+		this.referenced = true;
+		if ( joinType == JoinType.LEFT ) {
+			this.joinType = JoinType.INNER;
+		}
+	}
+
+	/**
+	 * Should the join be rendered into the SQL?
+	 */
+	public boolean isRendered() {
+		return !optional || referenced;
+	}
 }
@@ -0,0 +1,31 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.sql.ast.update;
+
+import org.hibernate.sql.ast.expression.AttributeReference;
+import org.hibernate.sql.ast.expression.Expression;
+
+/**
+ * An assignment in the SET clause of an UPDATE
+ */
+public class Assignment {
+	private final AttributeReference stateField;
+	private final Expression value;
+
+	public Assignment(AttributeReference stateField, Expression value) {
+		this.stateField = stateField;
+		this.value = value;
+	}
+
+	public AttributeReference getStateField() {
+		return stateField;
+	}
+
+	public Expression getValue() {
+		return value;
+	}
+}
@@ -0,0 +1,42 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.sql.exec.internal;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.hibernate.sql.exec.spi.Limit;
+import org.hibernate.sql.exec.spi.QueryOptions;
+
+/**
+ * Helpers shared by the PreparedStatementExecutor implementations
+ */
+final class ExecutorHelper {
+	private ExecutorHelper() {
+	}
+
+	/**
+	 * Skip over any rows in the ResultSet which are before the first-row of the (residual)
+	 * limit; see {@link QueryOptionsLimitImpl}.
+	 *
+	 * @return {@code false} if the ResultSet was exhausted while skipping
+	 */
+	static boolean skipFirstRows(ResultSet resultSet, QueryOptions queryOptions) throws SQLException {
+		final Limit limit = queryOptions.getLimit();
+		if ( limit == null || !limit.hasFirstRow() ) {
+			return true;
+		}
+
+		// ResultSet#absolute is not an option for forward-only ResultSets
+		for ( int i = 0; i < limit.getFirstRow(); i++ ) {
+			if ( !resultSet.next() ) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
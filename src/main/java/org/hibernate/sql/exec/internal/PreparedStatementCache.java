@@ -0,0 +1,197 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.sql.exec.internal;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.hibernate.resource.jdbc.spi.LogicalConnectionImplementor;
+import org.hibernate.sql.exec.spi.PreparedStatementCreator;
+
+import org.jboss.logging.Logger;
+
+/**
+ * Session-scoped cache of PreparedStatements, keyed by SQL and PreparedStatementCreator (the
+ * kind of statement; standard, scroll-insensitive, etc), allowing statements for hot queries to
+ * be re-used across executions within a unit of work rather than re-prepared each time.
+ * <p/>
+ * Statements are checked out of the cache for the duration of an execution, so a statement is
+ * never in use by two executions at once.  Idle statements stay registered with the
+ * ResourceRegistry, so they are closed along with the other JDBC resources of the session when
+ * the connection is released; the cache drops all of its statements if it sees that the
+ * physical connection has changed.  Statements evicted (LRU) from the cache are released
+ * through the ResourceRegistry.
+ * <p/>
+ * Not thread-safe; like the Session it belongs to.
+ */
+public class PreparedStatementCache {
+	private static final Logger log = Logger.getLogger( PreparedStatementCache.class );
+
+	/**
+	 * Setting for the maximum number of (idle) statements cached per Session.  The default, 0,
+	 * disables statement caching.
+	 */
+	public static final String CACHE_SIZE = "hibernate.sqm.statement_cache_size";
+
+	private final int maxSize;
+	private final LinkedHashMap<StatementKey, PreparedStatement> idleStatements;
+	private Connection connection;
+
+	private long hitCount;
+	private long missCount;
+	private long evictionCount;
+
+	public PreparedStatementCache(int maxSize) {
+		this.maxSize = maxSize;
+		this.idleStatements = new LinkedHashMap<StatementKey, PreparedStatement>( 16, 0.75f, true );
+	}
+
+	/**
+	 * Obtain a statement for the given SQL, either a cached one or one newly created (and
+	 * registered with the ResourceRegistry).  Either way, it should be handed back through
+	 * {@link #release} after use.
+	 *
+	 * @param sql The SQL to prepare
+	 * @param statementCreator The creator for the kind of statement needed
+	 * @param logicalConnection The connection to prepare the statement on
+	 *
+	 * @return The statement, with no parameters bound
+	 *
+	 * @throws SQLException Indicates a problem preparing the statement
+	 */
+	public PreparedStatement prepareStatement(
+			String sql,
+			PreparedStatementCreator statementCreator,
+			LogicalConnectionImplementor logicalConnection) throws SQLException {
+		final Connection physicalConnection = logicalConnection.getPhysicalConnection();
+		if ( physicalConnection != connection ) {
+			// statements prepared on a previous connection were released along with it
+			idleStatements.clear();
+			connection = physicalConnection;
+		}
+
+		final PreparedStatement cachedStatement = idleStatements.remove( new StatementKey( sql, statementCreator ) );
+		if ( cachedStatement != null && !cachedStatement.isClosed() ) {
+			hitCount++;
+			return cachedStatement;
+		}
+
+		missCount++;
+		final PreparedStatement statement = statementCreator.create( physicalConnection, sql );
+		logicalConnection.getResourceRegistry().register( statement, true );
+		return statement;
+	}
+
+	/**
+	 * Hand back a statement obtained from {@link #prepareStatement} after use, making it
+	 * available for re-use by later executions of the same SQL.
+	 *
+	 * @param sql The SQL the statement was prepared for
+	 * @param statementCreator The creator the statement was prepared with
+	 * @param statement The statement
+	 * @param logicalConnection The connection the statement was prepared on
+	 */
+	public void release(
+			String sql,
+			PreparedStatementCreator statementCreator,
+			PreparedStatement statement,
+			LogicalConnectionImplementor logicalConnection) {
+		if ( maxSize <= 0 || logicalConnection.getPhysicalConnection() != connection ) {
+			logicalConnection.getResourceRegistry().release( statement );
+			return;
+		}
+
+		try {
+			// reset the state the execution may have applied
+			statement.clearParameters();
+			statement.setMaxRows( 0 );
+			statement.setQueryTimeout( 0 );
+			statement.setFetchSize( 0 );
+		}
+		catch (SQLException e) {
+			log.debugf( "Unable to reset PreparedStatement for re-use, releasing it : %s", e.getMessage() );
+			logicalConnection.getResourceRegistry().release( statement );
+			return;
+		}
+
+		final PreparedStatement previous = idleStatements.put( new StatementKey( sql, statementCreator ), statement );
+		if ( previous != null && previous != statement ) {
+			// the same SQL was executed by overlapping executions; keep only the latest statement
+			logicalConnection.getResourceRegistry().release( previous );
+		}
+
+		if ( idleStatements.size() > maxSize ) {
+			final Iterator<Map.Entry<StatementKey, PreparedStatement>> eldest = idleStatements.entrySet().iterator();
+			final PreparedStatement evicted = eldest.next().getValue();
+			eldest.remove();
+			evictionCount++;
+			logicalConnection.getResourceRegistry().release( evicted );
+		}
+	}
+
+	/**
+	 * The number of statements currently cached (idle)
+	 */
+	public int size() {
+		return idleStatements.size();
+	}
+
+	/**
+	 * The number of times a cached statement was re-used
+	 */
+	public long getHitCount() {
+		return hitCount;
+	}
+
+	/**
+	 * The number of times a statement needed to be prepared
+	 */
+	public long getMissCount() {
+		return missCount;
+	}
+
+	/**
+	 * The number of statements released due to the cache's size bound
+	 */
+	public long getEvictionCount() {
+		return evictionCount;
+	}
+
+	private static class StatementKey {
+		private final String sql;
+		private final PreparedStatementCreator statementCreator;
+		private final int hashCode;
+
+		private StatementKey(String sql, PreparedStatementCreator statementCreator) {
+			this.sql = sql;
+			this.statementCreator = statementCreator;
+			this.hashCode = 31 * sql.hashCode() + statementCreator.hashCode();
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if ( this == o ) {
+				return true;
+			}
+			if ( o == null || getClass() != o.getClass() ) {
+				return false;
+			}
+
+			final StatementKey that = (StatementKey) o;
+			return statementCreator.equals( that.statementCreator ) && sql.equals( that.sql );
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+	}
+}
@@ -6,7 +6,6 @@
  */
 package org.hibernate.sql.exec.internal;
 
-import java.io.Serializable;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -14,15 +13,16 @@ import java.util.ArrayList;
 import java.util.List;
 
 import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.query.spi.QueryStage;
 import org.hibernate.resource.jdbc.spi.LogicalConnectionImplementor;
 import org.hibernate.sql.exec.results.internal.ResultSetProcessingStateStandardImpl;
 import org.hibernate.sql.exec.results.internal.RowReaderStandardImpl;
-import org.hibernate.sql.exec.results.spi.ResultSetProcessingOptions;
 import org.hibernate.sql.exec.results.spi.ResultSetProcessingState;
 import org.hibernate.sql.exec.results.spi.RowReader;
 import org.hibernate.sql.exec.spi.PreparedStatementExecutor;
 import org.hibernate.sql.exec.spi.QueryOptions;
 import org.hibernate.sql.exec.spi.RowTransformer;
+import org.hibernate.sql.gen.Callback;
 import org.hibernate.sql.gen.Return;
 
 /**
@@ -39,47 +39,42 @@ public class PreparedStatementExecutorNormalImpl<T> implements PreparedStatement
 	 */
 	public static final PreparedStatementExecutorNormalImpl INSTANCE = new PreparedStatementExecutorNormalImpl();
 
-	/**
-	 * Processing options effectively are only used for entity loading.  Here we don't need these values.
-	 */
-	private final ResultSetProcessingOptions processingOptions = new ResultSetProcessingOptions() {
-		@Override
-		public Object getEffectiveOptionalObject() {
-			return null;
-		}
-
-		@Override
-		public String getEffectiveOptionalEntityName() {
-			return null;
-		}
-
-		@Override
-		public Serializable getEffectiveOptionalId() {
-			return null;
+	@Override
+	public List<T> execute(
+			PreparedStatement ps,
+			QueryOptions queryOptions,
+			List<Return> returns,
+			RowTransformer<T> rowTransformer,
+			Callback callback,
+			SessionImplementor session) throws SQLException {
+		try {
+			return executeAndRead( ps, queryOptions, returns, rowTransformer, callback, session );
 		}
-
-		@Override
-		public boolean shouldReturnProxies() {
-			return true;
+		finally {
+			session.getJdbcCoordinator().getLogicalConnection().getResourceRegistry().release( ps );
 		}
-	};
+	}
 
-	@Override
-	public List<T> execute(
+	/**
+	 * Execute the PreparedStatement and read all of the rows, leaving the statement open so that
+	 * it can be re-bound and executed again.
+	 */
+	public List<T> executeAndRead(
 			PreparedStatement ps,
 			QueryOptions queryOptions,
 			List<Return> returns,
 			RowTransformer<T> rowTransformer,
+			Callback callback,
 			SessionImplementor session) throws SQLException {
 		final LogicalConnectionImplementor logicalConnection = session.getJdbcCoordinator().getLogicalConnection();
 
 		// Execute the query
+		final long executeStart = System.nanoTime();
 		final ResultSet resultSet = ps.executeQuery();
 		logicalConnection.getResourceRegistry().register( resultSet, ps );
+		callback.stageCompleted( QueryStage.EXECUTE, System.nanoTime() - executeStart );
 
 		try {
-			int position = 1;
-
 			// Prepare the ResultSetProcessingState...
 			final ResultSetProcessingState resultSetProcessingState = new ResultSetProcessingStateStandardImpl(
 					resultSet,
@@ -91,19 +86,22 @@ public class PreparedStatementExecutorNormalImpl<T> implements PreparedStatement
 			final RowReader<T> rowReader = new RowReaderStandardImpl<T>( returns, rowTransformer );
 
 			final List<T> results = new ArrayList<T>();
-			final Integer maxRows = queryOptions.getLimit().getMaxRows();
 
+			final long readStart = System.nanoTime();
 			try {
-				while ( ( maxRows != null && position <= maxRows ) || resultSet.next() ) {
-					results.add(
-							rowReader.readRow(
-									resultSetProcessingState.getCurrentRowProcessingState(),
-									processingOptions
-							)
-					);
-
-					position++;
-					resultSetProcessingState.getCurrentRowProcessingState().finishRowProcessing();
+				// NOTE : any max-rows limit is applied to the SQL or the PreparedStatement; only
+				// first-rows not handled there need to be dealt with here
+				if ( ExecutorHelper.skipFirstRows( resultSet, queryOptions ) ) {
+					while ( resultSet.next() ) {
+						results.add(
+								rowReader.readRow(
+										resultSetProcessingState.getCurrentRowProcessingState(),
+										ResultSetProcessingOptionsStandardImpl.INSTANCE
+								)
+						);
+
+						resultSetProcessingState.getCurrentRowProcessingState().finishRowProcessing();
+					}
 				}
 
 				resultSetProcessingState.finishResultSetProcessing();
@@ -111,12 +109,13 @@ public class PreparedStatementExecutorNormalImpl<T> implements PreparedStatement
 			finally {
 				resultSetProcessingState.release();
 			}
+			callback.stageCompleted( QueryStage.ROW_READ, System.nanoTime() - readStart );
+			callback.rowsRead( results.size() );
 
 			return results;
 		}
 		finally {
 			logicalConnection.getResourceRegistry().release( resultSet, ps );
-			logicalConnection.getResourceRegistry().release( ps );
 		}
 	}
 }
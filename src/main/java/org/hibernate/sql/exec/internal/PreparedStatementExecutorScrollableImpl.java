@@ -13,11 +13,14 @@ import java.util.List;
 
 import org.hibernate.ScrollableResults;
 import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.query.spi.QueryStage;
 import org.hibernate.resource.jdbc.spi.LogicalConnectionImplementor;
+import org.hibernate.sql.exec.results.internal.ResultSetProcessingStateStandardImpl;
+import org.hibernate.sql.exec.results.internal.RowReaderStandardImpl;
 import org.hibernate.sql.exec.spi.PreparedStatementExecutor;
 import org.hibernate.sql.exec.spi.QueryOptions;
 import org.hibernate.sql.exec.spi.RowTransformer;
-import org.hibernate.sql.gen.NotYetImplementedException;
+import org.hibernate.sql.gen.Callback;
 import org.hibernate.sql.gen.Return;
 
 /**
@@ -40,21 +43,26 @@ public class PreparedStatementExecutorScrollableImpl<T> implements PreparedState
 			QueryOptions queryOptions,
 			List<Return> returns,
 			RowTransformer<T> rowTransformer,
+			Callback callback,
 			SessionImplementor session) throws SQLException {
 		final LogicalConnectionImplementor logicalConnection = session.getJdbcCoordinator().getLogicalConnection();
 
 		// Execute the query
+		final long executeStart = System.nanoTime();
 		final ResultSet resultSet = ps.executeQuery();
 		logicalConnection.getResourceRegistry().register( resultSet, ps );
+		callback.stageCompleted( QueryStage.EXECUTE, System.nanoTime() - executeStart );
 
-//		new ScrollableResultsImpl(
-//				resultSet,
-//				rowTransformer,
-//				new ScrollableRowReader(
-//						returns,
-//		...
-//		)
-//		);
-		throw new NotYetImplementedException();
+		// position the ResultSet past any first-rows not handled by the SQL
+		ExecutorHelper.skipFirstRows( resultSet, queryOptions );
+
+		return new ScrollableResultsImpl<T>(
+				resultSet,
+				ps,
+				new ResultSetProcessingStateStandardImpl( resultSet, queryOptions, returns, session ),
+				new RowReaderStandardImpl<T>( returns, rowTransformer ),
+				returns,
+				session
+		);
 	}
 }
@@ -0,0 +1,71 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.sql.exec.internal;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.query.CloseableIterator;
+import org.hibernate.query.spi.QueryStage;
+import org.hibernate.resource.jdbc.spi.LogicalConnectionImplementor;
+import org.hibernate.sql.exec.results.internal.ResultSetProcessingStateStandardImpl;
+import org.hibernate.sql.exec.results.internal.RowReaderStandardImpl;
+import org.hibernate.sql.exec.spi.PreparedStatementExecutor;
+import org.hibernate.sql.exec.spi.QueryOptions;
+import org.hibernate.sql.exec.spi.RowTransformer;
+import org.hibernate.sql.gen.Callback;
+import org.hibernate.sql.gen.Return;
+
+/**
+ * PreparedStatement execution for streaming results, which:<ol>
+ *     <li>calls {@link PreparedStatement#executeQuery()}</li>
+ *     <li>
+ *         wraps the obtained ResultSet in a {@link CloseableIterator} which reads (and transforms)
+ *         rows only as it is advanced
+ *     </li>
+ * </ol>
+ * The JDBC fetch size (if one is specified in the QueryOptions) is applied to the statement prior
+ * to execution, so the driver does not need to buffer the whole result either.
+ */
+public class PreparedStatementExecutorStreamingImpl<T> implements PreparedStatementExecutor<CloseableIterator<T>, T> {
+	/**
+	 * Singleton access
+	 */
+	public static final PreparedStatementExecutorStreamingImpl INSTANCE = new PreparedStatementExecutorStreamingImpl();
+
+	@Override
+	public CloseableIterator<T> execute(
+			PreparedStatement ps,
+			QueryOptions queryOptions,
+			List<Return> returns,
+			RowTransformer<T> rowTransformer,
+			Callback callback,
+			SessionImplementor session) throws SQLException {
+		final LogicalConnectionImplementor logicalConnection = session.getJdbcCoordinator().getLogicalConnection();
+
+		// Execute the query
+		final long executeStart = System.nanoTime();
+		final ResultSet resultSet = ps.executeQuery();
+		logicalConnection.getResourceRegistry().register( resultSet, ps );
+		callback.stageCompleted( QueryStage.EXECUTE, System.nanoTime() - executeStart );
+
+		// position the ResultSet past any first-rows not handled by the SQL
+		ExecutorHelper.skipFirstRows( resultSet, queryOptions );
+
+		return new StreamingResultsImpl<T>(
+				resultSet,
+				ps,
+				new ResultSetProcessingStateStandardImpl( resultSet, queryOptions, returns, session ),
+				new RowReaderStandardImpl<T>( returns, rowTransformer ),
+				callback,
+				session
+		);
+	}
+}
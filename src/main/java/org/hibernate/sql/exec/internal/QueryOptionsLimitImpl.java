@@ -0,0 +1,103 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.sql.exec.internal;
+
+import java.util.List;
+
+import org.hibernate.CacheMode;
+import org.hibernate.FlushMode;
+import org.hibernate.LockOptions;
+import org.hibernate.sql.exec.spi.Limit;
+import org.hibernate.sql.exec.spi.QueryOptions;
+
+/**
+ * QueryOptions replacing the limit of another QueryOptions; everything else is delegated.  Used
+ * for:<ul>
+ *     <li>
+ *         {@link org.hibernate.query.Query#listPage} (the page is selected by its key rather
+ *         than by offset, so the limit is just the page size)
+ *     </li>
+ *     <li>
+ *         {@link org.hibernate.query.Query#count()} (which counts all results, so there is no
+ *         limit)
+ *     </li>
+ *     <li>
+ *         {@link org.hibernate.query.Query#uniqueResult()} (2 rows are enough to decide whether
+ *         the result is unique)
+ *     </li>
+ *     <li>
+ *         the "residual" limit passed to the PreparedStatementExecutor; the part of the query's
+ *         limit which was not handled by the SQL (or the statement's max-rows) and therefore
+ *         still needs to be applied while reading the ResultSet
+ *     </li>
+ * </ul>
+ * The fetch size is the limit's max rows, if any.
+ */
+public class QueryOptionsLimitImpl implements QueryOptions {
+	private final QueryOptions delegate;
+	private final Limit limit;
+
+	public QueryOptionsLimitImpl(QueryOptions delegate, Limit limit) {
+		this.delegate = delegate;
+		this.limit = limit;
+	}
+
+	@Override
+	public Limit getLimit() {
+		return limit;
+	}
+
+	@Override
+	public Integer getFetchSize() {
+		return limit != null && limit.hasMaxRows() ? limit.getMaxRows() : delegate.getFetchSize();
+	}
+
+	@Override
+	public Integer getTimeout() {
+		return delegate.getTimeout();
+	}
+
+	@Override
+	public FlushMode getFlushMode() {
+		return delegate.getFlushMode();
+	}
+
+	@Override
+	public String getComment() {
+		return delegate.getComment();
+	}
+
+	@Override
+	public List<String> getSqlHints() {
+		return delegate.getSqlHints();
+	}
+
+	@Override
+	public LockOptions getLockOptions() {
+		return delegate.getLockOptions();
+	}
+
+	@Override
+	public Boolean isReadOnly() {
+		return delegate.isReadOnly();
+	}
+
+	@Override
+	public CacheMode getCacheMode() {
+		return delegate.getCacheMode();
+	}
+
+	@Override
+	public Boolean isResultCachingEnabled() {
+		return delegate.isResultCachingEnabled();
+	}
+
+	@Override
+	public String getResultCacheRegionName() {
+		return delegate.getResultCacheRegionName();
+	}
+}
@@ -0,0 +1,368 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.sql.exec.internal;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.TimeZone;
+
+import org.hibernate.HibernateException;
+import org.hibernate.ScrollableResults;
+import org.hibernate.engine.jdbc.spi.JdbcServices;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.resource.jdbc.spi.LogicalConnectionImplementor;
+import org.hibernate.sql.exec.results.internal.ReturnReaderScalarImpl;
+import org.hibernate.sql.exec.results.spi.ResultSetProcessingState;
+import org.hibernate.sql.exec.results.spi.ReturnReader;
+import org.hibernate.sql.exec.results.spi.RowReader;
+import org.hibernate.sql.gen.Return;
+import org.hibernate.type.Type;
+
+/**
+ * ScrollableResults implementation reading rows through a {@link RowReader}.  Positioning
+ * is delegated to the JDBC ResultSet, so which operations are supported depends on the
+ * ScrollMode used to prepare the statement (only {@link #next()} for forward-only).
+ * <p/>
+ * Each row is read into a newly allocated array, so the array returned from {@link #get()}
+ * (and anything built from it) remains valid after the cursor is repositioned.
+ */
+public class ScrollableResultsImpl<T> implements ScrollableResults {
+	private final ResultSet resultSet;
+	private final PreparedStatement ps;
+	private final ResultSetProcessingState resultSetProcessingState;
+	private final RowReader<T> rowReader;
+	private final List<Return> returns;
+	private final SessionImplementor session;
+
+	private Object[] currentRow;
+	private boolean closed;
+
+	public ScrollableResultsImpl(
+			ResultSet resultSet,
+			PreparedStatement ps,
+			ResultSetProcessingState resultSetProcessingState,
+			RowReader<T> rowReader,
+			List<Return> returns,
+			SessionImplementor session) {
+		this.resultSet = resultSet;
+		this.ps = ps;
+		this.resultSetProcessingState = resultSetProcessingState;
+		this.rowReader = rowReader;
+		this.returns = returns;
+		this.session = session;
+	}
+
+	// ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+	// positioning
+
+	@Override
+	public boolean next() {
+		try {
+			return prepareCurrentRow( resultSet.next() );
+		}
+		catch (SQLException e) {
+			throw convert( e, "could not advance using next()" );
+		}
+	}
+
+	@Override
+	public boolean previous() {
+		try {
+			return prepareCurrentRow( resultSet.previous() );
+		}
+		catch (SQLException e) {
+			throw convert( e, "could not advance using previous()" );
+		}
+	}
+
+	@Override
+	public boolean scroll(int positions) {
+		try {
+			return prepareCurrentRow( resultSet.relative( positions ) );
+		}
+		catch (SQLException e) {
+			throw convert( e, "could not advance using scroll()" );
+		}
+	}
+
+	@Override
+	public boolean first() {
+		try {
+			return prepareCurrentRow( resultSet.first() );
+		}
+		catch (SQLException e) {
+			throw convert( e, "could not advance using first()" );
+		}
+	}
+
+	@Override
+	public boolean last() {
+		try {
+			return prepareCurrentRow( resultSet.last() );
+		}
+		catch (SQLException e) {
+			throw convert( e, "could not advance using last()" );
+		}
+	}
+
+	@Override
+	public void beforeFirst() {
+		try {
+			resultSet.beforeFirst();
+			currentRow = null;
+		}
+		catch (SQLException e) {
+			throw convert( e, "exception calling beforeFirst()" );
+		}
+	}
+
+	@Override
+	public void afterLast() {
+		try {
+			resultSet.afterLast();
+			currentRow = null;
+		}
+		catch (SQLException e) {
+			throw convert( e, "exception calling afterLast()" );
+		}
+	}
+
+	@Override
+	public boolean isFirst() {
+		try {
+			return resultSet.isFirst();
+		}
+		catch (SQLException e) {
+			throw convert( e, "exception calling isFirst()" );
+		}
+	}
+
+	@Override
+	public boolean isLast() {
+		try {
+			return resultSet.isLast();
+		}
+		catch (SQLException e) {
+			throw convert( e, "exception calling isLast()" );
+		}
+	}
+
+	@Override
+	public int getRowNumber() {
+		try {
+			// ScrollableResults row numbers are zero-based, JDBC's are one-based
+			return resultSet.getRow() - 1;
+		}
+		catch (SQLException e) {
+			throw convert( e, "exception calling getRow()" );
+		}
+	}
+
+	@Override
+	public boolean setRowNumber(int rowNumber) {
+		// negative row numbers are relative to the end of the results, positive
+		// ones need to be adjusted to JDBC's one-based numbering
+		if ( rowNumber >= 0 ) {
+			rowNumber++;
+		}
+
+		try {
+			return prepareCurrentRow( resultSet.absolute( rowNumber ) );
+		}
+		catch (SQLException e) {
+			throw convert( e, "could not advance using absolute()" );
+		}
+	}
+
+	private boolean prepareCurrentRow(boolean underlyingScrollSuccessful) throws SQLException {
+		if ( !underlyingScrollSuccessful ) {
+			currentRow = null;
+			return false;
+		}
+
+		final Object result = rowReader.readRow(
+				resultSetProcessingState.getCurrentRowProcessingState(),
+				ResultSetProcessingOptionsStandardImpl.INSTANCE
+		);
+		resultSetProcessingState.getCurrentRowProcessingState().finishRowProcessing();
+
+		if ( result instanceof Object[] ) {
+			currentRow = (Object[]) result;
+		}
+		else {
+			currentRow = new Object[] { result };
+		}
+
+		return true;
+	}
+
+	@Override
+	public void close() {
+		if ( closed ) {
+			return;
+		}
+		closed = true;
+		currentRow = null;
+
+		final LogicalConnectionImplementor logicalConnection = session.getJdbcCoordinator().getLogicalConnection();
+		try {
+			resultSetProcessingState.finishResultSetProcessing();
+			resultSetProcessingState.release();
+		}
+		finally {
+			logicalConnection.getResourceRegistry().release( resultSet, ps );
+			logicalConnection.getResourceRegistry().release( ps );
+			logicalConnection.afterStatement();
+		}
+	}
+
+	private HibernateException convert(SQLException e, String message) {
+		return session.getFactory().getServiceRegistry().getService( JdbcServices.class )
+				.getSqlExceptionHelper()
+				.convert( e, message );
+	}
+
+
+	// ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+	// value access
+
+	@Override
+	public Object[] get() {
+		if ( closed ) {
+			throw new IllegalStateException( "ScrollableResults is closed" );
+		}
+		return currentRow;
+	}
+
+	@Override
+	public Object get(int col) {
+		if ( currentRow == null ) {
+			throw new IllegalStateException( "ScrollableResults is not positioned on a row" );
+		}
+		return currentRow[col];
+	}
+
+	/**
+	 * The Type of the selection at the given position.  Dynamic instantiations have no Type.
+	 */
+	@Override
+	public Type getType(int col) {
+		if ( col < 0 || col >= returns.size() ) {
+			throw new IndexOutOfBoundsException( "Selection position [" + col + "] out of bounds : " + returns.size() );
+		}
+
+		final ReturnReader returnReader = returns.get( col ).getReturnReader();
+		if ( returnReader instanceof ReturnReaderScalarImpl ) {
+			return ( (ReturnReaderScalarImpl) returnReader ).getReturnType();
+		}
+		throw new HibernateException( "Selection [" + col + "] is a dynamic instantiation, which has no Type" );
+	}
+
+	@Override
+	public Integer getInteger(int col) {
+		return (Integer) get( col );
+	}
+
+	@Override
+	public Long getLong(int col) {
+		return (Long) get( col );
+	}
+
+	@Override
+	public Float getFloat(int col) {
+		return (Float) get( col );
+	}
+
+	@Override
+	public Boolean getBoolean(int col) {
+		return (Boolean) get( col );
+	}
+
+	@Override
+	public Double getDouble(int col) {
+		return (Double) get( col );
+	}
+
+	@Override
+	public Short getShort(int col) {
+		return (Short) get( col );
+	}
+
+	@Override
+	public Byte getByte(int col) {
+		return (Byte) get( col );
+	}
+
+	@Override
+	public Character getCharacter(int col) {
+		return (Character) get( col );
+	}
+
+	@Override
+	public byte[] getBinary(int col) {
+		return (byte[]) get( col );
+	}
+
+	@Override
+	public String getText(int col) {
+		return (String) get( col );
+	}
+
+	@Override
+	public Blob getBlob(int col) {
+		return (Blob) get( col );
+	}
+
+	@Override
+	public Clob getClob(int col) {
+		return (Clob) get( col );
+	}
+
+	@Override
+	public String getString(int col) {
+		return (String) get( col );
+	}
+
+	@Override
+	public BigDecimal getBigDecimal(int col) {
+		return (BigDecimal) get( col );
+	}
+
+	@Override
+	public BigInteger getBigInteger(int col) {
+		return (BigInteger) get( col );
+	}
+
+	@Override
+	public Date getDate(int col) {
+		return (Date) get( col );
+	}
+
+	@Override
+	public Locale getLocale(int col) {
+		return (Locale) get( col );
+	}
+
+	@Override
+	public Calendar getCalendar(int col) {
+		return (Calendar) get( col );
+	}
+
+	@Override
+	public TimeZone getTimeZone(int col) {
+		return (TimeZone) get( col );
+	}
+}
@@ -8,23 +8,37 @@ package org.hibernate.sql.exec.internal;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
 
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.pagination.LimitHandler;
+import org.hibernate.dialect.pagination.LimitHelper;
 import org.hibernate.engine.jdbc.spi.JdbcServices;
+import org.hibernate.engine.spi.RowSelection;
 import org.hibernate.engine.spi.SessionImplementor;
 import org.hibernate.query.spi.QueryParameterBindings;
+import org.hibernate.query.spi.QueryStage;
 import org.hibernate.resource.jdbc.spi.LogicalConnectionImplementor;
 import org.hibernate.result.Outputs;
+import org.hibernate.sql.ast.MutationQuery;
 import org.hibernate.sql.ast.SelectQuery;
+import org.hibernate.sql.exec.spi.Limit;
 import org.hibernate.sql.exec.spi.PreparedStatementCreator;
 import org.hibernate.sql.exec.spi.PreparedStatementExecutor;
 import org.hibernate.sql.exec.spi.QueryOptions;
 import org.hibernate.sql.exec.spi.RowTransformer;
 import org.hibernate.sql.exec.spi.SqlTreeExecutor;
 import org.hibernate.sql.gen.Callback;
+import org.hibernate.sql.gen.Helper;
+import org.hibernate.sql.gen.JdbcMutationPlan;
+import org.hibernate.sql.gen.JdbcSelectPlan;
 import org.hibernate.sql.gen.NotYetImplementedException;
 import org.hibernate.sql.gen.ParameterBinder;
 import org.hibernate.sql.gen.SqlTreeWalker;
+import org.hibernate.type.Type;
 
 /**
  * Standard SqlTreeExecutor implementation
@@ -32,6 +46,24 @@ import org.hibernate.sql.gen.SqlTreeWalker;
  * @author Steve Ebersole
  */
 public class SqlTreeExecutorImpl implements SqlTreeExecutor {
+	private final PreparedStatementCache statementCache;
+
+	public SqlTreeExecutorImpl() {
+		this( null );
+	}
+
+	/**
+	 * Constructs an executor re-using statements from the given cache (if not {@code null}) for
+	 * the executions whose statement lifecycle it controls; i.e. {@link #executeSelectBatch}.
+	 * Statements handed over to a PreparedStatementExecutor (which may keep them open beyond the
+	 * execution, e.g. for scrolling) are never cached.
+	 *
+	 * @param statementCache The Session's statement cache, or {@code null}
+	 */
+	public SqlTreeExecutorImpl(PreparedStatementCache statementCache) {
+		this.statementCache = statementCache;
+	}
+
 	@Override
 	public <R, T> R executeSelect(
 			SelectQuery sqlTree,
@@ -46,50 +78,335 @@ public class SqlTreeExecutorImpl implements SqlTreeExecutor {
 		//		* SQL string
 		//		* ParameterBinders
 		//		* Returns
+		final long renderStart = System.nanoTime();
 		final SqlTreeWalker sqlTreeWalker = new SqlTreeWalker( session.getFactory(), queryParameterBindings );
 		sqlTreeWalker.visitSelectQuery( sqlTree );
+		final JdbcSelectPlan jdbcSelectPlan = sqlTreeWalker.toJdbcSelectPlan( queryOptions );
+		callback.stageCompleted( QueryStage.SQL_RENDERING, System.nanoTime() - renderStart );
+		callback.sqlRendered( jdbcSelectPlan.getSql().length() );
+
+		return executeSelect(
+				jdbcSelectPlan,
+				statementCreator,
+				preparedStatementExecutor,
+				queryOptions,
+				queryParameterBindings,
+				rowTransformer,
+				callback,
+				session
+		);
+	}
 
+	@Override
+	public <R, T> R executeSelect(
+			JdbcSelectPlan jdbcSelectPlan,
+			PreparedStatementCreator statementCreator,
+			PreparedStatementExecutor<R, T> preparedStatementExecutor,
+			QueryOptions queryOptions,
+			QueryParameterBindings queryParameterBindings,
+			RowTransformer<T> rowTransformer,
+			Callback callback,
+			SessionImplementor session) {
 		// Now start the execution
 		final LogicalConnectionImplementor logicalConnection = session.getJdbcCoordinator().getLogicalConnection();
-		final Connection connection = logicalConnection.getPhysicalConnection();
+		final JdbcServices jdbcServices = session.getFactory().getServiceRegistry().getService( JdbcServices.class );
 
+		final String sql = jdbcSelectPlan.getSql();
+		try {
+			final PreparedStatement ps = prepareStatement( sql, statementCreator, false, queryOptions, callback, session );
+
+			final LimitApplier limitApplier = new LimitApplier( queryOptions, session );
+			bindParameters( ps, jdbcSelectPlan, queryParameterBindings, limitApplier, callback, session );
+
+			return preparedStatementExecutor.execute(
+					ps,
+					limitApplier.resolveExecutionOptions( ps ),
+					jdbcSelectPlan.getReturns(),
+					rowTransformer,
+					callback,
+					session
+			);
+		}
+		catch (SQLException e) {
+			throw jdbcServices.getSqlExceptionHelper().convert(
+					e,
+					"JDBC exception executing SQL [" + sql + "]"
+			);
+		}
+		finally {
+			logicalConnection.afterStatement();
+		}
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T> List<List<T>> executeSelectBatch(
+			JdbcSelectPlan jdbcSelectPlan,
+			PreparedStatementCreator statementCreator,
+			QueryOptions queryOptions,
+			List<QueryParameterBindings> bindingSets,
+			RowTransformer<T> rowTransformer,
+			Callback callback,
+			SessionImplementor session) {
+		final LogicalConnectionImplementor logicalConnection = session.getJdbcCoordinator().getLogicalConnection();
 		final JdbcServices jdbcServices = session.getFactory().getServiceRegistry().getService( JdbcServices.class );
 
-		final String sql = sqlTreeWalker.getSql();
+		final List<List<T>> results = new ArrayList<List<T>>( bindingSets.size() );
+		if ( bindingSets.isEmpty() ) {
+			return results;
+		}
+
+		final String sql = jdbcSelectPlan.getSql();
 		try {
-			jdbcServices.getSqlStatementLogger().logStatement( sql );
+			// prepare (and configure) the statement just once...
+			final PreparedStatement ps = prepareStatement( sql, statementCreator, true, queryOptions, callback, session );
+			try {
+				final LimitApplier limitApplier = new LimitApplier( queryOptions, session );
+				final QueryOptions executionOptions = limitApplier.resolveExecutionOptions( ps );
+				final PreparedStatementExecutorNormalImpl<T> executor = PreparedStatementExecutorNormalImpl.INSTANCE;
+
+				// ...and re-bind and execute it for each set of bindings
+				for ( QueryParameterBindings queryParameterBindings : bindingSets ) {
+					bindParameters( ps, jdbcSelectPlan, queryParameterBindings, limitApplier, callback, session );
+					results.add(
+							executor.executeAndRead(
+									ps,
+									executionOptions,
+									jdbcSelectPlan.getReturns(),
+									rowTransformer,
+									callback,
+									session
+							)
+					);
+				}
+			}
+			finally {
+				releaseStatement( sql, statementCreator, ps, logicalConnection );
+			}
 
-			// prepare the query
-			final PreparedStatement ps = statementCreator.create( connection, sql );
+			return results;
+		}
+		catch (SQLException e) {
+			throw jdbcServices.getSqlExceptionHelper().convert(
+					e,
+					"JDBC exception executing SQL [" + sql + "]"
+			);
+		}
+		finally {
+			logicalConnection.afterStatement();
+		}
+	}
+
+	private PreparedStatement prepareStatement(
+			String sql,
+			PreparedStatementCreator statementCreator,
+			boolean cacheable,
+			QueryOptions queryOptions,
+			Callback callback,
+			SessionImplementor session) throws SQLException {
+		final LogicalConnectionImplementor logicalConnection = session.getJdbcCoordinator().getLogicalConnection();
+
+		session.getFactory().getServiceRegistry().getService( JdbcServices.class ).getSqlStatementLogger().logStatement( sql );
+
+		// prepare the query (or re-use an already prepared statement)
+		final long prepareStart = System.nanoTime();
+		final PreparedStatement ps;
+		if ( cacheable && statementCache != null ) {
+			ps = statementCache.prepareStatement( sql, statementCreator, logicalConnection );
+		}
+		else {
+			final Connection connection = logicalConnection.getPhysicalConnection();
+			ps = statementCreator.create( connection, sql );
 			logicalConnection.getResourceRegistry().register( ps, true );
+		}
+		callback.stageCompleted( QueryStage.PREPARE, System.nanoTime() - prepareStart );
+
+		// set options
+		if ( queryOptions.getFetchSize() != null ) {
+			ps.setFetchSize( queryOptions.getFetchSize() );
+		}
+		if ( queryOptions.getTimeout() != null ) {
+			ps.setQueryTimeout( queryOptions.getTimeout() );
+		}
+
+		return ps;
+	}
+
+	private void bindParameters(
+			PreparedStatement ps,
+			JdbcSelectPlan jdbcSelectPlan,
+			QueryParameterBindings queryParameterBindings,
+			LimitApplier limitApplier,
+			Callback callback,
+			SessionImplementor session) throws SQLException {
+		// 		todo : validate that all query parameters were bound?
+		final long bindStart = System.nanoTime();
+		int position = 1;
+		position += limitApplier.bindLimitParametersAtStartOfQuery( ps, position );
+		for ( ParameterBinder parameterBinder : jdbcSelectPlan.getParameterBinders() ) {
+			position += parameterBinder.bindParameterValue(
+					ps,
+					position,
+					queryParameterBindings,
+					session
+			);
+		}
+		limitApplier.bindLimitParametersAtEndOfQuery( ps, position );
+		callback.stageCompleted( QueryStage.BIND, System.nanoTime() - bindStart );
+	}
+
+	/**
+	 * Handles any limit, either via the Dialect's LimitHandler (which has already applied
+	 * the limit to the SQL) or via the statement's max-rows
+	 */
+	private static class LimitApplier {
+		private final QueryOptions queryOptions;
+		private final Limit limit;
+		private final boolean hasLimit;
+		private final LimitHandler limitHandler;
+		private final RowSelection rowSelection;
+		private final boolean useLimit;
+
+		private LimitApplier(QueryOptions queryOptions, SessionImplementor session) {
+			this.queryOptions = queryOptions;
+			this.limit = queryOptions.getLimit();
+			this.hasLimit = limit != null && !limit.isEmpty();
+			this.limitHandler = session.getFactory().getDialect().getLimitHandler();
+			this.rowSelection = hasLimit ? limit.makeRowSelection() : null;
+			this.useLimit = hasLimit && LimitHelper.useLimit( limitHandler, rowSelection );
+		}
+
+		private int bindLimitParametersAtStartOfQuery(PreparedStatement ps, int position) throws SQLException {
+			if ( !useLimit ) {
+				return 0;
+			}
+			return limitHandler.bindLimitParametersAtStartOfQuery( rowSelection, ps, position );
+		}
+
+		private void bindLimitParametersAtEndOfQuery(PreparedStatement ps, int position) throws SQLException {
+			if ( useLimit ) {
+				limitHandler.bindLimitParametersAtEndOfQuery( rowSelection, ps, position );
+				limitHandler.setMaxRows( rowSelection, ps );
+			}
+		}
 
-			// set options
-			if ( queryOptions.getFetchSize() != null ) {
-				ps.setFetchSize( queryOptions.getFetchSize() );
+		private QueryOptions resolveExecutionOptions(PreparedStatement ps) throws SQLException {
+			if ( !hasLimit ) {
+				return queryOptions;
 			}
-			if ( queryOptions.getTimeout() != null ) {
-				ps.setQueryTimeout( queryOptions.getTimeout() );
+
+			if ( !useLimit && limit.hasMaxRows() ) {
+				// fallback to limiting the number of rows via the statement
+				final int firstRow = limit.hasFirstRow() ? limit.getFirstRow() : 0;
+				ps.setMaxRows( limit.getMaxRows() + firstRow );
 			}
 
-			// bind parameters
-			// 		todo : validate that all query parameters were bound?
-			int position = 1;
-			for ( ParameterBinder parameterBinder : sqlTreeWalker.getParameterBinders() ) {
-				position += parameterBinder.bindParameterValue(
-						ps,
-						position,
+			// any first-row not handled by the SQL needs to be skipped while reading the results
+			final boolean skipFirstRows = limit.hasFirstRow()
+					&& ( !useLimit || !limitHandler.supportsLimitOffset() );
+			return new QueryOptionsLimitImpl(
+					queryOptions,
+					new Limit( skipFirstRows ? limit.getFirstRow() : null, null )
+			);
+		}
+	}
+
+	@Override
+	public int executeMutation(
+			MutationQuery sqlTree,
+			PreparedStatementCreator statementCreator,
+			QueryOptions queryOptions,
+			QueryParameterBindings queryParameterBindings,
+			Callback callback,
+			SessionImplementor session) {
+		final long renderStart = System.nanoTime();
+		final SqlTreeWalker sqlTreeWalker = new SqlTreeWalker( session.getFactory(), queryParameterBindings );
+		sqlTree.accept( sqlTreeWalker );
+		final JdbcMutationPlan jdbcMutationPlan = sqlTreeWalker.toJdbcMutationPlan();
+		callback.stageCompleted( QueryStage.SQL_RENDERING, System.nanoTime() - renderStart );
+		callback.sqlRendered( jdbcMutationPlan.getSql().length() );
+
+		return executeMutation(
+				jdbcMutationPlan,
+				statementCreator,
+				queryOptions,
+				queryParameterBindings,
+				callback,
+				session
+		);
+	}
+
+	@Override
+	public int executeMutation(
+			JdbcMutationPlan jdbcMutationPlan,
+			PreparedStatementCreator statementCreator,
+			QueryOptions queryOptions,
+			QueryParameterBindings queryParameterBindings,
+			Callback callback,
+			SessionImplementor session) {
+		final LogicalConnectionImplementor logicalConnection = session.getJdbcCoordinator().getLogicalConnection();
+		final JdbcServices jdbcServices = session.getFactory().getServiceRegistry().getService( JdbcServices.class );
+
+		String sql = jdbcMutationPlan.getSql();
+		try {
+			if ( !jdbcMutationPlan.isMultiTable() ) {
+				return executeUpdate(
+						sql,
+						jdbcMutationPlan.getParameterBinders(),
+						null,
+						null,
+						statementCreator,
+						queryOptions,
 						queryParameterBindings,
+						callback,
 						session
 				);
 			}
 
-			return preparedStatementExecutor.execute(
-					ps,
+			// select the identifiers of the rows to mutate...
+			final List<Object> ids = selectIds(
+					jdbcMutationPlan,
+					statementCreator,
 					queryOptions,
-					sqlTreeWalker.getReturns(),
-					rowTransformer,
+					queryParameterBindings,
+					callback,
 					session
 			);
+
+			// ...and mutate each table by those identifiers, as many at a time as the Dialect allows.  A
+			// smaller (last) chunk is padded, as for multi-valued parameters (see
+			// Helper#determinePaddedValueCount), so that only a few distinct statements are prepared
+			final Dialect dialect = session.getFactory().getDialect();
+			final Type identifierType = jdbcMutationPlan.getIdentifierType();
+			final int keyColumnCount = identifierType.getColumnSpan( session.getFactory() );
+			final int chunkSize = Math.max( 1, Helper.determineInListLimit( dialect ) / keyColumnCount );
+			for ( JdbcMutationPlan.TableMutation tableMutation : jdbcMutationPlan.getTableMutations() ) {
+				for ( int start = 0; start < ids.size(); start += chunkSize ) {
+					final List<Object> chunk = padChunk(
+							ids.subList( start, Math.min( start + chunkSize, ids.size() ) ),
+							chunkSize,
+							dialect
+					);
+					sql = tableMutation.getSql() + " where " + renderIdRestriction(
+							tableMutation.getKeyColumnNames(),
+							chunk.size(),
+							dialect
+					);
+					executeUpdate(
+							sql,
+							tableMutation.getParameterBinders(),
+							chunk,
+							identifierType,
+							statementCreator,
+							queryOptions,
+							queryParameterBindings,
+							callback,
+							session
+					);
+				}
+			}
+
+			return ids.size();
 		}
 		catch (SQLException e) {
 			throw jdbcServices.getSqlExceptionHelper().convert(
@@ -102,34 +419,168 @@ public class SqlTreeExecutorImpl implements SqlTreeExecutor {
 		}
 	}
 
-	@Override
-	public Object[] executeInsert(
-			Object sqlTree,
+	private List<Object> selectIds(
+			JdbcMutationPlan jdbcMutationPlan,
 			PreparedStatementCreator statementCreator,
 			QueryOptions queryOptions,
 			QueryParameterBindings queryParameterBindings,
-			SessionImplementor session) {
-		throw new NotYetImplementedException( "DML execution is not yet implemented" );
+			Callback callback,
+			SessionImplementor session) throws SQLException {
+		final LogicalConnectionImplementor logicalConnection = session.getJdbcCoordinator().getLogicalConnection();
+
+		final String sql = jdbcMutationPlan.getSql();
+		final PreparedStatement ps = prepareStatement( sql, statementCreator, true, queryOptions, callback, session );
+		try {
+			bindParameters( ps, jdbcMutationPlan.getParameterBinders(), null, null, queryParameterBindings, callback, session );
+
+			final long executeStart = System.nanoTime();
+			final ResultSet resultSet = ps.executeQuery();
+			logicalConnection.getResourceRegistry().register( resultSet, ps );
+			callback.stageCompleted( QueryStage.EXECUTE, System.nanoTime() - executeStart );
+
+			try {
+				final Type identifierType = jdbcMutationPlan.getIdentifierType();
+				final String[] identifierColumnAliases = jdbcMutationPlan.getIdentifierColumnAliases();
+				final List<Object> ids = new ArrayList<Object>();
+				while ( resultSet.next() ) {
+					ids.add( identifierType.nullSafeGet( resultSet, identifierColumnAliases, session, null ) );
+				}
+				return ids;
+			}
+			finally {
+				logicalConnection.getResourceRegistry().release( resultSet, ps );
+			}
+		}
+		finally {
+			releaseStatement( sql, statementCreator, ps, logicalConnection );
+		}
 	}
 
-	@Override
-	public int executeUpdate(
-			Object sqlTree,
+	/**
+	 * Pad the chunk of identifiers (by repeating the last) to the number of identifiers actually
+	 * rendered and bound; never more than the chunk size
+	 */
+	private static List<Object> padChunk(List<Object> chunk, int chunkSize, Dialect dialect) {
+		final int paddedSize = Math.min( Helper.determinePaddedValueCount( chunk.size(), dialect ), chunkSize );
+		if ( paddedSize <= chunk.size() ) {
+			return chunk;
+		}
+
+		final List<Object> padded = new ArrayList<Object>( paddedSize );
+		padded.addAll( chunk );
+		final Object last = chunk.get( chunk.size() - 1 );
+		while ( padded.size() < paddedSize ) {
+			padded.add( last );
+		}
+		return padded;
+	}
+
+	/**
+	 * Render the restriction of the given key columns to the given number of identifiers; e.g.
+	 * {@code id in (?, ?)} or {@code (id1, id2) in ((?, ?), (?, ?))}
+	 */
+	private static String renderIdRestriction(String[] keyColumnNames, int idCount, Dialect dialect) {
+		final StringBuilder buffer = new StringBuilder();
+		if ( keyColumnNames.length == 1 ) {
+			buffer.append( keyColumnNames[0] ).append( " in (" );
+			for ( int i = 0; i < idCount; i++ ) {
+				buffer.append( i == 0 ? "?" : ", ?" );
+			}
+			return buffer.append( ')' ).toString();
+		}
+
+		final StringBuilder keyColumns = new StringBuilder();
+		final StringBuilder keyValues = new StringBuilder();
+		for ( int i = 0; i < keyColumnNames.length; i++ ) {
+			if ( dialect.supportsRowValueConstructorSyntaxInInList() ) {
+				keyColumns.append( i == 0 ? "" : ", " ).append( keyColumnNames[i] );
+				keyValues.append( i == 0 ? "?" : ", ?" );
+			}
+			else {
+				keyValues.append( i == 0 ? "" : " and " ).append( keyColumnNames[i] ).append( "=?" );
+			}
+		}
+
+		if ( dialect.supportsRowValueConstructorSyntaxInInList() ) {
+			buffer.append( '(' ).append( keyColumns ).append( ") in (" );
+			for ( int i = 0; i < idCount; i++ ) {
+				buffer.append( i == 0 ? "(" : ", (" ).append( keyValues ).append( ')' );
+			}
+			return buffer.append( ')' ).toString();
+		}
+
+		buffer.append( '(' );
+		for ( int i = 0; i < idCount; i++ ) {
+			buffer.append( i == 0 ? "(" : " or (" ).append( keyValues ).append( ')' );
+		}
+		return buffer.append( ')' ).toString();
+	}
+
+	private int executeUpdate(
+			String sql,
+			List<ParameterBinder> parameterBinders,
+			List<Object> ids,
+			Type identifierType,
 			PreparedStatementCreator statementCreator,
 			QueryOptions queryOptions,
 			QueryParameterBindings queryParameterBindings,
-			SessionImplementor session) {
-		throw new NotYetImplementedException( "DML execution is not yet implemented" );
+			Callback callback,
+			SessionImplementor session) throws SQLException {
+		final LogicalConnectionImplementor logicalConnection = session.getJdbcCoordinator().getLogicalConnection();
+
+		final PreparedStatement ps = prepareStatement( sql, statementCreator, true, queryOptions, callback, session );
+		try {
+			bindParameters( ps, parameterBinders, ids, identifierType, queryParameterBindings, callback, session );
+
+			final long executeStart = System.nanoTime();
+			final int rowCount = ps.executeUpdate();
+			callback.stageCompleted( QueryStage.EXECUTE, System.nanoTime() - executeStart );
+			return rowCount;
+		}
+		finally {
+			releaseStatement( sql, statementCreator, ps, logicalConnection );
+		}
 	}
 
-	@Override
-	public int executeDelete(
-			Object sqlTree,
-			PreparedStatementCreator statementCreator,
-			QueryOptions queryOptions,
+	private void bindParameters(
+			PreparedStatement ps,
+			List<ParameterBinder> parameterBinders,
+			List<Object> ids,
+			Type identifierType,
 			QueryParameterBindings queryParameterBindings,
-			SessionImplementor session) {
-		throw new NotYetImplementedException( "DML execution is not yet implemented" );
+			Callback callback,
+			SessionImplementor session) throws SQLException {
+		final long bindStart = System.nanoTime();
+		int position = 1;
+		for ( ParameterBinder parameterBinder : parameterBinders ) {
+			position += parameterBinder.bindParameterValue(
+					ps,
+					position,
+					queryParameterBindings,
+					session
+			);
+		}
+		if ( ids != null ) {
+			final int keyColumnCount = identifierType.getColumnSpan( session.getFactory() );
+			for ( Object id : ids ) {
+				identifierType.nullSafeSet( ps, id, position, session );
+				position += keyColumnCount;
+			}
+		}
+		callback.stageCompleted( QueryStage.BIND, System.nanoTime() - bindStart );
+	}
+
+	private void releaseStatement(
+			String sql,
+			PreparedStatementCreator statementCreator,
+			PreparedStatement ps,
+			LogicalConnectionImplementor logicalConnection) {
+		if ( statementCache != null ) {
+			statementCache.release( sql, statementCreator, ps, logicalConnection );
+		}
+		else {
+			logicalConnection.getResourceRegistry().release( ps );
+		}
 	}
 
 	@Override
@@ -0,0 +1,148 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.sql.exec.internal;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.NoSuchElementException;
+
+import org.hibernate.HibernateException;
+import org.hibernate.engine.jdbc.spi.JdbcServices;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.query.CloseableIterator;
+import org.hibernate.query.spi.QueryStage;
+import org.hibernate.resource.jdbc.spi.LogicalConnectionImplementor;
+import org.hibernate.sql.exec.results.spi.ResultSetProcessingState;
+import org.hibernate.sql.exec.results.spi.RowReader;
+import org.hibernate.sql.gen.Callback;
+
+/**
+ * CloseableIterator implementation reading rows from the ResultSet only as the
+ * iterator is advanced.  At most one row is held in memory at a time.
+ * <p/>
+ * The ResultSet and PreparedStatement are released (through the ResourceRegistry)
+ * as soon as the ResultSet is exhausted, or when {@link #close()} is called.
+ */
+public class StreamingResultsImpl<T> implements CloseableIterator<T> {
+	private final ResultSet resultSet;
+	private final PreparedStatement ps;
+	private final ResultSetProcessingState resultSetProcessingState;
+	private final RowReader<T> rowReader;
+	private final Callback callback;
+	private final SessionImplementor session;
+
+	private boolean closed;
+
+	// accumulated for reporting to the Callback when closed
+	private int rowCount;
+	private long readNanos;
+
+	// whether the ResultSet has been advanced to a row not yet handed out by #next
+	private boolean rowPending;
+
+	public StreamingResultsImpl(
+			ResultSet resultSet,
+			PreparedStatement ps,
+			ResultSetProcessingState resultSetProcessingState,
+			RowReader<T> rowReader,
+			Callback callback,
+			SessionImplementor session) {
+		this.resultSet = resultSet;
+		this.ps = ps;
+		this.resultSetProcessingState = resultSetProcessingState;
+		this.rowReader = rowReader;
+		this.callback = callback;
+		this.session = session;
+	}
+
+	@Override
+	public boolean hasNext() {
+		if ( closed ) {
+			return false;
+		}
+
+		if ( !rowPending ) {
+			try {
+				rowPending = resultSet.next();
+			}
+			catch (SQLException e) {
+				throw convert( e, "Unable to advance streaming query results" );
+			}
+
+			if ( !rowPending ) {
+				// exhausted
+				resultSetProcessingState.finishResultSetProcessing();
+				close();
+			}
+		}
+
+		return rowPending;
+	}
+
+	@Override
+	public T next() {
+		if ( !hasNext() ) {
+			throw new NoSuchElementException( "No more query results" );
+		}
+
+		rowPending = false;
+		try {
+			final long start = System.nanoTime();
+			final T result = rowReader.readRow(
+					resultSetProcessingState.getCurrentRowProcessingState(),
+					ResultSetProcessingOptionsStandardImpl.INSTANCE
+			);
+			resultSetProcessingState.getCurrentRowProcessingState().finishRowProcessing();
+			readNanos += System.nanoTime() - start;
+			rowCount++;
+			return result;
+		}
+		catch (SQLException e) {
+			throw convert( e, "Unable to read streaming query results" );
+		}
+	}
+
+	@Override
+	public void remove() {
+		throw new UnsupportedOperationException( "Query results are read-only" );
+	}
+
+	@Override
+	public void close() {
+		if ( closed ) {
+			return;
+		}
+		closed = true;
+
+		// only the time spent reading rows counts, not the time the caller spends between rows
+		callback.stageCompleted( QueryStage.ROW_READ, readNanos );
+		callback.rowsRead( rowCount );
+
+		final LogicalConnectionImplementor logicalConnection = session.getJdbcCoordinator().getLogicalConnection();
+		try {
+			resultSetProcessingState.release();
+		}
+		finally {
+			logicalConnection.getResourceRegistry().release( resultSet, ps );
+			logicalConnection.getResourceRegistry().release( ps );
+			logicalConnection.afterStatement();
+		}
+	}
+
+	private HibernateException convert(SQLException e, String message) {
+		try {
+			close();
+		}
+		catch (RuntimeException ignore) {
+		}
+
+		return session.getFactory().getServiceRegistry().getService( JdbcServices.class )
+				.getSqlExceptionHelper()
+				.convert( e, message );
+	}
+}
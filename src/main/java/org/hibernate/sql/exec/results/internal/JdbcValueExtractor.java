@@ -0,0 +1,248 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.sql.exec.results.internal;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+
+import org.hibernate.sql.exec.internal.RecommendedJdbcTypeMappings;
+import org.hibernate.type.descriptor.java.JavaTypeDescriptor;
+import org.hibernate.type.descriptor.java.JavaTypeDescriptorRegistry;
+
+/**
+ * Positional extraction of a single column value from a ResultSet.  Resolved once per
+ * column (by JDBC type code) when the reader is built, so that reading a value per row
+ * is simply the typed ResultSet getter.
+ * <p/>
+ * The value is only passed through the recommended JavaTypeDescriptor when the Java type
+ * returned by the getter differs from the type recommended for the JDBC type code.
+ */
+public abstract class JdbcValueExtractor {
+	private final int jdbcType;
+	private final JavaTypeDescriptor javaTypeDescriptor;
+	private final boolean wrapNeeded;
+
+	protected JdbcValueExtractor(int jdbcType, Class extractedJavaType) {
+		this.jdbcType = jdbcType;
+
+		final Class javaClassMapping = RecommendedJdbcTypeMappings.INSTANCE.determineJavaClassForJdbcTypeCode( jdbcType );
+		this.javaTypeDescriptor = JavaTypeDescriptorRegistry.INSTANCE.getDescriptor( javaClassMapping );
+		this.wrapNeeded = !javaClassMapping.equals( extractedJavaType );
+	}
+
+	public int getJdbcType() {
+		return jdbcType;
+	}
+
+	@SuppressWarnings("unchecked")
+	public Object extract(ResultSet resultSet, int position) throws SQLException {
+		final Object value = doExtract( resultSet, position );
+		if ( value == null || !wrapNeeded ) {
+			return value;
+		}
+		return javaTypeDescriptor.wrap( value, null );
+	}
+
+	/**
+	 * Read the raw column value, returning {@code null} for SQL NULL.
+	 */
+	protected abstract Object doExtract(ResultSet resultSet, int position) throws SQLException;
+
+	/**
+	 * Resolve the extractor to use for the given JDBC type code
+	 *
+	 * @param jdbcType The JDBC type code (see {@link Types})
+	 *
+	 * @return The extractor
+	 */
+	public static JdbcValueExtractor resolve(int jdbcType) {
+		switch ( jdbcType ) {
+			case Types.BIGINT: {
+				return new LongExtractor( jdbcType );
+			}
+			case Types.BIT:
+			case Types.BOOLEAN: {
+				return new BooleanExtractor( jdbcType );
+			}
+			case Types.CHAR:
+			case Types.LONGNVARCHAR:
+			case Types.LONGVARCHAR:
+			case Types.NCHAR:
+			case Types.NVARCHAR:
+			case Types.VARCHAR: {
+				return new StringExtractor( jdbcType );
+			}
+			case Types.DATE: {
+				return new DateExtractor( jdbcType );
+			}
+			case Types.DECIMAL:
+			case Types.NUMERIC: {
+				return new BigDecimalExtractor( jdbcType );
+			}
+			case Types.DOUBLE: {
+				return new DoubleExtractor( jdbcType );
+			}
+			case Types.FLOAT: {
+				return new FloatExtractor( jdbcType );
+			}
+			case Types.INTEGER: {
+				return new IntegerExtractor( jdbcType );
+			}
+			case Types.LONGVARBINARY: {
+				return new BytesExtractor( jdbcType );
+			}
+			case Types.TIME: {
+				return new TimeExtractor( jdbcType );
+			}
+			case Types.TIMESTAMP: {
+				return new TimestampExtractor( jdbcType );
+			}
+		}
+
+		// fail when (if) a value is actually read, as before
+		return new UnsupportedExtractor( jdbcType );
+	}
+
+	private static class LongExtractor extends JdbcValueExtractor {
+		private LongExtractor(int jdbcType) {
+			super( jdbcType, Long.class );
+		}
+
+		@Override
+		protected Object doExtract(ResultSet resultSet, int position) throws SQLException {
+			final long value = resultSet.getLong( position );
+			return resultSet.wasNull() ? null : Long.valueOf( value );
+		}
+	}
+
+	private static class IntegerExtractor extends JdbcValueExtractor {
+		private IntegerExtractor(int jdbcType) {
+			super( jdbcType, Integer.class );
+		}
+
+		@Override
+		protected Object doExtract(ResultSet resultSet, int position) throws SQLException {
+			final int value = resultSet.getInt( position );
+			return resultSet.wasNull() ? null : Integer.valueOf( value );
+		}
+	}
+
+	private static class DoubleExtractor extends JdbcValueExtractor {
+		private DoubleExtractor(int jdbcType) {
+			super( jdbcType, Double.class );
+		}
+
+		@Override
+		protected Object doExtract(ResultSet resultSet, int position) throws SQLException {
+			final double value = resultSet.getDouble( position );
+			return resultSet.wasNull() ? null : Double.valueOf( value );
+		}
+	}
+
+	private static class FloatExtractor extends JdbcValueExtractor {
+		private FloatExtractor(int jdbcType) {
+			super( jdbcType, Float.class );
+		}
+
+		@Override
+		protected Object doExtract(ResultSet resultSet, int position) throws SQLException {
+			final float value = resultSet.getFloat( position );
+			return resultSet.wasNull() ? null : Float.valueOf( value );
+		}
+	}
+
+	private static class BooleanExtractor extends JdbcValueExtractor {
+		private BooleanExtractor(int jdbcType) {
+			super( jdbcType, Boolean.class );
+		}
+
+		@Override
+		protected Object doExtract(ResultSet resultSet, int position) throws SQLException {
+			final boolean value = resultSet.getBoolean( position );
+			return resultSet.wasNull() ? null : Boolean.valueOf( value );
+		}
+	}
+
+	private static class StringExtractor extends JdbcValueExtractor {
+		private StringExtractor(int jdbcType) {
+			super( jdbcType, String.class );
+		}
+
+		@Override
+		protected Object doExtract(ResultSet resultSet, int position) throws SQLException {
+			return resultSet.getString( position );
+		}
+	}
+
+	private static class BigDecimalExtractor extends JdbcValueExtractor {
+		private BigDecimalExtractor(int jdbcType) {
+			super( jdbcType, BigDecimal.class );
+		}
+
+		@Override
+		protected Object doExtract(ResultSet resultSet, int position) throws SQLException {
+			return resultSet.getBigDecimal( position );
+		}
+	}
+
+	private static class DateExtractor extends JdbcValueExtractor {
+		private DateExtractor(int jdbcType) {
+			super( jdbcType, java.sql.Date.class );
+		}
+
+		@Override
+		protected Object doExtract(ResultSet resultSet, int position) throws SQLException {
+			return resultSet.getDate( position );
+		}
+	}
+
+	private static class TimeExtractor extends JdbcValueExtractor {
+		private TimeExtractor(int jdbcType) {
+			super( jdbcType, java.sql.Time.class );
+		}
+
+		@Override
+		protected Object doExtract(ResultSet resultSet, int position) throws SQLException {
+			return resultSet.getTime( position );
+		}
+	}
+
+	private static class TimestampExtractor extends JdbcValueExtractor {
+		private TimestampExtractor(int jdbcType) {
+			super( jdbcType, java.sql.Timestamp.class );
+		}
+
+		@Override
+		protected Object doExtract(ResultSet resultSet, int position) throws SQLException {
+			return resultSet.getTimestamp( position );
+		}
+	}
+
+	private static class BytesExtractor extends JdbcValueExtractor {
+		private BytesExtractor(int jdbcType) {
+			super( jdbcType, byte[].class );
+		}
+
+		@Override
+		protected Object doExtract(ResultSet resultSet, int position) throws SQLException {
+			return resultSet.getBytes( position );
+		}
+	}
+
+	private static class UnsupportedExtractor extends JdbcValueExtractor {
+		private UnsupportedExtractor(int jdbcType) {
+			super( jdbcType, Object.class );
+		}
+
+		@Override
+		protected Object doExtract(ResultSet resultSet, int position) throws SQLException {
+			throw new UnsupportedOperationException( "JDBC type [" + getJdbcType() + " not supported" );
+		}
+	}
+}
@@ -8,32 +8,41 @@ package org.hibernate.sql.exec.results.internal;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.Types;
 
 import org.hibernate.EntityMode;
 import org.hibernate.engine.spi.SessionFactoryImplementor;
-import org.hibernate.engine.spi.SessionImplementor;
-import org.hibernate.sql.exec.internal.RecommendedJdbcTypeMappings;
 import org.hibernate.sql.exec.results.spi.ResultSetProcessingOptions;
 import org.hibernate.sql.exec.results.spi.ReturnReader;
 import org.hibernate.sql.exec.results.spi.RowProcessingState;
 import org.hibernate.type.CompositeType;
 import org.hibernate.type.Type;
-import org.hibernate.type.descriptor.java.JavaTypeDescriptor;
-import org.hibernate.type.descriptor.java.JavaTypeDescriptorRegistry;
 
 /**
+ * ReturnReader for scalar (basic, or simple composite) values.  The extraction of each
+ * column is resolved up front, when the reader is built.
+ *
  * @author Steve Ebersole
  */
 public class ReturnReaderScalarImpl implements ReturnReader {
 	private final int startPosition;
 	private final Type returnType;
+	private final JdbcValueExtractor[] extractors;
 
-	public ReturnReaderScalarImpl(int startPosition, Type returnType) {
+	public ReturnReaderScalarImpl(int startPosition, Type returnType, SessionFactoryImplementor sessionFactory) {
 		this.startPosition = startPosition;
 		this.returnType = returnType;
 
 		assert returnType != null;
+
+		final int[] jdbcTypes = returnType.sqlTypes( sessionFactory );
+		this.extractors = new JdbcValueExtractor[ jdbcTypes.length ];
+		for ( int i = 0; i < jdbcTypes.length; i++ ) {
+			extractors[i] = JdbcValueExtractor.resolve( jdbcTypes[i] );
+		}
+	}
+
+	public Type getReturnType() {
+		return returnType;
 	}
 
 	@Override
@@ -43,7 +52,7 @@ public class ReturnReaderScalarImpl implements ReturnReader {
 
 	@Override
 	public int getNumberOfColumnsRead(SessionFactoryImplementor sessionFactory) {
-		return returnType.sqlTypes( sessionFactory ).length;
+		return extractors.length;
 	}
 
 	@Override
@@ -61,17 +70,14 @@ public class ReturnReaderScalarImpl implements ReturnReader {
 		// for now we assume basic types with no attribute conversion etc.
 		// a more correct implementation requires the "positional read" changes to Type.
 
-		final SessionImplementor session = processingState.getResultSetProcessingState().getSession();
 		final ResultSet resultSet = processingState.getResultSetProcessingState().getResultSet();
 
-		final int columnSpan = returnType.getColumnSpan( session.getFactory() );
-		final int[] jdbcTypes = returnType.sqlTypes( session.getFactory() );
-		if ( columnSpan > 1 ) {
+		if ( extractors.length > 1 ) {
 			// has to be a CompositeType for now (and a very basic, one-level one)...
 			final CompositeType ctype = (CompositeType) returnType;
-			final Object[] values = new Object[ columnSpan ];
-			for ( int i = 0; i < columnSpan; i++ ) {
-				values[i] = readResultValue( resultSet, startPosition+i, jdbcTypes[i] );
+			final Object[] values = new Object[ extractors.length ];
+			for ( int i = 0; i < extractors.length; i++ ) {
+				values[i] = extractors[i].extract( resultSet, startPosition+i );
 			}
 			try {
 				final Object result = ctype.getReturnedClass().newInstance();
@@ -83,71 +89,7 @@ public class ReturnReaderScalarImpl implements ReturnReader {
 			}
 		}
 		else {
-			return readResultValue( resultSet, startPosition, jdbcTypes[0] );
-		}
-	}
-
-	private Object readResultValue(ResultSet resultSet, int position, int jdbcType) throws SQLException {
-		final Class javaClassMapping = RecommendedJdbcTypeMappings.INSTANCE.determineJavaClassForJdbcTypeCode( jdbcType );
-		final JavaTypeDescriptor javaTypeDescriptor = JavaTypeDescriptorRegistry.INSTANCE.getDescriptor( javaClassMapping );
-
-		switch ( jdbcType ) {
-			case Types.BIGINT: {
-				return javaTypeDescriptor.wrap( resultSet.getLong( position ), null );
-			}
-			case Types.BIT: {
-				return javaTypeDescriptor.wrap( resultSet.getBoolean( position ), null );
-			}
-			case Types.BOOLEAN: {
-				return javaTypeDescriptor.wrap( resultSet.getBoolean( position ), null );
-			}
-			case Types.CHAR: {
-				return javaTypeDescriptor.wrap( resultSet.getString( position ), null );
-			}
-			case Types.DATE: {
-				return javaTypeDescriptor.wrap( resultSet.getDate( position ), null );
-			}
-			case Types.DECIMAL: {
-				return javaTypeDescriptor.wrap( resultSet.getBigDecimal( position ), null );
-			}
-			case Types.DOUBLE: {
-				return javaTypeDescriptor.wrap( resultSet.getDouble( position ), null );
-			}
-			case Types.FLOAT: {
-				return javaTypeDescriptor.wrap( resultSet.getFloat( position ), null );
-			}
-			case Types.INTEGER: {
-				return javaTypeDescriptor.wrap( resultSet.getInt( position ), null );
-			}
-			case Types.LONGNVARCHAR: {
-				return javaTypeDescriptor.wrap( resultSet.getString( position ), null );
-			}
-			case Types.LONGVARCHAR: {
-				return javaTypeDescriptor.wrap( resultSet.getString( position ), null );
-			}
-			case Types.LONGVARBINARY: {
-				return javaTypeDescriptor.wrap( resultSet.getBytes( position ), null );
-			}
-			case Types.NCHAR: {
-				return javaTypeDescriptor.wrap( resultSet.getString( position ), null );
-			}
-			case Types.NUMERIC: {
-				return javaTypeDescriptor.wrap( resultSet.getBigDecimal( position ), null );
-			}
-			case Types.NVARCHAR: {
-				return javaTypeDescriptor.wrap( resultSet.getString( position ), null );
-			}
-			case Types.TIME: {
-				return javaTypeDescriptor.wrap( resultSet.getTime( position ), null );
-			}
-			case Types.TIMESTAMP: {
-				return javaTypeDescriptor.wrap( resultSet.getTimestamp( position ), null );
-			}
-			case Types.VARCHAR: {
-				return javaTypeDescriptor.wrap( resultSet.getString( position ), null );
-			}
+			return extractors[0].extract( resultSet, startPosition );
 		}
-
-		throw new UnsupportedOperationException( "JDBC type [" + jdbcType + " not supported" );
 	}
 }
@@ -49,7 +49,6 @@ public class RowReaderStandardImpl<T> implements RowReader<T> {
 		final int returnCount = returnReaders.length;
 		final Object[] row = new Object[returnCount];
 
-		int position = 1;
 		// first phase of reading
 		for ( ReturnReader returnReader : returnReaders ) {
 			returnReader.readBasicValues( processingState, options );
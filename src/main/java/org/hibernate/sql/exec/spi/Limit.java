@@ -6,6 +6,8 @@
  */
 package org.hibernate.sql.exec.spi;
 
+import org.hibernate.engine.spi.RowSelection;
+
 /**
  * @author Steve Ebersole
  */
@@ -13,6 +15,45 @@ public class Limit {
 	private Integer firstRow;
 	private Integer maxRows;
 
+	public Limit() {
+	}
+
+	public Limit(Integer firstRow, Integer maxRows) {
+		this.firstRow = firstRow;
+		this.maxRows = maxRows;
+	}
+
+	/**
+	 * Does this limit define a (positive) first row?  Mirrors
+	 * {@link org.hibernate.dialect.pagination.LimitHelper#hasFirstRow}
+	 */
+	public boolean hasFirstRow() {
+		return firstRow != null && firstRow > 0;
+	}
+
+	/**
+	 * Does this limit define a (positive) max rows?  Mirrors
+	 * {@link org.hibernate.dialect.pagination.LimitHelper#hasMaxRows}
+	 */
+	public boolean hasMaxRows() {
+		return maxRows != null && maxRows > 0;
+	}
+
+	public boolean isEmpty() {
+		return !hasFirstRow() && !hasMaxRows();
+	}
+
+	/**
+	 * Adapt this Limit to the RowSelection contract understood by the Dialect's
+	 * {@link org.hibernate.dialect.pagination.LimitHandler}
+	 */
+	public RowSelection makeRowSelection() {
+		final RowSelection rowSelection = new RowSelection();
+		rowSelection.setFirstRow( firstRow );
+		rowSelection.setMaxRows( maxRows );
+		return rowSelection;
+	}
+
 	public Integer getFirstRow() {
 		return firstRow;
 	}
@@ -13,6 +13,7 @@ import java.util.List;
 
 import org.hibernate.Incubating;
 import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.sql.gen.Callback;
 import org.hibernate.sql.gen.Return;
 
 /**
@@ -35,6 +36,7 @@ public interface PreparedStatementExecutor<R,T> {
 	 * @param returns
 	 * @param rowTransformer
 	 * @param queryOptions
+	 * @param callback Notified of the execution and row reading stages
 	 * @param session
 	 *
 	 * @return
@@ -46,5 +48,6 @@ public interface PreparedStatementExecutor<R,T> {
 			QueryOptions queryOptions,
 			List<Return> returns,
 			RowTransformer<T> rowTransformer,
+			Callback callback,
 			SessionImplementor session) throws SQLException;
 }
@@ -6,13 +6,18 @@
  */
 package org.hibernate.sql.exec.spi;
 
+import java.util.List;
+
 import org.hibernate.Incubating;
 import org.hibernate.engine.spi.SessionImplementor;
 import org.hibernate.query.spi.QueryParameterBindings;
 import org.hibernate.result.Output;
 import org.hibernate.result.Outputs;
+import org.hibernate.sql.ast.MutationQuery;
 import org.hibernate.sql.ast.SelectQuery;
 import org.hibernate.sql.gen.Callback;
+import org.hibernate.sql.gen.JdbcMutationPlan;
+import org.hibernate.sql.gen.JdbcSelectPlan;
 
 /**
  * NOTE : look at as the clean room representation of "Loader", although possibly for DML as
@@ -60,25 +65,64 @@ public interface SqlTreeExecutor {
 			Callback callback,
 			SessionImplementor session);
 
-	Object[] executeInsert(
-			Object sqlTree,
+	/**
+	 * Execute an already rendered (and possibly cached) JdbcSelectPlan, skipping
+	 * straight to the prepare/bind/execute stage.
+	 */
+	<R,T> R executeSelect(
+			JdbcSelectPlan jdbcSelectPlan,
 			PreparedStatementCreator statementCreator,
+			PreparedStatementExecutor<R,T> preparedStatementExecutor,
 			QueryOptions queryOptions,
 			QueryParameterBindings queryParameterBindings,
+			RowTransformer<T> rowTransformer,
+			Callback callback,
 			SessionImplementor session);
 
-	int executeUpdate(
-			Object sqlTree,
+	/**
+	 * Execute an already rendered JdbcSelectPlan once for each of the given parameter bindings,
+	 * reading all rows of each execution.  A single PreparedStatement is prepared and re-bound
+	 * for each execution; all of the bindings must therefore be of the same "shape" (that is,
+	 * they must all resolve to the given JdbcSelectPlan).
+	 *
+	 * @return The results of each execution, in the order of the given bindings
+	 */
+	<T> List<List<T>> executeSelectBatch(
+			JdbcSelectPlan jdbcSelectPlan,
+			PreparedStatementCreator statementCreator,
+			QueryOptions queryOptions,
+			List<QueryParameterBindings> bindingSets,
+			RowTransformer<T> rowTransformer,
+			Callback callback,
+			SessionImplementor session);
+
+	/**
+	 * Render and execute the given UPDATE, DELETE or INSERT-SELECT SQL AST.
+	 *
+	 * @return The number of (entity) rows affected
+	 */
+	int executeMutation(
+			MutationQuery sqlTree,
 			PreparedStatementCreator statementCreator,
 			QueryOptions queryOptions,
 			QueryParameterBindings queryParameterBindings,
+			Callback callback,
 			SessionImplementor session);
 
-	int executeDelete(
-			Object sqlTree,
+	/**
+	 * Execute an already rendered (and possibly cached) JdbcMutationPlan.  For a
+	 * {@link JdbcMutationPlan#isMultiTable() multi-table} plan the identifiers of the matching
+	 * rows are selected first and each table is then mutated by those identifiers, in as few
+	 * statements as the Dialect's in-list limit allows.
+	 *
+	 * @return The number of (entity) rows affected
+	 */
+	int executeMutation(
+			JdbcMutationPlan jdbcMutationPlan,
 			PreparedStatementCreator statementCreator,
 			QueryOptions queryOptions,
 			QueryParameterBindings queryParameterBindings,
+			Callback callback,
 			SessionImplementor session);
 
 	<T> Outputs executeCall(
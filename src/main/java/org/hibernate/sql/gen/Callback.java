@@ -6,12 +6,39 @@
  */
 package org.hibernate.sql.gen;
 
+import org.hibernate.query.spi.QueryStage;
+
 /**
  * Callback to allow SQM interpretation to trigger certain things within ORM.  See the current
  * javadocs for {@link org.hibernate.loader.plan.spi.LoadPlan} for details.  Specifically this would
  * encompass things like follow-on locking, follow-on fetching, etc.
+ * <p/>
+ * Also receives notification of the time spent in each {@link QueryStage} of preparing and
+ * executing the query, for observability.  Implementations should be cheap; they are called
+ * for every execution.
  *
  * @author Steve Ebersole
  */
 public interface Callback {
+	/**
+	 * Notification that a stage completed.
+	 *
+	 * @param stage The stage
+	 * @param elapsedNanos The time spent in the stage, in nanoseconds
+	 */
+	void stageCompleted(QueryStage stage, long elapsedNanos);
+
+	/**
+	 * Notification that the SQL was rendered.
+	 *
+	 * @param sqlLength The length of the rendered SQL
+	 */
+	void sqlRendered(int sqlLength);
+
+	/**
+	 * Notification of the number of rows read by an execution.
+	 *
+	 * @param rowCount The number of rows read
+	 */
+	void rowsRead(int rowCount);
 }
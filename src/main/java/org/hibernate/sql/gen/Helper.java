@@ -7,6 +7,7 @@
 package org.hibernate.sql.gen;
 
 import org.hibernate.QueryException;
+import org.hibernate.dialect.Dialect;
 import org.hibernate.sql.ast.expression.NamedParameter;
 import org.hibernate.sql.ast.expression.PositionalParameter;
 import org.hibernate.query.spi.QueryParameterBinding;
@@ -18,7 +19,7 @@ import org.hibernate.type.Type;
  */
 public class Helper {
 	public static Type resolveType(NamedParameter parameter, QueryParameterBindings bindings) {
-		final QueryParameterBinding binding = bindings.getNamedParameterBinding( parameter.getName() );
+		final QueryParameterBinding binding = parameter.resolveBinding( bindings );
 		if ( binding != null ) {
 			if ( binding.getBindType() != null ) {
 				return binding.getBindType();
@@ -33,7 +34,7 @@ public class Helper {
 	}
 
 	public static Type resolveType(PositionalParameter parameter, QueryParameterBindings bindings) {
-		final QueryParameterBinding binding = bindings.getPositionalParameterBinding( parameter.getPosition() );
+		final QueryParameterBinding binding = parameter.resolveBinding( bindings );
 		if ( binding != null ) {
 			if ( binding.getBindType() != null ) {
 				return binding.getBindType();
@@ -47,6 +48,52 @@ public class Helper {
 		throw new QueryException( "Unable to determine Type for positional parameter [?" + parameter.getPosition() + "]" );
 	}
 
+	/**
+	 * The maximum number of values rendered into a single IN list when the Dialect does not
+	 * define a (lower) limit.  Kept well below the total parameter limit of the common drivers.
+	 */
+	public static final int DEFAULT_IN_LIST_LIMIT = 1024;
+
+	/**
+	 * Determine the maximum number of values rendered into a single IN list.
+	 *
+	 * @param dialect The Dialect in effect
+	 *
+	 * @return The limit
+	 */
+	public static int determineInListLimit(Dialect dialect) {
+		final int dialectLimit = dialect.getInExpressionCountLimit();
+		if ( dialectLimit > 0 && dialectLimit < DEFAULT_IN_LIST_LIMIT ) {
+			return dialectLimit;
+		}
+		return DEFAULT_IN_LIST_LIMIT;
+	}
+
+	/**
+	 * Determine the number of values actually rendered (and bound) for a multi-valued parameter
+	 * bound to the given number of values.  The count is padded to the next power of two (capped
+	 * at the {@link #determineInListLimit IN list limit}) so that differing list sizes map to a
+	 * small number of distinct SQL strings; the padding repeats the last value.
+	 *
+	 * @param valueCount The number of bound values
+	 * @param dialect The Dialect in effect
+	 *
+	 * @return The padded count
+	 */
+	public static int determinePaddedValueCount(int valueCount, Dialect dialect) {
+		if ( valueCount <= 1 ) {
+			return valueCount;
+		}
+
+		final int limit = determineInListLimit( dialect );
+		if ( valueCount >= limit ) {
+			return valueCount;
+		}
+
+		final int padded = Integer.highestOneBit( valueCount - 1 ) << 1;
+		return padded > limit ? limit : padded;
+	}
+
 	private Helper() {
 	}
 }
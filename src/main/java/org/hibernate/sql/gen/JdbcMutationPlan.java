@@ -0,0 +1,80 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.sql.gen;
+
+import java.util.List;
+
+import org.hibernate.type.Type;
+
+/**
+ * JdbcOperationPlan specific to performing an {@code UPDATE}, {@code DELETE} or
+ * {@code INSERT ... SELECT}.
+ * <p/>
+ * When the mutation is limited to a single table, {@link #getSql()} is the one statement performing
+ * it.  Otherwise (an entity mapped to multiple tables, e.g. a JOINED hierarchy) {@link #getSql()}
+ * selects the identifiers of the rows to be mutated, and the mutation is then performed by
+ * executing each of the {@link #getTableMutations() table mutations} against those identifiers.
+ * Selecting the identifiers once, up front, keeps the mutations consistent even when they change
+ * the state the restriction tests; note that this means all of the matching identifiers are held
+ * in memory for the duration of the mutation.  The identifiers are read, and bound to the table
+ * mutations, through the {@link #getIdentifierType() identifier Type}.
+ * <p/>
+ * {@link #getAffectedTableNames()} names the tables written to.
+ */
+public interface JdbcMutationPlan extends JdbcOperationPlan {
+	/**
+	 * Does the mutation span multiple tables?
+	 *
+	 * @return {@code true} if {@link #getSql()} is the identifier select
+	 */
+	boolean isMultiTable();
+
+	/**
+	 * For multi-table mutations, the mutation of each table in the order they should be performed.
+	 *
+	 * @return The table mutations; empty for single-table mutations
+	 */
+	List<TableMutation> getTableMutations();
+
+	/**
+	 * For multi-table mutations, the Type of the identifiers selected by {@link #getSql()}.
+	 *
+	 * @return The identifier Type; {@code null} for single-table mutations
+	 */
+	Type getIdentifierType();
+
+	/**
+	 * For multi-table mutations, the aliases of the identifier columns selected by {@link #getSql()},
+	 * by which they are read through the {@link #getIdentifierType() identifier Type}.
+	 *
+	 * @return The identifier column aliases; {@code null} for single-table mutations
+	 */
+	String[] getIdentifierColumnAliases();
+
+	/**
+	 * The mutation of one table, as part of a multi-table mutation
+	 */
+	interface TableMutation {
+		String getTableName();
+
+		/**
+		 * The SQL to be performed, minus the restriction to the selected identifiers.  That restriction
+		 * is applied to the {@link #getKeyColumnNames() key columns} at execution time, in chunks of
+		 * a fixed (padded) number of identifiers.
+		 *
+		 * @return The unrestricted SQL
+		 */
+		String getSql();
+
+		List<ParameterBinder> getParameterBinders();
+
+		/**
+		 * The columns of the table holding the entity identifier
+		 */
+		String[] getKeyColumnNames();
+	}
+}
@@ -7,6 +7,7 @@
 package org.hibernate.sql.gen;
 
 import java.util.List;
+import java.util.Set;
 
 /**
  * Represents the information needed to perform a JDBC operation.
@@ -31,4 +32,13 @@ public interface JdbcOperationPlan {
 	List<ParameterBinder> getParameterBinders();
 
 	List<QueryOptionBinder> getQueryOptionBinders();
+
+	/**
+	 * The names of the (physical) tables referenced by the SQL; the "table spaces" used to
+	 * determine whether cached results of the operation are still current.
+	 *
+	 * @return The table names, or {@code null} if the SQL references tables whose underlying
+	 * tables cannot be determined (derived tables)
+	 */
+	Set<String> getAffectedTableNames();
 }
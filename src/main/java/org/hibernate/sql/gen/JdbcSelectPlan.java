@@ -8,8 +8,6 @@ package org.hibernate.sql.gen;
 
 import java.util.List;
 
-import org.hibernate.loader.plan.spi.Return;
-
 /**
  * JdbcOperationPlan specific to performing a {@code SELECT} query.  Tha main difference is the
  * added definition of how to extract results from the query results.
@@ -18,12 +16,10 @@ import org.hibernate.loader.plan.spi.Return;
  */
 public interface JdbcSelectPlan extends JdbcOperationPlan {
 	/**
-	 * LoadPlan was designed to be a PoC of this "SQM" work, but built around the limitations in
-	 * upstream ORM.  Moving forward, this just needs to be some form of "return" descriptors.  For now
-	 * just use the LoadPlan notion of a Return.  Expect the return type to change or for Return to be
-	 * changed as we continue SQM dev.
+	 * The descriptors for reading the results of the query.  The positions of the
+	 * Returns (and their ReturnReaders) are relative to {@link #getSql()}.
 	 *
-	 * @return
+	 * @return The Return descriptors
 	 */
 	List<Return> getReturns();
 }
@@ -7,13 +7,33 @@
 package org.hibernate.sql.gen;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 
 import org.hibernate.QueryException;
+import org.hibernate.dialect.pagination.LimitHandler;
+import org.hibernate.dialect.pagination.LimitHelper;
+import org.hibernate.engine.spi.RowSelection;
 import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.id.Assigned;
+import org.hibernate.persister.common.internal.PhysicalColumn;
+import org.hibernate.persister.common.internal.PhysicalTable;
+import org.hibernate.persister.entity.Queryable;
+import org.hibernate.sql.ast.CountQuery;
+import org.hibernate.sql.ast.DeleteQuery;
+import org.hibernate.sql.ast.InsertSelectQuery;
 import org.hibernate.sql.ast.QuerySpec;
 import org.hibernate.sql.ast.SelectQuery;
+import org.hibernate.sql.ast.UpdateQuery;
 import org.hibernate.sql.ast.expression.AttributeReference;
 import org.hibernate.sql.ast.expression.AvgFunction;
 import org.hibernate.sql.ast.expression.BinaryArithmeticExpression;
@@ -26,6 +46,7 @@ import org.hibernate.sql.ast.expression.CountFunction;
 import org.hibernate.sql.ast.expression.CountStarFunction;
 import org.hibernate.sql.ast.expression.EntityReference;
 import org.hibernate.sql.ast.expression.Expression;
+import org.hibernate.sql.ast.expression.KeysetParameter;
 import org.hibernate.sql.ast.expression.MaxFunction;
 import org.hibernate.sql.ast.expression.MinFunction;
 import org.hibernate.sql.ast.expression.NamedParameter;
@@ -33,11 +54,13 @@ import org.hibernate.sql.ast.expression.NonStandardFunctionExpression;
 import org.hibernate.sql.ast.expression.NullifExpression;
 import org.hibernate.sql.ast.expression.PositionalParameter;
 import org.hibernate.sql.ast.expression.QueryLiteral;
+import org.hibernate.sql.ast.expression.SqlTuple;
 import org.hibernate.sql.ast.expression.SumFunction;
 import org.hibernate.sql.ast.expression.UnaryOperationExpression;
 import org.hibernate.sql.ast.expression.instantiation.DynamicInstantiation;
 import org.hibernate.sql.ast.expression.instantiation.DynamicInstantiationArgument;
 import org.hibernate.sql.ast.from.ColumnBinding;
+import org.hibernate.sql.ast.from.EntityTableGroup;
 import org.hibernate.sql.ast.from.FromClause;
 import org.hibernate.sql.ast.from.TableBinding;
 import org.hibernate.sql.ast.from.TableGroup;
@@ -57,8 +80,16 @@ import org.hibernate.sql.ast.predicate.Predicate;
 import org.hibernate.sql.ast.predicate.RelationalPredicate;
 import org.hibernate.sql.ast.select.SelectClause;
 import org.hibernate.sql.ast.select.Selection;
+import org.hibernate.sql.ast.sort.SortSpecification;
+import org.hibernate.sql.ast.update.Assignment;
+import org.hibernate.query.spi.QueryParameterBinding;
 import org.hibernate.query.spi.QueryParameterBindings;
 import org.hibernate.sql.exec.results.spi.ReturnReader;
+import org.hibernate.sql.exec.spi.Limit;
+import org.hibernate.sql.exec.spi.QueryOptions;
+import org.hibernate.sql.gen.internal.JdbcMutationPlanImpl;
+import org.hibernate.sql.gen.internal.JdbcSelectPlanImpl;
+import org.hibernate.sqm.query.order.SortOrder;
 import org.hibernate.type.LiteralType;
 import org.hibernate.type.Type;
 
@@ -73,20 +104,50 @@ public class SqlTreeWalker {
 	// pre-req state
 	private final SessionFactoryImplementor sessionFactory;
 	private final QueryParameterBindings parameterBindings;
-	private final boolean shallow = false; // for now always false, until Query#iterate support finalized
+	// select just the identifier of selected entities (Query#iterate)
+	private final boolean shallow;
 
 	// In-flight state
 	private final StringBuilder sqlBuffer = new StringBuilder();
 	private final List<ParameterBinder> parameterBinders = new ArrayList<ParameterBinder>();
 	private final List<Return> returns = new ArrayList<Return>();
+	// the physical tables referenced; null once a derived table is referenced
+	private Set<String> affectedTableNames = new HashSet<String>();
 
 	// rendering expressions often has to be done differently if it occurs in a predicate
 	private boolean currentlyInPredicate;
 	private boolean currentlyInSelections;
+	// multi-valued parameters may only be rendered as IN list elements
+	private boolean currentlyInInList;
+
+	// depth of the QuerySpec being rendered; 1 being the root QuerySpec
+	private int querySpecDepth;
+	// while rendering the root QuerySpec as a derived table (see visitCountQuery) : the number of
+	// columns aliased so far; -1 otherwise
+	private int derivedTableColumnCount = -1;
+
+	// root selections which can be referenced from the ORDER BY by alias, keyed by rendered SQL fragment
+	private final Map<String, SelectionAliasCandidate> selectionAliasCandidates = new HashMap<String, SelectionAliasCandidate>();
+
+	// while rendering a DML statement : what to qualify the columns of the target TableGroup's
+	// tables with (aliases are not portably supported in DML), keyed by identification variable;
+	// null for those tables of the group the statement does not mutate
+	private Map<String, String> dmlQualifiers;
+	// the tables a DML statement writes to, and for multi-table DML the statement for each
+	private final Set<String> mutatedTableNames = new LinkedHashSet<String>();
+	private final List<JdbcMutationPlan.TableMutation> tableMutations = new ArrayList<JdbcMutationPlan.TableMutation>();
+	// for multi-table DML : how the identifiers selected by the statement are read (and bound)
+	private Type identifierType;
+	private String[] identifierColumnAliases;
 
 	public SqlTreeWalker(SessionFactoryImplementor sessionFactory, QueryParameterBindings parameterBindings) {
+		this( sessionFactory, parameterBindings, false );
+	}
+
+	public SqlTreeWalker(SessionFactoryImplementor sessionFactory, QueryParameterBindings parameterBindings, boolean shallow) {
 		this.sessionFactory = sessionFactory;
 		this.parameterBindings = parameterBindings;
+		this.shallow = shallow;
 	}
 
 	// ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
@@ -102,6 +163,53 @@ public class SqlTreeWalker {
 	}
 	// ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
 
+	/**
+	 * Package up the result of walking a SelectQuery as a JdbcSelectPlan.  Any limit defined
+	 * by the options is applied to the SQL here, through the Dialect's LimitHandler.  The limit
+	 * values themselves are bound as parameters (if the Dialect supports that) at execution time.
+	 *
+	 * @param queryOptions The options to be applied to the SQL
+	 *
+	 * @return The JdbcSelectPlan
+	 */
+	public JdbcSelectPlan toJdbcSelectPlan(QueryOptions queryOptions) {
+		String sql = getSql();
+
+		final Limit limit = queryOptions.getLimit();
+		if ( limit != null && !limit.isEmpty() ) {
+			final LimitHandler limitHandler = sessionFactory.getDialect().getLimitHandler();
+			final RowSelection rowSelection = limit.makeRowSelection();
+			if ( LimitHelper.useLimit( limitHandler, rowSelection ) ) {
+				sql = limitHandler.processSql( sql, rowSelection );
+			}
+		}
+
+		return new JdbcSelectPlanImpl(
+				sql,
+				parameterBinders,
+				Collections.<QueryOptionBinder>emptyList(),
+				returns,
+				affectedTableNames
+		);
+	}
+
+	/**
+	 * Package up the result of walking an UpdateQuery, DeleteQuery or InsertSelectQuery as a
+	 * JdbcMutationPlan.
+	 *
+	 * @return The JdbcMutationPlan
+	 */
+	public JdbcMutationPlan toJdbcMutationPlan() {
+		return new JdbcMutationPlanImpl(
+				getSql(),
+				parameterBinders,
+				tableMutations,
+				mutatedTableNames,
+				identifierType,
+				identifierColumnAliases
+		);
+	}
+
 	private void appendSql(String fragment) {
 		sqlBuffer.append( fragment );
 	}
@@ -109,26 +217,361 @@ public class SqlTreeWalker {
 	public void visitSelectQuery(SelectQuery selectQuery) {
 		visitQuerySpec( selectQuery.getQuerySpec() );
 
+		if ( !selectQuery.getSortSpecifications().isEmpty() ) {
+			appendSql( " order by " );
+
+			String separator = "";
+			for ( SortSpecification sortSpecification : selectQuery.getSortSpecifications() ) {
+				appendSql( separator );
+				visitSortSpecification( sortSpecification );
+				separator = ", ";
+			}
+
+			applySelectionAliases();
+		}
+	}
+
+	public void visitCountQuery(CountQuery countQuery) {
+		if ( !countQuery.isDerivedTable() ) {
+			visitQuerySpec( countQuery.getQuerySpec() );
+			return;
+		}
+
+		// the count is the only Return; the derived table's own selections are nested beneath
+		// it (and so are not read)
+		currentSelectionProcessor = new SelectionProcessor( null );
+		try {
+			final Selection countSelection = countQuery.getDerivedTableCountSelection();
+			currentSelectionProcessor.processSelection( countSelection );
+
+			appendSql( "select " );
+			countSelection.getSelectExpression().accept( this );
+			appendSql( " from (" );
+			derivedTableColumnCount = 0;
+			visitQuerySpec( countQuery.getQuerySpec() );
+			appendSql( ") count_" );
+		}
+		finally {
+			currentSelectionProcessor = null;
+			derivedTableColumnCount = -1;
+		}
 	}
 
 	public void visitQuerySpec(QuerySpec querySpec) {
-		visitSelectClause( querySpec.getSelectClause() );
-		visitFromClause( querySpec.getFromClause() );
+		querySpecDepth++;
+		try {
+			visitSelectClause( querySpec.getSelectClause() );
+			visitFromClause( querySpec.getFromClause() );
 
-		if ( querySpec.getWhereClauseRestrictions() != null && !querySpec.getWhereClauseRestrictions().isEmpty() ) {
-			appendSql( " where " );
+			if ( querySpec.getWhereClauseRestrictions() != null && !querySpec.getWhereClauseRestrictions().isEmpty() ) {
+				appendSql( " where " );
+				visitRestrictions( querySpec.getWhereClauseRestrictions() );
+			}
+		}
+		finally {
+			querySpecDepth--;
+		}
+	}
 
-			boolean wasPreviouslyInPredicate = currentlyInPredicate;
-			currentlyInPredicate = true;
-			try {
-				querySpec.getWhereClauseRestrictions().accept( this );
+	private void visitRestrictions(Predicate restrictions) {
+		boolean wasPreviouslyInPredicate = currentlyInPredicate;
+		currentlyInPredicate = true;
+		try {
+			restrictions.accept( this );
+		}
+		finally {
+			currentlyInPredicate = wasPreviouslyInPredicate;
+		}
+	}
+
+	// ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+	// DML
+	//
+	// A mutation touching just the root table of the target TableGroup is rendered as a single
+	// statement.  Otherwise the identifiers of the rows to mutate are selected (through the
+	// complete TableGroup), and each table is then mutated by identifier; see JdbcMutationPlan
+
+	public void visitUpdateQuery(UpdateQuery updateQuery) {
+		final EntityTableGroup targetGroup = updateQuery.getTargetTableGroup();
+		final Map<String, TableBinding> tableBindings = collectTableBindings( targetGroup );
+
+		// group the assignments by the table they write to
+		final Map<TableBinding, List<Assignment>> assignmentsByTable = new LinkedHashMap<TableBinding, List<Assignment>>();
+		for ( Assignment assignment : updateQuery.getAssignments() ) {
+			final ColumnBinding[] columnBindings = assignment.getStateField().getColumnBindings();
+			if ( columnBindings.length != 1 ) {
+				throw new NotYetImplementedException(
+						"Assignment of multi-column attributes is not yet implemented : "
+								+ assignment.getStateField().getReferencedAttribute()
+				);
 			}
-			finally {
-				currentlyInPredicate = wasPreviouslyInPredicate;
+			final TableBinding tableBinding = tableBindings.get( columnBindings[0].getIdentificationVariable() );
+			List<Assignment> tableAssignments = assignmentsByTable.get( tableBinding );
+			if ( tableAssignments == null ) {
+				tableAssignments = new ArrayList<Assignment>();
+				assignmentsByTable.put( tableBinding, tableAssignments );
+			}
+			tableAssignments.add( assignment );
+		}
+
+		final TableBinding rootTableBinding = targetGroup.getRootTableBinding();
+		if ( assignmentsByTable.size() == 1
+				&& assignmentsByTable.containsKey( rootTableBinding )
+				&& isSingleTableMutation( targetGroup ) ) {
+			beginDml( targetGroup, rootTableBinding );
+			appendSql( "update " + rootTableBinding.getTable().getTableExpression() + " set " );
+			visitAssignments( assignmentsByTable.get( rootTableBinding ) );
+			visitDmlRestriction(
+					targetGroup,
+					rootTableBinding.getTable().getTableExpression(),
+					updateQuery.getRestriction()
+			);
+			mutatedTableNames.add( ( (PhysicalTable) rootTableBinding.getTable() ).getTableName() );
+			return;
+		}
+
+		visitIdSelect( targetGroup, updateQuery.getRestriction() );
+
+		final Queryable queryable = (Queryable) targetGroup.getPersister().getEntityPersister();
+		for ( Map.Entry<TableBinding, List<Assignment>> entry : assignmentsByTable.entrySet() ) {
+			final TableBinding tableBinding = entry.getKey();
+			if ( !( tableBinding.getTable() instanceof PhysicalTable ) ) {
+				throw new QueryException(
+						"Cannot update derived table [" + tableBinding.getTable().getTableExpression() + "]"
+				);
+			}
+			final String tableName = ( (PhysicalTable) tableBinding.getTable() ).getTableName();
+
+			// each table's statement has its own SQL and ParameterBinders
+			final SqlTreeWalker tableWalker = new SqlTreeWalker( sessionFactory, parameterBindings );
+			tableWalker.beginDml( targetGroup, tableBinding );
+			tableWalker.appendSql( "update " + tableBinding.getTable().getTableExpression() + " set " );
+			tableWalker.visitAssignments( entry.getValue() );
+
+			tableMutations.add(
+					new JdbcMutationPlanImpl.TableMutationImpl(
+							tableName,
+							tableWalker.getSql(),
+							tableWalker.getParameterBinders(),
+							resolveKeyColumnNames( queryable, tableName )
+					)
+			);
+			mutatedTableNames.add( tableName );
+		}
+	}
+
+	public void visitDeleteQuery(DeleteQuery deleteQuery) {
+		final EntityTableGroup targetGroup = deleteQuery.getTargetTableGroup();
+		final Queryable queryable = (Queryable) targetGroup.getPersister().getEntityPersister();
+
+		// rows of the entity (and its subclasses) are deleted from all of its tables
+		final String[] tableNames = queryable.getConstraintOrderedTableNameClosure();
+		final String[][] keyColumnNames = queryable.getContraintOrderedTableKeyColumnClosure();
+
+		final TableBinding rootTableBinding = targetGroup.getRootTableBinding();
+		if ( tableNames.length == 1 && isSingleTableMutation( targetGroup ) ) {
+			beginDml( targetGroup, rootTableBinding );
+			appendSql( "delete from " + rootTableBinding.getTable().getTableExpression() );
+			visitDmlRestriction(
+					targetGroup,
+					rootTableBinding.getTable().getTableExpression(),
+					deleteQuery.getRestriction()
+			);
+			mutatedTableNames.add( ( (PhysicalTable) rootTableBinding.getTable() ).getTableName() );
+			return;
+		}
+
+		visitIdSelect( targetGroup, deleteQuery.getRestriction() );
+
+		for ( int i = 0; i < tableNames.length; i++ ) {
+			tableMutations.add(
+					new JdbcMutationPlanImpl.TableMutationImpl(
+							tableNames[i],
+							"delete from " + tableNames[i],
+							Collections.<ParameterBinder>emptyList(),
+							keyColumnNames[i]
+					)
+			);
+			mutatedTableNames.add( tableNames[i] );
+		}
+	}
+
+	public void visitInsertSelectQuery(InsertSelectQuery insertSelectQuery) {
+		final EntityTableGroup targetGroup = insertSelectQuery.getTargetTableGroup();
+		final Queryable queryable = (Queryable) targetGroup.getPersister().getEntityPersister();
+		if ( queryable.getConstraintOrderedTableNameClosure().length > 1 || !isSingleTableMutation( targetGroup ) ) {
+			throw new QueryException(
+					"INSERT-SELECT into an entity mapped to multiple tables is not supported : " + queryable.getEntityName()
+			);
+		}
+
+		// the discriminator value and identifier generation are not rendered, so only entities
+		// needing neither are supported
+		if ( queryable.hasSubclasses() || queryable.isInherited() ) {
+			throw new QueryException(
+					"INSERT-SELECT into an entity of an inheritance hierarchy is not supported : " + queryable.getEntityName()
+			);
+		}
+		if ( !( queryable.getIdentifierGenerator() instanceof Assigned ) ) {
+			throw new QueryException(
+					"INSERT-SELECT into an entity with a generated identifier is not supported : " + queryable.getEntityName()
+			);
+		}
+
+		final TableBinding rootTableBinding = targetGroup.getRootTableBinding();
+		appendSql( "insert into " + rootTableBinding.getTable().getTableExpression() + " (" );
+		final Set<String> targetColumnNames = new HashSet<String>();
+		String separator = "";
+		for ( AttributeReference targetAttribute : insertSelectQuery.getTargetAttributes() ) {
+			for ( ColumnBinding columnBinding : targetAttribute.getColumnBindings() ) {
+				final String columnName = resolveAssignableColumnName( columnBinding );
+				targetColumnNames.add( columnName );
+				appendSql( separator );
+				appendSql( columnName );
+				separator = ", ";
+			}
+		}
+		appendSql( ") " );
+
+		if ( !targetColumnNames.containsAll( Arrays.asList( queryable.getIdentifierColumnNames() ) ) ) {
+			throw new QueryException(
+					"INSERT-SELECT must assign the identifier of the entity : " + queryable.getEntityName()
+			);
+		}
+
+		visitQuerySpec( insertSelectQuery.getSourceSelect() );
+
+		mutatedTableNames.add( ( (PhysicalTable) rootTableBinding.getTable() ).getTableName() );
+	}
+
+	/**
+	 * Can the mutation of the TableGroup be performed by a single statement against its root table?
+	 * I.e., the root table is a physical table and nothing references any of the other tables.
+	 */
+	private static boolean isSingleTableMutation(EntityTableGroup targetGroup) {
+		if ( !( targetGroup.getRootTableBinding().getTable() instanceof PhysicalTable ) ) {
+			return false;
+		}
+		for ( TableJoin tableJoin : targetGroup.getTableJoins() ) {
+			if ( tableJoin.isRendered() ) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static Map<String, TableBinding> collectTableBindings(EntityTableGroup targetGroup) {
+		final Map<String, TableBinding> tableBindings = new HashMap<String, TableBinding>();
+		tableBindings.put(
+				targetGroup.getRootTableBinding().getIdentificationVariable(),
+				targetGroup.getRootTableBinding()
+		);
+		for ( TableJoin tableJoin : targetGroup.getTableJoins() ) {
+			tableBindings.put(
+					tableJoin.getJoinedTableBinding().getIdentificationVariable(),
+					tableJoin.getJoinedTableBinding()
+			);
+		}
+		return tableBindings;
+	}
+
+	private static String[] resolveKeyColumnNames(Queryable queryable, String tableName) {
+		final String[] tableNames = queryable.getConstraintOrderedTableNameClosure();
+		for ( int i = 0; i < tableNames.length; i++ ) {
+			if ( tableNames[i].equals( tableName ) ) {
+				return queryable.getContraintOrderedTableKeyColumnClosure()[i];
+			}
+		}
+		throw new QueryException(
+				"Could not resolve key columns of table [" + tableName + "] for entity " + queryable.getEntityName()
+		);
+	}
+
+	/**
+	 * Columns of the given table are qualified by the table name; referencing any other table of
+	 * the group is an error.
+	 */
+	private void beginDml(EntityTableGroup targetGroup, TableBinding mutatedTableBinding) {
+		dmlQualifiers = new HashMap<String, String>();
+		for ( String identificationVariable : collectTableBindings( targetGroup ).keySet() ) {
+			dmlQualifiers.put( identificationVariable, null );
+		}
+		dmlQualifiers.put(
+				mutatedTableBinding.getIdentificationVariable(),
+				mutatedTableBinding.getTable().getTableExpression()
+		);
+	}
+
+	private void visitAssignments(List<Assignment> assignments) {
+		String separator = "";
+		for ( Assignment assignment : assignments ) {
+			appendSql( separator );
+			appendSql( resolveAssignableColumnName( assignment.getStateField().getColumnBindings()[0] ) );
+			appendSql( "=" );
+			assignment.getValue().accept( this );
+			separator = ", ";
+		}
+	}
+
+	private static String resolveAssignableColumnName(ColumnBinding columnBinding) {
+		if ( !( columnBinding.getColumn() instanceof PhysicalColumn ) ) {
+			throw new QueryException(
+					"Cannot assign a value to derived column [" + columnBinding.getColumn().toLoggableString() + "]"
+			);
+		}
+		return ( (PhysicalColumn) columnBinding.getColumn() ).getName();
+	}
+
+	private void visitDmlRestriction(EntityTableGroup targetGroup, String qualifier, Predicate restriction) {
+		// the restriction inherent to the entity type; e.g. on the discriminator for a subclass in a
+		// single-table hierarchy
+		String entityRestriction = ( (Queryable) targetGroup.getPersister().getEntityPersister() ).filterFragment(
+				qualifier,
+				Collections.emptyMap()
+		).trim();
+		if ( entityRestriction.startsWith( "and " ) ) {
+			entityRestriction = entityRestriction.substring( 4 );
+		}
+
+		final boolean hasRestriction = restriction != null && !restriction.isEmpty();
+		if ( !hasRestriction && entityRestriction.length() == 0 ) {
+			return;
+		}
+
+		appendSql( " where " );
+		if ( hasRestriction ) {
+			if ( entityRestriction.length() == 0 ) {
+				visitRestrictions( restriction );
+				return;
+			}
+			appendSql( "(" );
+			visitRestrictions( restriction );
+			appendSql( ") and " );
+		}
+		appendSql( entityRestriction );
+	}
+
+	private void visitIdSelect(EntityTableGroup targetGroup, Predicate restriction) {
+		// the identifier columns are aliased so that they can be read through the identifier Type
+		final ColumnBinding[] columnBindings = targetGroup.resolveIdentifierColumnBindings();
+		identifierType = targetGroup.getPersister().getEntityPersister().getIdentifierType();
+		identifierColumnAliases = new String[columnBindings.length];
+
+		appendSql( "select " );
+		for ( int i = 0; i < columnBindings.length; i++ ) {
+			identifierColumnAliases[i] = "id_" + i + "_";
+			if ( i > 0 ) {
+				appendSql( ", " );
 			}
+			visitColumnBinding( columnBindings[i] );
+			appendSql( " as " + identifierColumnAliases[i] );
 		}
+		appendSql( " from " );
+		visitTableGroup( targetGroup );
+		visitDmlRestriction( targetGroup, targetGroup.getRootTableBinding().getIdentificationVariable(), restriction );
 	}
 
+
 	// ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
 	// SELECT clause
 
@@ -162,8 +605,69 @@ public class SqlTreeWalker {
 	}
 
 	public void visitSelection(Selection selection) {
-		currentSelectionProcessor.processSelection( selection );
-		selection.getSelectExpression().accept( this );
+		final int columnCount = currentSelectionProcessor.processSelection( selection );
+
+		final int fragmentStart = sqlBuffer.length();
+		final int binderCount = parameterBinders.size();
+
+		if ( derivedTableColumnCount >= 0 && querySpecDepth == 1 ) {
+			renderDerivedTableColumns( selection.getSelectExpression() );
+		}
+		else {
+			selection.getSelectExpression().accept( this );
+		}
+
+		// remember simple (single column, no parameters) selections of the root query so that the
+		// ORDER BY can refer to them by alias rather than repeating the expression
+		if ( querySpecDepth == 1
+				&& columnCount == 1
+				&& parameterBinders.size() == binderCount
+				&& !( selection.getSelectExpression() instanceof DynamicInstantiation ) ) {
+			final String fragment = sqlBuffer.substring( fragmentStart );
+			if ( !selectionAliasCandidates.containsKey( fragment ) ) {
+				selectionAliasCandidates.put(
+						fragment,
+						new SelectionAliasCandidate( "col_" + selectionAliasCandidates.size() + "_0_", sqlBuffer.length() )
+				);
+			}
+		}
+	}
+
+	/**
+	 * Render a selection of a derived table, giving each column it selects its own alias; the
+	 * column names would otherwise collide for selections such as {@code p.name, p2.name}.
+	 */
+	private void renderDerivedTableColumns(Expression expression) {
+		if ( expression instanceof DynamicInstantiation ) {
+			String separator = "";
+			for ( Object argument : ( (DynamicInstantiation) expression ).getArguments() ) {
+				appendSql( separator );
+				renderDerivedTableColumns( ( (DynamicInstantiationArgument) argument ).getExpression() );
+				separator = ", ";
+			}
+			return;
+		}
+
+		final ColumnBinding[] columnBindings;
+		if ( expression instanceof EntityReference ) {
+			columnBindings = ( (EntityReference) expression ).getColumnBindings();
+		}
+		else if ( expression instanceof AttributeReference ) {
+			columnBindings = ( (AttributeReference) expression ).getColumnBindings();
+		}
+		else {
+			expression.accept( this );
+			appendSql( " as col_" + derivedTableColumnCount++ + "_" );
+			return;
+		}
+
+		String separator = "";
+		for ( ColumnBinding columnBinding : columnBindings ) {
+			appendSql( separator );
+			visitColumnBinding( columnBinding );
+			appendSql( " as col_" + derivedTableColumnCount++ + "_" );
+			separator = ", ";
+		}
 	}
 
 	private class SelectionProcessor {
@@ -174,9 +678,12 @@ public class SqlTreeWalker {
 			this.parentSelectionProcessor = parentSelectionProcessor;
 		}
 
-		private void processSelection(Selection selection) {
+		/**
+		 * @return The number of columns the selection reads; {@code 0} for nested selections
+		 */
+		private int processSelection(Selection selection) {
 			if ( parentSelectionProcessor != null ) {
-				return;
+				return 0;
 			}
 
 			// otherwise build a Return
@@ -185,13 +692,89 @@ public class SqlTreeWalker {
 			returns.add(
 					new Return( selection.getResultVariable(), reader )
 			);
-			numberOfColumnsConsumedSoFar += reader.getNumberOfColumnsRead( sessionFactory );
+			final int columnCount = reader.getNumberOfColumnsRead( sessionFactory );
+			numberOfColumnsConsumedSoFar += columnCount;
+			return columnCount;
 		}
 	}
 
 	private SelectionProcessor currentSelectionProcessor;
 
 
+	// ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+	// ORDER BY clause
+
+	public void visitSortSpecification(SortSpecification sortSpecification) {
+		final int fragmentStart = sqlBuffer.length();
+		final int binderCount = parameterBinders.size();
+
+		sortSpecification.getSortExpression().accept( this );
+
+		// if the expression is the same as one of the selections, refer to that selection by
+		// alias instead; e.g. `select a.b + a.c ... order by a.b + a.c` becomes
+		// `select a.b + a.c as col_0_0_ ... order by col_0_0_`
+		if ( parameterBinders.size() == binderCount ) {
+			final SelectionAliasCandidate candidate = selectionAliasCandidates.get( sqlBuffer.substring( fragmentStart ) );
+			if ( candidate != null ) {
+				sqlBuffer.setLength( fragmentStart );
+				appendSql( candidate.alias );
+				candidate.referenced = true;
+			}
+		}
+
+		if ( sortSpecification.getCollation() != null ) {
+			appendSql( " collate " );
+			appendSql( sortSpecification.getCollation() );
+		}
+
+		if ( sortSpecification.getSortOrder() == SortOrder.ASCENDING ) {
+			appendSql( " asc" );
+		}
+		else if ( sortSpecification.getSortOrder() == SortOrder.DESCENDING ) {
+			appendSql( " desc" );
+		}
+	}
+
+	/**
+	 * Render the aliases for any selections referenced (by alias) from the ORDER BY.  We only know
+	 * which are needed after the ORDER BY is rendered, so insert them after the fact; in reverse
+	 * order so that the recorded positions remain valid.
+	 */
+	private void applySelectionAliases() {
+		final List<SelectionAliasCandidate> referenced = new ArrayList<SelectionAliasCandidate>();
+		for ( SelectionAliasCandidate candidate : selectionAliasCandidates.values() ) {
+			if ( candidate.referenced ) {
+				referenced.add( candidate );
+			}
+		}
+
+		Collections.sort(
+				referenced,
+				new Comparator<SelectionAliasCandidate>() {
+					@Override
+					public int compare(SelectionAliasCandidate o1, SelectionAliasCandidate o2) {
+						return o2.fragmentEnd - o1.fragmentEnd;
+					}
+				}
+		);
+
+		for ( SelectionAliasCandidate candidate : referenced ) {
+			sqlBuffer.insert( candidate.fragmentEnd, " as " + candidate.alias );
+		}
+	}
+
+	private static class SelectionAliasCandidate {
+		private final String alias;
+		private final int fragmentEnd;
+		private boolean referenced;
+
+		private SelectionAliasCandidate(String alias, int fragmentEnd) {
+			this.alias = alias;
+			this.fragmentEnd = fragmentEnd;
+		}
+	}
+
+
 	// ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
 	// FROM clause
 
@@ -233,6 +816,11 @@ public class SqlTreeWalker {
 		visitTableBinding( tableGroup.getRootTableBinding() );
 
 		for ( TableJoin tableJoin : tableGroup.getTableJoins() ) {
+			if ( !tableJoin.isRendered() ) {
+				// an optional join (e.g. to a subclass table) not referenced by the query
+				continue;
+			}
+
 			appendSql( tableJoin.getJoinType().getText() );
 			appendSql( " join " );
 			visitTableBinding( tableJoin.getJoinedTableBinding() );
@@ -244,6 +832,15 @@ public class SqlTreeWalker {
 	}
 
 	public void visitTableBinding(TableBinding tableBinding) {
+		if ( tableBinding.getTable() instanceof PhysicalTable ) {
+			if ( affectedTableNames != null ) {
+				affectedTableNames.add( ( (PhysicalTable) tableBinding.getTable() ).getTableName() );
+			}
+		}
+		else {
+			// we cannot tell which tables a derived table reads from
+			affectedTableNames = null;
+		}
 		appendSql( tableBinding.getTable().getTableExpression() + " as " + tableBinding.getIdentificationVariable() );
 	}
 
@@ -256,7 +853,17 @@ public class SqlTreeWalker {
 	}
 
 	private void visitColumnBinding(ColumnBinding columnBinding) {
-		appendSql( columnBinding.getColumn().render( columnBinding.getIdentificationVariable() ) );
+		String qualifier = columnBinding.getIdentificationVariable();
+		if ( dmlQualifiers != null && dmlQualifiers.containsKey( qualifier ) ) {
+			qualifier = dmlQualifiers.get( qualifier );
+			if ( qualifier == null ) {
+				throw new QueryException(
+						"DML statement references column [" + columnBinding.getColumn().toLoggableString()
+								+ "] of a table other than the one being mutated"
+				);
+			}
+		}
+		appendSql( columnBinding.getColumn().render( qualifier ) );
 	}
 
 	public void visitAvgFunction(AvgFunction avgFunction) {
@@ -378,24 +985,11 @@ public class SqlTreeWalker {
 		parameterBinders.add( namedParameter.getParameterBinder() );
 
 		final Type type = Helper.resolveType( namedParameter, parameterBindings );
-
-		final int columnCount = type.getColumnSpan( sessionFactory );
-		final boolean needsParens = currentlyInPredicate && columnCount > 1;
-
-		if ( needsParens ) {
-			appendSql( "(" );
-		}
-
-		String separator = "";
-		for ( int i = 0; i < columnCount; i++ ) {
-			appendSql( separator );
-			appendSql( "?" );
-			separator = ", ";
-		}
-
-		if ( needsParens ) {
-			appendSql( ")" );
-		}
+		renderParameter(
+				":" + namedParameter.getName(),
+				type,
+				namedParameter.resolveBinding( parameterBindings )
+		);
 	}
 
 	public void visitNonStandardFunctionExpression(NonStandardFunctionExpression nonStandardFunctionExpression) {
@@ -425,10 +1019,48 @@ public class SqlTreeWalker {
 		parameterBinders.add( positionalParameter.getParameterBinder() );
 
 		final Type type = Helper.resolveType( positionalParameter, parameterBindings );
+		renderParameter(
+				"?" + positionalParameter.getPosition(),
+				type,
+				positionalParameter.resolveBinding( parameterBindings )
+		);
+	}
 
+	private void renderParameter(String parameterDescription, Type type, QueryParameterBinding binding) {
 		final int columnCount = type.getColumnSpan( sessionFactory );
-		final boolean needsParens = currentlyInPredicate && columnCount > 1;
 
+		if ( binding == null || !binding.isMultiValued() ) {
+			renderParameterColumns( columnCount, currentlyInPredicate && columnCount > 1 );
+			return;
+		}
+
+		if ( !currentlyInInList ) {
+			throw new QueryException(
+					"Parameter [" + parameterDescription + "] is bound to multiple values, but is not used in an IN list"
+			);
+		}
+
+		// render a padded number of values (see Helper#determinePaddedValueCount) so that lists
+		// of differing sizes share the same SQL; an empty list renders as `null`, as for an
+		// empty IN list
+		final int valueCount = Helper.determinePaddedValueCount(
+				binding.getBindValues().size(),
+				sessionFactory.getDialect()
+		);
+		if ( valueCount == 0 ) {
+			appendSql( "null" );
+			return;
+		}
+
+		String separator = "";
+		for ( int i = 0; i < valueCount; i++ ) {
+			appendSql( separator );
+			renderParameterColumns( columnCount, columnCount > 1 );
+			separator = ", ";
+		}
+	}
+
+	private void renderParameterColumns(int columnCount, boolean needsParens) {
 		if ( needsParens ) {
 			appendSql( "(" );
 		}
@@ -548,11 +1180,18 @@ public class SqlTreeWalker {
 			appendSql( "null" );
 		}
 		else {
-			String separator = "";
-			for ( Expression expression : inListPredicate.getListExpressions() ) {
-				appendSql( separator );
-				expression.accept( this );
-				separator = ", ";
+			final boolean wasInInList = currentlyInInList;
+			currentlyInInList = true;
+			try {
+				String separator = "";
+				for ( Expression expression : inListPredicate.getListExpressions() ) {
+					appendSql( separator );
+					expression.accept( this );
+					separator = ", ";
+				}
+			}
+			finally {
+				currentlyInInList = wasInInList;
 			}
 		}
 		appendSql( ")" );
@@ -620,7 +1259,27 @@ public class SqlTreeWalker {
 		relationalPredicate.getRightHandExpression().accept( this );
 	}
 
+	public void visitTuple(SqlTuple tuple) {
+		appendSql( "(" );
+		String separator = "";
+		for ( Expression expression : tuple.getExpressions() ) {
+			appendSql( separator );
+			expression.accept( this );
+			separator = ", ";
+		}
+		appendSql( ")" );
+	}
+
+	public void visitKeysetParameter(KeysetParameter keysetParameter) {
+		parameterBinders.add( keysetParameter );
+		renderParameterColumns( keysetParameter.getType().getColumnSpan( sessionFactory ), false );
+	}
+
 	public void visitEntityExpression(EntityReference entityExpression) {
+		if ( shallow && currentlyInSelections && querySpecDepth == 1 ) {
+			renderColumnBindings( entityExpression.getIdentifierColumnBindings() );
+			return;
+		}
 		renderColumnBindings( entityExpression.getColumnBindings() );
 	}
 
@@ -0,0 +1,32 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.sql.gen.internal;
+
+import org.hibernate.query.spi.QueryStage;
+import org.hibernate.sql.gen.Callback;
+
+/**
+ * Callback which ignores all notifications
+ */
+public class CallbackNoOpImpl implements Callback {
+	/**
+	 * Singleton access
+	 */
+	public static final CallbackNoOpImpl INSTANCE = new CallbackNoOpImpl();
+
+	@Override
+	public void stageCompleted(QueryStage stage, long elapsedNanos) {
+	}
+
+	@Override
+	public void sqlRendered(int sqlLength) {
+	}
+
+	@Override
+	public void rowsRead(int rowCount) {
+	}
+}
@@ -0,0 +1,122 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.sql.gen.internal;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import org.hibernate.sql.gen.JdbcMutationPlan;
+import org.hibernate.sql.gen.ParameterBinder;
+import org.hibernate.sql.gen.QueryOptionBinder;
+import org.hibernate.type.Type;
+
+/**
+ * Immutable, so that a JdbcMutationPlan can be cached and re-executed against
+ * different parameter bindings.
+ */
+public class JdbcMutationPlanImpl implements JdbcMutationPlan {
+	private final String sql;
+	private final List<ParameterBinder> parameterBinders;
+	private final List<TableMutation> tableMutations;
+	private final Set<String> affectedTableNames;
+	private final Type identifierType;
+	private final String[] identifierColumnAliases;
+
+	public JdbcMutationPlanImpl(
+			String sql,
+			List<ParameterBinder> parameterBinders,
+			List<TableMutation> tableMutations,
+			Set<String> affectedTableNames,
+			Type identifierType,
+			String[] identifierColumnAliases) {
+		this.sql = sql;
+		this.parameterBinders = Collections.unmodifiableList( parameterBinders );
+		this.tableMutations = Collections.unmodifiableList( tableMutations );
+		this.affectedTableNames = Collections.unmodifiableSet( affectedTableNames );
+		this.identifierType = identifierType;
+		this.identifierColumnAliases = identifierColumnAliases;
+	}
+
+	@Override
+	public String getSql() {
+		return sql;
+	}
+
+	@Override
+	public List<ParameterBinder> getParameterBinders() {
+		return parameterBinders;
+	}
+
+	@Override
+	public List<QueryOptionBinder> getQueryOptionBinders() {
+		return Collections.emptyList();
+	}
+
+	@Override
+	public Set<String> getAffectedTableNames() {
+		return affectedTableNames;
+	}
+
+	@Override
+	public boolean isMultiTable() {
+		return !tableMutations.isEmpty();
+	}
+
+	@Override
+	public List<TableMutation> getTableMutations() {
+		return tableMutations;
+	}
+
+	@Override
+	public Type getIdentifierType() {
+		return identifierType;
+	}
+
+	@Override
+	public String[] getIdentifierColumnAliases() {
+		return identifierColumnAliases;
+	}
+
+	public static class TableMutationImpl implements TableMutation {
+		private final String tableName;
+		private final String sql;
+		private final List<ParameterBinder> parameterBinders;
+		private final String[] keyColumnNames;
+
+		public TableMutationImpl(
+				String tableName,
+				String sql,
+				List<ParameterBinder> parameterBinders,
+				String[] keyColumnNames) {
+			this.tableName = tableName;
+			this.sql = sql;
+			this.parameterBinders = Collections.unmodifiableList( parameterBinders );
+			this.keyColumnNames = keyColumnNames;
+		}
+
+		@Override
+		public String getTableName() {
+			return tableName;
+		}
+
+		@Override
+		public String getSql() {
+			return sql;
+		}
+
+		@Override
+		public List<ParameterBinder> getParameterBinders() {
+			return parameterBinders;
+		}
+
+		@Override
+		public String[] getKeyColumnNames() {
+			return keyColumnNames;
+		}
+	}
+}
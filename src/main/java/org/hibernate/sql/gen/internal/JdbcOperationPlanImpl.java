@@ -6,6 +6,7 @@ import org.hibernate.sql.gen.ParameterBinder;
 import org.hibernate.sql.gen.QueryOptionBinder;
 
 import java.util.List;
+import java.util.Set;
 
 /**
  *
@@ -27,4 +28,9 @@ public class JdbcOperationPlanImpl implements JdbcOperationPlan {
 	public List<QueryOptionBinder> getQueryOptionBinders() {
 		throw new NotYetImplementedException();
 	}
+
+	@Override
+	public Set<String> getAffectedTableNames() {
+		throw new NotYetImplementedException();
+	}
 }
@@ -1,13 +1,18 @@
 package org.hibernate.sql.gen.internal;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 
-import org.hibernate.loader.plan.spi.Return;
 import org.hibernate.sql.gen.JdbcSelectPlan;
 import org.hibernate.sql.gen.ParameterBinder;
 import org.hibernate.sql.gen.QueryOptionBinder;
+import org.hibernate.sql.gen.Return;
 
 /**
+ * Immutable, so that a JdbcSelectPlan can be cached and re-executed against
+ * different parameter bindings.
+ *
  * @author Steve Ebersole
  * @author John O'Hara
  */
@@ -16,17 +21,20 @@ public class JdbcSelectPlanImpl implements JdbcSelectPlan {
 	private final List<ParameterBinder> parameterBinders;
 	private final List<QueryOptionBinder> queryOptionBinders;
 	private final List<Return> returnDescriptors;
+	private final Set<String> affectedTableNames;
 
 	public JdbcSelectPlanImpl(
 			String sql,
 			List<ParameterBinder> parameterBinders,
 			List<QueryOptionBinder> queryOptionBinders,
-			List<Return> returnDescriptors) {
+			List<Return> returnDescriptors,
+			Set<String> affectedTableNames) {
 
 		this.sql = sql;
-		this.parameterBinders = parameterBinders;
-		this.queryOptionBinders = queryOptionBinders;
-		this.returnDescriptors = returnDescriptors;
+		this.parameterBinders = Collections.unmodifiableList( parameterBinders );
+		this.queryOptionBinders = Collections.unmodifiableList( queryOptionBinders );
+		this.returnDescriptors = Collections.unmodifiableList( returnDescriptors );
+		this.affectedTableNames = affectedTableNames == null ? null : Collections.unmodifiableSet( affectedTableNames );
 	}
 
 	@Override
@@ -48,4 +56,9 @@ public class JdbcSelectPlanImpl implements JdbcSelectPlan {
 	public List<QueryOptionBinder> getQueryOptionBinders() {
 		return queryOptionBinders;
 	}
+
+	@Override
+	public Set<String> getAffectedTableNames() {
+		return affectedTableNames;
+	}
 }
@@ -0,0 +1,113 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.query.spi;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.hibernate.query.NamedQueryParameter;
+import org.hibernate.query.PositionalQueryParameter;
+import org.hibernate.query.QueryParameter;
+import org.hibernate.query.UnknownParameterException;
+import org.hibernate.sql.ast.expression.NamedParameter;
+import org.hibernate.sql.ast.expression.PositionalParameter;
+import org.hibernate.type.StandardBasicTypes;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests of the resolution of parameter bindings through {@link QueryParameterSlots}
+ */
+public class QueryParameterBindingsTest {
+	private final NamedQueryParameter name = new NamedQueryParameter( "name" );
+	private final PositionalQueryParameter first = new PositionalQueryParameter( 1 );
+	private final NamedQueryParameter age = new NamedQueryParameter( "age" );
+
+	@Test
+	public void testResolution() {
+		final QueryParameterBindings bindings = new QueryParameterBindings( parameters( name, first, age ) );
+		final QueryParameterSlots slots = bindings.getParameterSlots();
+		assertThat( slots.getSlotCount(), is( 3 ) );
+
+		// the same binding is reached by the parameter instance, by name/position and by slot
+		final QueryParameterBinding nameBinding = bindings.getBinding( name );
+		assertThat( bindings.getNamedParameterBinding( "name" ), sameInstance( nameBinding ) );
+		assertThat( bindings.getBinding( slots.resolveSlot( name ) ), sameInstance( nameBinding ) );
+
+		final QueryParameterBinding firstBinding = bindings.getBinding( first );
+		assertThat( bindings.getPositionalParameterBinding( 1 ), sameInstance( firstBinding ) );
+		assertThat( bindings.getBinding( slots.resolveSlot( first ) ), sameInstance( firstBinding ) );
+
+		// a different instance of the same name or position resolves to the same binding
+		assertThat( bindings.getBinding( new NamedQueryParameter( "name" ) ), sameInstance( nameBinding ) );
+		assertThat( bindings.getBinding( new PositionalQueryParameter( 1 ) ), sameInstance( firstBinding ) );
+
+		// each parameter has its own slot
+		assertThat( bindings.getBinding( age ) == nameBinding, is( false ) );
+	}
+
+	@Test(expected = UnknownParameterException.class)
+	public void testUnknownParameter() {
+		new QueryParameterBindings( parameters( name ) ).getBinding( new NamedQueryParameter( "other" ) );
+	}
+
+	@Test(expected = UnknownParameterException.class)
+	public void testUnknownNamedParameter() {
+		new QueryParameterBindings( parameters( name ) ).getNamedParameterBinding( "other" );
+	}
+
+	@Test(expected = UnknownParameterException.class)
+	public void testUnknownPositionalParameter() {
+		new QueryParameterBindings( parameters( first ) ).getPositionalParameterBinding( 2 );
+	}
+
+	@Test
+	public void testCopy() {
+		final QueryParameterBindings bindings = new QueryParameterBindings( parameters( name, age ) );
+		bindings.getBinding( name ).setBindValue( "Steve" );
+
+		final QueryParameterBindings copy = bindings.copy();
+		assertThat( copy.getParameterSlots(), sameInstance( bindings.getParameterSlots() ) );
+		assertThat( copy.getBinding( name ).getBindValue(), is( (Object) "Steve" ) );
+
+		copy.getBinding( name ).setBindValue( "Andrea" );
+		assertThat( bindings.getBinding( name ).getBindValue(), is( (Object) "Steve" ) );
+	}
+
+	@Test
+	public void testSqlAstParameterResolution() {
+		final NamedParameter nameParameter = new NamedParameter( "name", StandardBasicTypes.STRING );
+		final PositionalParameter firstParameter = new PositionalParameter( 1, StandardBasicTypes.INTEGER );
+
+		final QueryParameterBindings bindings = new QueryParameterBindings( parameters( name, first, age ) );
+		assertThat( nameParameter.resolveBinding( bindings ), sameInstance( bindings.getBinding( name ) ) );
+		assertThat( firstParameter.resolveBinding( bindings ), sameInstance( bindings.getBinding( first ) ) );
+
+		// bindings built over a different QueryParameterSlots instance (e.g. bindings built from a
+		// plan's parameters, rather than by the plan) assign the slots in a different order; the
+		// slot remembered for the first bindings must not be reused for them
+		final QueryParameterBindings otherBindings = new QueryParameterBindings( parameters( age, first, name ) );
+		assertThat( otherBindings.getParameterSlots() == bindings.getParameterSlots(), is( false ) );
+		assertThat( nameParameter.resolveBinding( otherBindings ), sameInstance( otherBindings.getBinding( name ) ) );
+		assertThat( firstParameter.resolveBinding( otherBindings ), sameInstance( otherBindings.getBinding( first ) ) );
+
+		// and resolving against the original bindings again still works
+		assertThat( nameParameter.resolveBinding( bindings ), sameInstance( bindings.getBinding( name ) ) );
+	}
+
+	private static Set<QueryParameter> parameters(QueryParameter... parameters) {
+		final Set<QueryParameter> set = new LinkedHashSet<QueryParameter>();
+		for ( QueryParameter parameter : parameters ) {
+			set.add( parameter );
+		}
+		return set;
+	}
+}
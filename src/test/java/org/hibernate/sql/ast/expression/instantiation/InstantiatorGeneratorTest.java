@@ -0,0 +1,252 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.sql.ast.expression.instantiation;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.sql.exec.results.spi.ResultSetProcessingOptions;
+import org.hibernate.sql.exec.results.spi.ReturnReader;
+import org.hibernate.sql.exec.results.spi.RowProcessingState;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests of the generated (rather than reflective) dynamic instantiations
+ */
+public class InstantiatorGeneratorTest {
+	@Test
+	public void testConstructorInstantiatorIsGenerated() throws Exception {
+		final ReturnReaderDynamicInstantiationClassConstructorImpl reader = constructorReader(
+				PersonDto.class,
+				new ValueReader( "Steve", String.class ),
+				new ValueReader( 20, Integer.class )
+		);
+		assertGenerated( reader.getCompiledInstantiator(), PersonDto.class );
+
+		final PersonDto dto = (PersonDto) reader.assemble( null, null );
+		assertThat( dto.name, is( "Steve" ) );
+		assertThat( dto.age, is( 20 ) );
+	}
+
+	@Test
+	public void testInjectionInstantiatorIsGenerated() throws Exception {
+		final ReturnReaderDynamicInstantiationClassInjectionImpl<PersonBean> reader =
+				new ReturnReaderDynamicInstantiationClassInjectionImpl<PersonBean>(
+						PersonBean.class,
+						Arrays.asList(
+								new AliasedReturnReader( "name", new ValueReader( "Steve", String.class ) ),
+								new AliasedReturnReader( "age", new ValueReader( 20, Integer.class ) )
+						),
+						2
+				);
+		assertGenerated( reader.getCompiledInstantiator(), PersonBean.class );
+
+		final PersonBean bean = reader.assemble( null, null );
+		assertThat( bean.getName(), is( "Steve" ) );
+		assertThat( bean.getAge(), is( 20 ) );
+	}
+
+	@Test
+	public void testPrimitiveArgumentIsWidened() throws Exception {
+		final ReturnReaderDynamicInstantiationClassConstructorImpl reader = constructorReader(
+				LongDto.class,
+				new ValueReader( 20, Integer.class )
+		);
+		assertGenerated( reader.getCompiledInstantiator(), LongDto.class );
+
+		assertThat( ( (LongDto) reader.assemble( null, null ) ).value, is( 20L ) );
+	}
+
+	@Test(expected = InstantiationException.class)
+	public void testPrimitiveArgumentIsNotNarrowed() throws Exception {
+		final ReturnReaderDynamicInstantiationClassConstructorImpl reader = constructorReader(
+				PersonDto.class,
+				new ValueReader( "Steve", String.class ),
+				new ValueReader( Long.MAX_VALUE, Long.class )
+		);
+		assertGenerated( reader.getCompiledInstantiator(), PersonDto.class );
+
+		reader.assemble( null, null );
+	}
+
+	@Test(expected = InstantiationException.class)
+	public void testNullPrimitiveArgumentIsRejected() throws Exception {
+		final ReturnReaderDynamicInstantiationClassConstructorImpl reader = constructorReader(
+				PersonDto.class,
+				new ValueReader( "Steve", String.class ),
+				new ValueReader( null, Integer.class )
+		);
+		assertGenerated( reader.getCompiledInstantiator(), PersonDto.class );
+
+		reader.assemble( null, null );
+	}
+
+	@Test
+	public void testConstructorExceptionIsWrapped() throws Exception {
+		final ReturnReaderDynamicInstantiationClassConstructorImpl reader = constructorReader(
+				ValidatingDto.class,
+				new ValueReader( -1, Integer.class )
+		);
+		assertGenerated( reader.getCompiledInstantiator(), ValidatingDto.class );
+
+		try {
+			reader.assemble( null, null );
+			fail( "Expecting InstantiationException" );
+		}
+		catch (InstantiationException expected) {
+			assertThat( expected.getCause(), instanceOf( IllegalArgumentException.class ) );
+		}
+	}
+
+	@Test
+	public void testSetterExceptionIsWrapped() throws Exception {
+		final ReturnReaderDynamicInstantiationClassInjectionImpl<ValidatingBean> reader =
+				new ReturnReaderDynamicInstantiationClassInjectionImpl<ValidatingBean>(
+						ValidatingBean.class,
+						Arrays.asList( new AliasedReturnReader( "value", new ValueReader( -1, Integer.class ) ) ),
+						1
+				);
+		assertGenerated( reader.getCompiledInstantiator(), ValidatingBean.class );
+
+		try {
+			reader.assemble( null, null );
+			fail( "Expecting InstantiationException" );
+		}
+		catch (InstantiationException expected) {
+			assertThat( expected.getCause(), instanceOf( IllegalArgumentException.class ) );
+		}
+	}
+
+	private static ReturnReaderDynamicInstantiationClassConstructorImpl constructorReader(
+			Class target,
+			ValueReader... argumentReaders) {
+		final AliasedReturnReader[] aliasedReaders = new AliasedReturnReader[argumentReaders.length];
+		for ( int i = 0; i < argumentReaders.length; i++ ) {
+			aliasedReaders[i] = new AliasedReturnReader( null, argumentReaders[i] );
+		}
+		return new ReturnReaderDynamicInstantiationClassConstructorImpl(
+				target.getConstructors()[0],
+				Arrays.asList( aliasedReaders ),
+				argumentReaders.length
+		);
+	}
+
+	private static void assertGenerated(CompiledInstantiator instantiator, Class target) {
+		assertThat( instantiator, notNullValue() );
+		assertThat( instantiator.getClass().getName(), containsString( target.getName() + "$HibernateInstantiator$" ) );
+	}
+
+	/**
+	 * Reads the same (argument) value for every row
+	 */
+	private static class ValueReader implements ReturnReader {
+		private final Object value;
+		private final Class javaType;
+
+		private ValueReader(Object value, Class javaType) {
+			this.value = value;
+			this.javaType = javaType;
+		}
+
+		@Override
+		public void readBasicValues(RowProcessingState processingState, ResultSetProcessingOptions options) {
+		}
+
+		@Override
+		public void resolveBasicValues(RowProcessingState processingState, ResultSetProcessingOptions options) {
+		}
+
+		@Override
+		public Object assemble(RowProcessingState processingState, ResultSetProcessingOptions options) throws SQLException {
+			return value;
+		}
+
+		@Override
+		public Class getReturnedJavaType() {
+			return javaType;
+		}
+
+		@Override
+		public int getNumberOfColumnsRead(SessionFactoryImplementor sessionFactory) {
+			return 1;
+		}
+	}
+
+	public static class PersonDto {
+		public final String name;
+		public final int age;
+
+		public PersonDto(String name, int age) {
+			this.name = name;
+			this.age = age;
+		}
+	}
+
+	public static class LongDto {
+		public final long value;
+
+		public LongDto(long value) {
+			this.value = value;
+		}
+	}
+
+	public static class ValidatingDto {
+		public final int value;
+
+		public ValidatingDto(int value) {
+			if ( value < 0 ) {
+				throw new IllegalArgumentException( "Negative value : " + value );
+			}
+			this.value = value;
+		}
+	}
+
+	public static class ValidatingBean {
+		private int value;
+
+		public int getValue() {
+			return value;
+		}
+
+		public void setValue(int value) {
+			if ( value < 0 ) {
+				throw new IllegalArgumentException( "Negative value : " + value );
+			}
+			this.value = value;
+		}
+	}
+
+	public static class PersonBean {
+		private String name;
+		private int age;
+
+		public String getName() {
+			return name;
+		}
+
+		public void setName(String name) {
+			this.name = name;
+		}
+
+		public int getAge() {
+			return age;
+		}
+
+		public void setAge(int age) {
+			this.age = age;
+		}
+	}
+}
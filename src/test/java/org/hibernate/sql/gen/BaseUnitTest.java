@@ -17,6 +17,7 @@ import org.hibernate.persister.internal.PersisterFactoryInitiator;
 import org.hibernate.persister.spi.PersisterFactory;
 import org.hibernate.sql.ast.SelectQuery;
 import org.hibernate.sql.ast.SelectStatementInterpreter;
+import org.hibernate.sql.gen.internal.CallbackNoOpImpl;
 import org.hibernate.query.internal.ConsumerContextImpl;
 import org.hibernate.sqm.SemanticQueryInterpreter;
 import org.hibernate.sqm.query.SelectStatement;
@@ -36,10 +37,11 @@ public class BaseUnitTest {
 
 	@Before
 	public void before() throws Exception {
-		final StandardServiceRegistry ssr = new StandardServiceRegistryBuilder()
+		final StandardServiceRegistryBuilder ssrb = new StandardServiceRegistryBuilder()
 				.applySetting( AvailableSettings.JPAQL_STRICT_COMPLIANCE, strictJpaCompliance() )
-				.applySetting( PersisterFactoryInitiator.IMPL_NAME, PersisterFactoryImpl.INSTANCE )
-				.build();
+				.applySetting( PersisterFactoryInitiator.IMPL_NAME, PersisterFactoryImpl.INSTANCE );
+		applySettings( ssrb );
+		final StandardServiceRegistry ssr = ssrb.build();
 
 		try {
 			MetadataSources metadataSources = new MetadataSources( ssr );
@@ -66,6 +68,9 @@ public class BaseUnitTest {
 		return false;
 	}
 
+	protected void applySettings(StandardServiceRegistryBuilder serviceRegistryBuilder) {
+	}
+
 	protected void applyMetadataSources(MetadataSources metadataSources) {
 	}
 
@@ -91,8 +96,7 @@ public class BaseUnitTest {
 	}
 
 	protected Callback callBack() {
-		return new Callback() {
-		};
+		return CallbackNoOpImpl.INSTANCE;
 	}
 
 	protected org.hibernate.sql.exec.spi.QueryOptions queryOptions() {
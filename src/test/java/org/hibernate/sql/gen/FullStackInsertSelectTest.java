@@ -0,0 +1,176 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.sql.gen;
+
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+import org.hibernate.QueryException;
+import org.hibernate.Session;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.common.internal.PersisterFactoryImpl;
+import org.hibernate.persister.internal.PersisterFactoryInitiator;
+import org.hibernate.query.internal.ConsumerContextImpl;
+import org.hibernate.query.internal.QueryImpl;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+/**
+ * Full stack tests of INSERT-SELECT, which only supports entities needing neither a discriminator
+ * value nor a generated identifier
+ */
+public class FullStackInsertSelectTest {
+	private SessionFactoryImplementor sessionFactory;
+	private ConsumerContextImpl consumerContext;
+
+	@Before
+	public void before() throws Exception {
+		final StandardServiceRegistry ssr = new StandardServiceRegistryBuilder()
+				.applySetting( AvailableSettings.HBM2DDL_AUTO, "create-drop" )
+				.applySetting( PersisterFactoryInitiator.IMPL_NAME, PersisterFactoryImpl.INSTANCE )
+				.build();
+
+		try {
+			MetadataSources metadataSources = new MetadataSources( ssr );
+			metadataSources.addAnnotatedClass( Item.class );
+			metadataSources.addAnnotatedClass( ArchivedItem.class );
+			metadataSources.addAnnotatedClass( GeneratedItem.class );
+			metadataSources.addAnnotatedClass( Vehicle.class );
+			metadataSources.addAnnotatedClass( Car.class );
+
+			this.sessionFactory = (SessionFactoryImplementor) metadataSources.buildMetadata().buildSessionFactory();
+		}
+		catch (Exception e) {
+			StandardServiceRegistryBuilder.destroy( ssr );
+			throw e;
+		}
+
+		Session session = sessionFactory.openSession();
+		session.beginTransaction();
+		session.persist( new Item( 1, "Hammer" ) );
+		session.persist( new Item( 2, "Saw" ) );
+		session.getTransaction().commit();
+		session.close();
+
+		consumerContext = new ConsumerContextImpl( sessionFactory );
+	}
+
+	@After
+	public void after() {
+		if ( sessionFactory != null ) {
+			sessionFactory.close();
+		}
+	}
+
+	@Test
+	public void testInsertSelect() {
+		final Session session = sessionFactory.openSession();
+		session.beginTransaction();
+
+		QueryImpl insert = new QueryImpl(
+				"insert into ArchivedItem (id, name) select i.id, i.name from Item i",
+				(SessionImplementor) session,
+				consumerContext
+		);
+		assertThat( insert.executeUpdate(), is( 2 ) );
+
+		final Number count = (Number) session.createSQLQuery( "select count(*) from archived_item" ).uniqueResult();
+		assertThat( count.intValue(), is( 2 ) );
+
+		session.getTransaction().commit();
+		session.close();
+	}
+
+	@Test
+	public void testInsertSelectWithoutIdentifierIsRejected() {
+		assertRejected( "insert into ArchivedItem (name) select i.name from Item i" );
+	}
+
+	@Test
+	public void testInsertSelectGeneratedIdentifierIsRejected() {
+		assertRejected( "insert into GeneratedItem (name) select i.name from Item i" );
+	}
+
+	@Test
+	public void testInsertSelectDiscriminatedEntityIsRejected() {
+		assertRejected( "insert into Car (id, name) select i.id, i.name from Item i" );
+	}
+
+	private void assertRejected(String queryString) {
+		final Session session = sessionFactory.openSession();
+		session.beginTransaction();
+		try {
+			new QueryImpl( queryString, (SessionImplementor) session, consumerContext ).executeUpdate();
+			fail( "Expecting the INSERT-SELECT to be rejected : " + queryString );
+		}
+		catch (QueryException expected) {
+		}
+		finally {
+			session.getTransaction().rollback();
+			session.close();
+		}
+	}
+
+	@Entity(name = "Item")
+	@Table(name = "item")
+	public static class Item {
+		@Id
+		public Integer id;
+		public String name;
+
+		public Item() {
+		}
+
+		public Item(Integer id, String name) {
+			this.id = id;
+			this.name = name;
+		}
+	}
+
+	@Entity(name = "ArchivedItem")
+	@Table(name = "archived_item")
+	public static class ArchivedItem {
+		@Id
+		public Integer id;
+		public String name;
+	}
+
+	@Entity(name = "GeneratedItem")
+	@Table(name = "generated_item")
+	public static class GeneratedItem {
+		@Id
+		@GeneratedValue
+		public Integer id;
+		public String name;
+	}
+
+	@Entity(name = "Vehicle")
+	@Table(name = "vehicle")
+	public static class Vehicle {
+		@Id
+		public Integer id;
+		public String name;
+	}
+
+	@Entity(name = "Car")
+	public static class Car extends Vehicle {
+		public Integer seats;
+	}
+}
@@ -0,0 +1,231 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.sql.gen;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Inheritance;
+import javax.persistence.InheritanceType;
+import javax.persistence.Table;
+
+import org.hibernate.Session;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.common.internal.PersisterFactoryImpl;
+import org.hibernate.persister.internal.PersisterFactoryInitiator;
+import org.hibernate.query.internal.ConsumerContextImpl;
+import org.hibernate.query.internal.QueryImpl;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Full stack tests of UPDATE and DELETE against a JOINED hierarchy; i.e. of the multi-table
+ * mutations performed by identifier
+ */
+public class FullStackJoinedMutationTest {
+	// enough rows that the identifiers are restricted in (at least) 2 chunks, the last padded
+	private static final int DOG_COUNT = Helper.DEFAULT_IN_LIST_LIMIT + 5;
+
+	private SessionFactoryImplementor sessionFactory;
+	private ConsumerContextImpl consumerContext;
+
+	@Before
+	public void before() throws Exception {
+		final StandardServiceRegistry ssr = new StandardServiceRegistryBuilder()
+				.applySetting( AvailableSettings.HBM2DDL_AUTO, "create-drop" )
+				.applySetting( PersisterFactoryInitiator.IMPL_NAME, PersisterFactoryImpl.INSTANCE )
+				.build();
+
+		try {
+			MetadataSources metadataSources = new MetadataSources( ssr );
+			metadataSources.addAnnotatedClass( Animal.class );
+			metadataSources.addAnnotatedClass( Dog.class );
+
+			this.sessionFactory = (SessionFactoryImplementor) metadataSources.buildMetadata().buildSessionFactory();
+		}
+		catch (Exception e) {
+			StandardServiceRegistryBuilder.destroy( ssr );
+			throw e;
+		}
+
+		insertRows();
+
+		consumerContext = new ConsumerContextImpl( sessionFactory );
+	}
+
+	private void insertRows() {
+		Session session = sessionFactory.openSession();
+		session.beginTransaction();
+		session.persist( new Animal( 0, "Tom", 3 ) );
+		for ( int i = 1; i <= DOG_COUNT; i++ ) {
+			session.persist( new Dog( i, "Rex", i % 10, "Beagle" ) );
+			if ( i % 100 == 0 ) {
+				session.flush();
+				session.clear();
+			}
+		}
+		session.getTransaction().commit();
+		session.close();
+	}
+
+	@After
+	public void after() {
+		if ( sessionFactory != null ) {
+			sessionFactory.close();
+		}
+	}
+
+	@Test
+	public void testUpdateSubclassTable() {
+		final Session session = sessionFactory.openSession();
+		session.beginTransaction();
+
+		// the assignment is to the subclass table, restricted by the root table
+		QueryImpl update = new QueryImpl(
+				"update Dog d set d.breed = ?1 where d.age >= ?2",
+				(SessionImplementor) session,
+				consumerContext
+		);
+		update.setParameter( 1, "Collie" );
+		update.setParameter( 2, 0 );
+		assertThat( update.executeUpdate(), is( DOG_COUNT ) );
+
+		assertThat( count( session, "select count(*) from dog where breed = 'Collie'" ), is( DOG_COUNT ) );
+
+		session.getTransaction().commit();
+		session.close();
+	}
+
+	@Test
+	public void testUpdateRootTableRestrictedBySubclassTable() {
+		final Session session = sessionFactory.openSession();
+		session.beginTransaction();
+
+		// the assignment is to the root table, restricted by the subclass table
+		QueryImpl update = new QueryImpl(
+				"update Dog d set d.name = ?1 where d.breed = ?2",
+				(SessionImplementor) session,
+				consumerContext
+		);
+		update.setParameter( 1, "Max" );
+		update.setParameter( 2, "Beagle" );
+		assertThat( update.executeUpdate(), is( DOG_COUNT ) );
+
+		assertThat( count( session, "select count(*) from animal where name = 'Max'" ), is( DOG_COUNT ) );
+		assertThat( count( session, "select count(*) from animal where name = 'Tom'" ), is( 1 ) );
+
+		session.getTransaction().commit();
+		session.close();
+	}
+
+	@Test
+	public void testUpdateEvictsManagedEntities() {
+		final Session session = sessionFactory.openSession();
+		session.beginTransaction();
+
+		final Dog dog = (Dog) session.get( Dog.class, 1 );
+		assertThat( dog.breed, is( "Beagle" ) );
+
+		QueryImpl update = new QueryImpl(
+				"update Dog d set d.breed = ?1 where d.id = ?2",
+				(SessionImplementor) session,
+				consumerContext
+		);
+		update.setParameter( 1, "Collie" );
+		update.setParameter( 2, 1 );
+		assertThat( update.executeUpdate(), is( 1 ) );
+
+		// the Session does not hand back the stale instance
+		assertThat( session.contains( dog ), is( false ) );
+		assertThat( ( (Dog) session.get( Dog.class, 1 ) ).breed, is( "Collie" ) );
+
+		session.getTransaction().commit();
+		session.close();
+	}
+
+	@Test
+	public void testDelete() {
+		final Session session = sessionFactory.openSession();
+		session.beginTransaction();
+
+		// rows are deleted from all tables of the hierarchy
+		QueryImpl delete = new QueryImpl(
+				"delete from Animal a where a.age < ?1",
+				(SessionImplementor) session,
+				consumerContext
+		);
+		delete.setParameter( 1, 5 );
+		final int expectedCount = countDogs( 5 ) + 1;
+		assertThat( delete.executeUpdate(), is( expectedCount ) );
+
+		assertThat( count( session, "select count(*) from animal" ), is( DOG_COUNT + 1 - expectedCount ) );
+		assertThat( count( session, "select count(*) from dog" ), is( DOG_COUNT + 1 - expectedCount ) );
+		assertThat( count( session, "select count(*) from animal where age < 5" ), is( 0 ) );
+
+		session.getTransaction().commit();
+		session.close();
+	}
+
+	/**
+	 * The number of Dogs inserted by {@link #insertRows()} younger than the given age
+	 */
+	private static int countDogs(int maxAgeExclusive) {
+		int count = 0;
+		for ( int i = 1; i <= DOG_COUNT; i++ ) {
+			if ( i % 10 < maxAgeExclusive ) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	private static int count(Session session, String sql) {
+		return ( (Number) session.createSQLQuery( sql ).uniqueResult() ).intValue();
+	}
+
+	@Entity(name = "Animal")
+	@Table(name = "animal")
+	@Inheritance(strategy = InheritanceType.JOINED)
+	public static class Animal {
+		@Id
+		public Integer id;
+		public String name;
+		public int age;
+
+		public Animal() {
+		}
+
+		public Animal(Integer id, String name, int age) {
+			this.id = id;
+			this.name = name;
+			this.age = age;
+		}
+	}
+
+	@Entity(name = "Dog")
+	@Table(name = "dog")
+	public static class Dog extends Animal {
+		public String breed;
+
+		public Dog() {
+		}
+
+		public Dog(Integer id, String name, int age, String breed) {
+			super( id, name, age );
+			this.breed = breed;
+		}
+	}
+}
@@ -7,12 +7,20 @@
 package org.hibernate.sql.gen;
 
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import javax.persistence.Entity;
 import javax.persistence.Id;
 import javax.persistence.Tuple;
 
+import org.hibernate.NonUniqueResultException;
+import org.hibernate.QueryException;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
 import org.hibernate.Session;
 import org.hibernate.boot.MetadataSources;
 import org.hibernate.boot.registry.StandardServiceRegistry;
@@ -22,8 +30,18 @@ import org.hibernate.engine.spi.SessionFactoryImplementor;
 import org.hibernate.engine.spi.SessionImplementor;
 import org.hibernate.persister.common.internal.PersisterFactoryImpl;
 import org.hibernate.persister.internal.PersisterFactoryInitiator;
+import org.hibernate.query.CloseableIterator;
+import org.hibernate.query.KeysetPage;
 import org.hibernate.query.internal.QueryImpl;
 import org.hibernate.query.internal.ConsumerContextImpl;
+import org.hibernate.query.internal.QueryResultCacheImpl;
+import org.hibernate.query.internal.QueryResultRegionInMemoryImpl;
+import org.hibernate.query.spi.QueryResultCache;
+import org.hibernate.query.spi.QueryStage;
+import org.hibernate.query.spi.QueryStatistics;
+import org.hibernate.sql.exec.internal.PreparedStatementCache;
+import org.hibernate.type.StandardBasicTypes;
+import org.hibernate.type.Type;
 
 import org.junit.After;
 import org.junit.Before;
@@ -31,10 +49,13 @@ import org.junit.Test;
 
 import org.hamcrest.CoreMatchers;
 
+import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
 
 /**
  * @author Steve Ebersole
@@ -45,9 +66,14 @@ public class FullStackTest {
 
 	@Before
 	public void before() throws Exception {
+		buildSessionFactory( Collections.<String, Object>emptyMap() );
+	}
+
+	private void buildSessionFactory(Map<String, Object> settings) throws Exception {
 		final StandardServiceRegistry ssr = new StandardServiceRegistryBuilder()
 				.applySetting( AvailableSettings.HBM2DDL_AUTO, "create-drop" )
 				.applySetting( PersisterFactoryInitiator.IMPL_NAME, PersisterFactoryImpl.INSTANCE )
+				.applySettings( settings )
 				.build();
 
 		try {
@@ -66,6 +92,15 @@ public class FullStackTest {
 		consumerContext = new ConsumerContextImpl( sessionFactory );
 	}
 
+	/**
+	 * Replace the SessionFactory built by {@link #before()} with one built with the given
+	 * (additional) settings, for tests of optional behavior
+	 */
+	private void rebuildSessionFactory(Map<String, Object> settings) throws Exception {
+		sessionFactory.close();
+		buildSessionFactory( settings );
+	}
+
 	private void insertRow() {
 		Session session = sessionFactory.openSession();
 		session.beginTransaction();
@@ -108,6 +143,44 @@ public class FullStackTest {
 		assertThat( (String)row[0], is("Steve") );
 	}
 
+	@Test
+	public void testFullStackNullValues() throws SQLException {
+		final Session session = sessionFactory.openSession();
+		session.beginTransaction();
+		session.persist( new Person( 2, null, 30 ) );
+		session.getTransaction().commit();
+
+		// a null VARCHAR alongside an INTEGER read through a primitive getter
+		QueryImpl query = new QueryImpl(
+				"select p.name, p.age from Person p order by p.id",
+				(SessionImplementor) session,
+				consumerContext
+		);
+		final List results = query.list();
+
+		assertThat( results.size(), is( 2 ) );
+		final Object[] first = (Object[]) results.get( 0 );
+		assertThat( first[0], is( (Object) "Steve" ) );
+		assertThat( first[1], is( (Object) 20 ) );
+		final Object[] second = (Object[]) results.get( 1 );
+		assertThat( second[0], nullValue() );
+		assertThat( second[1], is( (Object) 30 ) );
+
+		// SQL NULL read from an INTEGER column must not come back as 0
+		QueryImpl maxQuery = new QueryImpl(
+				"select max(p.age) from Person p where p.age > ?1",
+				(SessionImplementor) session,
+				consumerContext
+		);
+		maxQuery.setParameter( 1, 100 );
+		final List maxResults = maxQuery.list();
+
+		assertThat( maxResults.size(), is( 1 ) );
+		assertThat( ( (Object[]) maxResults.get( 0 ) )[0], nullValue() );
+
+		session.close();
+	}
+
 	@Test
 	public void testFullStackTyped() throws SQLException {
 		final Session session = sessionFactory.openSession();
@@ -133,7 +206,7 @@ public class FullStackTest {
 		final Session session = sessionFactory.openSession();
 
 		QueryImpl<Tuple> query = new QueryImpl<Tuple>(
-				"select p.name as name from Person p where p.age >= 20 and p.age <= ?1",
+				"select p.name as name, p.age as age from Person p where p.age >= 20 and p.age <= ?1",
 				Tuple.class,
 				(SessionImplementor) session,
 				consumerContext
@@ -144,6 +217,8 @@ public class FullStackTest {
 		assertThat( results.size(), is( 1 ) );
 		Tuple tuple = results.get( 0 );
 		assertThat( (String) tuple.get( "name" ), is("Steve") );
+		assertThat( tuple.get( "age", Integer.class ), is( 20 ) );
+		assertThat( (Integer) tuple.get( tuple.getElements().get( 1 ) ), is( 20 ) );
 	}
 
 	@Test
@@ -226,6 +301,596 @@ public class FullStackTest {
 		assertThat( tuples.get("age"), CoreMatchers.<Object>is(20) );
 	}
 
+	@Test
+	public void testFullStackLimit() throws SQLException {
+		final Session session = sessionFactory.openSession();
+		session.beginTransaction();
+		session.persist( new Person( 2, "Andrea", 30 ) );
+		session.persist( new Person( 3, "Gail", 35 ) );
+		session.getTransaction().commit();
+
+		QueryImpl<String> query = new QueryImpl<String>(
+				"select p.name from Person p where p.age >= 20 and p.age <= ?1",
+				String.class,
+				(SessionImplementor) session,
+				consumerContext
+		);
+		query.setParameter( 1, 39 );
+
+		query.setMaxResults( 2 );
+		assertThat( query.list().size(), is( 2 ) );
+
+		query.setFirstResult( 2 );
+		assertThat( query.list().size(), is( 1 ) );
+
+		query.setFirstResult( 3 );
+		assertThat( query.list().size(), is( 0 ) );
+	}
+
+	@Test
+	public void testFullStackUniqueResult() throws SQLException {
+		final Session session = sessionFactory.openSession();
+		session.beginTransaction();
+		session.persist( new Person( 2, "Andrea", 30 ) );
+		session.persist( new Person( 3, "Gail", 35 ) );
+		session.getTransaction().commit();
+
+		final String queryString = "select p.name from Person p where p.age >= ?1";
+		QueryImpl<String> query = new QueryImpl<String>(
+				queryString,
+				String.class,
+				(SessionImplementor) session,
+				consumerContext
+		);
+
+		query.setParameter( 1, 35 );
+		assertThat( query.uniqueResult(), is( "Gail" ) );
+
+		query.setParameter( 1, 50 );
+		assertThat( query.uniqueResult(), is( nullValue() ) );
+
+		query.setParameter( 1, 0 );
+		try {
+			query.uniqueResult();
+			fail( "Expecting NonUniqueResultException" );
+		}
+		catch (NonUniqueResultException expected) {
+			// only 2 of the 3 results are read
+			assertThat( expected.getMessage(), containsString( "at least 2" ) );
+		}
+
+		// each call executes the query once, reading at most 2 rows
+		final QueryStatistics statistics = consumerContext.getQueryPlanCache().getQueryStatistics().get( 0 );
+		assertThat( statistics.getQueryString(), is( queryString ) );
+		assertThat( statistics.getStageHistogram( QueryStage.EXECUTE ).getCount(), is( 3L ) );
+		assertThat( statistics.getRowCountHistogram().getMax(), is( 2L ) );
+
+		session.close();
+	}
+
+	@Test
+	public void testFullStackStream() throws SQLException {
+		final Session session = sessionFactory.openSession();
+
+		QueryImpl<String> query = new QueryImpl<String>(
+				"select p.name from Person p where p.age >= 20 and p.age <= ?1",
+				String.class,
+				(SessionImplementor) session,
+				consumerContext
+		);
+
+		query.setParameter( 1, 39 );
+		final CloseableIterator<String> results = query.stream();
+		try {
+			assertThat( results.hasNext(), is( true ) );
+			assertThat( results.next(), is( "Steve" ) );
+			assertThat( results.hasNext(), is( false ) );
+		}
+		finally {
+			results.close();
+		}
+	}
+
+	@Test
+	public void testFullStackScroll() throws SQLException {
+		final Session session = sessionFactory.openSession();
+
+		QueryImpl query = new QueryImpl(
+				"select p.name, p.age from Person p where p.age >= 20 and p.age <= ?1",
+				(SessionImplementor) session,
+				consumerContext
+		);
+
+		query.setParameter( 1, 39 );
+		final ScrollableResults results = query.scroll( ScrollMode.SCROLL_INSENSITIVE );
+		try {
+			assertThat( results.next(), is( true ) );
+			assertThat( results.getRowNumber(), is( 0 ) );
+			assertThat( results.getString( 0 ), is( "Steve" ) );
+			assertThat( results.getInteger( 1 ), is( 20 ) );
+
+			assertThat( results.next(), is( false ) );
+			assertThat( results.get(), is( nullValue() ) );
+
+			assertThat( results.first(), is( true ) );
+			assertThat( results.getString( 0 ), is( "Steve" ) );
+			assertThat( results.isLast(), is( true ) );
+
+			assertThat( results.getType( 0 ), is( (Type) StandardBasicTypes.STRING ) );
+			assertThat( results.getType( 1 ), is( (Type) StandardBasicTypes.INTEGER ) );
+		}
+		finally {
+			results.close();
+		}
+	}
+
+	@Test
+	public void testFullStackScrollRowsRetained() throws SQLException {
+		final Session session = sessionFactory.openSession();
+		session.beginTransaction();
+		session.persist( new Person( 2, "Andrea", 30 ) );
+		session.getTransaction().commit();
+
+		QueryImpl query = new QueryImpl(
+				"select p.name, p.age from Person p order by p.age",
+				(SessionImplementor) session,
+				consumerContext
+		);
+
+		final ScrollableResults results = query.scroll( ScrollMode.SCROLL_INSENSITIVE );
+		try {
+			assertThat( results.next(), is( true ) );
+			final Object[] first = results.get();
+
+			assertThat( results.next(), is( true ) );
+			final Object[] second = results.get();
+
+			// repositioning does not overwrite rows already handed out
+			assertThat( first, is( new Object[] { "Steve", 20 } ) );
+			assertThat( second, is( new Object[] { "Andrea", 30 } ) );
+		}
+		finally {
+			results.close();
+		}
+	}
+
+	@Test
+	public void testFullStackStatistics() throws SQLException {
+		final Session session = sessionFactory.openSession();
+
+		final String queryString = "select p.name from Person p where p.age >= ?1";
+		for ( int i = 0; i < 2; i++ ) {
+			QueryImpl query = new QueryImpl( queryString, (SessionImplementor) session, consumerContext );
+			query.setParameter( 1, 0 );
+			assertThat( query.list().size(), is( 1 ) );
+		}
+
+		final QueryStatistics statistics = consumerContext.getQueryPlanCache().getQueryStatistics().get( 0 );
+		assertThat( statistics.getQueryString(), is( queryString ) );
+
+		// the plan (and its SQL) is built once, but executed twice
+		assertThat( statistics.getStageHistogram( QueryStage.SQM_INTERPRETATION ).getCount(), is( 1L ) );
+		assertThat( statistics.getStageHistogram( QueryStage.SQL_RENDERING ).getCount(), is( 1L ) );
+		assertThat( statistics.getStageHistogram( QueryStage.EXECUTE ).getCount(), is( 2L ) );
+		assertThat( statistics.getStageHistogram( QueryStage.ROW_READ ).getCount(), is( 2L ) );
+		assertThat( statistics.getRowCountHistogram().getTotal(), is( 2L ) );
+		assertThat( statistics.getRenderedSqlLength() > 0, is( true ) );
+	}
+
+	@Test
+	public void testFullStackListBatch() throws SQLException {
+		final Session session = sessionFactory.openSession();
+		session.beginTransaction();
+		session.persist( new Person( 2, "Andrea", 30 ) );
+		session.getTransaction().commit();
+
+		final String queryString = "select p.name from Person p where p.age >= :minAge and p.age <= :maxAge order by p.name";
+		QueryImpl<String> query = new QueryImpl<String>(
+				queryString,
+				String.class,
+				(SessionImplementor) session,
+				consumerContext
+		);
+		query.setParameter( "minAge", 0 );
+
+		final List<Map<String,Object>> bindingSets = new ArrayList<Map<String, Object>>();
+		bindingSets.add( Collections.<String,Object>singletonMap( "maxAge", 25 ) );
+		bindingSets.add( Collections.<String,Object>singletonMap( "maxAge", 10 ) );
+		bindingSets.add( Collections.<String,Object>singletonMap( "maxAge", 39 ) );
+
+		final List<List<String>> results = query.listBatch( bindingSets );
+		assertThat( results.size(), is( 3 ) );
+		assertThat( results.get( 0 ), is( Arrays.asList( "Steve" ) ) );
+		assertThat( results.get( 1 ).isEmpty(), is( true ) );
+		assertThat( results.get( 2 ), is( Arrays.asList( "Andrea", "Steve" ) ) );
+
+		// a single statement was prepared, and executed for each binding set
+		final QueryStatistics statistics = consumerContext.getQueryPlanCache().getQueryStatistics().get( 0 );
+		assertThat( statistics.getStageHistogram( QueryStage.PREPARE ).getCount(), is( 1L ) );
+		assertThat( statistics.getStageHistogram( QueryStage.EXECUTE ).getCount(), is( 3L ) );
+	}
+
+	@Test
+	public void testFullStackInListParameter() throws SQLException {
+		final Session session = sessionFactory.openSession();
+		session.beginTransaction();
+		session.persist( new Person( 2, "Andrea", 30 ) );
+		session.persist( new Person( 3, "Jo", 40 ) );
+		session.getTransaction().commit();
+
+		final String queryString = "select p.name from Person p where p.id in (:ids) order by p.name";
+		QueryImpl<String> query = new QueryImpl<String>(
+				queryString,
+				String.class,
+				(SessionImplementor) session,
+				consumerContext
+		);
+		query.setParameterList( "ids", Arrays.asList( 1, 2, 3 ) );
+		assertThat( query.list(), is( Arrays.asList( "Andrea", "Jo", "Steve" ) ) );
+
+		// 3 and 4 values are both padded to 4, sharing the rendered SQL
+		query.setParameterList( "ids", Arrays.asList( 1, 3, 98, 99 ) );
+		assertThat( query.list(), is( Arrays.asList( "Jo", "Steve" ) ) );
+
+		final QueryStatistics statistics = consumerContext.getQueryPlanCache().getQueryStatistics().get( 0 );
+		assertThat( statistics.getStageHistogram( QueryStage.SQL_RENDERING ).getCount(), is( 1L ) );
+
+		// lists exceeding the IN list limit are split across executions; the values are split in
+		// the order bound, so Gail matches in the first execution and the others in the second
+		session.beginTransaction();
+		session.persist( new Person( Helper.DEFAULT_IN_LIST_LIMIT + 5, "Gail", 50 ) );
+		session.getTransaction().commit();
+
+		final List<Integer> ids = new ArrayList<Integer>();
+		for ( int i = 1; i <= Helper.DEFAULT_IN_LIST_LIMIT + 10; i++ ) {
+			ids.add( Helper.DEFAULT_IN_LIST_LIMIT + 10 + 1 - i );
+		}
+
+		final String unorderedQueryString = "select p.name from Person p where p.id in (:ids)";
+		QueryImpl<String> unorderedQuery = new QueryImpl<String>(
+				unorderedQueryString,
+				String.class,
+				(SessionImplementor) session,
+				consumerContext
+		);
+		unorderedQuery.setParameterList( "ids", ids );
+		final List<String> names = new ArrayList<String>( unorderedQuery.list() );
+		Collections.sort( names );
+		assertThat( names, is( Arrays.asList( "Andrea", "Gail", "Jo", "Steve" ) ) );
+		assertThat( statistics( unorderedQueryString ).getStageHistogram( QueryStage.EXECUTE ).getCount(), is( 2L ) );
+
+		// concatenating the executions' results would not respect the ORDER BY
+		query.setParameterList( "ids", ids );
+		try {
+			query.list();
+			fail( "Expecting the oversized IN list of an ordered query to be rejected" );
+		}
+		catch (QueryException expected) {
+		}
+
+		// each chunk would match the other elements of the IN list (Steve would be returned twice)
+		QueryImpl<String> mixedListQuery = new QueryImpl<String>(
+				"select p.name from Person p where p.id in (:ids, 1)",
+				String.class,
+				(SessionImplementor) session,
+				consumerContext
+		);
+		mixedListQuery.setParameterList( "ids", ids );
+		try {
+			mixedListQuery.list();
+			fail( "Expecting the oversized parameter of an IN list with other elements to be rejected" );
+		}
+		catch (QueryException expected) {
+		}
+
+		// a row could match different chunks at each reference to the parameter
+		QueryImpl<String> repeatedParameterQuery = new QueryImpl<String>(
+				"select p.name from Person p where p.id in (:ids) and p.age in (:ids)",
+				String.class,
+				(SessionImplementor) session,
+				consumerContext
+		);
+		repeatedParameterQuery.setParameterList( "ids", ids );
+		try {
+			repeatedParameterQuery.list();
+			fail( "Expecting the oversized parameter referenced more than once to be rejected" );
+		}
+		catch (QueryException expected) {
+		}
+	}
+
+	@Test
+	public void testFullStackStatementCache() throws Exception {
+		// disabled by default; the other tests execute through the standard (uncached) path
+		final Session defaultSession = sessionFactory.openSession();
+		assertThat( consumerContext.getPreparedStatementCache( (SessionImplementor) defaultSession ), nullValue() );
+		defaultSession.close();
+
+		rebuildSessionFactory( Collections.<String, Object>singletonMap( PreparedStatementCache.CACHE_SIZE, 8 ) );
+		final Session session = sessionFactory.openSession();
+
+		final String queryString = "select p.name from Person p where p.age >= :minAge";
+		for ( int i = 0; i < 3; i++ ) {
+			QueryImpl<String> query = new QueryImpl<String>(
+					queryString,
+					String.class,
+					(SessionImplementor) session,
+					consumerContext
+			);
+			query.setParameter( "minAge", 0 );
+			assertThat( query.list(), is( Arrays.asList( "Steve" ) ) );
+		}
+
+		// prepared once, re-used for the later executions
+		final PreparedStatementCache statementCache = consumerContext.getPreparedStatementCache( (SessionImplementor) session );
+		assertThat( statementCache.getMissCount(), is( 1L ) );
+		assertThat( statementCache.getHitCount(), is( 2L ) );
+		assertThat( statementCache.size(), is( 1 ) );
+
+		session.close();
+	}
+
+	@Test
+	public void testFullStackResultCache() throws Exception {
+		rebuildSessionFactory( Collections.<String, Object>singletonMap( QueryResultRegionInMemoryImpl.MAX_ENTRIES, 2 ) );
+		final Session session = sessionFactory.openSession();
+		final QueryResultCache resultCache = consumerContext.getQueryResultCache();
+
+		assertThat( listCached( session, 0 ), is( Arrays.asList( "Steve" ) ) );
+		assertThat( listCached( session, 0 ), is( Arrays.asList( "Steve" ) ) );
+		assertThat( resultCache.getMissCount(), is( 1L ) );
+		assertThat( resultCache.getHitCount(), is( 1L ) );
+		assertThat( resultCache.getPutCount(), is( 1L ) );
+
+		// different parameter values are cached separately
+		assertThat( listCached( session, 30 ), is( Collections.<String>emptyList() ) );
+		assertThat( resultCache.getMissCount(), is( 2L ) );
+
+		// changes to the table make the cached results stale
+		resultCache.invalidate( Collections.singleton( "Person" ) );
+		assertThat( listCached( session, 0 ), is( Arrays.asList( "Steve" ) ) );
+		assertThat( resultCache.getMissCount(), is( 3L ) );
+		assertThat( resultCache.getHitCount(), is( 1L ) );
+
+		// the default region is bounded
+		assertThat( listCached( session, 10 ), is( Arrays.asList( "Steve" ) ) );
+		final QueryResultRegionInMemoryImpl region = (QueryResultRegionInMemoryImpl) ( (QueryResultCacheImpl) resultCache ).getRegion( null );
+		assertThat( region.size() <= 2, is( true ) );
+		assertThat( region.getEvictionCount() > 0, is( true ) );
+
+		session.close();
+	}
+
+	@Test
+	public void testFullStackResultCacheSessionChanges() throws SQLException {
+		final Session session = sessionFactory.openSession();
+		final QueryResultCache resultCache = consumerContext.getQueryResultCache();
+
+		assertThat( listCached( session, 0 ), is( Arrays.asList( "Steve" ) ) );
+		assertThat( listCached( session, 0 ), is( Arrays.asList( "Steve" ) ) );
+		assertThat( resultCache.getHitCount(), is( 1L ) );
+
+		// entity changes flushed by a Session make the cached results stale
+		session.beginTransaction();
+		session.persist( new Person( 2, "Andrea", 30 ) );
+		session.getTransaction().commit();
+
+		final List<String> names = new ArrayList<String>( listCached( session, 0 ) );
+		Collections.sort( names );
+		assertThat( names, is( Arrays.asList( "Andrea", "Steve" ) ) );
+		assertThat( resultCache.getHitCount(), is( 1L ) );
+
+		session.beginTransaction();
+		( (Person) session.get( Person.class, 2 ) ).age = 10;
+		session.getTransaction().commit();
+		assertThat( listCached( session, 15 ), is( Arrays.asList( "Steve" ) ) );
+
+		session.beginTransaction();
+		session.delete( session.get( Person.class, 1 ) );
+		session.getTransaction().commit();
+		assertThat( listCached( session, 15 ), is( Collections.<String>emptyList() ) );
+		assertThat( resultCache.getHitCount(), is( 1L ) );
+
+		session.close();
+	}
+
+	@Test
+	public void testFullStackListPage() throws SQLException {
+		final Session session = sessionFactory.openSession();
+		session.beginTransaction();
+		session.persist( new Person( 2, "Andrea", 30 ) );
+		session.persist( new Person( 3, "Gail", 35 ) );
+		session.persist( new Person( 4, "Emmanuel", 30 ) );
+		session.getTransaction().commit();
+
+		QueryImpl<String> query = new QueryImpl<String>(
+				"select p.name from Person p where p.age >= ?1 order by p.age, p.id",
+				String.class,
+				(SessionImplementor) session,
+				consumerContext
+		);
+		query.setParameter( 1, 0 );
+
+		final KeysetPage<String> first = query.listPage( 2, null );
+		assertThat( first.getResults(), is( Arrays.asList( "Steve", "Andrea" ) ) );
+		assertThat( first.getNextKey(), is( new Object[] { 30, 2 } ) );
+
+		final KeysetPage<String> second = query.listPage( 2, first.getNextKey() );
+		assertThat( second.getResults(), is( Arrays.asList( "Emmanuel", "Gail" ) ) );
+		assertThat( second.hasNextPage(), is( true ) );
+
+		final KeysetPage<String> third = query.listPage( 2, second.getNextKey() );
+		assertThat( third.getResults(), is( Collections.<String>emptyList() ) );
+		assertThat( third.hasNextPage(), is( false ) );
+
+		// a page cannot be split across executions, so an oversized IN list is rejected
+		QueryImpl<String> inListQuery = new QueryImpl<String>(
+				"select p.name from Person p where p.id in (:ids) order by p.id",
+				String.class,
+				(SessionImplementor) session,
+				consumerContext
+		);
+		final List<Integer> ids = new ArrayList<Integer>();
+		for ( int i = 1; i <= Helper.DEFAULT_IN_LIST_LIMIT + 1; i++ ) {
+			ids.add( i );
+		}
+		inListQuery.setParameterList( "ids", ids );
+		try {
+			inListQuery.listPage( 2, null );
+			fail( "Expecting the oversized IN list of a page to be rejected" );
+		}
+		catch (QueryException expected) {
+		}
+
+		session.close();
+	}
+
+	@Test
+	public void testFullStackCount() throws SQLException {
+		final Session session = sessionFactory.openSession();
+		session.beginTransaction();
+		session.persist( new Person( 2, "Andrea", 30 ) );
+		session.persist( new Person( 3, "Gail", 35 ) );
+		session.persist( new Person( 4, "Emmanuel", 30 ) );
+		session.getTransaction().commit();
+
+		QueryImpl<String> query = new QueryImpl<String>(
+				"select p.name from Person p where p.age >= ?1 order by p.name",
+				String.class,
+				(SessionImplementor) session,
+				consumerContext
+		);
+		query.setParameter( 1, 30 );
+		query.setMaxResults( 1 );
+		assertThat( query.count(), is( 3L ) );
+
+		QueryImpl<Integer> distinctQuery = new QueryImpl<Integer>(
+				"select distinct p.age from Person p where p.age >= ?1",
+				Integer.class,
+				(SessionImplementor) session,
+				consumerContext
+		);
+		distinctQuery.setParameter( 1, 0 );
+		assertThat( distinctQuery.count(), is( 3L ) );
+
+		// an aggregate query has a single result, however many rows it aggregates
+		QueryImpl<Integer> aggregateQuery = new QueryImpl<Integer>(
+				"select max(p.age) from Person p",
+				Integer.class,
+				(SessionImplementor) session,
+				consumerContext
+		);
+		assertThat( aggregateQuery.count(), is( 1L ) );
+
+		// both selected columns are named `name`; each needs its own alias in the derived table
+		QueryImpl<Object[]> pairQuery = new QueryImpl<Object[]>(
+				"select distinct p.name, p2.name from Person p, Person p2 where p.age = p2.age",
+				Object[].class,
+				(SessionImplementor) session,
+				consumerContext
+		);
+		// Steve-Steve, Gail-Gail and the 4 pairings of Andrea and Emmanuel
+		assertThat( pairQuery.count(), is( 6L ) );
+
+		session.close();
+	}
+
+	@Test
+	public void testFullStackIterate() throws SQLException {
+		final Session session = sessionFactory.openSession();
+		session.beginTransaction();
+		session.persist( new Person( 2, "Andrea", 30 ) );
+		session.persist( new Person( 3, "Gail", 35 ) );
+		session.getTransaction().commit();
+		session.clear();
+
+		// already in the persistence context; served from there
+		final Person steve = (Person) session.get( Person.class, 1 );
+
+		QueryImpl<Person> query = new QueryImpl<Person>(
+				"select p from Person p where p.age >= ?1",
+				Person.class,
+				(SessionImplementor) session,
+				consumerContext
+		);
+		query.setParameter( 1, 0 );
+
+		final List<String> names = new ArrayList<String>();
+		final Iterator<Person> results = query.iterate();
+		while ( results.hasNext() ) {
+			final Person person = results.next();
+			if ( person.id == 1 ) {
+				assertThat( person, sameInstance( steve ) );
+			}
+			names.add( person.name );
+		}
+		Collections.sort( names );
+		assertThat( names, is( Arrays.asList( "Andrea", "Gail", "Steve" ) ) );
+
+		session.close();
+	}
+
+	@Test
+	public void testFullStackExecuteUpdate() throws SQLException {
+		final Session session = sessionFactory.openSession();
+		session.beginTransaction();
+		session.persist( new Person( 2, "Andrea", 30 ) );
+		session.getTransaction().commit();
+
+		assertThat( listCached( session, 25 ), is( Arrays.asList( "Andrea" ) ) );
+
+		session.beginTransaction();
+		QueryImpl update = new QueryImpl(
+				"update Person p set p.age = ?1 where p.name = ?2",
+				(SessionImplementor) session,
+				consumerContext
+		);
+		update.setParameter( 1, 40 );
+		update.setParameter( 2, "Steve" );
+		assertThat( update.executeUpdate(), is( 1 ) );
+		session.getTransaction().commit();
+
+		// the update invalidated the cached results read from the table
+		final List<String> names = listCached( session, 25 );
+		Collections.sort( names );
+		assertThat( names, is( Arrays.asList( "Andrea", "Steve" ) ) );
+
+		session.beginTransaction();
+		QueryImpl delete = new QueryImpl(
+				"delete from Person p where p.age < ?1",
+				(SessionImplementor) session,
+				consumerContext
+		);
+		delete.setParameter( 1, 50 );
+		assertThat( delete.executeUpdate(), is( 2 ) );
+		session.getTransaction().commit();
+
+		assertThat( listCached( session, 0 ), is( Collections.<String>emptyList() ) );
+
+		session.close();
+	}
+
+	private QueryStatistics statistics(String queryString) {
+		for ( QueryStatistics statistics : consumerContext.getQueryPlanCache().getQueryStatistics() ) {
+			if ( statistics.getQueryString().equals( queryString ) ) {
+				return statistics;
+			}
+		}
+		throw new AssertionError( "No statistics for query : " + queryString );
+	}
+
+	private List<String> listCached(Session session, int minAge) {
+		QueryImpl<String> query = new QueryImpl<String>(
+				"select p.name from Person p where p.age >= :minAge",
+				String.class,
+				(SessionImplementor) session,
+				consumerContext
+		);
+		query.setCacheable( true );
+		query.setParameter( "minAge", minAge );
+		return query.list();
+	}
+
 	@Entity(name="Person")
 	public static class Person {
 		@Id
@@ -0,0 +1,117 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.sql.gen;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+
+import org.hibernate.QueryException;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.engine.jdbc.internal.FormatStyle;
+import org.hibernate.query.spi.QueryParameterBindings;
+import org.hibernate.sql.ast.KeysetPagination;
+import org.hibernate.sql.ast.SelectQuery;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Tests of the SQL rendered for the key restriction of keyset pagination (see
+ * {@link KeysetPagination}).  Uses a Dialect supporting row value constructors, so that both the
+ * row value and the expanded forms can be checked.
+ */
+public class KeysetPaginationTest extends BaseUnitTest {
+	@Override
+	protected void applySettings(StandardServiceRegistryBuilder serviceRegistryBuilder) {
+		serviceRegistryBuilder.applySetting( AvailableSettings.DIALECT, RowValueH2Dialect.class.getName() );
+	}
+
+	@Override
+	protected void applyMetadataSources(MetadataSources metadataSources) {
+		super.applyMetadataSources( metadataSources );
+		metadataSources.addAnnotatedClass( Person.class );
+	}
+
+	@Test
+	public void testFirstPageIsNotRestricted() {
+		final String sql = render( "select p.name from Person p order by p.age, p.id", false );
+
+		assertThat( sql, not( containsString( " where " ) ) );
+		// the key values are selected following the query's own selections
+		assertThat( sql, containsString( "p1.name" ) );
+		assertThat( sql, containsString( ", p1.age" ) );
+	}
+
+	@Test
+	public void testSingleKeyRestriction() {
+		final String sql = render( "select p.name from Person p order by p.id desc", true );
+
+		assertThat( sql, containsString( " where p1.id<?" ) );
+	}
+
+	@Test
+	public void testRowValueKeyRestriction() {
+		final String sql = render( "select p.name from Person p order by p.age, p.id", true );
+
+		assertThat( sql, containsString( " where (p1.age, p1.id)>(?, ?)" ) );
+	}
+
+	@Test
+	public void testExpandedKeyRestriction() {
+		// a row value comparison cannot express mixed directions
+		final String sql = render( "select p.name from Person p order by p.age desc, p.id", true );
+
+		assertThat( sql, containsString( " where (p1.age<?) or (p1.age=? and p1.id>?)" ) );
+	}
+
+	@Test
+	public void testKeyRestrictionFollowsWhereClause() {
+		final String sql = render( "select p.name from Person p where p.age > 20 or p.age < 10 order by p.age, p.id", true );
+
+		// the query's own restriction must not absorb the key restriction
+		assertThat( sql, containsString( " where (p1.age>? or p1.age<?) and ((p1.age, p1.id)>(?, ?))" ) );
+	}
+
+	@Test(expected = QueryException.class)
+	public void testOrderByIsRequired() {
+		render( "select p.name from Person p", false );
+	}
+
+	private String render(String query, boolean continuation) {
+		final SelectQuery sqlTree = interpretSelectQuery( query );
+		KeysetPagination.apply( sqlTree, continuation, getSessionFactory() );
+
+		final SqlTreeWalker sqlTreeWalker = new SqlTreeWalker( getSessionFactory(), new QueryParameterBindings() );
+		sqlTreeWalker.visitSelectQuery( sqlTree );
+
+		System.out.println( FormatStyle.BASIC.getFormatter().format( sqlTreeWalker.getSql() ) );
+
+		return sqlTreeWalker.getSql();
+	}
+
+	public static class RowValueH2Dialect extends H2Dialect {
+		@Override
+		public boolean supportsRowValueConstructorSyntax() {
+			return true;
+		}
+	}
+
+	@Entity(name="Person")
+	public static class Person {
+		@Id
+		Integer id;
+		String name;
+		int age;
+	}
+}
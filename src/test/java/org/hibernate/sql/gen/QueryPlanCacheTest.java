@@ -0,0 +1,107 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or http://www.gnu.org/licenses/lgpl-2.1.html
+ */
+package org.hibernate.sql.gen;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.query.internal.QueryOptionsImpl;
+import org.hibernate.query.spi.QueryParameterBindings;
+import org.hibernate.query.spi.QueryPlan;
+import org.hibernate.query.spi.QueryPlanCache;
+import org.hibernate.query.spi.QueryStage;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class QueryPlanCacheTest extends BaseUnitTest {
+	@Override
+	protected void applyMetadataSources(MetadataSources metadataSources) {
+		super.applyMetadataSources( metadataSources );
+		metadataSources.addAnnotatedClass( Person.class );
+	}
+
+	@Test
+	public void testPlanReuse() {
+		final QueryPlanCache cache = getConsumerContext().getQueryPlanCache();
+
+		final QueryPlan first = cache.resolveQueryPlan( "select p.name from Person p where p.age = :age", getConsumerContext() );
+		final QueryPlan second = cache.resolveQueryPlan( "select p.name from Person p where p.age = :age", getConsumerContext() );
+		final QueryPlan other = cache.resolveQueryPlan( "select p.age from Person p", getConsumerContext() );
+
+		assertThat( second, sameInstance( first ) );
+		assertThat( other, not( sameInstance( first ) ) );
+		assertThat( first.getQueryParameters().size(), is( 1 ) );
+
+		assertThat( cache.getHitCount(), is( 1L ) );
+		assertThat( cache.getMissCount(), is( 2L ) );
+		assertThat( cache.size(), is( 2 ) );
+	}
+
+	@Test
+	public void testPlanIsInterpretedLazily() {
+		final QueryPlanCache cache = getConsumerContext().getQueryPlanCache();
+
+		final QueryPlan plan = cache.resolveQueryPlan( "select p.name from Person p where p.age > :age", getConsumerContext() );
+		assertThat( plan.isInterpreted(), is( false ) );
+
+		assertThat( plan.getQueryParameters().size(), is( 1 ) );
+		assertThat( plan.isInterpreted(), is( true ) );
+
+		// the interpretation is shared by all users of the plan
+		final QueryPlan again = cache.resolveQueryPlan( "select p.name from Person p where p.age > :age", getConsumerContext() );
+		assertThat( again, sameInstance( plan ) );
+		assertThat( again.isInterpreted(), is( true ) );
+		assertThat( plan.getStatistics().getStageHistogram( QueryStage.SQM_INTERPRETATION ).getCount(), is( 1L ) );
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testPlanParametersAreImmutable() {
+		final QueryPlan plan = getConsumerContext().getQueryPlanCache().resolveQueryPlan(
+				"select p.name from Person p where p.age = :age",
+				getConsumerContext()
+		);
+		plan.getQueryParameters().clear();
+	}
+
+	@Test
+	public void testJdbcSelectPlanReuse() {
+		final QueryPlan plan = getConsumerContext().getQueryPlanCache().resolveQueryPlan(
+				"select p.name from Person p where p.age = :age",
+				getConsumerContext()
+		);
+		final QueryParameterBindings bindings = new QueryParameterBindings( plan.getQueryParameters() );
+		bindings.getNamedParameterBinding( "age" ).setBindValue( 20 );
+
+		final QueryOptionsImpl options = new QueryOptionsImpl();
+		final JdbcSelectPlan first = plan.resolveJdbcSelectPlan( options, bindings, getSessionFactory() );
+
+		bindings.getNamedParameterBinding( "age" ).setBindValue( 39 );
+		final JdbcSelectPlan second = plan.resolveJdbcSelectPlan( options, bindings, getSessionFactory() );
+		assertThat( second, sameInstance( first ) );
+		assertThat( first.getParameterBinders().size(), is( 1 ) );
+		assertThat( first.getReturns().size(), is( 1 ) );
+
+		// applying a limit changes the "shape"
+		options.getLimit().setMaxRows( 10 );
+		final JdbcSelectPlan limited = plan.resolveJdbcSelectPlan( options, bindings, getSessionFactory() );
+		assertThat( limited, not( sameInstance( first ) ) );
+	}
+
+	@Entity(name="Person")
+	public static class Person {
+		@Id
+		Integer id;
+		String name;
+		int age;
+	}
+}
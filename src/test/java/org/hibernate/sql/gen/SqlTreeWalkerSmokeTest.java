@@ -16,6 +16,7 @@ import java.util.Set;
 
 import org.hibernate.boot.MetadataSources;
 import org.hibernate.engine.jdbc.internal.FormatStyle;
+import org.hibernate.sql.ast.CountQuery;
 import org.hibernate.sql.ast.SelectQuery;
 import org.hibernate.query.spi.QueryParameterBindings;
 
@@ -23,6 +24,7 @@ import org.junit.Test;
 
 import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.junit.Assert.assertThat;
 
@@ -203,6 +205,48 @@ public class SqlTreeWalkerSmokeTest extends BaseUnitTest {
 		assertThat( sqlTreeWalker.getSql(), containsString( "r1.description" ) );
 	}
 
+	@Test
+	public void testSqlTreeWalkingCount() {
+		SqlTreeWalker sqlTreeWalker = new SqlTreeWalker( getSessionFactory(), new QueryParameterBindings() );
+		sqlTreeWalker.visitCountQuery( CountQuery.from( interpretSelectQuery( "select p.name from Person p order by p.name" ) ) );
+
+		System.out.println( FormatStyle.BASIC.getFormatter().format( sqlTreeWalker.getSql() ) );
+
+		assertThat( sqlTreeWalker.getSql(), containsString( "select count(*) from" ) );
+		assertThat( sqlTreeWalker.getSql(), not( containsString( "order by" ) ) );
+		assertThat( sqlTreeWalker.getReturns().size(), is(1) );
+
+		// the derived table's columns are aliased, so same-named columns do not collide
+		sqlTreeWalker = new SqlTreeWalker( getSessionFactory(), new QueryParameterBindings() );
+		sqlTreeWalker.visitCountQuery( CountQuery.from( interpretSelectQuery( "select distinct p.name, p2.name from Person p, Person p2" ) ) );
+
+		System.out.println( FormatStyle.BASIC.getFormatter().format( sqlTreeWalker.getSql() ) );
+
+		assertThat( sqlTreeWalker.getSql(), containsString( "select count(*) from (select distinct " ) );
+		assertThat( sqlTreeWalker.getSql(), containsString( " as col_0_, " ) );
+		assertThat( sqlTreeWalker.getSql(), containsString( " as col_1_ from " ) );
+		assertThat( sqlTreeWalker.getReturns().size(), is(1) );
+
+		sqlTreeWalker = new SqlTreeWalker( getSessionFactory(), new QueryParameterBindings() );
+		sqlTreeWalker.visitCountQuery( CountQuery.from( interpretSelectQuery( "select max(p.age) from Person p" ) ) );
+
+		assertThat( sqlTreeWalker.getSql(), containsString( "select count(*) from (select max(" ) );
+	}
+
+	@Test
+	public void testSqlTreeWalkingOrderBy() {
+		SelectQuery sqlTree = interpretSelectQuery( "select p.name, p.age from Person p order by p.name desc, p.id" );
+		SqlTreeWalker sqlTreeWalker = new SqlTreeWalker( getSessionFactory(), new QueryParameterBindings() );
+		sqlTreeWalker.visitSelectQuery( sqlTree );
+
+		System.out.println( FormatStyle.BASIC.getFormatter().format( sqlTreeWalker.getSql() ) );
+
+		// the selected expression is referenced by alias, the non-selected one is rendered
+		assertThat( sqlTreeWalker.getSql(), containsString( " as col_0_0_" ) );
+		assertThat( sqlTreeWalker.getSql(), containsString( " order by col_0_0_ desc, p1.id" ) );
+		assertThat( sqlTreeWalker.getSql(), not( containsString( "col_1_0_" ) ) );
+	}
+
 	@Entity(name="Person")
 	public static class Person {
 		@Id
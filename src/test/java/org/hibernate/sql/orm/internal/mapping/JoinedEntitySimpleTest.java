@@ -10,6 +10,7 @@ import javax.persistence.Entity;
 import javax.persistence.Id;
 import javax.persistence.Inheritance;
 import javax.persistence.InheritanceType;
+import javax.persistence.ManyToOne;
 import javax.persistence.Table;
 
 import org.hibernate.boot.MetadataSources;
@@ -17,18 +18,24 @@ import org.hibernate.persister.common.internal.PhysicalTable;
 import org.hibernate.persister.entity.JoinedSubclassEntityPersister;
 import org.hibernate.persister.entity.spi.ImprovedEntityPersister;
 import org.hibernate.sql.ast.QuerySpec;
+import org.hibernate.sql.ast.SelectQuery;
 import org.hibernate.sql.ast.from.EntityTableGroup;
 import org.hibernate.sql.ast.from.TableBinding;
+import org.hibernate.sql.ast.from.TableJoin;
+import org.hibernate.sql.ast.from.TableSpace;
 import org.hibernate.sql.gen.BaseUnitTest;
 import org.hibernate.sql.gen.internal.FromClauseIndex;
 import org.hibernate.sql.gen.internal.SqlAliasBaseManager;
+import org.hibernate.sqm.query.JoinType;
 import org.hibernate.sqm.query.SelectStatement;
 
 import org.junit.Test;
 
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.hamcrest.MatcherAssert.assertThat;
 
 /**
@@ -176,14 +183,114 @@ public class JoinedEntitySimpleTest extends BaseUnitTest {
 		assertThat( secondSubclassTableBinding.getIdentificationVariable(), equalTo( "j1_1" ) );
 	}
 
+	@Test
+	public void testSubclassTableJoinsPruned() {
+		SelectStatement sqm = (SelectStatement) interpret( "from JoinedEntityBase" );
+
+		final ImprovedEntityPersister basePersister =
+				(ImprovedEntityPersister) getConsumerContext().getDomainMetamodel().resolveEntityType( "JoinedEntityBase" );
+		final ImprovedEntityPersister leafPersister =
+				(ImprovedEntityPersister) getConsumerContext().getDomainMetamodel().resolveEntityType( "JoinedEntityLeaf" );
+
+		final QuerySpec querySpec = new QuerySpec();
+		final EntityTableGroup result = basePersister.buildTableGroup(
+				sqm.getQuerySpec().getFromClause().getFromElementSpaces().get( 0 ).getRoot(),
+				querySpec.getFromClause().makeTableSpace(),
+				new SqlAliasBaseManager(),
+				new FromClauseIndex()
+		);
+
+		// the subclass tables are joined only if needed
+		assertThat( result.getTableJoins().size(), equalTo( 2 ) );
+		for ( TableJoin tableJoin : result.getTableJoins() ) {
+			assertThat( tableJoin.isOptional(), is( true ) );
+			assertThat( tableJoin.isRendered(), is( false ) );
+			assertThat( tableJoin.getJoinType(), is( JoinType.LEFT ) );
+		}
+
+		// TREAT( .. as JoinedEntityLeaf ) needs both subclass tables, which can then be inner joined
+		result.applyTreat( leafPersister );
+		for ( TableJoin tableJoin : result.getTableJoins() ) {
+			assertThat( tableJoin.isRendered(), is( true ) );
+			assertThat( tableJoin.getJoinType(), is( JoinType.INNER ) );
+		}
+	}
+
+	@Test
+	public void testClassTableJoinsRequired() {
+		SelectStatement sqm = (SelectStatement) interpret( "from JoinedEntityLeaf" );
+
+		final ImprovedEntityPersister improvedEntityPersister =
+				(ImprovedEntityPersister) getConsumerContext().getDomainMetamodel().resolveEntityType( "JoinedEntityLeaf" );
+
+		final QuerySpec querySpec = new QuerySpec();
+		final EntityTableGroup result = improvedEntityPersister.buildTableGroup(
+				sqm.getQuerySpec().getFromClause().getFromElementSpaces().get( 0 ).getRoot(),
+				querySpec.getFromClause().makeTableSpace(),
+				new SqlAliasBaseManager(),
+				new FromClauseIndex()
+		);
+
+		// all tables hold state for the leaf entity
+		assertThat( result.getTableJoins().size(), equalTo( 2 ) );
+		for ( TableJoin tableJoin : result.getTableJoins() ) {
+			assertThat( tableJoin.isOptional(), is( false ) );
+			assertThat( tableJoin.isRendered(), is( true ) );
+			assertThat( tableJoin.getJoinType(), is( JoinType.INNER ) );
+			assertThat( tableJoin.getJoinPredicate(), notNullValue() );
+		}
+	}
+
+	@Test
+	public void testTreatedJoin() {
+		final ImprovedEntityPersister basePersister =
+				(ImprovedEntityPersister) getConsumerContext().getDomainMetamodel().resolveEntityType( "JoinedEntityBase" );
+
+		// without a TREAT, the subclass tables of the joined entity are not needed
+		EntityTableGroup joinedGroup = joinedGroup(
+				interpretSelectQuery( "select h.id from JoinedEntityHolder h join h.entity e" )
+		);
+		assertThat( joinedGroup.getPersister(), sameInstance( basePersister ) );
+		for ( TableJoin tableJoin : joinedGroup.getTableJoins() ) {
+			assertThat( tableJoin.isRendered(), is( false ) );
+		}
+
+		// TREAT( .. as JoinedEntityLeaf ) restricts the group (built for the declared type) to the
+		// leaf's rows by inner joining its tables
+		joinedGroup = joinedGroup(
+				interpretSelectQuery( "select h.id from JoinedEntityHolder h join treat(h.entity as JoinedEntityLeaf) e" )
+		);
+		assertThat( joinedGroup.getPersister(), sameInstance( basePersister ) );
+		assertThat( joinedGroup.getTableJoins().size(), equalTo( 2 ) );
+		for ( TableJoin tableJoin : joinedGroup.getTableJoins() ) {
+			assertThat( tableJoin.isRendered(), is( true ) );
+			assertThat( tableJoin.getJoinType(), is( JoinType.INNER ) );
+		}
+	}
+
+	private static EntityTableGroup joinedGroup(SelectQuery selectQuery) {
+		final TableSpace tableSpace = selectQuery.getQuerySpec().getFromClause().getTableSpaces().get( 0 );
+		assertThat( tableSpace.getJoinedTableGroups().size(), equalTo( 1 ) );
+		return (EntityTableGroup) tableSpace.getJoinedTableGroups().get( 0 ).getJoinedGroup();
+	}
 
 	@Override
 	protected void applyMetadataSources(MetadataSources metadataSources) {
+		metadataSources.addAnnotatedClass( JoinedEntityHolder.class );
 		metadataSources.addAnnotatedClass( JoinedEntityBase.class );
 		metadataSources.addAnnotatedClass( JoinedEntityBranch.class );
 		metadataSources.addAnnotatedClass( JoinedEntityLeaf.class );
 	}
 
+	@Entity( name = "JoinedEntityHolder" )
+	@Table( name = "joined_entity_holder" )
+	public static class JoinedEntityHolder {
+		@Id
+		public Integer id;
+		@ManyToOne
+		public JoinedEntityBase entity;
+	}
+
 	@Entity( name = "JoinedEntityBase" )
 	@Table( name = "joined_entity_base" )
 	@Inheritance( strategy = InheritanceType.JOINED )
@@ -0,0 +1,200 @@
+/*
+ * Hibernate, Relational Persistence for Idiomatic Java
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later.
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.sql.orm.internal.mapping;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import javax.persistence.Embeddable;
+import javax.persistence.Embedded;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Inheritance;
+import javax.persistence.InheritanceType;
+import javax.persistence.ManyToOne;
+import javax.persistence.SecondaryTable;
+import javax.persistence.Table;
+
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.common.internal.DomainMetamodelImpl;
+import org.hibernate.persister.common.internal.PersisterFactoryImpl;
+import org.hibernate.persister.common.spi.AbstractAttributeImpl;
+import org.hibernate.persister.common.spi.AbstractTable;
+import org.hibernate.persister.common.spi.Column;
+import org.hibernate.persister.common.spi.SingularAttributeImplementor;
+import org.hibernate.persister.entity.internal.ImprovedEntityPersisterImpl;
+import org.hibernate.persister.internal.PersisterFactoryInitiator;
+import org.hibernate.query.internal.ConsumerContextImpl;
+import org.hibernate.sqm.domain.DomainMetamodel;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Asserts that building the {@link DomainMetamodelImpl} serially and in parallel
+ * (see {@link DomainMetamodelImpl#BOOTSTRAP_PARALLELISM}) produces the same tables,
+ * columns and attribute layouts.
+ */
+public class MetamodelBootstrapParallelismTest {
+	private static final Class[] ENTITIES = new Class[] {
+			JoinedBase.class,
+			JoinedSub1.class,
+			JoinedSub2.class,
+			SecondaryTableEntity.class,
+			UnionBase.class,
+			UnionSub.class,
+			Owner.class,
+			Owned.class
+	};
+
+	@Test
+	public void testSerialAndParallelBootstrapAgree() {
+		final List<String> serial = buildFingerprint( "1" );
+		final List<String> parallel = buildFingerprint( "4" );
+
+		assertThat( parallel, equalTo( serial ) );
+	}
+
+	private List<String> buildFingerprint(String parallelism) {
+		final StandardServiceRegistry ssr = new StandardServiceRegistryBuilder()
+				.applySetting( PersisterFactoryInitiator.IMPL_NAME, PersisterFactoryImpl.INSTANCE )
+				.applySetting( DomainMetamodelImpl.BOOTSTRAP_PARALLELISM, parallelism )
+				.build();
+
+		final SessionFactoryImplementor sessionFactory;
+		try {
+			final MetadataSources metadataSources = new MetadataSources( ssr );
+			for ( Class entity : ENTITIES ) {
+				metadataSources.addAnnotatedClass( entity );
+			}
+			sessionFactory = (SessionFactoryImplementor) metadataSources.buildMetadata().buildSessionFactory();
+		}
+		catch (RuntimeException e) {
+			StandardServiceRegistryBuilder.destroy( ssr );
+			throw e;
+		}
+
+		try {
+			final DomainMetamodel domainMetamodel = new ConsumerContextImpl( sessionFactory ).getDomainMetamodel();
+
+			final List<String> fingerprint = new ArrayList<String>();
+			for ( Class entity : ENTITIES ) {
+				final ImprovedEntityPersisterImpl persister =
+						(ImprovedEntityPersisterImpl) domainMetamodel.resolveEntityType( entity.getSimpleName() );
+
+				fingerprint.add( "entity " + persister.getTypeName() );
+				fingerprint.add( "  root table " + persister.getRootTable().getTableExpression() );
+				for ( AbstractTable table : persister.getClassTables() ) {
+					fingerprint.add( "  table " + table.getTableExpression() );
+					for ( Column column : table.getColumns() ) {
+						fingerprint.add( "    column " + describe( column ) );
+					}
+				}
+				for ( Column column : persister.getIdentifierDescriptor().getColumns() ) {
+					fingerprint.add( "  id " + describe( column ) );
+				}
+
+				final Map<String, AbstractAttributeImpl> attributes =
+						new TreeMap<String, AbstractAttributeImpl>( persister.getAttributeMap() );
+				for ( Map.Entry<String, AbstractAttributeImpl> entry : attributes.entrySet() ) {
+					fingerprint.add( "  attribute " + entry.getKey() + " : " + entry.getValue().getClass().getSimpleName() );
+					if ( entry.getValue() instanceof SingularAttributeImplementor ) {
+						for ( Column column : ( (SingularAttributeImplementor) entry.getValue() ).getColumns() ) {
+							fingerprint.add( "    column " + describe( column ) );
+						}
+					}
+				}
+			}
+			return fingerprint;
+		}
+		finally {
+			sessionFactory.close();
+		}
+	}
+
+	private static String describe(Column column) {
+		return column.getSourceTable().getTableExpression() + "." + column.toLoggableString()
+				+ " (" + column.getJdbcType() + ")";
+	}
+
+	@Entity( name = "JoinedBase" )
+	@Table( name = "joined_base" )
+	@Inheritance( strategy = InheritanceType.JOINED )
+	public static class JoinedBase {
+		@Id
+		public Integer id;
+		public String name;
+	}
+
+	@Entity( name = "JoinedSub1" )
+	@Table( name = "joined_sub1" )
+	public static class JoinedSub1 extends JoinedBase {
+		public String sub1Value;
+	}
+
+	@Entity( name = "JoinedSub2" )
+	@Table( name = "joined_sub2" )
+	public static class JoinedSub2 extends JoinedBase {
+		public Integer sub2Value;
+		@ManyToOne
+		public Owner owner;
+	}
+
+	@Entity( name = "SecondaryTableEntity" )
+	@Table( name = "primary_table" )
+	@SecondaryTable( name = "secondary_table" )
+	public static class SecondaryTableEntity {
+		@Id
+		public Integer id;
+		public String name;
+		@javax.persistence.Column( table = "secondary_table" )
+		public String secondaryValue;
+	}
+
+	@Entity( name = "UnionBase" )
+	@Inheritance( strategy = InheritanceType.TABLE_PER_CLASS )
+	public static class UnionBase {
+		@Id
+		public Integer id;
+		public String name;
+	}
+
+	@Entity( name = "UnionSub" )
+	public static class UnionSub extends UnionBase {
+		public String subValue;
+	}
+
+	@Entity( name = "Owner" )
+	public static class Owner {
+		@Id
+		public Integer id;
+		@Embedded
+		public Address address;
+	}
+
+	@Entity( name = "Owned" )
+	public static class Owned {
+		@Id
+		public Integer id;
+		@ManyToOne
+		public Owner owner;
+		@ManyToOne
+		public JoinedBase joined;
+	}
+
+	@Embeddable
+	public static class Address {
+		public String street;
+		public String city;
+	}
+}